@@ -0,0 +1,45 @@
+package com.oxygenxml.git.benchmark;
+
+import org.mockito.Mockito;
+
+import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.TestWsOptionsStorage;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.options.WSOptionsStorage;
+import ro.sync.exml.workspace.api.standalone.StandalonePluginWorkspace;
+import ro.sync.exml.workspace.api.standalone.project.ProjectController;
+import ro.sync.exml.workspace.api.util.ColorTheme;
+
+/**
+ * Installs a minimal plugin workspace, enough for the benchmarked code to run outside Oxygen.
+ */
+public class BenchmarkWorkspace {
+
+  /**
+   * Hidden constructor.
+   */
+  private BenchmarkWorkspace() {
+    // Nothing
+  }
+
+  /**
+   * Installs the workspace and loads the default options.
+   */
+  public static void install() {
+    ColorTheme colorTheme = Mockito.mock(ColorTheme.class);
+    Mockito.when(colorTheme.isDarkTheme()).thenReturn(false);
+
+    StandalonePluginWorkspace pluginWS = Mockito.mock(StandalonePluginWorkspace.class);
+    Mockito.when(pluginWS.getColorTheme()).thenReturn(colorTheme);
+
+    ProjectController projectCtrl = Mockito.mock(ProjectController.class);
+    Mockito.when(pluginWS.getProjectManager()).thenReturn(projectCtrl);
+
+    WSOptionsStorage wsOptions = new TestWsOptionsStorage();
+    Mockito.when(pluginWS.getOptionsStorage()).thenReturn(wsOptions);
+
+    PluginWorkspaceProvider.setPluginWorkspace(pluginWS);
+    OptionsManager.getInstance().loadOptions(wsOptions);
+  }
+}
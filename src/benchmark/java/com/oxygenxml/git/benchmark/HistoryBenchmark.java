@@ -0,0 +1,114 @@
+package com.oxygenxml.git.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.view.history.CommitCharacteristics;
+import com.oxygenxml.git.view.history.CommitsAheadAndBehind;
+import com.oxygenxml.git.view.history.RenameTracker;
+
+/**
+ * Measures the computations done by the history view.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HistoryBenchmark {
+
+  /**
+   * The history of the whole repository.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The revisions.
+   * 
+   * @throws IOException If it fails.
+   */
+  @Benchmark
+  public List<CommitCharacteristics> collectRepositoryRevisions(RepositoryState state) throws IOException {
+    List<CommitCharacteristics> revisions = new ArrayList<>();
+    RevCommitUtil.collectCurrentBranchRevisions(null, revisions, state.repository.getRepository(), null);
+    return revisions;
+  }
+
+  /**
+   * The history of a file that was renamed many times.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The revisions.
+   * 
+   * @throws IOException If it fails.
+   */
+  @Benchmark
+  public List<CommitCharacteristics> collectFileRevisions(RepositoryState state) throws IOException {
+    List<CommitCharacteristics> revisions = new ArrayList<>();
+    RevCommitUtil.collectCurrentBranchRevisions(
+        state.repository.getRenamedFilePath(state.renameDepth),
+        revisions,
+        state.repository.getRepository(),
+        new RenameTracker());
+    return revisions;
+  }
+
+  /**
+   * The files changed by the newest commit.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The changed files.
+   * 
+   * @throws IOException If it fails.
+   * @throws GitAPIException If it fails.
+   */
+  @Benchmark
+  public List<FileStatus> getChangedFilesOfTip(RepositoryState state) throws IOException, GitAPIException {
+    List<RevCommit> commits = state.repository.getCommits();
+    return RevCommitUtil.getChangedFiles(commits.get(commits.size() - 1).getName());
+  }
+
+  /**
+   * The files of the initial commit. All the files in the repository are listed.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The changed files.
+   * 
+   * @throws IOException If it fails.
+   * @throws GitAPIException If it fails.
+   */
+  @Benchmark
+  public List<FileStatus> getChangedFilesOfRoot(RepositoryState state) throws IOException, GitAPIException {
+    return RevCommitUtil.getChangedFiles(state.repository.getCommits().get(0).getName());
+  }
+
+  /**
+   * The commits ahead and behind the remote-tracking branch.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The commits.
+   * 
+   * @throws IOException If it fails.
+   */
+  @Benchmark
+  public CommitsAheadAndBehind getCommitsAheadAndBehind(RepositoryState state) throws IOException {
+    return RevCommitUtil.getCommitsAheadAndBehind(state.repository.getRepository(), SyntheticRepository.BRANCH);
+  }
+}
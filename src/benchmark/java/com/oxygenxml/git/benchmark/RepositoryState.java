@@ -0,0 +1,73 @@
+package com.oxygenxml.git.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.jgit.api.Git;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.oxygenxml.git.service.GitAccess;
+
+/**
+ * A generated repository, loaded in {@link GitAccess}. The scale is controlled through the JMH parameters,
+ * for example: <code>-p fileCount=40000 -p commitCount=10000</code>.
+ */
+@State(Scope.Benchmark)
+public class RepositoryState {
+  /**
+   * The number of files in the repository.
+   */
+  @Param({"1000", "10000"})
+  public int fileCount;
+  /**
+   * The number of commits on the current branch.
+   */
+  @Param({"500"})
+  public int commitCount;
+  /**
+   * The number of branches and tags.
+   */
+  @Param({"100"})
+  public int refCount;
+  /**
+   * How many times a file gets renamed along the history.
+   */
+  @Param({"20"})
+  public int renameDepth;
+  /**
+   * The generated repository.
+   */
+  public SyntheticRepository repository;
+
+  /**
+   * Generates the repository and loads it.
+   *
+   * @throws Exception If it fails.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    BenchmarkWorkspace.install();
+
+    File root = new File("target/benchmark/" 
+        + fileCount + "_" + commitCount + "_" + refCount + "_" + renameDepth);
+    repository = SyntheticRepository.generate(root, fileCount, commitCount, refCount, renameDepth);
+
+    GitAccess.getInstance().setGit(Git.wrap(repository.getRepository()));
+  }
+
+  /**
+   * Unloads and deletes the repository.
+   *
+   * @throws IOException If it fails.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    GitAccess.getInstance().setGit(null);
+    repository.close();
+  }
+}
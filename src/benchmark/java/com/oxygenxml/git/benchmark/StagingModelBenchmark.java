@@ -0,0 +1,119 @@
+package com.oxygenxml.git.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.tree.DefaultTreeModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.GitTreeNode;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
+import com.oxygenxml.git.view.staging.StagingResourcesTreeModel;
+import com.oxygenxml.git.view.util.TreeUtil;
+
+/**
+ * Measures the tree models used by the staging area. No repository is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StagingModelBenchmark {
+  
+  /**
+   * The resources presented in the staging area.
+   */
+  @State(Scope.Benchmark)
+  public static class Resources {
+    /**
+     * The number of changed resources.
+     */
+    @Param({"1000", "10000"})
+    public int fileCount;
+    /**
+     * The changed resources.
+     */
+    public List<FileStatus> files;
+    /**
+     * A tenth of the changed resources.
+     */
+    public List<String> discarded;
+
+    /**
+     * Creates the resources.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+      BenchmarkWorkspace.install();
+
+      files = new ArrayList<>(fileCount);
+      discarded = new ArrayList<>();
+      for (int i = 0; i < fileCount; i++) {
+        String path = "topic_" + (i % 50) + "/sub_" + (i % 7) + "/file_" + i + ".xml";
+        files.add(new FileStatus(GitChangeType.MODIFIED, path));
+        if (i % 10 == 0) {
+          discarded.add(path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a tree from all the paths.
+   * 
+   * @param resources The resources.
+   * 
+   * @return The tree model.
+   */
+  @Benchmark
+  public DefaultTreeModel buildTreeFromString(Resources resources) {
+    DefaultTreeModel model = new DefaultTreeModel(new GitTreeNode(""));
+    for (FileStatus file : resources.files) {
+      TreeUtil.buildTreeFromString(model, file.getFileLocation());
+    }
+    return model;
+  }
+
+  /**
+   * Populates the staging model.
+   * 
+   * @param resources The resources.
+   * 
+   * @return The model.
+   */
+  @Benchmark
+  public StagingResourcesTreeModel createModel(Resources resources) {
+    return new StagingResourcesTreeModel(null, "wc", false, resources.files);
+  }
+
+  /**
+   * Populates the staging model and removes a tenth of the resources, as a discard does.
+   * 
+   * @param resources The resources.
+   * 
+   * @return The model.
+   */
+  @Benchmark
+  public StagingResourcesTreeModel updateModel(Resources resources) {
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "wc", false, resources.files);
+    model.fileStatesChanged(new FileGitEventInfo(GitOperation.DISCARD, resources.discarded));
+    return model;
+  }
+}
@@ -0,0 +1,37 @@
+package com.oxygenxml.git.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitStatus;
+
+/**
+ * Measures the working copy status computation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StatusBenchmark {
+
+  /**
+   * {@link GitAccess#getStatus()} on a dirty working copy.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The status.
+   */
+  @Benchmark
+  public GitStatus getStatus(RepositoryState state) {
+    return GitAccess.getInstance().getStatus();
+  }
+}
@@ -0,0 +1,343 @@
+package com.oxygenxml.git.benchmark;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.TestRepository.BranchBuilder;
+import org.eclipse.jgit.junit.TestRepository.CommitBuilder;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteConfig;
+import org.eclipse.jgit.transport.URIish;
+
+/**
+ * Generates a repository of a given scale, together with a bare "remote" repository
+ * to which it is bound. The generated history has:
+ * <ul>
+ * <li>an initial commit with <code>fileCount</code> files spread over a folder hierarchy;</li>
+ * <li><code>commitCount</code> commits, each of them changing a few files;</li>
+ * <li>a file renamed <code>renameDepth</code> times along the history;</li>
+ * <li><code>refCount</code> references: branches, annotated tags and lightweight tags;</li>
+ * <li>a remote-tracking branch that is both ahead and behind the local one;</li>
+ * <li>a dirty working tree (modified and untracked files).</li>
+ * </ul>
+ */
+public class SyntheticRepository implements Closeable {
+  /**
+   * The name of the generated branch.
+   */
+  public static final String BRANCH = "main";
+  /**
+   * Number of top level folders.
+   */
+  private static final int TOP_FOLDERS = 50;
+  /**
+   * Number of sub-folders inside a top level folder.
+   */
+  private static final int SUB_FOLDERS = 7;
+  /**
+   * Number of files changed by each commit.
+   */
+  private static final int FILES_PER_COMMIT = 3;
+  /**
+   * Number of commits on the remote-tracking branch that are not in the local branch.
+   */
+  private static final int COMMITS_BEHIND = 5;
+  /**
+   * Ratio between all the files and the ones modified in the working tree.
+   */
+  private static final int DIRTY_RATIO = 100;
+  /**
+   * The location where the repositories are generated.
+   */
+  private final File root;
+  /**
+   * The generated repository.
+   */
+  private final Repository repository;
+  /**
+   * The bare repository to which the generated one is bound.
+   */
+  private final Repository remote;
+  /**
+   * The commits of the local branch, from oldest to newest.
+   */
+  private final List<RevCommit> commits;
+  /**
+   * The paths of all the files from the initial commit.
+   */
+  private final List<String> paths;
+
+  /**
+   * Constructor.
+   *
+   * @param root       The location where the repositories were generated.
+   * @param repository The generated repository.
+   * @param remote     The bare repository to which the generated one is bound.
+   * @param commits    The commits of the local branch, from oldest to newest.
+   * @param paths      The paths of all the files from the initial commit.
+   */
+  private SyntheticRepository(File root, Repository repository, Repository remote, List<RevCommit> commits, List<String> paths) {
+    this.root = root;
+    this.repository = repository;
+    this.remote = remote;
+    this.commits = commits;
+    this.paths = paths;
+  }
+
+  /**
+   * Generates a repository.
+   *
+   * @param root        An empty directory in which to generate.
+   * @param fileCount   The number of files.
+   * @param commitCount The number of commits.
+   * @param refCount    The number of branches and tags.
+   * @param renameDepth How many times a file is renamed along the history.
+   *
+   * @return The generated repository.
+   *
+   * @throws Exception If it fails.
+   */
+  public static SyntheticRepository generate(
+      File root,
+      int fileCount,
+      int commitCount,
+      int refCount,
+      int renameDepth) throws Exception {
+    FileUtils.deleteDirectory(root);
+
+    File remoteDir = new File(root, "remote.git");
+    Repository remote = new FileRepositoryBuilder().setGitDir(remoteDir).setBare().build();
+    remote.create(true);
+
+    File wc = new File(root, "wc");
+    Repository repository = new FileRepositoryBuilder().setGitDir(new File(wc, Constants.DOT_GIT)).build();
+    repository.create();
+    configure(repository, remoteDir);
+
+    List<String> paths = new ArrayList<>(fileCount);
+    for (int i = 0; i < fileCount; i++) {
+      paths.add(pathOf(i));
+    }
+
+    List<RevCommit> commits = new ArrayList<>(commitCount);
+    try (TestRepository<Repository> testRepository = new TestRepository<>(repository)) {
+      BranchBuilder branch = testRepository.branch(Constants.R_HEADS + BRANCH);
+
+      CommitBuilder initial = branch.commit().message("Initial commit");
+      for (String path : paths) {
+        initial.add(path, contentOf(path, 0));
+      }
+      initial.add(renamedPathOf(0), "The renamed file");
+      commits.add(initial.create());
+
+      for (int c = 1; c < commitCount; c++) {
+        CommitBuilder commit = branch.commit().message("Commit " + c + "\n\nChanges a few files.");
+        for (int f = 0; f < FILES_PER_COMMIT && fileCount > 0; f++) {
+          String path = paths.get((c * 31 + f * 7) % fileCount);
+          commit.add(path, contentOf(path, c));
+        }
+        if (c <= renameDepth) {
+          commit.rm(renamedPathOf(c - 1)).add(renamedPathOf(c), "The renamed file");
+        }
+        commits.add(commit.create());
+      }
+
+      Git.wrap(repository).push()
+        .setRemote(Constants.DEFAULT_REMOTE_NAME)
+        .add(BRANCH)
+        .call();
+
+      createRefs(testRepository, commits, refCount);
+
+      Git.wrap(repository).push()
+        .setRemote(Constants.DEFAULT_REMOTE_NAME)
+        .setPushTags()
+        .call();
+
+      createDivergence(testRepository, commits);
+    }
+
+    RefUpdate headUpdate = repository.updateRef(Constants.HEAD);
+    headUpdate.link(Constants.R_HEADS + BRANCH);
+    Git.wrap(repository).reset().setMode(ResetType.HARD).call();
+
+    dirtyWorkingTree(wc, paths);
+
+    return new SyntheticRepository(root, repository, remote, commits, paths);
+  }
+
+  /**
+   * Binds the repository to the remote one and tracks the remote branch.
+   *
+   * @param repository The repository.
+   * @param remoteDir  The remote repository location.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void configure(Repository repository, File remoteDir) throws Exception {
+    StoredConfig config = repository.getConfig();
+    RemoteConfig remoteConfig = new RemoteConfig(config, Constants.DEFAULT_REMOTE_NAME);
+    remoteConfig.addURI(new URIish(remoteDir.toURI().toURL()));
+    remoteConfig.addFetchRefSpec(new RefSpec("+refs/heads/*:refs/remotes/origin/*"));
+    remoteConfig.update(config);
+
+    config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, BRANCH, ConfigConstants.CONFIG_KEY_REMOTE, Constants.DEFAULT_REMOTE_NAME);
+    config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, BRANCH, ConfigConstants.CONFIG_KEY_MERGE, Constants.R_HEADS + BRANCH);
+    config.setString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_KEY_AUTOCRLF, "false");
+    config.save();
+  }
+
+  /**
+   * Creates branches and tags on commits spread along the history.
+   *
+   * @param testRepository The repository builder.
+   * @param commits        The commits.
+   * @param refCount       The number of references to create.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void createRefs(TestRepository<Repository> testRepository, List<RevCommit> commits, int refCount) throws Exception {
+    for (int i = 0; i < refCount; i++) {
+      RevCommit target = commits.get((int) ((long) i * commits.size() / Math.max(refCount, 1)));
+      switch (i % 3) {
+        case 0:
+          testRepository.update(Constants.R_HEADS + "feature_" + i, target);
+          break;
+        case 1:
+          testRepository.update(Constants.R_TAGS + "annotated_" + i, testRepository.tag("annotated_" + i, target));
+          break;
+        default:
+          testRepository.update(Constants.R_TAGS + "light_" + i, target);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Makes the remote-tracking branch diverge from the local one: the local branch will be ahead
+   * and the remote one will have commits not yet pulled.
+   *
+   * @param testRepository The repository builder.
+   * @param commits        The commits of the local branch.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void createDivergence(TestRepository<Repository> testRepository, List<RevCommit> commits) throws Exception {
+    RevCommit forkPoint = commits.get(commits.size() * 3 / 4);
+    RevCommit remoteTip = forkPoint;
+    for (int i = 0; i < COMMITS_BEHIND; i++) {
+      remoteTip = testRepository.commit()
+          .parent(remoteTip)
+          .add("incoming/file_" + i + ".xml", "<topic id=\"incoming" + i + "\"/>")
+          .message("Incoming " + i)
+          .create();
+    }
+    testRepository.update(Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + BRANCH, remoteTip);
+  }
+
+  /**
+   * Modifies some of the files and creates some untracked ones.
+   *
+   * @param wc    The working tree.
+   * @param paths The tracked paths.
+   *
+   * @throws IOException If it fails.
+   */
+  private static void dirtyWorkingTree(File wc, List<String> paths) throws IOException {
+    for (int i = 0; i < paths.size(); i += DIRTY_RATIO) {
+      File file = new File(wc, paths.get(i));
+      Files.write(file.toPath(), "<topic id=\"dirty\"/>".getBytes(StandardCharsets.UTF_8));
+
+      File untracked = new File(file.getParentFile(), "untracked_" + i + ".xml");
+      Files.write(untracked.toPath(), "<topic id=\"untracked\"/>".getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * @param index File index.
+   *
+   * @return The path of the file with the given index.
+   */
+  private static String pathOf(int index) {
+    return "topic_" + (index % TOP_FOLDERS) + "/sub_" + (index % SUB_FOLDERS) + "/file_" + index + ".xml";
+  }
+
+  /**
+   * @param depth The rename depth.
+   *
+   * @return The path of the renamed file at the given depth.
+   */
+  private static String renamedPathOf(int depth) {
+    return "renamed/depth_" + depth + "/renamed_" + depth + ".xml";
+  }
+
+  /**
+   * @param path     File path.
+   * @param revision Revision number.
+   *
+   * @return Some file content.
+   */
+  private static String contentOf(String path, int revision) {
+    return "<topic id=\"" + path.replace('/', '_') + "\">\n  <title>Revision " + revision + "</title>\n</topic>\n";
+  }
+
+  /**
+   * @return The generated repository.
+   */
+  public Repository getRepository() {
+    return repository;
+  }
+
+  /**
+   * @return The working tree location.
+   */
+  public File getWorkTree() {
+    return repository.getWorkTree();
+  }
+
+  /**
+   * @return The commits of the local branch, from oldest to newest.
+   */
+  public List<RevCommit> getCommits() {
+    return commits;
+  }
+
+  /**
+   * @return The paths of all the files from the initial commit.
+   */
+  public List<String> getPaths() {
+    return paths;
+  }
+
+  /**
+   * @param renameDepth How many times the file was renamed.
+   * 
+   * @return The path of the renamed file, as present in the newest revision.
+   */
+  public String getRenamedFilePath(int renameDepth) {
+    return renamedPathOf(Math.min(renameDepth, commits.size() - 1));
+  }
+
+  @Override
+  public void close() throws IOException {
+    repository.close();
+    remote.close();
+    FileUtils.deleteDirectory(root);
+  }
+}
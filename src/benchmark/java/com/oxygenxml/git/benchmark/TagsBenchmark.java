@@ -0,0 +1,45 @@
+package com.oxygenxml.git.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.view.tags.GitTag;
+import com.oxygenxml.git.view.tags.GitTagsManager;
+
+/**
+ * Measures the computation of the tags presented in the tags dialog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TagsBenchmark {
+
+  /**
+   * All the local tags, together with their pushed state.
+   * 
+   * @param state The loaded repository.
+   * 
+   * @return The tags.
+   * 
+   * @throws GitAPIException If it fails.
+   * @throws NoRepositorySelected If it fails.
+   * @throws IOException If it fails.
+   */
+  @Benchmark
+  public List<GitTag> getLocalTags(RepositoryState state) throws GitAPIException, NoRepositorySelected, IOException {
+    return GitTagsManager.getLocalTags();
+  }
+}
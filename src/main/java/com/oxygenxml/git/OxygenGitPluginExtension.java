@@ -25,6 +25,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 
 import com.oxygenxml.git.auth.AuthenticationInterceptor;
+import com.oxygenxml.git.auth.PooledSshSessionFactory;
 import com.oxygenxml.git.auth.ResolvingProxyDataFactory;
 import com.oxygenxml.git.constants.Icons;
 import com.oxygenxml.git.editorvars.GitEditorVariablesResolver;
@@ -98,6 +99,11 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 	 */
 	private PanelRefresh gitRefreshSupport;
 	
+	/**
+	 * Keeps the SSH sessions open between the operations.
+	 */
+	private PooledSshSessionFactory sshSessionFactory;
+	
 	/**
 	 * Manages Push/Pull actions.
 	 */
@@ -192,6 +198,9 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
   		  org.eclipse.jgit.transport.SshSessionFactory.setInstance(
   		      new org.eclipse.jgit.transport.sshd.SshdSessionFactory(null, new ResolvingProxyDataFactory()));
 		  }
+		  // Keep the SSH sessions open between the operations on the same host.
+		  sshSessionFactory = new PooledSshSessionFactory(org.eclipse.jgit.transport.SshSessionFactory.getInstance());
+		  org.eclipse.jgit.transport.SshSessionFactory.setInstance(sshSessionFactory);
 		  
 		  AuthenticationInterceptor.install();
 
@@ -428,6 +437,10 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 		
 		GitAccess.getInstance().closeRepo();
 		
+		if (sshSessionFactory != null) {
+		  sshSessionFactory.closeIdleSessions();
+		}
+		
 		// Close application.
 		return true;
 	}
@@ -0,0 +1,365 @@
+package com.oxygenxml.git.auth;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.FtpChannel;
+import org.eclipse.jgit.transport.RemoteSession;
+import org.eclipse.jgit.transport.RemoteSession2;
+import org.eclipse.jgit.transport.SshSessionFactory;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.util.FS;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * SSH session factory that keeps the sessions open for a while after an operation ends,
+ * so that the next fetch, push or ls-remote on the same host does not connect and
+ * authenticate again.<br><br>
+ *
+ * The sessions are kept for each user, host and port. A kept session that no longer works
+ * is closed and replaced with a new one.
+ */
+public class PooledSshSessionFactory extends SshSessionFactory {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(PooledSshSessionFactory.class);
+  /**
+   * How long an unused session is kept open by default, in seconds.
+   */
+  private static final int DEFAULT_IDLE_TIME_SECONDS = 120;
+  /**
+   * The factory that creates the sessions.
+   */
+  private final SshSessionFactory delegate;
+  /**
+   * How long an unused session is kept open, in milliseconds.
+   */
+  private final long idleTimeMillis;
+  /**
+   * The unused sessions, by user, host and port. The most recently used session is the first one.
+   */
+  private final Map<String, Deque<PooledSession>> idleSessions = new HashMap<>();
+  /**
+   * Closes the sessions that were not used for too long.
+   */
+  private ScheduledExecutorService evictor;
+
+  /**
+   * Constructor. The idle time is read from the {@link GitAddonSystemProperties#SSH_SESSION_IDLE_TIME} property.
+   *
+   * @param delegate The factory that creates the sessions.
+   */
+  public PooledSshSessionFactory(SshSessionFactory delegate) {
+    this(delegate, TimeUnit.SECONDS.toMillis(getConfiguredIdleTime()));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param delegate       The factory that creates the sessions.
+   * @param idleTimeMillis How long an unused session is kept open, in milliseconds.
+   *                       0 to close the sessions as soon as the operations end.
+   */
+  public PooledSshSessionFactory(SshSessionFactory delegate, long idleTimeMillis) {
+    this.delegate = delegate;
+    this.idleTimeMillis = idleTimeMillis;
+  }
+
+  /**
+   * @return The factory installed as the JGit SSH session factory, or <code>null</code>
+   * if the SSH sessions are not pooled.
+   */
+  public static PooledSshSessionFactory getInstalled() {
+    SshSessionFactory factory = SshSessionFactory.getInstance();
+    return factory instanceof PooledSshSessionFactory ? (PooledSshSessionFactory) factory : null;
+  }
+
+  /**
+   * @return The idle time set through the system property, in seconds.
+   */
+  private static int getConfiguredIdleTime() {
+    int idleTime = DEFAULT_IDLE_TIME_SECONDS;
+    String value = System.getProperty(GitAddonSystemProperties.SSH_SESSION_IDLE_TIME);
+    if (value != null) {
+      try {
+        idleTime = Math.max(0, Integer.parseInt(value.trim()));
+      } catch (NumberFormatException e) {
+        LOGGER.debug(e, e);
+      }
+    }
+    return idleTime;
+  }
+
+  /**
+   * @see org.eclipse.jgit.transport.SshSessionFactory#getSession(URIish, CredentialsProvider, FS, int)
+   */
+  @Override
+  public RemoteSession getSession(URIish uri, CredentialsProvider credentialsProvider, FS fs, int tms)
+      throws TransportException {
+    String key = getKey(uri);
+    PooledSession session = null;
+    synchronized (idleSessions) {
+      Deque<PooledSession> sessions = idleSessions.get(key);
+      if (sessions != null) {
+        session = sessions.pollFirst();
+        if (sessions.isEmpty()) {
+          idleSessions.remove(key);
+        }
+      }
+    }
+
+    if (session == null) {
+      session = new PooledSession(key, delegate.getSession(uri, credentialsProvider, fs, tms));
+    } else if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Reuse the SSH session for " + key);
+    }
+    session.prepare(uri, credentialsProvider, fs, tms);
+    return session;
+  }
+
+  /**
+   * @see org.eclipse.jgit.transport.SshSessionFactory#releaseSession(RemoteSession)
+   */
+  @Override
+  public void releaseSession(RemoteSession session) {
+    if (session instanceof PooledSession && idleTimeMillis > 0) {
+      PooledSession pooledSession = (PooledSession) session;
+      pooledSession.lastUsed = System.currentTimeMillis();
+      synchronized (idleSessions) {
+        idleSessions.computeIfAbsent(pooledSession.key, k -> new ArrayDeque<>()).addFirst(pooledSession);
+        scheduleEviction();
+      }
+    } else if (session instanceof PooledSession) {
+      delegate.releaseSession(((PooledSession) session).session);
+    } else {
+      delegate.releaseSession(session);
+    }
+  }
+
+  /**
+   * @see org.eclipse.jgit.transport.SshSessionFactory#getType()
+   */
+  @Override
+  public String getType() {
+    return delegate.getType();
+  }
+
+  /**
+   * Closes all the unused sessions. They were authenticated with the credentials
+   * known at the time, so they must be closed when the credentials change.
+   */
+  public void closeIdleSessions() {
+    evictIdleSessions(Long.MAX_VALUE);
+  }
+
+  /**
+   * @return The number of unused sessions that are kept open.
+   */
+  int getIdleSessionsCount() {
+    synchronized (idleSessions) {
+      int count = 0;
+      for (Deque<PooledSession> sessions : idleSessions.values()) {
+        count += sessions.size();
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Closes the sessions that were not used for the idle time.
+   */
+  private void evictIdleSessions() {
+    evictIdleSessions(System.currentTimeMillis());
+  }
+
+  /**
+   * Closes the sessions that were not used for the idle time.
+   *
+   * @param now The current time. {@link Long#MAX_VALUE} to close all the unused sessions.
+   */
+  void evictIdleSessions(long now) {
+    List<PooledSession> toClose = new ArrayList<>();
+    synchronized (idleSessions) {
+      for (Iterator<Deque<PooledSession>> iterator = idleSessions.values().iterator(); iterator.hasNext();) {
+        Deque<PooledSession> sessions = iterator.next();
+        for (Iterator<PooledSession> sessionsIter = sessions.iterator(); sessionsIter.hasNext();) {
+          PooledSession session = sessionsIter.next();
+          if (now == Long.MAX_VALUE || now - session.lastUsed >= idleTimeMillis) {
+            sessionsIter.remove();
+            toClose.add(session);
+          }
+        }
+        if (sessions.isEmpty()) {
+          iterator.remove();
+        }
+      }
+      if (!idleSessions.isEmpty()) {
+        scheduleEviction();
+      }
+    }
+
+    // Disconnecting can take a while. Not while holding the lock.
+    for (PooledSession session : toClose) {
+      try {
+        delegate.releaseSession(session.session);
+      } catch (RuntimeException e) {
+        LOGGER.debug(e, e);
+      }
+    }
+  }
+
+  /**
+   * Schedules the eviction of the unused sessions. Called while holding the lock on the idle sessions.
+   */
+  private void scheduleEviction() {
+    if (evictor == null) {
+      evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Git SSH sessions eviction");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    evictor.schedule((Runnable) this::evictIdleSessions, idleTimeMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @param uri The remote URI.
+   *
+   * @return The key of the sessions that can be used for the given URI.
+   */
+  private static String getKey(URIish uri) {
+    return uri.getUser() + "@" + uri.getHost() + ":" + uri.getPort();
+  }
+
+  /**
+   * A session that goes back to the pool when the operation ends.
+   */
+  private class PooledSession implements RemoteSession2 {
+    /**
+     * The user, host and port of the session.
+     */
+    private final String key;
+    /**
+     * The actual session.
+     */
+    private RemoteSession session;
+    /**
+     * <code>true</code> if the session was used before and might have been closed by the server.
+     */
+    private boolean reused;
+    /**
+     * The last time the session was released.
+     */
+    private long lastUsed;
+    /**
+     * The URI of the current operation.
+     */
+    private URIish uri;
+    /**
+     * The credentials of the current operation.
+     */
+    private CredentialsProvider credentialsProvider;
+    /**
+     * The file system abstraction of the current operation.
+     */
+    private FS fs;
+    /**
+     * The timeout of the current operation.
+     */
+    private int tms;
+
+    /**
+     * Constructor.
+     *
+     * @param key     The user, host and port of the session.
+     * @param session The actual session.
+     */
+    PooledSession(String key, RemoteSession session) {
+      this.key = key;
+      this.session = session;
+    }
+
+    /**
+     * Called when the session is given to an operation.
+     *
+     * @param uri                 The URI of the operation.
+     * @param credentialsProvider The credentials of the operation.
+     * @param fs                  The file system abstraction of the operation.
+     * @param tms                 The timeout of the operation.
+     */
+    void prepare(URIish uri, CredentialsProvider credentialsProvider, FS fs, int tms) {
+      this.reused = this.uri != null;
+      this.uri = uri;
+      this.credentialsProvider = credentialsProvider;
+      this.fs = fs;
+      this.tms = tms;
+    }
+
+    @Override
+    public Process exec(String commandName, int timeout) throws IOException {
+      return exec(commandName, null, timeout);
+    }
+
+    @Override
+    public Process exec(String commandName, Map<String, String> environment, int timeout) throws IOException {
+      try {
+        return doExec(commandName, environment, timeout);
+      } catch (IOException e) {
+        if (!reused) {
+          throw e;
+        }
+        // The server probably closed the kept session. Connect again.
+        LOGGER.debug(e, e);
+        reused = false;
+        try {
+          delegate.releaseSession(session);
+        } catch (RuntimeException ex) {
+          LOGGER.debug(ex, ex);
+        }
+        session = delegate.getSession(uri, credentialsProvider, fs, tms);
+        return doExec(commandName, environment, timeout);
+      }
+    }
+
+    /**
+     * Executes a command on the actual session.
+     *
+     * @param commandName The command.
+     * @param environment The environment variables or <code>null</code>.
+     * @param timeout     The timeout, in seconds.
+     *
+     * @return The remote process.
+     *
+     * @throws IOException
+     */
+    private Process doExec(String commandName, Map<String, String> environment, int timeout) throws IOException {
+      return environment != null && session instanceof RemoteSession2
+          ? ((RemoteSession2) session).exec(commandName, environment, timeout)
+          : session.exec(commandName, timeout);
+    }
+
+    @Override
+    public FtpChannel getFtpChannel() {
+      return session.getFtpChannel();
+    }
+
+    @Override
+    public void disconnect() {
+      delegate.releaseSession(session);
+    }
+  }
+}
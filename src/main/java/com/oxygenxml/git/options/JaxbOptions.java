@@ -50,6 +50,11 @@ public class JaxbOptions implements Options {
 	 */
 	private final HashMap<String, String> warnOnChangeCommitId = new HashMap<>();
 	
+	/**
+	 * The fetch profile used by the background refreshes, for each repository.
+	 */
+	private final HashMap<String, String> backgroundFetchProfiles = new HashMap<>();
+	
 	/**
 	 * Last selected repository from the user
 	 */
@@ -266,6 +271,16 @@ public class JaxbOptions implements Options {
   public void setWarnOnChangeCommitId(String repositoryId, String commitId) {
     warnOnChangeCommitId.put(repositoryId, commitId);
   }
+  
+  @Override
+  public String getBackgroundFetchProfile(String repositoryId) {
+    return backgroundFetchProfiles.get(repositoryId);
+  }
+  
+  @Override
+  public void setBackgroundFetchProfile(String repositoryId, String profile) {
+    backgroundFetchProfiles.put(repositoryId, profile);
+  }
 
 	@Override
   public String getSelectedRepository() {
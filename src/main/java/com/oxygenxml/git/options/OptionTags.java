@@ -120,5 +120,10 @@ public class OptionTags {
    * <code>true</code> if the create new branch option is selected.
    */
   public static final String CHECKOUT_COMMIT_SELECT_NEW_BRANCH = "com.oxygenxml.git.checkout.commit.select.new.branch";
+  
+  /**
+   * The fetch profile used by the background refreshes, for each repository.
+   */
+  public static final String BACKGROUND_FETCH_PROFILES = "com.oxygenxml.git.background.fetch.profiles";
 
 }
@@ -146,6 +146,25 @@ public interface Options {
    */
   public void setWarnOnChangeCommitId(String repositoryId, String commitId) ;
 
+  /**
+   * Get the fetch profile used by the background refreshes of a repository.
+   * 
+   * @param repositoryId The repository, identified by
+   *                     {@link org.eclipse.jgit.lib.Repository.getIdentifier()}.
+   *                     
+   * @return The name of the profile or <code>null</code> if not set.
+   */
+  public String getBackgroundFetchProfile(String repositoryId) ;
+
+  /**
+   * Set the fetch profile used by the background refreshes of a repository.
+   * 
+   * @param repositoryId The repository, identified by
+   *                     {@link org.eclipse.jgit.lib.Repository.getIdentifier()}.
+   * @param profile      The name of the profile.
+   */
+  public void setBackgroundFetchProfile(String repositoryId, String profile) ;
+
   /**
    * @return The last repository loaded in the staging view.
    */
@@ -7,12 +7,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
 import com.oxygenxml.git.OxygenGitOptionPagePluginExtension.WhenRepoDetectedInProject;
 import com.oxygenxml.git.OxygenGitPlugin;
+import com.oxygenxml.git.auth.PooledSshSessionFactory;
 import com.oxygenxml.git.options.CredentialsBase.CredentialsType;
+import com.oxygenxml.git.service.FetchProfile;
 import com.oxygenxml.git.view.event.PullType;
 import com.oxygenxml.git.view.staging.ChangesPanel.ResourcesViewMode;
 
@@ -56,6 +59,17 @@ public class OptionsManager {
    * All Repositories that were selected by the user with their options
    */
   private Options options = null;
+  
+  /**
+   * The decrypted passwords, tokens and pass phrases, by their encrypted value.
+   * Each fetch, push or ls-remote needs them and decrypting is slow.
+   */
+  private final Map<String, String> decryptedSecrets = new ConcurrentHashMap<>();
+  
+  /**
+   * The utility that decrypted the cached secrets.
+   */
+  private UtilAccess decryptingUtilAccess;
 
   /**
    * Singleton instance.
@@ -233,9 +247,7 @@ public class OptionsManager {
         }
       }
       if (OxygenGitPlugin.getInstance() != null) {
-        decryptedTokenValue = PluginWorkspaceProvider.getPluginWorkspace()
-            .getUtilAccess()
-            .decrypt(tokenVal);
+        decryptedTokenValue = decrypt(PluginWorkspaceProvider.getPluginWorkspace().getUtilAccess(), tokenVal);
       }
     }
     return new PersonalAccessTokenInfo(host, decryptedTokenValue);
@@ -247,6 +259,9 @@ public class OptionsManager {
    * @param credentials The credentials to be saved.
    */
   public void saveGitCredentials(CredentialsBase credentials) {
+    // Do not keep the secrets of the replaced credentials.
+    decryptedSecrets.clear();
+    closeIdleSshSessions();
     if (credentials != null) {
       // Keep only one type of credentials for a host
       CredentialsType type = credentials.getType();
@@ -370,9 +385,9 @@ public class OptionsManager {
         detectedCredentialsType = credentialsBase.getType();
         if (detectedCredentialsType == CredentialsType.USER_AND_PASSWORD) {
           username = ((UserAndPasswordCredentials) credentialsBase).getUsername();
-          decryptedPassword = utilAccess.decrypt(((UserAndPasswordCredentials) credentialsBase).getPassword());
+          decryptedPassword = decrypt(utilAccess, ((UserAndPasswordCredentials) credentialsBase).getPassword());
         } else if (detectedCredentialsType == CredentialsType.PERSONAL_ACCESS_TOKEN) {
-          decryptedToken = utilAccess.decrypt(((PersonalAccessTokenInfo) credentialsBase).getTokenValue());
+          decryptedToken = decrypt(utilAccess, ((PersonalAccessTokenInfo) credentialsBase).getTokenValue());
         }
       }
     }
@@ -382,6 +397,34 @@ public class OptionsManager {
             : new UserAndPasswordCredentials(username, decryptedPassword, host);
   }
 
+  /**
+   * Decrypts a secret. The decrypted values are cached.
+   * 
+   * @param utilAccess The utility used for decrypting.
+   * @param encrypted  The encrypted value. May be <code>null</code>.
+   * 
+   * @return The decrypted value or <code>null</code>.
+   */
+  private String decrypt(UtilAccess utilAccess, String encrypted) {
+    if (encrypted == null) {
+      return utilAccess.decrypt(encrypted);
+    }
+    synchronized (decryptedSecrets) {
+      if (utilAccess != decryptingUtilAccess) {
+        decryptedSecrets.clear();
+        decryptingUtilAccess = utilAccess;
+      }
+    }
+    String decrypted = decryptedSecrets.get(encrypted);
+    if (decrypted == null) {
+      decrypted = utilAccess.decrypt(encrypted);
+      if (decrypted != null) {
+        decryptedSecrets.put(encrypted, decrypted);
+      }
+    }
+    return decrypted;
+  }
+
   /**
    * @return All credentials: user + password ones, as well as tokens.
    */
@@ -539,12 +582,24 @@ public class OptionsManager {
    *          - the SSH pass phrase
    */
   public void saveSshPassphare(String passphrase) {
+    decryptedSecrets.clear();
+    closeIdleSshSessions();
     String encryptPassphrase = passphrase == null ? null
         : PluginWorkspaceProvider.getPluginWorkspace()
               .getUtilAccess().encrypt(passphrase);
     getOptions().setPassphrase(encryptPassphrase);
   }
 
+  /**
+   * Closes the kept SSH sessions, so the next operations authenticate with the new credentials.
+   */
+  private static void closeIdleSshSessions() {
+    PooledSshSessionFactory sshSessionFactory = PooledSshSessionFactory.getInstalled();
+    if (sshSessionFactory != null) {
+      sshSessionFactory.closeIdleSessions();
+    }
+  }
+
   /**
    * Loads the SSH pass phrase that was entered by the user
    * 
@@ -553,8 +608,7 @@ public class OptionsManager {
   public String getSshPassphrase() {
     String decryptPassphrase = null;
     if (OxygenGitPlugin.getInstance() != null) {
-      decryptPassphrase = PluginWorkspaceProvider.getPluginWorkspace()
-          .getUtilAccess().decrypt(getOptions().getPassphrase());
+      decryptPassphrase = decrypt(PluginWorkspaceProvider.getPluginWorkspace().getUtilAccess(), getOptions().getPassphrase());
     }
     if (decryptPassphrase == null) {
       decryptPassphrase = "";
@@ -621,6 +675,33 @@ public class OptionsManager {
  public void setWarnOnChangeCommitId(String repositoryId, String commitId) {
    getOptions().setWarnOnChangeCommitId(repositoryId, commitId);
  }
+ 
+ /**
+  * Get the fetch profile used by the background refreshes of a repository.
+  * @param repositoryId The repository, identified by {@link org.eclipse.jgit.lib.Repository.getIdentifier()}.
+  * @return The profile. {@link FetchProfile#TRUSTED_REMOTE} if none was chosen.
+  */
+ public FetchProfile getBackgroundFetchProfile(String repositoryId) {
+   FetchProfile profile = FetchProfile.TRUSTED_REMOTE;
+   String profileName = getOptions().getBackgroundFetchProfile(repositoryId);
+   if (profileName != null) {
+     try {
+       profile = FetchProfile.valueOf(profileName);
+     } catch (IllegalArgumentException e) {
+       logger.debug(e, e);
+     }
+   }
+   return profile;
+ }
+ 
+ /**
+  * Set the fetch profile used by the background refreshes of a repository.
+  * @param repositoryId The repository, identified by {@link org.eclipse.jgit.lib.Repository.getIdentifier()}.
+  * @param profile      The profile.
+  */
+ public void setBackgroundFetchProfile(String repositoryId, FetchProfile profile) {
+   getOptions().setBackgroundFetchProfile(repositoryId, profile.name());
+ }
 
  /**
   * Set what to do when a repository is detected when opening an Oxygen project.
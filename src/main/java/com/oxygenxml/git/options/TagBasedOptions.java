@@ -206,6 +206,21 @@ public class TagBasedOptions implements Options {
     wsOptionsStorage.setStringArrayOption(OptionTags.WARN_ON_CHANGE_COMMIT_ID, newOpt);
   }
   
+  @Override
+  public String getBackgroundFetchProfile(String repositoryId) {
+    String[] stringArrayOption = wsOptionsStorage.getStringArrayOption(OptionTags.BACKGROUND_FETCH_PROFILES, new String[0]);
+    return arrayToMap(stringArrayOption).get(repositoryId);
+  }
+  
+  @Override
+  public void setBackgroundFetchProfile(String repositoryId, String profile) {
+    String[] stringArrayOption = wsOptionsStorage.getStringArrayOption(OptionTags.BACKGROUND_FETCH_PROFILES, new String[0]);
+    Map<String, String> oldOpt = arrayToMap(stringArrayOption);
+    oldOpt.put(repositoryId, profile);
+    
+    wsOptionsStorage.setStringArrayOption(OptionTags.BACKGROUND_FETCH_PROFILES, mapToArray(oldOpt));
+  }
+  
 
   @Override
   public String getSelectedRepository() {
@@ -14,11 +14,15 @@ import java.net.URLStreamHandler;
 import org.apache.log4j.Logger;
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 
 import com.oxygenxml.git.service.Commit;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationSpan;
+import com.oxygenxml.git.service.metrics.TracedOperation;
 import com.oxygenxml.git.utils.FileUtil;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
@@ -75,7 +79,14 @@ public class GitRevisionURLHandler extends URLStreamHandler {
 			super(url);
 			setDoOutput(true);
 				
-			decode(url);
+			try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.DIFF_RESOLUTION)) {
+			  try {
+			    decode(url);
+			  } catch (IOException | RuntimeException e) {
+			    span.markFailed();
+			    throw e;
+			  }
+			}
 		}
 
 		/**
@@ -201,6 +212,26 @@ public class GitRevisionURLHandler extends URLStreamHandler {
 			return -1;
 		}
 
+		/**
+		 * The size of the blob, read from the object header without loading the content.
+		 * 
+		 * @see java.net.URLConnection#getContentLengthLong()
+		 */
+		@Override
+		public long getContentLengthLong() {
+			long length = -1;
+			if (fileObject != null
+			    && !VersionIdentifier.CURRENT_SUBMODULE.equals(currentHost) 
+			    && !VersionIdentifier.PREVIOUSLY_SUBMODULE.equals(currentHost)) {
+			  try (ObjectReader reader = GitAccess.getInstance().getRepository().newObjectReader()) {
+			    length = reader.getObjectSize(fileObject, ObjectReader.OBJ_ANY);
+			  } catch (IOException | NoRepositorySelected e) {
+			    logger.debug(e, e);
+			  }
+			}
+			return length;
+		}
+
 		/**
 		 * @see java.net.URLConnection#getContentType()
 		 */
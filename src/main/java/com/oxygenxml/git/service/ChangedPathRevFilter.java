@@ -0,0 +1,333 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.FollowFilter;
+import org.eclipse.jgit.revwalk.RenameCallback;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Keeps the commits that changed a path. The commits that the {@link ChangedPathsIndex} knows
+ * did not change the path are skipped without reading any tree. Only for the others, the trees
+ * of the commit and of its parents are compared.
+ * <br><br>
+ * Meant to replace a path tree filter in the walks that do not need the parents of the commits
+ * to be rewritten. The history is simplified like with a path tree filter: a merge commit is kept
+ * only if it differs from all its parents, and when it has the same path as one of its parents, only
+ * that parent is followed. A RevFilter cannot change the parents of a commit, so the other parents
+ * are still walked, but they and their ancestors are not kept, unless they are also reachable
+ * through the followed parents. Optionally, like a {@link FollowFilter}, the filter follows the renames
+ * of the path.
+ */
+public class ChangedPathRevFilter extends RevFilter {
+  /**
+   * The index of the changed paths. <code>null</code> to always compare the trees.
+   */
+  private final ChangedPathsIndex index;
+  /**
+   * Detects the renames. <code>null</code> to not follow the renames.
+   */
+  private final DiffConfig renamesConfig;
+  /**
+   * The current path.
+   */
+  private String path;
+  /**
+   * The hash of the current path, as used by the index.
+   */
+  private long pathHash;
+  /**
+   * Notified about the followed renames. May be <code>null</code>.
+   */
+  private RenameCallback renameCallback;
+  /**
+   * Compares the trees. Created for the reader of the first walk.
+   */
+  private TreeWalk treeWalk;
+  /**
+   * The walk for which the flags were created.
+   */
+  private RevWalk flagsWalk;
+  /**
+   * Marks the commits reached through a followed parent.
+   */
+  private RevFlag followedFlag;
+  /**
+   * Marks the parents that a merge did not follow, because it has the same path as another parent.
+   */
+  private RevFlag notFollowedFlag;
+  /**
+   * Marks the parents whose ancestors are not followed, because the path was added after them.
+   */
+  private RevFlag rootFlag;
+
+  /**
+   * Constructor.
+   *
+   * @param index         The index of the changed paths. <code>null</code> to always compare the trees.
+   * @param path          The path of a file or folder.
+   * @param renamesConfig Detects the renames. <code>null</code> to not follow the renames.
+   */
+  private ChangedPathRevFilter(ChangedPathsIndex index, String path, DiffConfig renamesConfig) {
+    this.index = index;
+    this.renamesConfig = renamesConfig;
+    setPath(path);
+  }
+
+  /**
+   * Creates a filter for the commits that changed a path.
+   *
+   * @param index The index of the changed paths. <code>null</code> to always compare the trees.
+   * @param path  The path of a file or folder.
+   *
+   * @return The filter.
+   */
+  public static ChangedPathRevFilter create(ChangedPathsIndex index, String path) {
+    return new ChangedPathRevFilter(index, path, null);
+  }
+
+  /**
+   * Creates a filter for the commits that changed a file, following its renames.
+   *
+   * @param index         The index of the changed paths. <code>null</code> to always compare the trees.
+   * @param path          The path of the file in the first walked commit.
+   * @param renamesConfig Detects the renames.
+   *
+   * @return The filter.
+   */
+  public static ChangedPathRevFilter createFollowing(ChangedPathsIndex index, String path, DiffConfig renamesConfig) {
+    return new ChangedPathRevFilter(index, path, renamesConfig);
+  }
+
+  /**
+   * @param renameCallback Notified about the followed renames, before the commit that made
+   *                       the rename is passed to the next filters.
+   */
+  public void setRenameCallback(RenameCallback renameCallback) {
+    this.renameCallback = renameCallback;
+  }
+
+  /**
+   * @return The current path. Changes when a rename is followed.
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Changes the current path.
+   *
+   * @param path The new path.
+   */
+  private void setPath(String path) {
+    this.path = path;
+    this.pathHash = ChangedPathsIndex.hash(path);
+  }
+
+  @Override
+  public boolean include(RevWalk walker, RevCommit commit) throws IOException {
+    createFlags(walker);
+    if (commit.has(notFollowedFlag) && !commit.has(followedFlag)) {
+      // Only reached through parents that a merge did not follow.
+      mark(commit.getParents(), notFollowedFlag);
+      return false;
+    }
+
+    RevCommit[] parents = commit.getParents();
+    if (commit.has(rootFlag)) {
+      // The path was added after this commit. Its ancestors are not followed.
+      mark(parents, notFollowedFlag);
+      parents = new RevCommit[0];
+    }
+
+    if (parents.length > 0
+        && !parents[0].has(RevFlag.UNINTERESTING)
+        && index != null
+        && index.isUnchanged(commit, pathHash)) {
+      // The same path as the first parent.
+      follow(parents, 0);
+      return false;
+    }
+
+    TreeWalk walk = getTreeWalk(walker.getObjectReader());
+    walk.setFilter(AndTreeFilter.create(PathFilter.create(path), TreeFilter.ANY_DIFF));
+    for (RevCommit parent : parents) {
+      walker.parseHeaders(parent);
+      walk.addTree(parent.getTree());
+    }
+    walk.addTree(commit.getTree());
+
+    boolean changed;
+    if (parents.length == 0) {
+      changed = walk.next();
+    } else if (parents.length == 1) {
+      changed = walk.next();
+      follow(parents, 0);
+      if (changed && renamesConfig != null && walk.getRawMode(0) == 0) {
+        // Added by this commit. It might be a rename.
+        followRename(walker.getObjectReader(), parents[0], commit);
+      }
+    } else {
+      changed = includeMerge(walk, parents);
+    }
+    return changed;
+  }
+
+  /**
+   * Decides if a merge changed the path and which parents are followed, like a path tree filter does.
+   *
+   * @param walk    The walk over the trees of the parents and of the merge, filtered by the path.
+   * @param parents The parents of the merge.
+   *
+   * @return <code>true</code> if the merge differs from all its parents.
+   *
+   * @throws IOException If the trees cannot be read.
+   */
+  private boolean includeMerge(TreeWalk walk, RevCommit[] parents) throws IOException {
+    int[] changes = new int[parents.length];
+    int[] additions = new int[parents.length];
+    while (walk.next()) {
+      int mergeMode = walk.getRawMode(parents.length);
+      for (int i = 0; i < parents.length; i++) {
+        int parentMode = walk.getRawMode(i);
+        if (parentMode != mergeMode || !walk.idEqual(i, parents.length)) {
+          changes[i]++;
+          if (parentMode == 0 && mergeMode != 0) {
+            additions[i]++;
+          }
+        }
+      }
+    }
+
+    boolean sameAsUninterestingParent = false;
+    for (int i = 0; i < parents.length; i++) {
+      if (changes[i] == 0) {
+        if (parents[i].has(RevFlag.UNINTERESTING)) {
+          sameAsUninterestingParent = true;
+        } else {
+          // Only the parent with the same path is followed.
+          follow(parents, i);
+          return false;
+        }
+      } else if (changes[i] == additions[i]) {
+        // The path was added after this parent. Its history is not relevant.
+        parents[i].add(rootFlag);
+      }
+    }
+    mark(parents, followedFlag);
+    return !sameAsUninterestingParent;
+  }
+
+  /**
+   * Follows one parent of a commit. For a merge, the other parents are not followed.
+   *
+   * @param parents The parents of the commit.
+   * @param index   The index of the followed parent.
+   */
+  private void follow(RevCommit[] parents, int index) {
+    for (int i = 0; i < parents.length; i++) {
+      parents[i].add(i == index ? followedFlag : notFollowedFlag);
+    }
+  }
+
+  /**
+   * Marks commits.
+   *
+   * @param commits The commits.
+   * @param flag    The flag.
+   */
+  private static void mark(RevCommit[] commits, RevFlag flag) {
+    for (RevCommit commit : commits) {
+      commit.add(flag);
+    }
+  }
+
+  /**
+   * Creates the flags that simplify the history, once for each walk.
+   *
+   * @param walker The walk.
+   */
+  private void createFlags(RevWalk walker) {
+    if (flagsWalk != walker) {
+      flagsWalk = walker;
+      followedFlag = walker.newFlag("CHANGED_PATH_FOLLOWED");
+      notFollowedFlag = walker.newFlag("CHANGED_PATH_NOT_FOLLOWED");
+      rootFlag = walker.newFlag("CHANGED_PATH_ROOT");
+    }
+  }
+
+  /**
+   * Looks for a rename of the current path in a commit. If found, the old path is followed from now on.
+   *
+   * @param reader The object reader.
+   * @param parent The parent of the commit.
+   * @param commit The commit that added the current path.
+   *
+   * @throws IOException If the trees cannot be read.
+   */
+  private void followRename(ObjectReader reader, RevCommit parent, RevCommit commit) throws IOException {
+    try (TreeWalk diffWalk = new TreeWalk(reader)) {
+      diffWalk.setRecursive(true);
+      diffWalk.setFilter(TreeFilter.ANY_DIFF);
+      diffWalk.addTree(parent.getTree());
+      diffWalk.addTree(commit.getTree());
+      RenameDetector renameDetector = new RenameDetector(reader, renamesConfig);
+      renameDetector.addAll(DiffEntry.scan(diffWalk));
+      for (DiffEntry entry : renameDetector.compute()) {
+        if ((entry.getChangeType() == ChangeType.RENAME || entry.getChangeType() == ChangeType.COPY)
+            && path.equals(entry.getNewPath())) {
+          setPath(entry.getOldPath());
+          if (renameCallback != null) {
+            renameCallback.renamed(entry);
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives the walk that compares the trees, without any tree.
+   *
+   * @param reader The object reader of the commits walk.
+   *
+   * @return The tree walk.
+   */
+  private TreeWalk getTreeWalk(ObjectReader reader) {
+    if (treeWalk == null || treeWalk.getObjectReader() != reader) {
+      treeWalk = new TreeWalk(reader);
+      treeWalk.setRecursive(true);
+    }
+    treeWalk.reset();
+    return treeWalk;
+  }
+
+  @Override
+  public boolean requiresCommitBody() {
+    return false;
+  }
+
+  @Override
+  public RevFilter clone() {
+    ChangedPathRevFilter clone = new ChangedPathRevFilter(index, path, renamesConfig);
+    clone.setRenameCallback(renameCallback);
+    return clone;
+  }
+
+  @Override
+  public String toString() {
+    return "CHANGED_PATH(" + path + ")";
+  }
+}
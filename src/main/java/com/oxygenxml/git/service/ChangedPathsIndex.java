@@ -0,0 +1,432 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * A Bloom filter for each commit of a repository, with the paths changed by the commit
+ * compared to its first parent, and all the folders of these paths. It tells, without reading
+ * any tree, that a commit definitely did not change a path, so the history walks of a file
+ * only compare the trees of the few commits that might have changed it.
+ * <br><br>
+ * The index is built incrementally in the background (only the commits added since the last
+ * update are visited) and it is persisted inside the Git directory of the repository, so it
+ * survives restarts. The commits that are not indexed yet are simply not skipped.
+ */
+public class ChangedPathsIndex {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(ChangedPathsIndex.class);
+  /**
+   * The name of the file, inside the Git directory, that stores the index.
+   */
+  static final String INDEX_FILE_NAME = "oxygen-changed-paths.idx";
+  /**
+   * The version of the file format.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * The bits of a filter used for each changed path. Gives about 1% false positives.
+   */
+  private static final int BITS_PER_PATH = 10;
+  /**
+   * The number of bits set in a filter for each changed path.
+   */
+  private static final int HASHES_COUNT = 7;
+  /**
+   * Commits that change more paths get no filter. They are never skipped.
+   */
+  private static final int MAX_CHANGED_PATHS = 512;
+  /**
+   * The index is persisted after this many new commits, so a long first update is not lost
+   * if the application is closed.
+   */
+  private static final int WRITE_INTERVAL = 10000;
+  /**
+   * Marks a commit that changes too many paths to have a filter.
+   */
+  private static final long[] NO_FILTER = new long[0];
+  /**
+   * The index of the last used repository.
+   */
+  private static ChangedPathsIndex instance;
+  /**
+   * <code>true</code> while an update is scheduled or running.
+   */
+  private static final AtomicBoolean UPDATE_SCHEDULED = new AtomicBoolean();
+  /**
+   * Updates the index in the background.
+   */
+  private static final ExecutorService UPDATER = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "Git changed paths indexer");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+  /**
+   * The Git directory of the indexed repository.
+   */
+  private final File repositoryDir;
+  /**
+   * The file in which the index is persisted.
+   */
+  private final File indexFile;
+  /**
+   * The branch tips that were visited by the last update.
+   */
+  private Set<ObjectId> indexedTips = new HashSet<>();
+  /**
+   * The bits of the filter, by commit.
+   */
+  private final Map<ObjectId, long[]> filters = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param repositoryDir The Git directory of the indexed repository.
+   */
+  ChangedPathsIndex(File repositoryDir) {
+    this.repositoryDir = repositoryDir;
+    this.indexFile = new File(repositoryDir, INDEX_FILE_NAME);
+  }
+
+  /**
+   * Gives the index of a repository, as it was persisted. The index of the last used
+   * repository is kept in memory.
+   *
+   * @param repository The repository.
+   *
+   * @return The index, never <code>null</code>. Empty if nothing was indexed yet.
+   */
+  public static synchronized ChangedPathsIndex getInstance(Repository repository) {
+    if (instance == null || !instance.repositoryDir.equals(repository.getDirectory())) {
+      instance = load(repository);
+    }
+    return instance;
+  }
+
+  /**
+   * Indexes the commits added since the last update, in the background. Does nothing
+   * if an update is already scheduled.
+   *
+   * @param repository The repository.
+   */
+  public static void updateInBackground(Repository repository) {
+    if (UPDATE_SCHEDULED.compareAndSet(false, true)) {
+      UPDATER.execute(() -> {
+        try {
+          getInstance(repository).update(repository);
+        } catch (IOException e) {
+          LOGGER.debug(e, e);
+        } finally {
+          UPDATE_SCHEDULED.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Loads the persisted index of a repository. The returned index is not updated
+   * with the latest commits: call {@link #update(Repository)} for that.
+   *
+   * @param repository The repository.
+   *
+   * @return The index, never <code>null</code>. Empty if nothing was persisted yet.
+   */
+  static ChangedPathsIndex load(Repository repository) {
+    ChangedPathsIndex index = new ChangedPathsIndex(repository.getDirectory());
+    if (index.indexFile.isFile()) {
+      try {
+        index.read();
+      } catch (IOException e) {
+        LOGGER.debug(e, e);
+        // A corrupted index. Start from scratch.
+        index = new ChangedPathsIndex(repository.getDirectory());
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Indexes the commits reachable from the branches that were not indexed yet and
+   * persists the index.
+   *
+   * @param repository The repository.
+   *
+   * @return <code>true</code> if new commits were indexed.
+   *
+   * @throws IOException If it fails.
+   */
+  public boolean update(Repository repository) throws IOException {
+    Set<ObjectId> tips = new HashSet<>();
+    for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS, Constants.R_REMOTES)) {
+      if (ref.getObjectId() != null) {
+        tips.add(ref.getObjectId());
+      }
+    }
+    ObjectId head = repository.resolve(Constants.HEAD);
+    if (head != null) {
+      tips.add(head);
+    }
+
+    Set<ObjectId> previousTips;
+    synchronized (this) {
+      previousTips = new HashSet<>(indexedTips);
+    }
+    if (tips.equals(previousTips)) {
+      return false;
+    }
+
+    int indexed = 0;
+    try (ObjectReader reader = repository.newObjectReader();
+        RevWalk revWalk = new RevWalk(reader);
+        TreeWalk treeWalk = new TreeWalk(reader)) {
+      revWalk.setRetainBody(false);
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      for (ObjectId tip : tips) {
+        RevObject object = revWalk.peel(revWalk.parseAny(tip));
+        if (object instanceof RevCommit) {
+          revWalk.markStart((RevCommit) object);
+        }
+      }
+      for (ObjectId tip : previousTips) {
+        try {
+          RevObject object = revWalk.peel(revWalk.parseAny(tip));
+          if (object instanceof RevCommit) {
+            revWalk.markUninteresting((RevCommit) object);
+          }
+        } catch (MissingObjectException e) {
+          // The tip was garbage collected. Its history will be visited again.
+          LOGGER.debug(e, e);
+        }
+      }
+      for (RevCommit commit : revWalk) {
+        // Commits indexed by an interrupted update are not visited again.
+        if (!filters.containsKey(commit)) {
+          filters.put(commit.copy(), computeFilter(revWalk, treeWalk, commit));
+          indexed++;
+          if (indexed % WRITE_INTERVAL == 0) {
+            write();
+          }
+        }
+      }
+    }
+
+    synchronized (this) {
+      indexedTips = tips;
+    }
+    write();
+
+    return indexed > 0;
+  }
+
+  /**
+   * Checks if a commit definitely did not change a path, compared to its first parent.
+   *
+   * @param commit The commit.
+   * @param path   The path of a file or a folder, relative to the working tree.
+   *
+   * @return <code>true</code> if the commit did not change the path. <code>false</code> if it
+   * might have changed it or if the commit is not indexed.
+   */
+  public boolean isUnchanged(AnyObjectId commit, String path) {
+    return isUnchanged(commit, hash(path));
+  }
+
+  /**
+   * Checks if a commit definitely did not change a path, compared to its first parent.
+   *
+   * @param commit   The commit.
+   * @param pathHash The hash of the path, as computed by {@link #hash(String)}.
+   *
+   * @return <code>true</code> if the commit did not change the path.
+   */
+  boolean isUnchanged(AnyObjectId commit, long pathHash) {
+    long[] bits = filters.get(commit);
+    if (bits == null || bits.length == 0) {
+      return false;
+    }
+    int bitsCount = bits.length * Long.SIZE;
+    int h1 = (int) pathHash;
+    int h2 = (int) (pathHash >>> 32) | 1;
+    for (int i = 0; i < HASHES_COUNT; i++) {
+      int bit = Math.floorMod(h1 + i * h2, bitsCount);
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return The number of indexed commits.
+   */
+  public int size() {
+    return filters.size();
+  }
+
+  /**
+   * Computes the filter of a commit.
+   *
+   * @param revWalk  The walk that gave the commit.
+   * @param treeWalk Compares the trees. Recursive and with the {@link TreeFilter#ANY_DIFF} filter.
+   * @param commit   The commit.
+   *
+   * @return The bits of the filter or {@link #NO_FILTER} if the commit changed too many paths.
+   *
+   * @throws IOException If the trees cannot be read.
+   */
+  private static long[] computeFilter(RevWalk revWalk, TreeWalk treeWalk, RevCommit commit) throws IOException {
+    treeWalk.reset();
+    if (commit.getParentCount() > 0) {
+      RevCommit parent = commit.getParent(0);
+      revWalk.parseHeaders(parent);
+      treeWalk.addTree(parent.getTree());
+    } else {
+      treeWalk.addTree(new EmptyTreeIterator());
+    }
+    treeWalk.addTree(commit.getTree());
+
+    Set<String> paths = new HashSet<>();
+    while (treeWalk.next()) {
+      String path = treeWalk.getPathString();
+      if (paths.add(path)) {
+        // The folders, so the history of a folder can also be filtered.
+        int slash = path.lastIndexOf('/');
+        while (slash > 0 && paths.add(path.substring(0, slash))) {
+          slash = path.lastIndexOf('/', slash - 1);
+        }
+      }
+      if (paths.size() > MAX_CHANGED_PATHS) {
+        return NO_FILTER;
+      }
+    }
+
+    long[] bits = new long[Math.max(1, (paths.size() * BITS_PER_PATH + Long.SIZE - 1) / Long.SIZE)];
+    int bitsCount = bits.length * Long.SIZE;
+    for (String path : paths) {
+      long pathHash = hash(path);
+      int h1 = (int) pathHash;
+      int h2 = (int) (pathHash >>> 32) | 1;
+      for (int i = 0; i < HASHES_COUNT; i++) {
+        int bit = Math.floorMod(h1 + i * h2, bitsCount);
+        bits[bit >>> 6] |= 1L << bit;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Hashes a path. The value is persisted, so it must never change.
+   *
+   * @param path The path.
+   *
+   * @return A 64 bits hash, from which the positions of the path in a filter are derived.
+   */
+  static long hash(String path) {
+    // FNV-1a over the UTF-8 bytes...
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    // ... followed by the MurmurHash3 finalizer, to spread the bits.
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  /**
+   * Reads the persisted index.
+   *
+   * @throws IOException If it fails.
+   */
+  private synchronized void read() throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported changed paths index version: " + indexFile);
+      }
+      int tipsCount = in.readInt();
+      byte[] rawId = new byte[Constants.OBJECT_ID_LENGTH];
+      for (int i = 0; i < tipsCount; i++) {
+        in.readFully(rawId);
+        indexedTips.add(ObjectId.fromRaw(rawId));
+      }
+      int commitsCount = in.readInt();
+      for (int i = 0; i < commitsCount; i++) {
+        in.readFully(rawId);
+        long[] bits = new long[in.readInt()];
+        for (int j = 0; j < bits.length; j++) {
+          bits[j] = in.readLong();
+        }
+        filters.put(ObjectId.fromRaw(rawId), bits.length == 0 ? NO_FILTER : bits);
+      }
+    }
+  }
+
+  /**
+   * Persists the index. It is first written to a temporary file, so a failure
+   * never leaves a partial index behind.
+   *
+   * @throws IOException If it fails.
+   */
+  private synchronized void write() throws IOException {
+    File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+    // The filters are only added, so the entries copied now are all written.
+    Map<ObjectId, long[]> snapshot = new HashMap<>(filters);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(indexedTips.size());
+      for (ObjectId tip : indexedTips) {
+        tip.copyRawTo(out);
+      }
+      out.writeInt(snapshot.size());
+      for (Map.Entry<ObjectId, long[]> entry : snapshot.entrySet()) {
+        entry.getKey().copyRawTo(out);
+        long[] bits = entry.getValue();
+        out.writeInt(bits.length);
+        for (long word : bits) {
+          out.writeLong(word);
+        }
+      }
+    }
+    Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
@@ -0,0 +1,431 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * A searchable index with the distinct commit messages of a repository. The index is
+ * updated incrementally (only the commits added since the last update are visited) and
+ * it is persisted inside the Git directory of the repository, so it survives restarts.
+ * <br><br>
+ * Messages are found by the prefixes of their words and the messages that start with the
+ * searched text are presented first. Inside each group, the most recent messages come first.
+ */
+public class CommitMessageIndex {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(CommitMessageIndex.class);
+  /**
+   * The name of the file, inside the Git directory, that stores the index.
+   */
+  static final String INDEX_FILE_NAME = "oxygen-commit-messages.idx";
+  /**
+   * The version of the file format.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * Words shorter than this are not indexed.
+   */
+  private static final int MIN_TOKEN_LENGTH = 2;
+  /**
+   * <code>true</code> while a load is scheduled and not started yet.
+   */
+  private static final AtomicBoolean LOAD_SCHEDULED = new AtomicBoolean();
+  /**
+   * Loads and updates the indexes in the background.
+   */
+  private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "Git commit messages indexer");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+  /**
+   * The file in which the index is persisted.
+   */
+  private final File indexFile;
+  /**
+   * The branch tips that were visited by the last update.
+   */
+  private Set<ObjectId> indexedTips = new HashSet<>();
+  /**
+   * The distinct messages. The position in the list is the message ID.
+   */
+  private final List<String> messages = new ArrayList<>();
+  /**
+   * The commit time of the most recent commit having each message, in seconds.
+   */
+  private long[] times = new long[0];
+  /**
+   * Message IDs, by message.
+   */
+  private final Map<String, Integer> idsByMessage = new HashMap<>();
+  /**
+   * The IDs of the messages that contain each word, sorted by word.
+   */
+  private final TreeMap<String, Postings> postings = new TreeMap<>();
+  /**
+   * The message IDs, from the most recent to the oldest. Recomputed after each update.
+   */
+  private int[] byRecency = new int[0];
+
+  /**
+   * The IDs of the messages that contain a word.
+   */
+  private static final class Postings {
+    /**
+     * The message IDs, in increasing order.
+     */
+    private int[] ids = new int[2];
+    /**
+     * Number of used positions.
+     */
+    private int size;
+
+    /**
+     * Adds a message ID, if not already the last one.
+     *
+     * @param id Message ID.
+     */
+    void add(int id) {
+      if (size == 0 || ids[size - 1] != id) {
+        if (size == ids.length) {
+          ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+      }
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param indexFile The file in which the index is persisted.
+   */
+  CommitMessageIndex(File indexFile) {
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * Loads the persisted index of a repository. The returned index is not updated
+   * with the latest commits: call {@link #update(Repository)} for that.
+   *
+   * @param repository The repository.
+   *
+   * @return The index, never <code>null</code>. Empty if nothing was persisted yet.
+   */
+  public static CommitMessageIndex load(Repository repository) {
+    CommitMessageIndex index = new CommitMessageIndex(new File(repository.getDirectory(), INDEX_FILE_NAME));
+    if (index.indexFile.isFile()) {
+      try {
+        index.read();
+      } catch (IOException e) {
+        LOGGER.debug(e, e);
+        // A corrupted index. Start from scratch.
+        index = new CommitMessageIndex(index.indexFile);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Loads the persisted index of the current repository and indexes the commits that were not
+   * indexed yet, in the background, with a low priority. The first update visits the whole
+   * history, so it must not delay the Git operations.
+   *
+   * @param whenLoaded Receives the index, after the update.
+   */
+  public static void loadInBackground(Consumer<CommitMessageIndex> whenLoaded) {
+    if (LOAD_SCHEDULED.compareAndSet(false, true)) {
+      LOADER.execute(() -> {
+        // Cleared first, so a repository opened while loading is loaded next.
+        LOAD_SCHEDULED.set(false);
+        try {
+          Repository repository = GitAccess.getInstance().getRepository();
+          CommitMessageIndex index = load(repository);
+          try {
+            index.update(repository);
+          } catch (IOException e) {
+            LOGGER.debug(e, e);
+          }
+          whenLoaded.accept(index);
+        } catch (NoRepositorySelected e) {
+          LOGGER.debug(e, e);
+        }
+      });
+    }
+  }
+
+  /**
+   * Indexes the commits added to the local branches since the last update and
+   * persists the index.
+   *
+   * @param repository The repository.
+   *
+   * @return <code>true</code> if new messages were indexed.
+   *
+   * @throws IOException If it fails.
+   */
+  public boolean update(Repository repository) throws IOException {
+    Set<ObjectId> tips = new HashSet<>();
+    for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+      if (ref.getObjectId() != null) {
+        tips.add(ref.getObjectId());
+      }
+    }
+
+    Set<ObjectId> previousTips;
+    synchronized (this) {
+      previousTips = new HashSet<>(indexedTips);
+    }
+    if (tips.equals(previousTips)) {
+      return false;
+    }
+
+    Map<String, Long> newMessages = new HashMap<>();
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      for (ObjectId tip : tips) {
+        revWalk.markStart(revWalk.parseCommit(tip));
+      }
+      for (ObjectId tip : previousTips) {
+        try {
+          revWalk.markUninteresting(revWalk.parseCommit(tip));
+        } catch (MissingObjectException e) {
+          // The tip was garbage collected. Its history will be visited again.
+          LOGGER.debug(e, e);
+        }
+      }
+      for (RevCommit commit : revWalk) {
+        newMessages.merge(commit.getFullMessage().trim(), (long) commit.getCommitTime(), Math::max);
+        // Free the memory used by the commit message.
+        commit.disposeBody();
+      }
+    }
+
+    synchronized (this) {
+      for (Map.Entry<String, Long> entry : newMessages.entrySet()) {
+        add(entry.getKey(), entry.getValue());
+      }
+      indexedTips = tips;
+      computeRecencyOrder();
+    }
+    write();
+
+    return !newMessages.isEmpty();
+  }
+
+  /**
+   * Adds a message to the index.
+   *
+   * @param message The message.
+   * @param time    The commit time, in seconds.
+   */
+  private void add(String message, long time) {
+    if (message.isEmpty()) {
+      return;
+    }
+    Integer existing = idsByMessage.get(message);
+    if (existing != null) {
+      times[existing] = Math.max(times[existing], time);
+    } else {
+      int id = messages.size();
+      messages.add(message);
+      idsByMessage.put(message, id);
+      if (id == times.length) {
+        times = Arrays.copyOf(times, Math.max(16, id * 2));
+      }
+      times[id] = time;
+      for (String token : tokenize(message)) {
+        postings.computeIfAbsent(token, t -> new Postings()).add(id);
+      }
+    }
+  }
+
+  /**
+   * Sorts the message IDs from the most recent to the oldest.
+   */
+  private void computeRecencyOrder() {
+    Integer[] ids = new Integer[messages.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = i;
+    }
+    Arrays.sort(ids, (a, b) -> Long.compare(times[b], times[a]));
+    byRecency = new int[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      byRecency[i] = ids[i];
+    }
+  }
+
+  /**
+   * Searches the messages.
+   *
+   * @param text  The searched text. Every word from it must be the prefix of a word from the message.
+   * @param limit The maximum number of results.
+   *
+   * @return The matching messages. The ones that start with the given text come first.
+   */
+  public synchronized List<String> search(String text, int limit) {
+    Set<String> queryTokens = tokenize(text);
+    if (queryTokens.isEmpty() || limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    BitSet candidates = null;
+    for (String queryToken : queryTokens) {
+      BitSet matches = new BitSet(messages.size());
+      SortedMap<String, Postings> withPrefix = postings.subMap(queryToken, queryToken + Character.MAX_VALUE);
+      for (Postings tokenPostings : withPrefix.values()) {
+        for (int i = 0; i < tokenPostings.size; i++) {
+          matches.set(tokenPostings.ids[i]);
+        }
+      }
+      if (candidates == null) {
+        candidates = matches;
+      } else {
+        candidates.and(matches);
+      }
+      if (candidates.isEmpty()) {
+        return Collections.emptyList();
+      }
+    }
+
+    String trimmedText = text.trim();
+    List<String> startingWithText = new ArrayList<>();
+    List<String> others = new ArrayList<>();
+    for (int i = 0; i < byRecency.length && startingWithText.size() < limit; i++) {
+      int id = byRecency[i];
+      if (candidates.get(id)) {
+        String message = messages.get(id);
+        if (message.regionMatches(true, 0, trimmedText, 0, trimmedText.length())) {
+          startingWithText.add(message);
+        } else if (others.size() < limit) {
+          others.add(message);
+        }
+      }
+    }
+
+    List<String> results = startingWithText;
+    for (int i = 0; i < others.size() && results.size() < limit; i++) {
+      results.add(others.get(i));
+    }
+    return results;
+  }
+
+  /**
+   * @return The number of distinct indexed messages.
+   */
+  public synchronized int size() {
+    return messages.size();
+  }
+
+  /**
+   * Splits a text into lower case words.
+   *
+   * @param text The text.
+   *
+   * @return The distinct words, in order of appearance.
+   */
+  static Set<String> tokenize(String text) {
+    Set<String> tokens = new LinkedHashSet<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (isWordChar && start == -1) {
+        start = i;
+      } else if (!isWordChar && start != -1) {
+        if (i - start >= MIN_TOKEN_LENGTH) {
+          tokens.add(text.substring(start, i).toLowerCase());
+        }
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Reads the persisted index.
+   *
+   * @throws IOException If it fails.
+   */
+  private synchronized void read() throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported commit messages index version: " + indexFile);
+      }
+      int tipsCount = in.readInt();
+      byte[] rawId = new byte[Constants.OBJECT_ID_LENGTH];
+      for (int i = 0; i < tipsCount; i++) {
+        in.readFully(rawId);
+        indexedTips.add(ObjectId.fromRaw(rawId));
+      }
+      int messagesCount = in.readInt();
+      for (int i = 0; i < messagesCount; i++) {
+        long time = in.readLong();
+        byte[] message = new byte[in.readInt()];
+        in.readFully(message);
+        add(new String(message, StandardCharsets.UTF_8), time);
+      }
+    }
+    computeRecencyOrder();
+  }
+
+  /**
+   * Persists the index. It is first written to a temporary file, so a failure
+   * never leaves a partial index behind.
+   *
+   * @throws IOException If it fails.
+   */
+  private synchronized void write() throws IOException {
+    File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(indexedTips.size());
+      for (ObjectId tip : indexedTips) {
+        tip.copyRawTo(out);
+      }
+      out.writeInt(messages.size());
+      for (int id = 0; id < messages.size(); id++) {
+        out.writeLong(times[id]);
+        byte[] message = messages.get(id).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(message.length);
+        out.write(message);
+      }
+    }
+    Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
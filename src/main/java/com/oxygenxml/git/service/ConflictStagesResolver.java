@@ -0,0 +1,181 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Reads the versions of the conflicting files (base, mine and theirs) from the stages of the index.<br><br>
+ *
+ * The index is read once and reused until the index file changes. Each path is then found
+ * with a binary search in the sorted entries of the index.
+ */
+public class ConflictStagesResolver {
+  /**
+   * The singleton instance.
+   */
+  private static ConflictStagesResolver instance;
+  /**
+   * The Git folder of the repository whose index was read.
+   */
+  private File indexRepositoryDir;
+  /**
+   * The index that was read.
+   */
+  private DirCache index;
+
+  /**
+   * The versions of a conflicting file.
+   */
+  public static class ConflictStages {
+    /**
+     * The common ancestor. <code>null</code> if the file was added on both sides.
+     */
+    private final ObjectId base;
+    /**
+     * My version. <code>null</code> if I deleted the file.
+     */
+    private final ObjectId mine;
+    /**
+     * Their version. <code>null</code> if they deleted the file.
+     */
+    private final ObjectId theirs;
+
+    /**
+     * Constructor.
+     *
+     * @param base   The common ancestor.
+     * @param mine   My version.
+     * @param theirs Their version.
+     */
+    ConflictStages(ObjectId base, ObjectId mine, ObjectId theirs) {
+      this.base = base;
+      this.mine = mine;
+      this.theirs = theirs;
+    }
+
+    /**
+     * @return The blob of the common ancestor. <code>null</code> if the file was added on both sides.
+     */
+    public ObjectId getBase() {
+      return base;
+    }
+
+    /**
+     * @return The blob of my version. <code>null</code> if I deleted the file.
+     */
+    public ObjectId getMine() {
+      return mine;
+    }
+
+    /**
+     * @return The blob of their version. <code>null</code> if they deleted the file.
+     */
+    public ObjectId getTheirs() {
+      return theirs;
+    }
+  }
+
+  /**
+   * Hidden constructor.
+   */
+  ConflictStagesResolver() {
+    // Nothing
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized ConflictStagesResolver getInstance() {
+    if (instance == null) {
+      instance = new ConflictStagesResolver();
+    }
+    return instance;
+  }
+
+  /**
+   * Reads the versions of a conflicting file.
+   *
+   * @param repository The repository.
+   * @param path       The path of the file, relative to the working tree.
+   *
+   * @return The versions or <code>null</code> if the file is not in conflict.
+   *
+   * @throws IOException If the index cannot be read.
+   */
+  public ConflictStages resolve(Repository repository, String path) throws IOException {
+    return resolve(getIndex(repository), path);
+  }
+
+  /**
+   * Reads the versions of many conflicting files, from the same version of the index.
+   *
+   * @param repository The repository.
+   * @param paths      The paths of the files, relative to the working tree.
+   *
+   * @return The versions of the files in conflict, by path, in the order of the given paths.
+   * The files that are not in conflict are missing.
+   *
+   * @throws IOException If the index cannot be read.
+   */
+  public Map<String, ConflictStages> resolve(Repository repository, Collection<String> paths) throws IOException {
+    DirCache dirCache = getIndex(repository);
+    Map<String, ConflictStages> stages = new LinkedHashMap<>();
+    for (String path : paths) {
+      ConflictStages pathStages = resolve(dirCache, path);
+      if (pathStages != null) {
+        stages.put(path, pathStages);
+      }
+    }
+    return stages;
+  }
+
+  /**
+   * Reads the versions of a conflicting file.
+   *
+   * @param dirCache The index.
+   * @param path     The path of the file.
+   *
+   * @return The versions or <code>null</code> if the file is not in conflict.
+   */
+  private static ConflictStages resolve(DirCache dirCache, String path) {
+    ConflictStages stages = null;
+    int first = dirCache.findEntry(path);
+    if (first >= 0) {
+      ObjectId[] ids = new ObjectId[DirCacheEntry.STAGE_3 + 1];
+      int next = dirCache.nextEntry(first);
+      for (int i = first; i < next; i++) {
+        DirCacheEntry entry = dirCache.getEntry(i);
+        ids[entry.getStage()] = entry.getObjectId();
+      }
+      if (ids[DirCacheEntry.STAGE_0] == null) {
+        stages = new ConflictStages(ids[DirCacheEntry.STAGE_1], ids[DirCacheEntry.STAGE_2], ids[DirCacheEntry.STAGE_3]);
+      }
+    }
+    return stages;
+  }
+
+  /**
+   * Gives the index of a repository, reading it again only if the index file changed.
+   *
+   * @param repository The repository.
+   *
+   * @return The index.
+   *
+   * @throws IOException If the index cannot be read.
+   */
+  private synchronized DirCache getIndex(Repository repository) throws IOException {
+    if (index == null || !repository.getDirectory().equals(indexRepositoryDir) || index.isOutdated()) {
+      index = repository.readDirCache();
+      indexRepositoryDir = repository.getDirectory();
+    }
+    return index;
+  }
+}
@@ -0,0 +1,93 @@
+package com.oxygenxml.git.service;
+
+import org.eclipse.jgit.transport.TagOpt;
+
+import com.oxygenxml.git.service.metrics.TracedOperation;
+
+/**
+ * What a fetch brings from the remote repository and how thoroughly it verifies it.
+ * Explicit fetches use {@link #ALL_BRANCHES}. The background refreshes use the profile
+ * chosen for the repository, {@link #TRUSTED_REMOTE} by default.
+ */
+public enum FetchProfile {
+  /**
+   * Only the upstream branch of the current branch, without checking the received objects.
+   * When the current branch has no upstream, all the branches are fetched and recorded
+   * as a normal {@link TracedOperation#FETCH}.
+   */
+  UPSTREAM_BRANCH(true, false, null, TracedOperation.FETCH_UPSTREAM_BRANCH),
+  /**
+   * All the branches, checking that the received objects are complete.
+   */
+  ALL_BRANCHES(false, true, null, TracedOperation.FETCH),
+  /**
+   * All the branches, without the tags. The tags are brought only by the fetches
+   * that use another profile.
+   */
+  NO_TAGS(false, true, TagOpt.NO_TAGS, TracedOperation.FETCH_WITHOUT_TAGS),
+  /**
+   * All the branches, without checking the received objects. Checking the objects
+   * is expensive on repositories with large binary files.
+   */
+  TRUSTED_REMOTE(false, false, null, TracedOperation.FETCH_TRUSTED_REMOTE);
+
+  /**
+   * <code>true</code> to fetch only the upstream branch.
+   */
+  private final boolean upstreamOnly;
+  /**
+   * <code>true</code> to check that the received objects are complete.
+   */
+  private final boolean checkFetchedObjects;
+  /**
+   * Which tags to fetch. <code>null</code> to follow the configuration of the remote.
+   */
+  private final TagOpt tagOpt;
+  /**
+   * The operation under which the duration and the transferred objects are recorded.
+   */
+  private final TracedOperation tracedOperation;
+
+  /**
+   * Constructor.
+   *
+   * @param upstreamOnly        <code>true</code> to fetch only the upstream branch.
+   * @param checkFetchedObjects <code>true</code> to check that the received objects are complete.
+   * @param tagOpt              Which tags to fetch. <code>null</code> to follow the configuration of the remote.
+   * @param tracedOperation     The operation under which the metrics are recorded.
+   */
+  private FetchProfile(boolean upstreamOnly, boolean checkFetchedObjects, TagOpt tagOpt, TracedOperation tracedOperation) {
+    this.upstreamOnly = upstreamOnly;
+    this.checkFetchedObjects = checkFetchedObjects;
+    this.tagOpt = tagOpt;
+    this.tracedOperation = tracedOperation;
+  }
+
+  /**
+   * @return <code>true</code> to fetch only the upstream branch.
+   */
+  public boolean isUpstreamOnly() {
+    return upstreamOnly;
+  }
+
+  /**
+   * @return <code>true</code> to check that the received objects are complete.
+   */
+  public boolean isCheckFetchedObjects() {
+    return checkFetchedObjects;
+  }
+
+  /**
+   * @return Which tags to fetch. <code>null</code> to follow the configuration of the remote.
+   */
+  public TagOpt getTagOpt() {
+    return tagOpt;
+  }
+
+  /**
+   * @return The operation under which the duration and the transferred objects are recorded.
+   */
+  public TracedOperation getTracedOperation() {
+    return tracedOperation;
+  }
+}
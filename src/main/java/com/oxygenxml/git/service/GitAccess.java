@@ -30,6 +30,7 @@ import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CreateBranchCommand;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.DeleteBranchCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ListBranchCommand.ListMode;
 import org.eclipse.jgit.api.LogCommand;
@@ -40,7 +41,6 @@ import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.PushCommand;
 import org.eclipse.jgit.api.RebaseCommand.Operation;
 import org.eclipse.jgit.api.RebaseResult;
-import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.ResetCommand.ResetType;
 import org.eclipse.jgit.api.RmCommand;
 import org.eclipse.jgit.api.StashCreateCommand;
@@ -51,28 +51,30 @@ import org.eclipse.jgit.api.errors.AbortedByHookException;
 import org.eclipse.jgit.api.errors.CheckoutConflictException;
 import org.eclipse.jgit.api.errors.ConcurrentRefUpdateException;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.api.errors.NoMessageException;
 import org.eclipse.jgit.api.errors.StashApplyFailureException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.api.errors.UnmergedPathsException;
 import org.eclipse.jgit.api.errors.WrongRepositoryStateException;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.NoMergeBaseException;
 import org.eclipse.jgit.errors.NoMergeBaseException.MergeBaseFailureReason;
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.BranchConfig;
 import org.eclipse.jgit.lib.BranchTrackingStatus;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
-import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.RefUpdate;
@@ -94,7 +96,6 @@ import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.RemoteRefUpdate;
 import org.eclipse.jgit.transport.TrackingRefUpdate;
 import org.eclipse.jgit.transport.URIish;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.eclipse.jgit.util.FS;
@@ -104,11 +105,14 @@ import com.oxygenxml.git.auth.AuthUtil;
 import com.oxygenxml.git.auth.AuthenticationInterceptor;
 import com.oxygenxml.git.auth.SSHCapableUserCredentialsProvider;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.ConflictStagesResolver.ConflictStages;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationSpan;
+import com.oxygenxml.git.service.metrics.TracedOperation;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
-import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.utils.RepoUtil;
 import com.oxygenxml.git.utils.URIUtil;
 import com.oxygenxml.git.view.dialog.FileStatusDialog;
@@ -121,11 +125,11 @@ import com.oxygenxml.git.view.event.PullType;
 import com.oxygenxml.git.view.event.WorkingCopyGitEventInfo;
 import com.oxygenxml.git.view.history.CommitCharacteristics;
 import com.oxygenxml.git.view.history.RenameTracker;
+import com.oxygenxml.git.view.stash.StashApplicabilityReport;
 import com.oxygenxml.git.view.stash.StashApplyFailureWithStatusException;
 import com.oxygenxml.git.view.stash.StashApplyStatus;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
-import ro.sync.exml.workspace.api.standalone.StandalonePluginWorkspace;
 
 /**
  * Implements some basic git functionality like commit, push, pull, retrieve
@@ -492,13 +496,20 @@ public class GitAccess {
 	public GitStatus getStatus() {
 	  GitStatus gitStatus = null;
 	  if (git != null) {
-	    try {
-	      LOGGER.debug("-- Compute our GitStatus -> getStatus() --");
-	      Status status = git.status().call();
-	      LOGGER.debug("-- Get JGit status -> git.status().call() --");
-	      gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status));
-	    } catch (GitAPIException e) {
-	      LOGGER.error(e, e);
+	    try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.STATUS)) {
+	      try {
+	        StatusSnapshotManager snapshots = StatusSnapshotManager.getInstance();
+	        long generation = snapshots.getGeneration();
+	        LOGGER.debug("-- Compute our GitStatus -> getStatus() --");
+	        Status status = git.status().call();
+	        LOGGER.debug("-- Get JGit status -> git.status().call() --");
+	        gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status));
+	        Repository repository = git.getRepository();
+	        snapshots.publish(generation, repository, gitStatus, repository.getRepositoryState());
+	      } catch (GitAPIException e) {
+	        span.markFailed();
+	        LOGGER.error(e, e);
+	      }
 	    }
 	  }
     return gitStatus != null ? gitStatus 
@@ -1034,7 +1045,15 @@ public class GitAccess {
 					Arrays.asList(
 							new RefSpec(localBranchName + ":" + upstreamBranch.substring(upstreamBranch.indexOf('/') + 1))));
 		}
-		Iterable<PushResult> pushResults = pushCommand.call();
+		Iterable<PushResult> pushResults;
+		try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.PUSH)) {
+		  try {
+		    pushResults = pushCommand.setProgressMonitor(span.createTransferMonitor()).call();
+		  } catch (GitAPIException | RuntimeException e) {
+		    span.markFailed();
+		    throw e;
+		  }
+		}
 
 		LOGGER.debug("Push Ended");
 
@@ -1105,10 +1124,19 @@ public class GitAccess {
 		  // Call "Pull"
 		  Repository repository = git.getRepository();
 		  ObjectId oldHead = resolveHead(repository);
-      PullCommand pullCmd = git.pull()
-          .setRebase(PullType.REBASE == pullType)
-          .setCredentialsProvider(credentialsProvider);
-      PullResult pullCommandResult = pullCmd.call();
+      PullResult pullCommandResult;
+      try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.PULL)) {
+        PullCommand pullCmd = git.pull()
+            .setRebase(PullType.REBASE == pullType)
+            .setCredentialsProvider(credentialsProvider)
+            .setProgressMonitor(span.createTransferMonitor());
+        try {
+          pullCommandResult = pullCmd.call();
+        } catch (GitAPIException | RuntimeException e) {
+          span.markFailed();
+          throw e;
+        }
+      }
 
 		  // Get fetch result
 		  Collection<TrackingRefUpdate> trackingRefUpdates = pullCommandResult.getFetchResult().getTrackingRefUpdates();
@@ -1119,10 +1147,7 @@ public class GitAccess {
             .showErrorMessage(TRANSLATOR.getTranslation(lockFailureMessage));
 		    pullResponseToReturn.setStatus(PullStatus.LOCK_FAILED);
 		  } else {
-		    ObjectId head = resolveHead(repository);
-		    if (oldHead != null && head != null) {
-		      refreshProject(repository, oldHead, head);
-		    }
+		    refreshProject(repository, oldHead, resolveHead(repository));
 
 		    RebaseResult rebaseResult = pullCommandResult.getRebaseResult();
 		    if (rebaseResult != null) {
@@ -1200,6 +1225,83 @@ public class GitAccess {
     return head;
   }
 
+  /**
+   * Writes the files of a revision in the working tree and in the index, in parallel, when many
+   * files change and no local change is in the way. The JGit command that follows and moves HEAD
+   * then finds almost nothing left to write. Otherwise, nothing is changed and the JGit command
+   * does all the work, reporting the conflicts as usual.<br><br>
+   * 
+   * The caller must check beforehand that the JGit command can move HEAD and must call
+   * {@link #rollbackParallelCheckout(Repository, ObjectId, ObjectId)} if the command fails anyway.
+   * 
+   * @param repository The repository.
+   * @param oldTree    The tree of HEAD. <code>null</code> if unknown.
+   * @param revision   The revision to checkout.
+   * @param monitor    Progress support.
+   * 
+   * @return The tree written in the working tree and in the index, or <code>null</code> if nothing was changed.
+   * 
+   * @throws GitAPIException If the files cannot be written. The working tree and the index are left as they were.
+   */
+  private ObjectId checkoutInParallel(Repository repository, ObjectId oldTree, String revision, ProgressMonitor monitor)
+      throws GitAPIException {
+    ObjectId writtenTree = null;
+    if (oldTree != null && repository.getRepositoryState().canCheckout()) {
+      try {
+        ObjectId newTree = repository.resolve(revision + "^{tree}");
+        if (newTree != null && !newTree.equals(oldTree)
+            && new ParallelCheckout(repository, monitor, ParallelCheckout.DEFAULT_MIN_CHANGED_FILES)
+            .checkout(oldTree, newTree)) {
+          writtenTree = newTree;
+        }
+      } catch (RevisionSyntaxException e) {
+        LOGGER.debug(e, e);
+      } catch (IOException e) {
+        throw new GitAPIException(e.getMessage(), e) {};
+      }
+    }
+    return writtenTree;
+  }
+
+  /**
+   * Brings the working tree and the index back to the tree of HEAD, after a parallel checkout
+   * whose JGit command failed to move HEAD. The parallel checkout only runs when there are no
+   * local changes, so nothing is lost.
+   * 
+   * @param repository  The repository.
+   * @param headTree    The tree of HEAD.
+   * @param writtenTree The tree written by the parallel checkout.
+   */
+  private void rollbackParallelCheckout(Repository repository, ObjectId headTree, ObjectId writtenTree) {
+    try {
+      // Unlocks the index.
+      new DirCacheCheckout(repository, writtenTree, repository.lockDirCache(), headTree).checkout();
+    } catch (IOException e) {
+      LOGGER.error(e, e);
+    }
+  }
+
+  /**
+   * Checks if a branch can be created with the given name.
+   * 
+   * @param repository The repository.
+   * @param branchName The short name of the branch.
+   * 
+   * @return <code>true</code> if the name is valid and no branch has it.
+   */
+  private static boolean isNewBranchName(Repository repository, String branchName) {
+    boolean isNew = false;
+    String refName = Constants.R_HEADS + branchName;
+    if (Repository.isValidRefName(refName)) {
+      try {
+        isNew = repository.exactRef(refName) == null;
+      } catch (IOException e) {
+        LOGGER.debug(e, e);
+      }
+    }
+    return isNew;
+  }
+
 	/**
 	 * Treat merge result.
 	 * 
@@ -1288,37 +1390,76 @@ public class GitAccess {
   }
 
 	/**
-	 * Refresh the Project view.
+	 * Refresh, in the Project view, the folders that changed between two trees.
 	 * 
 	 * @param repository The current repository.      
-	 * @param oldHead    The old HEAD (before pull).
-	 * @param head       The new HEAD (after pull).
-	 * 
-	 * @throws GitAPIException when error occurs during diff.
+	 * @param oldTree    The old HEAD tree (before the operation). May be <code>null</code>.
+	 * @param newTree    The new HEAD tree (after the operation). May be <code>null</code>.
 	 */
-  private void refreshProject(Repository repository, ObjectId oldHead, ObjectId head) throws GitAPIException {
-    CanonicalTreeParser oldTreeIter = new CanonicalTreeParser();
-    CanonicalTreeParser newTreeIter = new CanonicalTreeParser();
-    try {
-      ObjectReader reader = repository.newObjectReader();
-      oldTreeIter.reset(reader, oldHead);
-      newTreeIter.reset(reader, head);
-			List<DiffEntry> diffs = git.diff().setNewTree(newTreeIter).setOldTree(oldTreeIter).call();
-      
-      Set<File> pulledFilesParentDirs = new HashSet<>();
-      String selectedRepository = OptionsManager.getInstance().getSelectedRepository();
-      for (DiffEntry diffEntry : diffs) {
-        if (diffEntry.getChangeType() == ChangeType.ADD) {
-          pulledFilesParentDirs.add(
-              new File(selectedRepository, diffEntry.getNewPath()).getParentFile()); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN - false positive
-        } else if (diffEntry.getChangeType() == ChangeType.DELETE) {
-          pulledFilesParentDirs.add(
-              new File(selectedRepository, diffEntry.getOldPath()).getParentFile()); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN - false positive
+  private void refreshProject(Repository repository, ObjectId oldTree, ObjectId newTree) {
+    if (oldTree != null && newTree != null && !oldTree.equals(newTree)) {
+      ProjectViewRefreshPlanner planner = new ProjectViewRefreshPlanner(repository.getWorkTree());
+      try {
+        planner.addTreeDiff(repository, oldTree, newTree);
+        planner.refreshProjectView();
+      } catch (IOException e) {
+        LOGGER.error(e, e);
+      }
+    }
+  }
+  
+  /**
+   * Refresh, in the Project view, the folders changed by a merge that stopped with conflicts.
+   * HEAD did not move, but the changes brought by the merged branch were written in the
+   * working tree, some of them with conflict markers.
+   * 
+   * @param repository The current repository.
+   * @param result     The result of the merge.
+   * @param headTree   The tree of HEAD. <code>null</code> if unknown.
+   * @param merged     The merged commit.
+   */
+  private void refreshProjectAfterConflictingMerge(
+      Repository repository,
+      MergeResult result,
+      ObjectId headTree,
+      ObjectId merged) {
+    ProjectViewRefreshPlanner planner = new ProjectViewRefreshPlanner(repository.getWorkTree());
+    result.getConflicts().keySet().forEach(planner::addChangedPath);
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      ObjectId oldTree = headTree;
+      if (result.getBase() != null) {
+        try {
+          // Only what the merged branch changed since the common ancestor was written.
+          oldTree = revWalk.parseCommit(result.getBase()).getTree();
+        } catch (MissingObjectException e) {
+          // A virtual ancestor, built from several common ancestors and never stored.
+          LOGGER.debug(e, e);
         }
       }
-      // Refresh the Project view
-      StandalonePluginWorkspace wsAccess = (StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace();
-      wsAccess.getProjectManager().refreshFolders(new File[] { FileUtil.getCommonDir(pulledFilesParentDirs) });
+      planner.addTreeDiff(repository, oldTree, revWalk.parseCommit(merged).getTree());
+    } catch (IOException e) {
+      LOGGER.error(e, e);
+    }
+    planner.refreshProjectView();
+  }
+  
+  /**
+   * Refresh, in the Project view, the folders changed by applying a stash.
+   * 
+   * @param repository The current repository.
+   * @param stashId    The ID of the stash commit.
+   */
+  private void refreshProjectAfterStashApply(Repository repository, ObjectId stashId) {
+    ProjectViewRefreshPlanner planner = new ProjectViewRefreshPlanner(repository.getWorkTree());
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      RevCommit stash = revWalk.parseCommit(stashId);
+      // The working tree changes.
+      planner.addTreeDiff(repository, revWalk.parseCommit(stash.getParent(0)).getTree(), stash.getTree());
+      if (stash.getParentCount() > 2) {
+        // The untracked files.
+        planner.addTreeDiff(repository, null, revWalk.parseCommit(stash.getParent(2)).getTree());
+      }
+      planner.refreshProjectView();
     } catch (IOException e) {
       LOGGER.error(e, e);
     }
@@ -1366,7 +1507,7 @@ public class GitAccess {
 	    } else {
 	      git.add().addFilepattern(file.getFileLocation()).call();
 	    }
-	    fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths));
+	    fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths, getNewStates(filePaths, true)));
 	  } catch (GitAPIException e) {
 	    fireOperationFailed(new FileGitEventInfo(GitOperation.STAGE, filePaths), e);
 	    LOGGER.error(e, e);
@@ -1408,13 +1549,44 @@ public class GitAccess {
 			  removeCmd.call();
 			}
 			
-			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths));
+			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths, getNewStates(filePaths, true)));
 		} catch (GitAPIException e) {
 		  fireOperationFailed(new FileGitEventInfo(GitOperation.STAGE, filePaths), e);
 		  LOGGER.error(e, e);
 		}
 	}
 	
+	/**
+	 * Computes the new states of the files touched by an index operation, with a single status
+	 * limited to their paths. Published with the event of the operation, so that the views
+	 * don't compute it again. Only the side that the views read is computed: the staged states
+	 * after staging and the unstaged ones, with their submodules, after unstaging.
+	 * 
+	 * @param paths  The touched files.
+	 * @param staged <code>true</code> to compute the staged states, <code>false</code> for the unstaged ones.
+	 * 
+	 * @return The staged or the unstaged states of the touched files.
+	 * <code>null</code> if they could not be computed.
+	 */
+	private List<FileStatus> getNewStates(Collection<String> paths, boolean staged) {
+	  if (paths.isEmpty()) {
+	    // Without paths, the status would cover the entire working copy.
+	    return Collections.emptyList();
+	  }
+	  
+	  StatusCommand statusCmd = git.status();
+	  for (String path : paths) {
+	    statusCmd.addPath(path);
+	  }
+	  try {
+	    Status status = statusCmd.call();
+	    return staged ? getStagedFiles(status) : getUnstagedFiles(status);
+	  } catch (GitAPIException e) {
+	    LOGGER.error(e, e);
+	    return null;
+	  }
+	}
+	
 	 /**
    * Gets all the files from the index.<br><br>
    * 
@@ -1514,17 +1686,22 @@ public class GitAccess {
 	 * @param files The list of file to be removed
 	 */
 	public void resetAll(List<FileStatus> files) {
+	  resetAll(files, NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Reset all the specified files from the staging area, in chunks.
+	 * 
+	 * @param files   The list of file to be removed
+	 * @param monitor Reports the progress. If canceled, only the files reset until then
+	 *                are reported as unstaged.
+	 */
+	public void resetAll(List<FileStatus> files, ProgressMonitor monitor) {
 	  Collection<String> filePaths = getFilePaths(files);
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths));
-			if (!files.isEmpty()) {
-				ResetCommand reset = git.reset();
-				for (FileStatus file : files) {
-					reset.addPath(file.getFileLocation());
-				}
-				reset.call();
-			}
-			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths));
+		  List<String> unstaged = new WorkingTreeRestorer(git.getRepository()).unstage(filePaths, monitor);
+			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.UNSTAGE, unstaged, getNewStates(unstaged, false)));
 		} catch (GitAPIException e) {
 		  fireOperationFailed(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths), e);
 		  LOGGER.error(e, e);
@@ -1657,9 +1834,33 @@ public class GitAccess {
    * @param commitId  The commit id to which to reset.
    */
   public void resetToCommit(ResetType resetType, String commitId) {
+    resetToCommit(resetType, commitId, NullProgressMonitor.INSTANCE);
+  }
+
+  /**
+   * Resets the current branch to a specified commit.
+   * 
+   * @param resetType The reset type to perform on the current branch.
+   * @param commitId  The commit id to which to reset.
+   * @param monitor   Progress support, for the files written by a hard reset.
+   */
+  public void resetToCommit(ResetType resetType, String commitId, ProgressMonitor monitor) {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.RESET_TO_COMMIT));
     try {
-      git.reset().setMode(resetType).setRef(commitId).call();
+      Repository repository = git.getRepository();
+      ObjectId oldHead = resolveHead(repository);
+      ObjectId writtenTree = resetType == ResetType.HARD ? checkoutInParallel(repository, oldHead, commitId, monitor) : null;
+      try {
+        git.reset().setMode(resetType).setRef(commitId).call();
+      } catch (GitAPIException | JGitInternalException e) {
+        if (writtenTree != null) {
+          rollbackParallelCheckout(repository, oldHead, writtenTree);
+        }
+        throw e;
+      }
+      if (resetType == ResetType.HARD) {
+        refreshProject(repository, oldHead, resolveHead(repository));
+      }
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.RESET_TO_COMMIT));
     } catch (GitAPIException e) {
       fireOperationFailed(new GitEventInfo(GitOperation.RESET_TO_COMMIT), e);
@@ -1739,18 +1940,46 @@ public class GitAccess {
 	 * @param paths The paths to the files to restore.
 	 */
 	public void restoreLastCommitFile(List<String> paths) {
+	  restoreLastCommitFile(paths, NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Restores the index content of the files at the given paths, in chunks, writing the files in parallel.
+	 * 
+	 * @param paths   The paths to the files to restore.
+	 * @param monitor Reports the progress. If canceled, only the files restored until then
+	 *                are reported as discarded.
+	 */
+	public void restoreLastCommitFile(List<String> paths, ProgressMonitor monitor) {
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.DISCARD, paths));
-		  CheckoutCommand checkoutCmd = git.checkout();
-		  checkoutCmd.addPaths(paths);
-			checkoutCmd.call();
-			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.DISCARD, paths));
-		} catch (GitAPIException e) {
+		  List<String> restored = new WorkingTreeRestorer(git.getRepository()).restore(paths, monitor);
+		  // Paths that are not in the index anymore were only taken out of it.
+		  fireOperationSuccessfullyEnded(new FileGitEventInfo(
+		      GitOperation.DISCARD, monitor.isCancelled() ? restored : paths));
+		} catch (IOException e) {
       fireOperationFailed(new FileGitEventInfo(GitOperation.DISCARD, paths), e);
 		  LOGGER.error(e, e);
 		}
 	}
 
+	/**
+	 * Deletes files or folders from the working tree, in parallel. Meant for the new files,
+	 * untracked or only added to the index. The deleted paths are reported as discarded,
+	 * also when the operation is canceled.
+	 * 
+	 * @param paths   The paths of the files or folders.
+	 * @param monitor Reports the progress and tells when to stop.
+	 * 
+	 * @return The deleted paths.
+	 */
+	public List<String> deleteFromWorkingTree(List<String> paths, ProgressMonitor monitor) {
+	  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.DISCARD, paths));
+	  List<String> deleted = new WorkingTreeRestorer(git.getRepository()).delete(paths, monitor);
+	  fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.DISCARD, deleted));
+	  return deleted;
+	}
+
 	/**
 	 * Calculates how many commits the local repository is ahead from the current
 	 * local repository base commit
@@ -1812,7 +2041,150 @@ public class GitAccess {
 	 */
 	public void fetch()
 			throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
-	  LOGGER.debug("Begin fetch");
+	  fetch(FetchProfile.ALL_BRANCHES);
+	}
+	
+	/**
+	 * Fetches with the profile chosen for the current repository for the background refreshes.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	public void fetchInBackground()
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  if (git == null) {
+	    throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
+	  }
+	  fetch(OptionsManager.getInstance().getBackgroundFetchProfile(git.getRepository().getIdentifier()));
+	}
+	
+	/**
+	 * Brings commits to the local repository but does not merge them.
+	 * 
+	 * @param profile What to fetch and how thoroughly to check it.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	public void fetch(FetchProfile profile)
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  if (git == null) {
+	    throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
+	  }
+	  
+	  String remote = null;
+	  RefSpec refSpec = null;
+	  if (profile.isUpstreamOnly()) {
+	    try {
+	      Repository repository = git.getRepository();
+	      BranchConfig branchConfig = new BranchConfig(repository.getConfig(), repository.getBranch());
+	      if (branchConfig.getMerge() != null && branchConfig.getRemoteTrackingBranch() != null) {
+	        remote = branchConfig.getRemote();
+	        refSpec = new RefSpec("+" + branchConfig.getMerge() + ":" + branchConfig.getRemoteTrackingBranch());
+	      }
+	    } catch (IOException e) {
+	      LOGGER.debug(e, e);
+	    }
+	  }
+	  TracedOperation tracedOperation = profile.getTracedOperation();
+	  if (refSpec == null) {
+	    // All the branches. Also when the current branch has no upstream.
+	    refSpec = new RefSpec("+refs/heads/*:refs/remotes/origin/*");
+	    if (profile.isUpstreamOnly()) {
+	      tracedOperation = TracedOperation.FETCH;
+	    }
+	  }
+	  
+	  fetch(remote, refSpec, profile, tracedOperation);
+	}
+	
+	/**
+	 * Checks if the upstream branch of the current branch moved and, only in this case,
+	 * fetches it. The check only reads the branches advertised by the remote repository,
+	 * so it is much cheaper than a fetch.
+	 * 
+	 * @return <code>true</code> if the upstream branch moved and was fetched.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	public boolean fetchUpstreamIfChanged()
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  if (git == null) {
+	    throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
+	  }
+
+	  Repository repository = git.getRepository();
+	  String remote;
+	  String upstream;
+	  String trackingBranch;
+	  ObjectId localId;
+	  try {
+	    BranchConfig branchConfig = new BranchConfig(repository.getConfig(), repository.getBranch());
+	    remote = branchConfig.getRemote();
+	    upstream = branchConfig.getMerge();
+	    trackingBranch = branchConfig.getRemoteTrackingBranch();
+	    if (remote == null || upstream == null || trackingBranch == null) {
+	      // No upstream branch. Nothing to check.
+	      return false;
+	    }
+	    Ref trackingRef = repository.exactRef(trackingBranch);
+	    localId = trackingRef != null ? trackingRef.getObjectId() : null;
+	  } catch (IOException e) {
+	    LOGGER.debug(e, e);
+	    return false;
+	  }
+
+	  AuthenticationInterceptor.install();
+	  SSHCapableUserCredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
+	  Ref remoteRef = null;
+	  try {
+	    remoteRef = git.lsRemote()
+	        .setRemote(remote)
+	        .setHeads(true)
+	        .setCredentialsProvider(credentialsProvider)
+	        .callAsMap()
+	        .get(upstream);
+	  } catch (TransportException e) {
+	    LOGGER.debug(e, e);
+	    throwFetchException(e, credentialsProvider);
+	  } catch (GitAPIException e) {
+	    LOGGER.error(e, e);
+	    return false;
+	  }
+
+	  ObjectId remoteId = remoteRef != null ? remoteRef.getObjectId() : null;
+	  boolean changed = remoteId != null && !remoteId.equals(localId);
+	  if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug("Upstream " + upstream + " is at " + remoteId + ", tracking branch is at " + localId);
+	  }
+	  if (changed) {
+	    fetch(remote, new RefSpec("+" + upstream + ":" + trackingBranch), FetchProfile.UPSTREAM_BRANCH,
+	        FetchProfile.UPSTREAM_BRANCH.getTracedOperation());
+	  }
+	  return changed;
+	}
+	
+	/**
+	 * Brings the commits of the given branches to the local repository but does not merge them.
+	 * 
+	 * @param remote          The remote to fetch from. <code>null</code> for the default one.
+	 * @param refSpec         What to fetch and where to store it.
+	 * @param profile         How thoroughly to check the fetched objects and which tags to fetch.
+	 * @param tracedOperation The operation under which the metrics are recorded.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	private void fetch(String remote, RefSpec refSpec, FetchProfile profile, TracedOperation tracedOperation)
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug("Begin fetch " + refSpec + " with profile " + profile);
+	  }
     if (git == null) {
       throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
     }
@@ -1820,42 +2192,66 @@ public class GitAccess {
 		AuthenticationInterceptor.install();
 		
 		SSHCapableUserCredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
+		OperationSpan span = OperationMetrics.getInstance().startSpan(tracedOperation);
 		try {
 			StoredConfig config = git.getRepository().getConfig();
 			Set<String> sections = config.getSections();
 			if (sections.contains(ConfigConstants.CONFIG_KEY_REMOTE)) {
-        git.fetch()
-            .setRefSpecs(new RefSpec("+refs/heads/*:refs/remotes/origin/*"))
-            .setCheckFetchedObjects(true)
+        FetchCommand fetchCommand = git.fetch()
+            .setRefSpecs(refSpec)
+            .setCheckFetchedObjects(profile.isCheckFetchedObjects())
+            .setTagOpt(profile.getTagOpt())
             .setRemoveDeletedRefs(true)
 						.setCredentialsProvider(credentialsProvider)
-						.call();
+						.setProgressMonitor(span.createTransferMonitor());
+        if (remote != null) {
+          fetchCommand.setRemote(remote);
+        }
+        fetchCommand.call();
 			}
 		} catch (TransportException e) {
+		  span.markFailed();
 		  LOGGER.debug(e, e);
-			
-			Throwable cause = e;
-	    while (cause.getCause() != null) {
-	      cause = cause.getCause();
-	    }
-
-			String message = e.getMessage();
-      if (message != null && (message.contains("Authentication is required but no CredentialsProvider has been registered")
-					|| message.contains(AuthUtil.NOT_AUTHORIZED))) {
-				throw new PrivateRepositoryException(e);
-			} else if (message != null && message.toLowerCase().contains(AuthUtil.AUTH_FAIL) 
-			    && credentialsProvider.isPassphaseRequested()
-			    || (cause instanceof SshException)
-              && ((SshException) cause).getDisconnectCode() == SshConstants.SSH2_DISCONNECT_NO_MORE_AUTH_METHODS_AVAILABLE) {
-			  throw new SSHPassphraseRequiredException(e);
-			} else {
-			  throw new RepositoryUnavailableException(e);
-			}
+		  throwFetchException(e, credentialsProvider);
 		} catch (GitAPIException | RevisionSyntaxException e) {
+		  span.markFailed();
 		  LOGGER.error(e, e);
-    } 
+    } finally {
+      span.close();
+    }
 		LOGGER.debug("End fetch");
 	}
+	
+	/**
+	 * Converts a transport failure into the exception presented to the user.
+	 * 
+	 * @param e                   The transport failure.
+	 * @param credentialsProvider The credentials used for the operation.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	private static void throwFetchException(TransportException e, SSHCapableUserCredentialsProvider credentialsProvider)
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  Throwable cause = e;
+	  while (cause.getCause() != null) {
+	    cause = cause.getCause();
+	  }
+
+	  String message = e.getMessage();
+	  if (message != null && (message.contains("Authentication is required but no CredentialsProvider has been registered")
+	      || message.contains(AuthUtil.NOT_AUTHORIZED))) {
+	    throw new PrivateRepositoryException(e);
+	  } else if (message != null && message.toLowerCase().contains(AuthUtil.AUTH_FAIL) 
+	      && credentialsProvider.isPassphaseRequested()
+	      || (cause instanceof SshException)
+	      && ((SshException) cause).getDisconnectCode() == SshConstants.SSH2_DISCONNECT_NO_MORE_AUTH_METHODS_AVAILABLE) {
+	    throw new SSHPassphraseRequiredException(e);
+	  } else {
+	    throw new RepositoryUnavailableException(e);
+	  }
+	}
 
 	/**
 	 * Replace with remote content. Useful when resolving a conflict using 'theirs'.
@@ -1869,6 +2265,30 @@ public class GitAccess {
 		  LOGGER.error(e, e);
 		}
 	}
+	
+	/**
+	 * Replace with remote content, with a single checkout. Useful when resolving many conflicts using 'theirs'.
+	 * The conflicting files deleted on their side are left as they are.
+	 * 
+	 * @param filePaths File paths.
+	 */
+	public void replaceWithRemoteContent(Collection<String> filePaths) {
+	  try {
+	    Map<String, ConflictStages> stages = ConflictStagesResolver.getInstance().resolve(git.getRepository(), filePaths);
+	    List<String> toCheckout = new ArrayList<>(filePaths.size());
+	    for (String filePath : filePaths) {
+	      ConflictStages pathStages = stages.get(filePath);
+	      if (pathStages == null || pathStages.getTheirs() != null) {
+	        toCheckout.add(filePath);
+	      }
+	    }
+	    if (!toCheckout.isEmpty()) {
+	      git.checkout().setStage(Stage.THEIRS).addPaths(toCheckout).call();
+	    }
+	  } catch (Exception e) {
+	    LOGGER.error(e, e);
+	  }
+	}
 
 	/**
 	 * Restore to the initial state of the repository. Only applicable if the
@@ -1948,9 +2368,32 @@ public class GitAccess {
 	 * @throws GitAPIException
 	 */
 	public void setBranch(String branch) throws GitAPIException {
+	  setBranch(branch, NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Sets the given branch as the current branch
+	 * 
+	 * @param branch  The short name of the branch to set.
+	 * @param monitor Progress support, for the files written in the working tree.
+	 * 
+	 * @throws GitAPIException
+	 */
+	public void setBranch(String branch, ProgressMonitor monitor) throws GitAPIException {
 	  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, branch));
 	  try {
-	    git.checkout().setName(branch).call();
+	    Repository repository = git.getRepository();
+	    ObjectId oldHead = resolveHead(repository);
+	    ObjectId writtenTree = checkoutInParallel(repository, oldHead, Constants.R_HEADS + branch, monitor);
+	    try {
+	      git.checkout().setName(branch).call();
+	    } catch (GitAPIException | JGitInternalException e) {
+	      if (writtenTree != null) {
+	        rollbackParallelCheckout(repository, oldHead, writtenTree);
+	      }
+	      throw e;
+	    }
+	    refreshProject(repository, oldHead, resolveHead(repository));
 	    fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, branch));
 	  } catch (GitAPIException e) {
 	    fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, branch), e);
@@ -1966,14 +2409,47 @@ public class GitAccess {
    * @throws GitAPIException 
    */
   public void checkoutRemoteBranchWithNewName(String newBranchName, String remoteBranchName) throws GitAPIException{
+    checkoutRemoteBranchWithNewName(newBranchName, remoteBranchName, NullProgressMonitor.INSTANCE);
+  }
+
+  /**
+   * Creates a local branch for a remote branch (which it starts tracking), and sets it as the current branch.
+   * 
+   * @param newBranchName The name of the new branch created at checkout.
+   * @param remoteBranchName The branch to checkout (short name).
+   * @param monitor Progress support, for the files written in the working tree.
+   * 
+   * @throws GitAPIException 
+   */
+  public void checkoutRemoteBranchWithNewName(String newBranchName, String remoteBranchName, ProgressMonitor monitor)
+      throws GitAPIException {
     fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName));
     try {
-      git.checkout()
-          .setCreateBranch(true)
-          .setName(newBranchName)
-          .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK)
-          .setStartPoint(Constants.DEFAULT_REMOTE_NAME + "/" + remoteBranchName)
-          .call();
+      Repository repository = git.getRepository();
+      ObjectId oldHead = resolveHead(repository);
+      ObjectId writtenTree = null;
+      if (isNewBranchName(repository, newBranchName)) {
+        // Otherwise, the JGit command fails and reports why, before touching the working tree.
+        writtenTree = checkoutInParallel(
+            repository,
+            oldHead,
+            Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + remoteBranchName,
+            monitor);
+      }
+      try {
+        git.checkout()
+            .setCreateBranch(true)
+            .setName(newBranchName)
+            .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK)
+            .setStartPoint(Constants.DEFAULT_REMOTE_NAME + "/" + remoteBranchName)
+            .call();
+      } catch (GitAPIException | JGitInternalException e) {
+        if (writtenTree != null) {
+          rollbackParallelCheckout(repository, oldHead, writtenTree);
+        }
+        throw e;
+      }
+      refreshProject(repository, oldHead, resolveHead(repository));
       fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName));
     } catch (GitAPIException e) {
       fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName), e);
@@ -1992,11 +2468,26 @@ public class GitAccess {
 	public void checkoutCommitAndCreateBranch(String branchName, String commitID) throws GitAPIException {
 	  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName));
     try {
-  	  git.checkout()
-  	      .setCreateBranch(true)
-  	      .setName(branchName)
-  	      .setStartPoint(commitID)
-  	      .call();
+      Repository repository = git.getRepository();
+      ObjectId oldHead = resolveHead(repository);
+      ObjectId writtenTree = null;
+      if (isNewBranchName(repository, branchName)) {
+        // Otherwise, the JGit command fails and reports why, before touching the working tree.
+        writtenTree = checkoutInParallel(repository, oldHead, commitID, NullProgressMonitor.INSTANCE);
+      }
+      try {
+        git.checkout()
+            .setCreateBranch(true)
+            .setName(branchName)
+            .setStartPoint(commitID)
+            .call();
+      } catch (GitAPIException | JGitInternalException e) {
+        if (writtenTree != null) {
+          rollbackParallelCheckout(repository, oldHead, writtenTree);
+        }
+        throw e;
+      }
+  	  refreshProject(repository, oldHead, resolveHead(repository));
   	  fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName));
     } catch (GitAPIException e) {
       fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName), e);
@@ -2269,16 +2760,19 @@ public class GitAccess {
 	public List<CommitCharacteristics> getCommitsCharacteristics(String filePath, RenameTracker... renameTracker) {
 		List<CommitCharacteristics> revisions = new ArrayList<>();
 
-		try {
-			Repository repository = this.getRepository();
-			if (filePath == null && git.status().call().hasUncommittedChanges()) {
-				revisions.add(UNCOMMITED_CHANGES);
-			}
-            
-			RenameTracker renTracker = renameTracker.length == 0 ? null : renameTracker[0];
-			RevCommitUtil.collectCurrentBranchRevisions(filePath, revisions, repository, renTracker);
-		} catch (NoWorkTreeException | GitAPIException | NoRepositorySelected | IOException e) {
-			LOGGER.error(e, e);
+		try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.HISTORY_LOAD)) {
+		  try {
+		    Repository repository = this.getRepository();
+		    if (filePath == null && git.status().call().hasUncommittedChanges()) {
+		      revisions.add(UNCOMMITED_CHANGES);
+		    }
+
+		    RenameTracker renTracker = renameTracker.length == 0 ? null : renameTracker[0];
+		    RevCommitUtil.collectCurrentBranchRevisions(filePath, revisions, repository, renTracker);
+		  } catch (NoWorkTreeException | GitAPIException | NoRepositorySelected | IOException e) {
+		    span.markFailed();
+		    LOGGER.error(e, e);
+		  }
 		}
 		
 		return revisions;
@@ -2422,9 +2916,13 @@ public class GitAccess {
   public void mergeBranch(String branchName) throws IOException, NoRepositorySelected, GitAPIException {
     fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.MERGE, branchName));
     try {
-      ObjectId mergeBase = getRepository().resolve(branchName);
+      Repository repository = getRepository();
+      ObjectId oldHead = resolveHead(repository);
+      ObjectId mergeBase = repository.resolve(branchName);
       MergeResult res = git.merge().include(mergeBase).call();
+      refreshProject(repository, oldHead, resolveHead(repository));
       if (res.getMergeStatus().equals(MergeResult.MergeStatus.CONFLICTING)) {
+        refreshProjectAfterConflictingMerge(repository, res, oldHead, mergeBase);
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("We have conflicts here:" + res.getConflicts().toString());
         }
@@ -2532,7 +3030,9 @@ public class GitAccess {
     try {
       checkIfStashIsApplicable(stashRef);
 
+      ObjectId stashId = git.getRepository().resolve(stashRef);
       git.stashApply().setStashRef(stashRef).call();
+      refreshProjectAfterStashApply(git.getRepository(), stashId);
 
       List<RevCommit> stashes = new ArrayList<>(listStashes());
         
@@ -2640,7 +3140,9 @@ public class GitAccess {
     try {
       checkIfStashIsApplicable(stashRef);
 
+      ObjectId stashId = git.getRepository().resolve(stashRef);
       git.stashApply().setStashRef(stashRef).call();
+      refreshProjectAfterStashApply(git.getRepository(), stashId);
 
       status = StashApplyStatus.APPLIED_SUCCESSFULLY;
 
@@ -2658,6 +3160,23 @@ public class GitAccess {
 
   
   
+  /**
+   * Checks if a stash can be applied over the current working copy. 
+   * The status of the working copy is computed only once.
+   * 
+   * @param stashRef       The stash reference.
+   *
+   * @return The applicability report.
+   *
+   * @throws IOException
+   * @throws GitAPIException
+   */
+  public StashApplicabilityReport analyzeStashApplicability(String stashRef) throws IOException, GitAPIException {
+    List<FileStatus> stashedFiles = StashCatalog.getInstance().getChangedFiles(stashRef);
+    return StashApplicabilityReport.analyze(stashedFiles, getStatus());
+  }
+  
+  
   /**
    * @param stashRef       The stash reference.
    *
@@ -2665,25 +3184,7 @@ public class GitAccess {
    * @throws GitAPIException
    */
   private void checkIfStashIsApplicable(String stashRef) throws IOException, GitAPIException {
-    List<FileStatus> list = RevCommitUtil.getChangedFiles(stashRef);
-    List<FileStatus> unstagedFiles = new ArrayList<>(getUnstagedFiles());
-
-    for (FileStatus fileStatus : list) {
-
-      for (FileStatus file : unstagedFiles) {
-        if (file.getChangeType() == GitChangeType.CONFLICT) {
-          throw new StashApplyFailureWithStatusException(StashApplyStatus.CANNOT_START_APPLY_BECAUSE_CONFLICTS, "Impossible to apply");
-        } else if (file.getFileLocation().compareTo(fileStatus.getFileLocation()) == 0) {
-          throw new StashApplyFailureWithStatusException(StashApplyStatus.CANNOT_START_APPLY_BECAUSE_UNCOMMITTED_FILES, "Impossible to apply");
-        }
-      }
-
-      if(!getStagedFiles().isEmpty()) {
-        throw new StashApplyFailureWithStatusException(StashApplyStatus.CANNOT_START_BECAUSE_STAGED_FILES, "Impossible to apply");
-      }
-      
-    }
-
+    analyzeStashApplicability(stashRef).throwIfNotApplicable();
   }
   
   
@@ -2820,10 +3321,7 @@ public class GitAccess {
 	 */
 	public void checkoutCommit(RevCommit startPoint, 
 			String branchName) throws GitAPIException {
-		fireOperationAboutToStart(new GitEventInfo(GitOperation.CHECKOUT_COMMIT));
-		CheckoutCommand checkoutCommand = this.git.checkout();
-		checkoutCommand.setStartPoint(startPoint);
-		doCheckoutCommit(checkoutCommand, branchName);
+		checkoutCommit(startPoint.getName(), branchName);
 	}
 	
 	
@@ -2840,7 +3338,7 @@ public class GitAccess {
 		fireOperationAboutToStart(new GitEventInfo(GitOperation.CHECKOUT_COMMIT));
 		CheckoutCommand checkoutCommand = this.git.checkout();
 		checkoutCommand.setStartPoint(startPoint);
-		doCheckoutCommit(checkoutCommand, branchName);
+		doCheckoutCommit(checkoutCommand, startPoint, branchName);
 	}
 	
 	
@@ -2848,11 +3346,13 @@ public class GitAccess {
 	 * Used to do a checkout commit. If the branchName is null, no branch will de created.
 	 * 
 	 * @param checkoutCommand         Checkout command to do the checkout.
+	 * @param startPoint              The start commit, already set on the command.
 	 * @param branchName              The new branch name.
 	 * 
 	 * @throws GitAPIException Errors while invoking git commands.
 	 */
 	private void doCheckoutCommit(@NonNull CheckoutCommand checkoutCommand,
+	    @Nullable String startPoint,
 			@Nullable String branchName) throws GitAPIException {
 		checkoutCommand.setUpstreamMode(SetupUpstreamMode.SET_UPSTREAM);
 		if(branchName != null) {
@@ -2860,12 +3360,27 @@ public class GitAccess {
 		} else {
 			checkoutCommand.setCreateBranch(false).setName(Constants.HEAD);
 		}
+		Repository repository = git.getRepository();
+		ObjectId oldHead = resolveHead(repository);
 		try {
-			checkoutCommand.call();
+		  ObjectId writtenTree = null;
+		  // Without a new branch, the command only detaches HEAD and writes no files.
+		  if (branchName != null && startPoint != null && isNewBranchName(repository, branchName)) {
+		    writtenTree = checkoutInParallel(repository, oldHead, startPoint, NullProgressMonitor.INSTANCE);
+		  }
+		  try {
+		    checkoutCommand.call();
+		  } catch (GitAPIException | JGitInternalException e) {
+		    if (writtenTree != null) {
+		      rollbackParallelCheckout(repository, oldHead, writtenTree);
+		    }
+		    throw e;
+		  }
 		} catch(GitAPIException e) {
 			fireOperationFailed(new GitEventInfo(GitOperation.CHECKOUT_COMMIT), e);
 			throw e;
 		}
+		refreshProject(repository, oldHead, resolveHead(repository));
 		
 		fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.CHECKOUT_COMMIT));
 	}
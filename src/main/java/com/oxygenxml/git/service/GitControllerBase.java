@@ -1,6 +1,7 @@
 package com.oxygenxml.git.service;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
@@ -8,6 +9,8 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledFuture;
 import java.util.function.Consumer;
 
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.RepositoryState;
 
 import com.oxygenxml.git.service.entities.FileStatus;
@@ -217,6 +220,36 @@ public abstract class GitControllerBase {
     async(() -> discard(filesStatuses));
   }
 
+  /**
+   * Discard many files, in chunks, reporting the progress. The new files are also deleted.
+   * 
+   * @param filesStatuses The resources to discard.
+   * @param monitor       Reports the progress. When canceled, the discard stops after
+   *                      the current chunk of files.
+   * @param onEnd         Called on the Git operation thread when the discard ends.
+   */
+  public void asyncDiscard(List<FileStatus> filesStatuses, ProgressMonitor monitor, Runnable onEnd) {
+    async(() -> {
+      try {
+        List<String> newFiles = new ArrayList<>();
+        for (FileStatus file : filesStatuses) {
+          GitChangeType changeType = file.getChangeType();
+          if (changeType == GitChangeType.ADD || changeType == GitChangeType.UNTRACKED) {
+            newFiles.add(file.getFileLocation());
+          }
+        }
+        if (!newFiles.isEmpty()) {
+          gitAccess.deleteFromWorkingTree(newFiles, monitor);
+        }
+        if (!monitor.isCancelled()) {
+          discard(filesStatuses, monitor);
+        }
+      } finally {
+        onEnd.run();
+      }
+    });
+  }
+
   /**
    * Should continue resolving a conflict using 'mine' or 'theirs'.
    * 
@@ -285,9 +318,11 @@ public abstract class GitControllerBase {
    * @param filesStatuses The resources to resolve.
    */
   private void resolveUsingTheirs(List<FileStatus> filesStatuses) {
+    List<String> paths = new ArrayList<>(filesStatuses.size());
     for (FileStatus file : filesStatuses) {
-      gitAccess.replaceWithRemoteContent(file.getFileLocation());
+      paths.add(file.getFileLocation());
     }
+    gitAccess.replaceWithRemoteContent(paths);
     gitAccess.addAll(filesStatuses);
   }
 
@@ -297,14 +332,27 @@ public abstract class GitControllerBase {
    * @param filesStatuses The resources to discard.
    */
   private void discard(List<FileStatus> filesStatuses) {
-    gitAccess.resetAll(filesStatuses);
+    discard(filesStatuses, NullProgressMonitor.INSTANCE);
+  }
+
+  /**
+   * Discard files.
+   * 
+   * @param filesStatuses The resources to discard.
+   * @param monitor       Reports the progress and tells when to stop.
+   */
+  private void discard(List<FileStatus> filesStatuses, ProgressMonitor monitor) {
     List<String> paths = new LinkedList<>();
     for (FileStatus file : filesStatuses) {
       if (file.getChangeType() != GitChangeType.SUBMODULE) {
         paths.add(file.getFileLocation());
       }
     }
-    gitAccess.restoreLastCommitFile(paths);
+    
+    gitAccess.resetAll(filesStatuses, monitor);
+    if (!monitor.isCancelled()) {
+      gitAccess.restoreLastCommitFile(paths, monitor);
+    }
   }
 
   /**
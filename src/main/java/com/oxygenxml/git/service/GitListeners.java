@@ -49,6 +49,8 @@ public class GitListeners {
     if (logger.isDebugEnabled()) {
       logger.debug("Fire operation about to start: " + info);
     }
+    // The operation might change the working copy status.
+    StatusSnapshotManager.getInstance().invalidate();
     
     for (GitEventListener gitEventListener : gitEventListeners) {
       gitEventListener.operationAboutToStart(info);
@@ -64,6 +66,8 @@ public class GitListeners {
     if (logger.isDebugEnabled()) {
       logger.debug("Fire operation successfully ended: " + info);
     }
+    StatusSnapshotManager.getInstance().invalidate();
+    StashCatalog.getInstance().operationEnded(info.getGitOperation());
     
     for (GitEventListener gitEventListener : gitEventListeners) {
       gitEventListener.operationSuccessfullyEnded(info);
@@ -80,6 +84,8 @@ public class GitListeners {
     if (logger.isDebugEnabled()) {
       logger.debug("Fire operation failed: " + info + ". Reason: " + t.getMessage());
     }
+    StatusSnapshotManager.getInstance().invalidate();
+    StashCatalog.getInstance().operationEnded(info.getGitOperation());
     
     for (GitEventListener gitEventListener : gitEventListeners) {
       gitEventListener.operationFailed(info, t);
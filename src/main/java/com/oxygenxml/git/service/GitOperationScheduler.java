@@ -11,6 +11,10 @@ import java.util.function.Consumer;
 
 import org.apache.log4j.Logger;
 
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationSpan;
+import com.oxygenxml.git.service.metrics.TracedOperation;
+
 /**
  * Schedules git operations on a thread. The same thread is being used. 
  */
@@ -87,7 +91,7 @@ public class GitOperationScheduler {
       executor = new ScheduledThreadPoolExecutor(1);
     }
     
-    return executor.schedule(r, 0, TimeUnit.MILLISECONDS);
+    return executor.schedule(traced(r, 0), 0, TimeUnit.MILLISECONDS);
   }
   
   /**
@@ -161,7 +165,31 @@ public class GitOperationScheduler {
       executor = new ScheduledThreadPoolExecutor(1);
     }
     
-    return executor.schedule(r, delayMillis, TimeUnit.MILLISECONDS);
+    return executor.schedule(traced(r, delayMillis), delayMillis, TimeUnit.MILLISECONDS);
+  }
+  
+  /**
+   * Wraps a task so that the time it waits in the queue and the time it executes are recorded.
+   * 
+   * @param r The task.
+   * @param delayMillis Milliseconds after which the task was requested to execute. Not counted as waiting.
+   * 
+   * @return The wrapped task.
+   */
+  private static Runnable traced(Runnable r, int delayMillis) {
+    long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    return () -> {
+      OperationMetrics metrics = OperationMetrics.getInstance();
+      metrics.recordQueueWait(TracedOperation.SCHEDULED_TASK, System.nanoTime() - due);
+      try (OperationSpan span = metrics.startSpan(TracedOperation.SCHEDULED_TASK)) {
+        try {
+          r.run();
+        } catch (RuntimeException | Error e) {
+          span.markFailed();
+          throw e;
+        }
+      }
+    };
   }
   
   /**
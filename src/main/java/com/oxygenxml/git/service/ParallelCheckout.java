@@ -0,0 +1,533 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.TreeWalk.OperationType;
+import org.eclipse.jgit.util.FileUtils;
+
+/**
+ * Brings the working tree and the index from one tree to another, writing the files in parallel.<br><br>
+ *
+ * JGit writes the files one by one, which is slow for large repositories, especially on network drives.
+ * This checkout computes the differences between the two trees once, deletes the removed files, creates
+ * the folders in order and then writes the changed files on a bounded pool of workers. The index is
+ * written at the end.<br><br>
+ *
+ * Nothing is changed when local changes or untracked files are in the way. The caller then lets JGit
+ * do the checkout and report the conflicts. After a successful parallel checkout, the JGit command that
+ * moves HEAD finds the index and the working tree already updated and has almost nothing left to write.
+ */
+public class ParallelCheckout {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(ParallelCheckout.class);
+  /**
+   * Below this number of files to write or delete, the JGit checkout is fast enough.
+   */
+  public static final int DEFAULT_MIN_CHANGED_FILES = 500;
+  /**
+   * The maximum number of files written in parallel.
+   */
+  private static final int MAX_WORKERS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+  /**
+   * How many files a worker writes before reporting the progress.
+   */
+  private static final int FILES_PER_TASK = 64;
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * Progress support.
+   */
+  private final ProgressMonitor monitor;
+  /**
+   * Below this number of files to write or delete, nothing is done.
+   */
+  private final int minChangedFiles;
+
+  /**
+   * A file to write.
+   */
+  private static class FileToWrite {
+    /**
+     * The index entry of the file. Updated with the size and the time of the written file.
+     */
+    private final DirCacheEntry entry;
+    /**
+     * How to convert the content.
+     */
+    private final CheckoutMetadata metadata;
+
+    /**
+     * Constructor.
+     *
+     * @param entry    The index entry of the file.
+     * @param metadata How to convert the content.
+     */
+    FileToWrite(DirCacheEntry entry, CheckoutMetadata metadata) {
+      this.entry = entry;
+      this.metadata = metadata;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param repository      The repository.
+   * @param monitor         Progress support.
+   * @param minChangedFiles Below this number of files to write or delete, nothing is done.
+   */
+  public ParallelCheckout(Repository repository, ProgressMonitor monitor, int minChangedFiles) {
+    this.repository = repository;
+    this.monitor = monitor;
+    this.minChangedFiles = minChangedFiles;
+  }
+
+  /**
+   * Brings the working tree and the index from a tree to another.
+   *
+   * @param oldTreeId The tree currently in the working tree, usually the tree of HEAD.
+   *                  <code>null</code> for an empty working tree, after a clone.
+   * @param newTreeId The tree to bring in the working tree.
+   *
+   * @return <code>true</code> if the working tree and the index were updated. <code>false</code> if nothing
+   * was changed, because local changes or untracked files are in the way or because too few files change.
+   *
+   * @throws IOException If it fails. The files already written or deleted are restored from the index,
+   * which is left unchanged.
+   */
+  public boolean checkout(@Nullable AnyObjectId oldTreeId, AnyObjectId newTreeId) throws IOException {
+    DirCache dirCache = repository.lockDirCache();
+    try {
+      if (dirCache.hasUnmergedPaths()) {
+        return false;
+      }
+
+      DirCacheBuilder builder = dirCache.builder();
+      List<FileToWrite> toWrite = new ArrayList<>();
+      List<String> toDelete = new ArrayList<>();
+      List<String> submodules = new ArrayList<>();
+      if (!computeChanges(dirCache, oldTreeId, newTreeId, builder, toWrite, toDelete, submodules)
+          || toWrite.size() + toDelete.size() < minChangedFiles
+          || !canCreatePaths(toWrite, toDelete, submodules)) {
+        return false;
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Parallel checkout: " + toWrite.size() + " files to write, " + toDelete.size() + " to delete");
+      }
+      monitor.beginTask("Updating the working tree", toWrite.size() + toDelete.size());
+      List<File> createdFolders = new ArrayList<>();
+      try {
+        deleteFiles(toDelete);
+        createFolders(toWrite, submodules, createdFolders);
+        writeFiles(toWrite);
+      } catch (IOException e) {
+        restore(dirCache, oldTreeId, toWrite, createdFolders);
+        throw e;
+      } finally {
+        monitor.endTask();
+      }
+
+      builder.commit();
+      return true;
+    } finally {
+      dirCache.unlock();
+    }
+  }
+
+  /**
+   * Brings back the files of the old tree after a failed checkout. The index was not changed yet,
+   * and there were no local changes, so the old files are written back from the index, like after a
+   * hard reset. The files written for new paths and the created folders are deleted.
+   *
+   * @param dirCache       The index, still locked and unchanged.
+   * @param oldTreeId      The tree that was in the working tree or <code>null</code>.
+   * @param toWrite        The files that were being written.
+   * @param createdFolders The folders that did not exist before the checkout.
+   */
+  private void restore(
+      DirCache dirCache,
+      @Nullable AnyObjectId oldTreeId,
+      List<FileToWrite> toWrite,
+      List<File> createdFolders) {
+    File workTree = repository.getWorkTree();
+    for (File folder : createdFolders) {
+      try {
+        // Also deletes the temporary files of the failed writes.
+        FileUtils.delete(folder, FileUtils.RECURSIVE | FileUtils.SKIP_MISSING);
+      } catch (IOException e) {
+        LOGGER.error(e, e);
+      }
+    }
+    for (FileToWrite file : toWrite) {
+      String path = file.entry.getPathString();
+      if (dirCache.findEntry(path) < 0) {
+        try {
+          FileUtils.delete(new File(workTree, path), FileUtils.SKIP_MISSING);
+        } catch (IOException e) {
+          LOGGER.error(e, e);
+        }
+      }
+    }
+    if (oldTreeId != null) {
+      try {
+        // Unlocks the index.
+        DirCacheCheckout checkout = new DirCacheCheckout(repository, dirCache, oldTreeId.toObjectId());
+        checkout.setFailOnConflict(false);
+        checkout.checkout();
+      } catch (IOException e) {
+        LOGGER.error(e, e);
+      }
+    }
+  }
+
+  /**
+   * Computes the files to write and to delete.
+   *
+   * @param dirCache  The index.
+   * @param oldTreeId The tree currently in the working tree or <code>null</code>.
+   * @param newTreeId The tree to bring in the working tree.
+   * @param builder   Receives the entries of the new index.
+   * @param toWrite   Receives the files to write.
+   * @param toDelete  Receives the files to delete.
+   * @param submodules Receives the new submodules, whose folders must be created.
+   *
+   * @return <code>false</code> if local changes or untracked files are in the way.
+   *
+   * @throws IOException
+   */
+  private boolean computeChanges(
+      DirCache dirCache,
+      AnyObjectId oldTreeId,
+      AnyObjectId newTreeId,
+      DirCacheBuilder builder,
+      List<FileToWrite> toWrite,
+      List<String> toDelete,
+      List<String> submodules) throws IOException {
+    File workTree = repository.getWorkTree();
+    try (TreeWalk walk = new TreeWalk(repository)) {
+      walk.setRecursive(true);
+      walk.setOperationType(OperationType.CHECKOUT_OP);
+      if (oldTreeId != null) {
+        walk.addTree(oldTreeId);
+      } else {
+        walk.addTree(new EmptyTreeIterator());
+      }
+      walk.addTree(newTreeId);
+      walk.addTree(new DirCacheIterator(dirCache));
+
+      while (walk.next()) {
+        String path = walk.getPathString();
+        FileMode oldMode = walk.getFileMode(0);
+        FileMode newMode = walk.getFileMode(1);
+        DirCacheIterator indexIter = walk.getTree(2, DirCacheIterator.class);
+        DirCacheEntry indexEntry = indexIter != null ? indexIter.getDirCacheEntry() : null;
+        boolean inOld = oldMode != FileMode.MISSING;
+        boolean inNew = newMode != FileMode.MISSING;
+
+        if (inOld && !isUnchanged(walk, indexEntry, oldMode, new File(workTree, path))) {
+          // Staged or unstaged changes.
+          return false;
+        }
+        File file = new File(workTree, path);
+        if (!inOld && (indexEntry != null || file.exists() && !file.isDirectory())) {
+          // Staged new file or untracked file in the way. The folders are checked later.
+          return false;
+        }
+
+        if (inNew) {
+          if (inOld && walk.idEqual(0, 1) && oldMode == newMode) {
+            // Keep the entry and its stat information.
+            builder.add(indexEntry);
+          } else if (newMode == FileMode.GITLINK && (!inOld || oldMode == FileMode.GITLINK)) {
+            // Like JGit, only records the new commit. The submodule is updated separately.
+            DirCacheEntry entry = new DirCacheEntry(path);
+            entry.setFileMode(newMode);
+            entry.setObjectId(walk.getObjectId(1));
+            builder.add(entry);
+            if (!inOld) {
+              submodules.add(path);
+            }
+          } else if (isSpecial(oldMode) || isSpecial(newMode)) {
+            // Symbolic links and submodules replaced by files are left to JGit.
+            return false;
+          } else {
+            DirCacheEntry entry = new DirCacheEntry(path);
+            entry.setFileMode(newMode);
+            entry.setObjectId(walk.getObjectId(1));
+            builder.add(entry);
+            toWrite.add(new FileToWrite(
+                entry,
+                new CheckoutMetadata(
+                    walk.getEolStreamType(OperationType.CHECKOUT_OP),
+                    walk.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE))));
+          }
+        } else if (inOld) {
+          if (isSpecial(oldMode)) {
+            return false;
+          }
+          toDelete.add(path);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if a file has no staged or unstaged changes.
+   *
+   * @param walk       The walk, positioned on the file. The first tree is the tree in the working tree.
+   * @param indexEntry The index entry of the file or <code>null</code>.
+   * @param mode       The mode of the file in the tree in the working tree.
+   * @param file       The file.
+   *
+   * @return <code>true</code> if the index and the file match the tree. When in doubt, <code>false</code>.
+   */
+  private static boolean isUnchanged(TreeWalk walk, DirCacheEntry indexEntry, FileMode mode, File file) {
+    if (indexEntry == null
+        || indexEntry.getFileMode() != mode
+        || !indexEntry.getObjectId().equals(walk.getObjectId(0))) {
+      return false;
+    }
+    if (mode == FileMode.GITLINK) {
+      // The submodule has its own working tree.
+      return true;
+    }
+    return !indexEntry.isSmudged()
+        && file.isFile()
+        && file.length() == indexEntry.getLength()
+        && file.lastModified() == indexEntry.getLastModifiedInstant().toEpochMilli();
+  }
+
+  /**
+   * @param mode A file mode.
+   *
+   * @return <code>true</code> for submodules and symbolic links.
+   */
+  private static boolean isSpecial(FileMode mode) {
+    return mode == FileMode.GITLINK || mode == FileMode.SYMLINK;
+  }
+
+  /**
+   * Checks that no untracked file is in the place of a folder that must be created and that
+   * the folders in the place of the new files contain only files that are deleted.
+   *
+   * @param toWrite  The files to write.
+   * @param toDelete The files to delete.
+   * @param submodules The new submodules.
+   *
+   * @return <code>true</code> if all the files and folders can be created.
+   */
+  private boolean canCreatePaths(List<FileToWrite> toWrite, List<String> toDelete, List<String> submodules) {
+    Set<String> deleted = new HashSet<>(toDelete);
+    File workTree = repository.getWorkTree();
+    for (String folder : getFolders(toWrite, submodules)) {
+      if (new File(workTree, folder).isFile() && !deleted.contains(folder)) {
+        return false;
+      }
+    }
+    for (FileToWrite file : toWrite) {
+      String path = file.entry.getPathString();
+      File folder = new File(workTree, path);
+      if (folder.isDirectory() && !containsOnly(folder, path, deleted)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if a folder contains only files that are deleted.
+   *
+   * @param folder  The folder.
+   * @param path    The path of the folder, relative to the working tree.
+   * @param deleted The files that are deleted.
+   *
+   * @return <code>true</code> if the folder is left empty after the files are deleted.
+   */
+  private static boolean containsOnly(File folder, String path, Set<String> deleted) {
+    String[] children = folder.list();
+    if (children == null) {
+      return false;
+    }
+    for (String child : children) {
+      String childPath = path + "/" + child;
+      File childFile = new File(folder, child);
+      boolean deletedChild = childFile.isDirectory()
+          ? containsOnly(childFile, childPath, deleted)
+          : deleted.contains(childPath);
+      if (!deletedChild) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Deletes the files and then the folders left empty, the deepest ones first.
+   *
+   * @param toDelete The files to delete.
+   *
+   * @throws IOException
+   */
+  private void deleteFiles(List<String> toDelete) throws IOException {
+    File workTree = repository.getWorkTree();
+    Set<String> folders = new TreeSet<>(
+        Comparator.comparingInt((String folder) -> folder.split("/").length).reversed()
+        .thenComparing(Comparator.reverseOrder()));
+    for (String path : toDelete) {
+      FileUtils.delete(new File(workTree, path), FileUtils.SKIP_MISSING);
+      int index = path.lastIndexOf('/');
+      while (index > 0) {
+        folders.add(path.substring(0, index));
+        index = path.lastIndexOf('/', index - 1);
+      }
+      monitor.update(1);
+    }
+    for (String folder : folders) {
+      File dir = new File(workTree, folder);
+      String[] children = dir.list();
+      if (children != null && children.length == 0) {
+        FileUtils.delete(dir, FileUtils.SKIP_MISSING | FileUtils.IGNORE_ERRORS);
+      }
+    }
+  }
+
+  /**
+   * Creates the folders of the files to write and of the new submodules, the parents before the children.
+   *
+   * @param toWrite        The files to write.
+   * @param submodules     The new submodules.
+   * @param createdFolders Receives the folders that did not exist, the parents before the children.
+   *
+   * @throws IOException
+   */
+  private void createFolders(List<FileToWrite> toWrite, List<String> submodules, List<File> createdFolders)
+      throws IOException {
+    File workTree = repository.getWorkTree();
+    for (String folder : getFolders(toWrite, submodules)) {
+      File dir = new File(workTree, folder);
+      if (dir.isFile()) {
+        // A file that was just deleted from the index, now a folder.
+        FileUtils.delete(dir);
+      }
+      if (!dir.isDirectory()) {
+        createdFolders.add(dir);
+      }
+      FileUtils.mkdirs(dir, true);
+    }
+  }
+
+  /**
+   * @param toWrite    The files to write.
+   * @param submodules The new submodules.
+   *
+   * @return The folders of the files and the folders of the submodules, sorted so that
+   * the parents come before the children.
+   */
+  private static Set<String> getFolders(List<FileToWrite> toWrite, List<String> submodules) {
+    Set<String> folders = new TreeSet<>();
+    for (FileToWrite file : toWrite) {
+      addParents(file.entry.getPathString(), folders);
+    }
+    for (String submodule : submodules) {
+      addParents(submodule, folders);
+      folders.add(submodule);
+    }
+    return folders;
+  }
+
+  /**
+   * Collects the parent folders of a path.
+   *
+   * @param path    A path relative to the working tree.
+   * @param folders Receives the parent folders.
+   */
+  private static void addParents(String path, Set<String> folders) {
+    int index = path.indexOf('/');
+    while (index > 0) {
+      folders.add(path.substring(0, index));
+      index = path.indexOf('/', index + 1);
+    }
+  }
+
+  /**
+   * Writes the files in parallel.
+   *
+   * @param toWrite The files to write.
+   *
+   * @throws IOException
+   */
+  private void writeFiles(List<FileToWrite> toWrite) throws IOException {
+    if (toWrite.isEmpty()) {
+      return;
+    }
+    int workers = Math.min(MAX_WORKERS, (toWrite.size() + FILES_PER_TASK - 1) / FILES_PER_TASK);
+    AtomicInteger threadsCounter = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+      Thread thread = new Thread(r, "Git parallel checkout " + threadsCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int from = 0; from < toWrite.size(); from += FILES_PER_TASK) {
+        List<FileToWrite> files = toWrite.subList(from, Math.min(toWrite.size(), from + FILES_PER_TASK));
+        futures.add(executor.submit(() -> {
+          // An object reader must not be shared between threads.
+          try (ObjectReader reader = repository.newObjectReader()) {
+            for (FileToWrite file : files) {
+              DirCacheCheckout.checkoutEntry(repository, file.entry, reader, false, file.metadata);
+            }
+          }
+          synchronized (monitor) {
+            monitor.update(files.size());
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import ro.sync.exml.workspace.api.PluginWorkspace;
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.standalone.ProjectController;
+import ro.sync.exml.workspace.api.standalone.StandalonePluginWorkspace;
+
+/**
+ * Computes which folders of the Project view must be refreshed after an operation
+ * changed files in the working copy, and refreshes them.<br><br>
+ *
+ * Only the folders that contain changed files are refreshed. Folders inside other
+ * refreshed folders are skipped. When too many folders changed, they are replaced by
+ * their parents, so that the number of refreshed folders stays bounded. The folders
+ * are passed to the Project view in batches.
+ */
+public class ProjectViewRefreshPlanner {
+  /**
+   * The maximum number of folders passed to a refresh call.
+   */
+  static final int MAX_FOLDERS_PER_REFRESH = 32;
+  /**
+   * The maximum number of refreshed folders. Beyond it, parent folders are refreshed instead.
+   */
+  static final int MAX_FOLDERS = 256;
+  /**
+   * The working tree.
+   */
+  private final File workTree;
+  /**
+   * The folders with changes, relative to the working tree. The root is the empty string.
+   */
+  private final Set<String> changedFolders = new HashSet<>();
+
+  /**
+   * Constructor.
+   *
+   * @param workTree The working tree.
+   */
+  public ProjectViewRefreshPlanner(File workTree) {
+    this.workTree = workTree;
+  }
+
+  /**
+   * Records a changed file or folder.
+   *
+   * @param path The path, relative to the working tree.
+   */
+  public void addChangedPath(String path) {
+    int index = path.lastIndexOf('/');
+    changedFolders.add(index == -1 ? "" : path.substring(0, index));
+  }
+
+  /**
+   * Records the differences between two trees. Folders that exist in only one of the trees
+   * are recorded as a whole, without visiting their content.
+   *
+   * @param repository The repository.
+   * @param oldTree    The old tree. <code>null</code> for an empty tree.
+   * @param newTree    The new tree.
+   *
+   * @throws IOException If it fails to read the trees.
+   */
+  public void addTreeDiff(Repository repository, AnyObjectId oldTree, AnyObjectId newTree) throws IOException {
+    try (TreeWalk treeWalk = new TreeWalk(repository)) {
+      if (oldTree != null) {
+        treeWalk.addTree(oldTree);
+      } else {
+        treeWalk.addTree(new EmptyTreeIterator());
+      }
+      treeWalk.addTree(newTree);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      while (treeWalk.next()) {
+        if (FileMode.TREE.equals(treeWalk.getRawMode(0)) && FileMode.TREE.equals(treeWalk.getRawMode(1))) {
+          treeWalk.enterSubtree();
+        } else {
+          addChangedPath(treeWalk.getPathString());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return <code>true</code> if no changes were recorded.
+   */
+  public boolean isEmpty() {
+    return changedFolders.isEmpty();
+  }
+
+  /**
+   * Computes the folders to refresh.
+   *
+   * @return The batches of folders to refresh.
+   */
+  public List<File[]> plan() {
+    Set<String> folders = removeNested(changedFolders);
+    while (folders.size() > MAX_FOLDERS) {
+      folders = removeNested(coarsen(folders));
+    }
+
+    List<File> files = new ArrayList<>(folders.size());
+    for (String folder : folders) {
+      files.add(folder.isEmpty() ? workTree : new File(workTree, folder)); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN - false positive
+    }
+
+    List<File[]> batches = new ArrayList<>();
+    for (int i = 0; i < files.size(); i += MAX_FOLDERS_PER_REFRESH) {
+      batches.add(files.subList(i, Math.min(i + MAX_FOLDERS_PER_REFRESH, files.size())).toArray(new File[0]));
+    }
+    return batches;
+  }
+
+  /**
+   * Refreshes the folders with changes in the Project view.
+   */
+  public void refreshProjectView() {
+    PluginWorkspace pluginWorkspace = PluginWorkspaceProvider.getPluginWorkspace();
+    if (!isEmpty() && pluginWorkspace instanceof StandalonePluginWorkspace) {
+      ProjectController projectManager = ((StandalonePluginWorkspace) pluginWorkspace).getProjectManager();
+      if (projectManager != null) {
+        for (File[] batch : plan()) {
+          projectManager.refreshFolders(batch);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the folders that are inside other folders from the set.
+   *
+   * @param folders The folders.
+   *
+   * @return The folders that are not inside other folders from the set.
+   */
+  private static Set<String> removeNested(Set<String> folders) {
+    Set<String> result = new HashSet<>();
+    if (folders.contains("")) {
+      result.add("");
+    } else {
+      for (String folder : folders) {
+        boolean nested = false;
+        int index = folder.lastIndexOf('/');
+        while (index != -1 && !nested) {
+          nested = folders.contains(folder.substring(0, index));
+          index = folder.lastIndexOf('/', index - 1);
+        }
+        if (!nested) {
+          result.add(folder);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the deepest folders with their parents.
+   *
+   * @param folders The folders.
+   *
+   * @return The new folders.
+   */
+  private static Set<String> coarsen(Set<String> folders) {
+    int maxDepth = 0;
+    for (String folder : folders) {
+      maxDepth = Math.max(maxDepth, depth(folder));
+    }
+    Set<String> result = new HashSet<>();
+    for (String folder : folders) {
+      if (depth(folder) == maxDepth) {
+        int index = folder.lastIndexOf('/');
+        result.add(index == -1 ? "" : folder.substring(0, index));
+      } else {
+        result.add(folder);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param folder A folder path, relative to the working tree.
+   *
+   * @return The number of segments in the path. 0 for the working tree.
+   */
+  private static int depth(String folder) {
+    return folder.isEmpty() ? 0 : (int) folder.chars().filter(c -> c == '/').count() + 1;
+  }
+}
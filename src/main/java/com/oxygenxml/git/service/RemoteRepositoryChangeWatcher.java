@@ -113,7 +113,7 @@ public class RemoteRepositoryChangeWatcher {
   /**
    * The main task. Analyzes the remote repository to identify changes that are not in the local repository.
    * 
-   * @param fetch <code>true</code> to execute a fetch before making the checks.
+   * @param fetch <code>true</code> to fetch the upstream branch, if it moved, before making the checks.
    */
   public void checkRemoteRepository(boolean fetch) {
     if (logger.isDebugEnabled()) {
@@ -223,7 +223,8 @@ public class RemoteRepositoryChangeWatcher {
   
   /**
    * Checks in the remote repository if there are new commits. 
-   * @param fetch <code>true</code> to execute a fetch before making the checks.
+   * @param fetch <code>true</code> to fetch the upstream branch, if it moved, before making the checks.
+   * Only the branches advertised by the remote are read when the upstream branch did not move.
    * 
    * @return <code>commitsAhead</code> a list with all new commits
    */
@@ -232,7 +233,7 @@ public class RemoteRepositoryChangeWatcher {
     try {
       GitAccess gitAccess = GitAccess.getInstance();
       if (fetch) {
-        gitAccess.fetch();
+        gitAccess.fetchUpstreamIfChanged();
       }
       Repository repository = gitAccess.getRepository();
       CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repository, repository.getFullBranch());
@@ -0,0 +1,264 @@
+package com.oxygenxml.git.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.transport.URIish;
+
+import com.oxygenxml.git.auth.AuthExceptionMessagePresenter;
+
+/**
+ * Lists the branches of remote repositories while the user types their URL.<br><br>
+ *
+ * The branches found for a URL are reused for a while. At most one listing runs for a URL:
+ * the requests for a URL already being listed wait for that listing. The listings run one
+ * at a time, so a listing whose requests were all cancelled before it started never runs.
+ */
+public class RemoteUrlProbeService {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(RemoteUrlProbeService.class);
+  /**
+   * How long the branches of a URL are reused, in milliseconds.
+   */
+  private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(1);
+  /**
+   * The singleton instance.
+   */
+  private static RemoteUrlProbeService instance;
+  /**
+   * Lists the branches of a remote repository.
+   */
+  private final BiFunction<URIish, AuthExceptionMessagePresenter, Collection<Ref>> lister;
+  /**
+   * How long the branches of a URL are reused, in milliseconds.
+   */
+  private final long ttl;
+  /**
+   * Runs the listings.
+   */
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "Git remote URL probe");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /**
+   * The branches found for each URL.
+   */
+  private final Map<String, CachedRefs> cache = new ConcurrentHashMap<>();
+  /**
+   * The listings that are queued or running, by URL.
+   */
+  private final Map<String, ProbeTask> inFlight = new HashMap<>();
+
+  /**
+   * The branches found for a URL.
+   */
+  private static class CachedRefs {
+    /**
+     * The branches.
+     */
+    private final Collection<Ref> refs;
+    /**
+     * When the branches were listed.
+     */
+    private final long time;
+
+    /**
+     * Constructor.
+     *
+     * @param refs The branches.
+     * @param time When the branches were listed.
+     */
+    CachedRefs(Collection<Ref> refs, long time) {
+      this.refs = refs;
+      this.time = time;
+    }
+  }
+
+  /**
+   * A listing and the requests waiting for it.
+   */
+  private class ProbeTask implements Runnable {
+    /**
+     * The URL.
+     */
+    private final URIish url;
+    /**
+     * Presents the authentication problems.
+     */
+    private final AuthExceptionMessagePresenter presenter;
+    /**
+     * The requests waiting for the listing.
+     */
+    private final Map<Probe, BiConsumer<Collection<Ref>, RuntimeException>> probes = new HashMap<>();
+    /**
+     * The queued or running listing.
+     */
+    private Future<?> future;
+
+    /**
+     * Constructor.
+     *
+     * @param url       The URL.
+     * @param presenter Presents the authentication problems.
+     */
+    ProbeTask(URIish url, AuthExceptionMessagePresenter presenter) {
+      this.url = url;
+      this.presenter = presenter;
+    }
+
+    @Override
+    public void run() {
+      Collection<Ref> refs = null;
+      RuntimeException error = null;
+      try {
+        refs = lister.apply(url, presenter);
+        if (!refs.isEmpty()) {
+          // Nothing found usually means a problem. Try again next time.
+          cache.put(url.toString(), new CachedRefs(refs, System.currentTimeMillis()));
+        }
+      } catch (RuntimeException e) {
+        LOGGER.debug(e, e);
+        error = e;
+      }
+
+      Map<Probe, BiConsumer<Collection<Ref>, RuntimeException>> toNotify;
+      synchronized (inFlight) {
+        inFlight.remove(url.toString());
+        toNotify = new HashMap<>(probes);
+      }
+      for (Map.Entry<Probe, BiConsumer<Collection<Ref>, RuntimeException>> entry : toNotify.entrySet()) {
+        if (!entry.getKey().isCancelled()) {
+          entry.getValue().accept(refs, error);
+        }
+      }
+    }
+  }
+
+  /**
+   * A request for the branches of a URL.
+   */
+  public final class Probe {
+    /**
+     * The listing that serves the request. <code>null</code> if served from the cache.
+     */
+    private final ProbeTask task;
+    /**
+     * <code>true</code> if the request was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor.
+     *
+     * @param task The listing that serves the request. <code>null</code> if served from the cache.
+     */
+    private Probe(ProbeTask task) {
+      this.task = task;
+    }
+
+    /**
+     * Cancels the request. The listing is cancelled too, if no other request waits for it.
+     */
+    public void cancel() {
+      cancelled = true;
+      if (task != null) {
+        synchronized (inFlight) {
+          task.probes.remove(this);
+          if (task.probes.isEmpty() && inFlight.get(task.url.toString()) == task) {
+            inFlight.remove(task.url.toString());
+            // Does nothing if already running. JGit cannot be interrupted reliably.
+            task.future.cancel(false);
+          }
+        }
+      }
+    }
+
+    /**
+     * @return <code>true</code> if the request was cancelled.
+     */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param lister Lists the branches of a remote repository.
+   * @param ttl    How long the branches of a URL are reused, in milliseconds.
+   */
+  RemoteUrlProbeService(BiFunction<URIish, AuthExceptionMessagePresenter, Collection<Ref>> lister, long ttl) {
+    this.lister = lister;
+    this.ttl = ttl;
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized RemoteUrlProbeService getInstance() {
+    if (instance == null) {
+      instance = new RemoteUrlProbeService(
+          (url, presenter) -> GitAccess.getInstance().listRemoteBranchesForURL(url, presenter),
+          DEFAULT_TTL);
+    }
+    return instance;
+  }
+
+  /**
+   * Lists the branches of a remote repository.
+   *
+   * @param url       The URL of the repository.
+   * @param presenter Presents the authentication problems.
+   * @param callback  Receives the branches or the failure. Called on the thread of the listing
+   *                  or, for the branches found recently, on the current thread. Never called
+   *                  after the request is cancelled.
+   *
+   * @return The request.
+   */
+  public Probe probe(
+      URIish url,
+      AuthExceptionMessagePresenter presenter,
+      BiConsumer<Collection<Ref>, RuntimeException> callback) {
+    String key = url.toString();
+    CachedRefs cached = cache.get(key);
+    if (cached != null) {
+      if (System.currentTimeMillis() - cached.time < ttl) {
+        callback.accept(cached.refs, null);
+        return new Probe(null);
+      }
+      cache.remove(key);
+    }
+
+    synchronized (inFlight) {
+      ProbeTask task = inFlight.get(key);
+      if (task == null) {
+        task = new ProbeTask(url, presenter);
+        inFlight.put(key, task);
+        task.future = executor.submit(task);
+      }
+      Probe probe = new Probe(task);
+      task.probes.put(probe, callback);
+      return probe;
+    }
+  }
+
+  /**
+   * Forgets the branches found for all the URLs.
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+}
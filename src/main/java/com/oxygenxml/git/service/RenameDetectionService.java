@@ -0,0 +1,219 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * Detects the renames in the differences between two trees.<br><br>
+ *
+ * The files with identical content are paired first, by comparing their IDs. The content of the
+ * remaining added and deleted files is compared only when there are not more of them than the rename
+ * limit, and never for binary files, like images. The renames found between two trees are remembered.
+ * When the content was compared, the renames are also persisted inside the Git directory, by
+ * {@link RenameDetectionStore}, so showing the same commit after a restart does not compare it again.
+ */
+public class RenameDetectionService {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(RenameDetectionService.class);
+  /**
+   * How many differences between trees are kept in memory.
+   */
+  private static final int CACHE_SIZE = 100;
+  /**
+   * The singleton instance.
+   */
+  private static RenameDetectionService instance;
+  /**
+   * The maximum number of added or deleted files whose content is compared. <code>null</code>
+   * to use the "diff.renameLimit" configuration of the repository.
+   */
+  private final Integer renameLimit;
+  /**
+   * The differences with renames, by repository and pair of trees. The trees never change,
+   * so the differences never become stale.
+   */
+  private final Map<String, List<DiffEntry>> cache = Collections.synchronizedMap(
+      new LinkedHashMap<String, List<DiffEntry>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<DiffEntry>> eldest) {
+          return size() > CACHE_SIZE;
+        }
+      });
+
+  /**
+   * Constructor.
+   *
+   * @param renameLimit The maximum number of added or deleted files whose content is compared.
+   *                    <code>null</code> to use the configuration of the repository.
+   */
+  RenameDetectionService(Integer renameLimit) {
+    this.renameLimit = renameLimit;
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized RenameDetectionService getInstance() {
+    if (instance == null) {
+      instance = new RenameDetectionService(Integer.getInteger(GitAddonSystemProperties.RENAME_DETECTION_LIMIT));
+    }
+    return instance;
+  }
+
+  /**
+   * Detects the renames in the differences between two trees.
+   *
+   * @param repository The repository.
+   * @param oldTree    The old tree. <code>null</code> for the empty tree.
+   * @param newTree    The new tree.
+   * @param diffs      The differences between the trees, without renames.
+   *
+   * @return The differences, in which the pairs of deleted and added files that were renamed
+   * are replaced with renames. Never <code>null</code>.
+   *
+   * @throws IOException If the content of the files cannot be read.
+   */
+  public List<DiffEntry> detectRenames(
+      Repository repository,
+      AnyObjectId oldTree,
+      AnyObjectId newTree,
+      List<DiffEntry> diffs) throws IOException {
+    String key = repository.getDirectory().getAbsolutePath()
+        + ":" + (oldTree != null ? oldTree : ObjectId.zeroId()).name()
+        + ".." + newTree.name();
+    List<DiffEntry> renames = cache.get(key);
+    if (renames == null) {
+      RenameDetectionStore store = RenameDetectionStore.getInstance(repository);
+      int limit = renameLimit != null ? renameLimit : repository.getConfig().get(DiffConfig.KEY).getRenameLimit();
+      renames = store.get(oldTree, newTree, limit, diffs);
+      if (renames == null) {
+        // Counted first, because the detector changes the deleted files into renames.
+        int added = count(diffs, ChangeType.ADD);
+        int deleted = count(diffs, ChangeType.DELETE);
+        RenameDetector detector = createDetector(repository, diffs);
+        renames = compute(detector);
+        if (isContentCompared(detector, added, deleted, renames)) {
+          store.put(oldTree, newTree, limit, renames);
+        }
+      }
+      cache.put(key, renames);
+    }
+    return new ArrayList<>(renames);
+  }
+
+  /**
+   * Detects the renames in some differences. Nothing is remembered, for the differences
+   * that involve the working tree.
+   *
+   * @param repository The repository.
+   * @param diffs      The differences, without renames.
+   *
+   * @return The differences, in which the pairs of deleted and added files that were renamed
+   * are replaced with renames. Never <code>null</code>.
+   *
+   * @throws IOException If the content of the files cannot be read.
+   */
+  public List<DiffEntry> detectRenames(Repository repository, List<DiffEntry> diffs) throws IOException {
+    return compute(createDetector(repository, diffs));
+  }
+
+  /**
+   * Creates the detector of the renames in some differences.
+   *
+   * @param repository The repository.
+   * @param diffs      The differences, without renames.
+   *
+   * @return The detector.
+   */
+  private RenameDetector createDetector(Repository repository, List<DiffEntry> diffs) {
+    RenameDetector detector = new RenameDetector(repository);
+    if (renameLimit != null) {
+      detector.setRenameLimit(renameLimit);
+    }
+    // Comparing the content of images and other binaries is expensive and rarely finds renames.
+    detector.setSkipContentRenamesForBinaryFiles(true);
+    detector.addAll(diffs);
+    return detector;
+  }
+
+  /**
+   * Detects the renames.
+   *
+   * @param detector The detector.
+   *
+   * @return The differences with renames.
+   *
+   * @throws IOException If the content of the files cannot be read.
+   */
+  private static List<DiffEntry> compute(RenameDetector detector) throws IOException {
+    List<DiffEntry> renames = detector.compute();
+    if (detector.isOverRenameLimit() && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Too many added and deleted files. Only the files with identical content were paired as renames.");
+    }
+    return renames;
+  }
+
+  /**
+   * Checks if the detector compared the content of files. It does so when added and deleted
+   * files remain after pairing the ones with identical content, unless there are too many of them.
+   *
+   * @param detector The detector, after computing the renames.
+   * @param added    How many files were added.
+   * @param deleted  How many files were deleted.
+   * @param renames  The differences, with renames.
+   *
+   * @return <code>true</code> if the content of files was compared.
+   */
+  private static boolean isContentCompared(RenameDetector detector, int added, int deleted, List<DiffEntry> renames) {
+    if (detector.isOverRenameLimit()) {
+      return false;
+    }
+    int identical = 0;
+    for (DiffEntry diff : renames) {
+      if (diff.getChangeType() == ChangeType.RENAME && diff.getScore() == 100) {
+        identical++;
+      }
+    }
+    return added > identical && deleted > identical;
+  }
+
+  /**
+   * @param diffs      Differences.
+   * @param changeType A type of change.
+   *
+   * @return How many of the differences have the given type.
+   */
+  private static int count(List<DiffEntry> diffs, ChangeType changeType) {
+    int count = 0;
+    for (DiffEntry diff : diffs) {
+      if (diff.getChangeType() == changeType) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Forgets the differences kept in memory. The persisted ones are kept.
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+}
@@ -0,0 +1,414 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * The renames found by comparing the content of the files between pairs of trees of a repository,
+ * persisted inside its Git directory, so the content is not compared again after a restart. The
+ * trees never change, so the renames never become stale.
+ * <br><br>
+ * Only the renamed paths and their scores are stored, and only for the trees whose content was
+ * compared. They are applied again to the differences between the trees, which are cheap to compute.
+ * The copies are not detected, so there are none to store. The renames are appended to the file
+ * as they are found. When there are too many of them, only the most recent ones are kept.
+ */
+class RenameDetectionStore {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(RenameDetectionStore.class);
+  /**
+   * The name of the file, inside the Git directory, that stores the renames.
+   */
+  static final String STORE_FILE_NAME = "oxygen-renames.idx";
+  /**
+   * The version of the file format.
+   */
+  private static final int FORMAT_VERSION = 2;
+  /**
+   * For how many pairs of trees the renames are stored.
+   */
+  private static final int MAX_STORED = 2000;
+  /**
+   * The store of the last used repository.
+   */
+  private static RenameDetectionStore instance;
+  /**
+   * The Git directory of the repository.
+   */
+  private final File repositoryDir;
+  /**
+   * The file in which the renames are persisted.
+   */
+  private final File storeFile;
+  /**
+   * The renames, by pair of trees and rename limit, from the oldest to the newest.
+   */
+  private final Map<String, List<Rename>> renames = new LinkedHashMap<>();
+  /**
+   * <code>true</code> after the persisted renames were read.
+   */
+  private boolean loaded;
+
+  /**
+   * Constructor.
+   *
+   * @param repositoryDir The Git directory of the repository.
+   */
+  RenameDetectionStore(File repositoryDir) {
+    this.repositoryDir = repositoryDir;
+    this.storeFile = new File(repositoryDir, STORE_FILE_NAME);
+  }
+
+  /**
+   * Gives the store of a repository. The store of the last used repository is kept in memory.
+   *
+   * @param repository The repository.
+   *
+   * @return The store, never <code>null</code>.
+   */
+  static synchronized RenameDetectionStore getInstance(Repository repository) {
+    if (instance == null || !instance.repositoryDir.equals(repository.getDirectory())) {
+      instance = new RenameDetectionStore(repository.getDirectory());
+    }
+    return instance;
+  }
+
+  /**
+   * Applies the stored renames between two trees to the differences between them.
+   *
+   * @param oldTree     The old tree. <code>null</code> for the empty tree.
+   * @param newTree     The new tree.
+   * @param renameLimit The rename limit with which the renames were detected.
+   * @param diffs       The differences between the trees, without renames.
+   *
+   * @return The differences, in which the pairs of deleted and added files that were renamed
+   * are replaced with renames. <code>null</code> if no renames were stored for the trees.
+   */
+  List<DiffEntry> get(AnyObjectId oldTree, AnyObjectId newTree, int renameLimit, List<DiffEntry> diffs) {
+    List<Rename> stored;
+    synchronized (this) {
+      load();
+      stored = renames.get(key(toId(oldTree), newTree.toObjectId(), renameLimit));
+    }
+    return stored != null ? apply(stored, diffs) : null;
+  }
+
+  /**
+   * Stores the renames between two trees. Meant for the trees whose content was compared.
+   *
+   * @param oldTree     The old tree. <code>null</code> for the empty tree.
+   * @param newTree     The new tree.
+   * @param renameLimit The rename limit with which the renames were detected.
+   * @param diffs       The differences between the trees, with renames.
+   */
+  synchronized void put(AnyObjectId oldTree, AnyObjectId newTree, int renameLimit, List<DiffEntry> diffs) {
+    List<Rename> found = new ArrayList<>();
+    for (DiffEntry diff : diffs) {
+      if (diff.getChangeType() == ChangeType.RENAME) {
+        found.add(new Rename(diff.getOldPath(), diff.getNewPath(), diff.getScore()));
+      }
+    }
+
+    load();
+    ObjectId oldTreeId = toId(oldTree);
+    ObjectId newTreeId = newTree.toObjectId();
+    renames.put(key(oldTreeId, newTreeId, renameLimit), found);
+    try {
+      if (renames.size() > MAX_STORED) {
+        // Only the most recent ones.
+        Iterator<String> iterator = renames.keySet().iterator();
+        while (renames.size() > MAX_STORED / 2) {
+          iterator.next();
+          iterator.remove();
+        }
+        write();
+      } else if (!storeFile.isFile()) {
+        write();
+      } else {
+        try (OutputStream out = new FileOutputStream(storeFile, true)) {
+          // Written at once, so a failure does not leave a partial record.
+          out.write(toBytes(oldTreeId, newTreeId, renameLimit, found));
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug(e, e);
+    }
+  }
+
+  /**
+   * Replaces the deleted and added files of stored renames with the renames.
+   *
+   * @param stored The stored renames.
+   * @param diffs  The differences, without renames.
+   *
+   * @return The differences with renames.
+   */
+  private static List<DiffEntry> apply(List<Rename> stored, List<DiffEntry> diffs) {
+    Map<String, DiffEntry> deleted = new HashMap<>();
+    Map<String, DiffEntry> added = new HashMap<>();
+    for (DiffEntry diff : diffs) {
+      if (diff.getChangeType() == ChangeType.DELETE) {
+        deleted.put(diff.getOldPath(), diff);
+      } else if (diff.getChangeType() == ChangeType.ADD) {
+        added.put(diff.getNewPath(), diff);
+      }
+    }
+
+    List<DiffEntry> result = new ArrayList<>(diffs.size());
+    Set<DiffEntry> paired = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Rename rename : stored) {
+      DiffEntry source = deleted.remove(rename.oldPath);
+      DiffEntry target = added.remove(rename.newPath);
+      if (source != null && target != null) {
+        result.add(new StoredDiffEntry(rename, source, target));
+        paired.add(source);
+        paired.add(target);
+      }
+    }
+    for (DiffEntry diff : diffs) {
+      if (!paired.contains(diff)) {
+        result.add(diff);
+      }
+    }
+    // Sorted by path, like the renames computed by JGit.
+    result.sort(Comparator.comparing(diff -> diff.getChangeType() == ChangeType.DELETE ? diff.getOldPath() : diff.getNewPath()));
+    return result;
+  }
+
+  /**
+   * Reads the persisted renames, the first time they are needed.
+   */
+  private void load() {
+    if (!loaded) {
+      loaded = true;
+      if (storeFile.isFile()) {
+        try {
+          if (!read()) {
+            // A record was cut. Rewrite the complete ones, so new records can be appended.
+            write();
+          }
+        } catch (IOException e) {
+          LOGGER.debug(e, e);
+          // A corrupted store. Start from scratch.
+          renames.clear();
+          try {
+            Files.deleteIfExists(storeFile.toPath());
+          } catch (IOException ex) {
+            LOGGER.debug(ex, ex);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the persisted renames.
+   *
+   * @return <code>false</code> if the last record was cut, for example when the application was killed.
+   *
+   * @throws IOException If it fails.
+   */
+  private boolean read() throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported renames store version: " + storeFile);
+      }
+      byte[] rawId = new byte[Constants.OBJECT_ID_LENGTH];
+      int first;
+      while ((first = in.read()) != -1) {
+        try {
+          rawId[0] = (byte) first;
+          in.readFully(rawId, 1, rawId.length - 1);
+          ObjectId oldTree = ObjectId.fromRaw(rawId);
+          in.readFully(rawId);
+          ObjectId newTree = ObjectId.fromRaw(rawId);
+          int renameLimit = in.readInt();
+          int count = in.readInt();
+          List<Rename> found = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            found.add(readRename(in));
+          }
+          String key = key(oldTree, newTree, renameLimit);
+          // The same renames stored again are the most recent ones.
+          renames.remove(key);
+          renames.put(key, found);
+        } catch (EOFException e) {
+          LOGGER.debug(e, e);
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Persists all the renames. They are first written to a temporary file, so a failure
+   * never leaves a partial store behind.
+   *
+   * @throws IOException If it fails.
+   */
+  private void write() throws IOException {
+    File tempFile = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      out.writeInt(FORMAT_VERSION);
+      for (Map.Entry<String, List<Rename>> entry : renames.entrySet()) {
+        String[] key = entry.getKey().split(":");
+        out.write(toBytes(
+            ObjectId.fromString(key[0]),
+            ObjectId.fromString(key[1]),
+            Integer.parseInt(key[2]),
+            entry.getValue()));
+      }
+    }
+    Files.move(tempFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Encodes the renames between two trees.
+   *
+   * @param oldTree     The old tree.
+   * @param newTree     The new tree.
+   * @param renameLimit The rename limit with which the renames were detected.
+   * @param found       The renames.
+   *
+   * @return The record.
+   *
+   * @throws IOException If it fails.
+   */
+  private static byte[] toBytes(ObjectId oldTree, ObjectId newTree, int renameLimit, List<Rename> found)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      oldTree.copyRawTo(out);
+      newTree.copyRawTo(out);
+      out.writeInt(renameLimit);
+      out.writeInt(found.size());
+      for (Rename rename : found) {
+        out.writeUTF(rename.oldPath);
+        out.writeUTF(rename.newPath);
+        out.writeInt(rename.score);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a rename.
+   *
+   * @param in The persisted renames.
+   *
+   * @return The rename.
+   *
+   * @throws IOException If it fails.
+   */
+  private static Rename readRename(DataInputStream in) throws IOException {
+    String oldPath = in.readUTF();
+    String newPath = in.readUTF();
+    return new Rename(oldPath, newPath, in.readInt());
+  }
+
+  /**
+   * @param tree A tree. <code>null</code> for the empty tree.
+   *
+   * @return The ID of the tree. The zero ID for the empty tree.
+   */
+  private static ObjectId toId(AnyObjectId tree) {
+    return tree != null ? tree.toObjectId() : ObjectId.zeroId();
+  }
+
+  /**
+   * @param oldTree     The old tree.
+   * @param newTree     The new tree.
+   * @param renameLimit The rename limit.
+   *
+   * @return The key of the renames.
+   */
+  private static String key(ObjectId oldTree, ObjectId newTree, int renameLimit) {
+    return oldTree.name() + ":" + newTree.name() + ":" + renameLimit;
+  }
+
+  /**
+   * A stored rename.
+   */
+  private static final class Rename {
+    /**
+     * The old path.
+     */
+    private final String oldPath;
+    /**
+     * The new path.
+     */
+    private final String newPath;
+    /**
+     * The similarity score.
+     */
+    private final int score;
+
+    /**
+     * Constructor.
+     *
+     * @param oldPath The old path.
+     * @param newPath The new path.
+     * @param score   The similarity score.
+     */
+    Rename(String oldPath, String newPath, int score) {
+      this.oldPath = oldPath;
+      this.newPath = newPath;
+      this.score = score;
+    }
+  }
+
+  /**
+   * A stored rename applied to the differences between two trees.
+   */
+  private static final class StoredDiffEntry extends DiffEntry {
+    /**
+     * Constructor.
+     *
+     * @param rename The stored rename.
+     * @param source The deletion of the old path.
+     * @param target The addition of the new path.
+     */
+    StoredDiffEntry(Rename rename, DiffEntry source, DiffEntry target) {
+      this.changeType = ChangeType.RENAME;
+      this.score = rename.score;
+      this.oldPath = source.getOldPath();
+      this.oldMode = source.getOldMode();
+      this.oldId = source.getOldId();
+      this.newPath = target.getNewPath();
+      this.newMode = target.getNewMode();
+      this.newId = target.getNewId();
+    }
+  }
+}
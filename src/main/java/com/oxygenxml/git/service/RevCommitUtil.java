@@ -6,11 +6,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -21,7 +21,6 @@ import org.eclipse.jgit.diff.DiffConfig;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.diff.DiffFormatter;
-import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.lib.BranchConfig;
@@ -42,12 +41,10 @@ import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.FileTreeIterator;
 import org.eclipse.jgit.treewalk.TreeWalk;
-import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
-import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
-import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.eclipse.jgit.util.io.NullOutputStream;
 
+import com.oxygenxml.git.service.ConflictStagesResolver.ConflictStages;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.FileStatusOverDiffEntry;
 import com.oxygenxml.git.service.entities.GitChangeType;
@@ -76,6 +73,21 @@ public class RevCommitUtil {
    * Index of the parent commit which contains untracked changes.
    */
   public static final int PARENT_COMMIT_UNTRACKED = 2;
+  /**
+   * How many paths found by following the renames are remembered.
+   */
+  private static final int FOUND_PATHS_CACHE_SIZE = 200;
+  /**
+   * The paths found by following the renames, by repository, range of revisions and known path.
+   * The revisions never change, so the paths never become stale.
+   */
+  private static final Map<String, String> FOUND_PATHS = Collections.synchronizedMap(
+      new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+          return size() > FOUND_PATHS_CACHE_SIZE;
+        }
+      });
 
 
   /**
@@ -235,9 +247,11 @@ public class RevCommitUtil {
             .call();
 
         // Identify potential renames.
-        RenameDetector rd = new RenameDetector(git.getRepository());
-        rd.addAll(diffs);
-        collect = rd.compute();
+        collect = RenameDetectionService.getInstance().detectRenames(
+            repository, 
+            oldCommit != null ? oldCommit.getTree() : null, 
+            newCommit.getTree(), 
+            diffs);
       }
     }
 
@@ -416,6 +430,8 @@ public class RevCommitUtil {
 		  PlotWalk plotWalk, RenameTracker renameTracker) throws IOException {
 
 	  if (filePath != null) {
+		  // The graph needs the parents rewritten by a tree filter, which JGit evaluates before any
+		  // RevFilter, so the changed paths index cannot skip the commits of this walk.
 		  FollowFilter filter = FollowFilter.create(filePath, repository.getConfig().get(DiffConfig.KEY));
 		  if(renameTracker != null) {
 			  filter.setRenameCallback(renameTracker.getCallback());
@@ -512,11 +528,8 @@ public class RevCommitUtil {
 		  RevWalk revWalk) throws IOException, GitAPIException {
 
 	  if (filePath != null) {
-		  revWalk.setTreeFilter(
-		          AndTreeFilter.create(
-		              PathFilterGroup.createFromStrings(filePath),
-		              TreeFilter.ANY_DIFF)
-		          );
+		  // No parents rewriting needed, so the commits that did not change the file are skipped using the index.
+		  revWalk.setRevFilter(ChangedPathRevFilter.create(ChangedPathsIndex.getInstance(repository), filePath));
 	  }
 
 	  RevCommit lastProcessedRevision = null;
@@ -692,54 +705,82 @@ public class RevCommitUtil {
     }
 
     if (!revisions.isEmpty()) {
+      Repository repository = git.getRepository();
       RevCommit lastRev = revisions.get(revisions.size() - 1);
-      List<FileStatus> targetRevFiles = getFiles(git.getRepository(), lastRev);
-      Set<String> lastRevFiles = targetRevFiles.stream().map(FileStatus::getFileLocation).collect(Collectors.toSet());
-
-      RevCommit previous = null;
-      for (RevCommit revCommit : revisions) {
-        if (previous != null) {
-
-          // Fast stop.
-          if (lastRevFiles.contains(path)) {
-            // The current discovered path is the same as in the target revision.
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.info("Same path as in target. Stop. " + revCommit.getFullMessage());
-            }
-            break;
-          }
-
-          // Check if the current discovered path is also present in the new revision to consume.
-          // TThis way we will avoid a time consuming diff with rename detection.
-          List<FileStatus> currentRevisionFiles = getFiles(git.getRepository(), revCommit);
-          final String fpath = path;
-          boolean same = currentRevisionFiles.stream().anyMatch(t -> fpath.equals(t.getFileLocation()));
+      String cacheKey = repository.getDirectory().getAbsolutePath() 
+          + ":" + revisions.get(0).getId().name() 
+          + ".." + lastRev.getId().name() 
+          + ":" + filePath;
+      String cachedPath = FOUND_PATHS.get(cacheKey);
+      if (cachedPath != null) {
+        return cachedPath;
+      }
 
-          if (!same) {
-            // Do a diff with rename detection.
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.info("Search for a rename at revision " + revCommit.getFullMessage());
+      try (ObjectReader reader = repository.newObjectReader()) {
+        // Probed again only when the path changes.
+        boolean inLastRev = existsInTree(reader, path, lastRev);
+        RevCommit previous = null;
+        for (RevCommit revCommit : revisions) {
+          if (previous != null) {
+
+            // Fast stop.
+            if (inLastRev) {
+              // The current discovered path is the same as in the target revision.
+              if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Same path as in target. Stop. " + revCommit.getFullMessage());
+              }
+              break;
             }
 
-            List<DiffEntry> diff = diff(git.getRepository(), revCommit, previous);
-            for (DiffEntry diffEntry : diff) {
-              if (isRename(diffEntry) 
-                  && path.equals(diffEntry.getOldPath())) {
-                // Match.
-                path = diffEntry.getNewPath();
-                break;
+            // Check if the current discovered path is also present in the new revision to consume.
+            // This way we will avoid a time consuming diff with rename detection.
+            if (!existsInTree(reader, path, revCommit)) {
+              // Do a diff with rename detection.
+              if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Search for a rename at revision " + revCommit.getFullMessage());
+              }
+
+              List<DiffEntry> diff = diff(repository, revCommit, previous);
+              for (DiffEntry diffEntry : diff) {
+                if (isRename(diffEntry) 
+                    && path.equals(diffEntry.getOldPath())) {
+                  // Match.
+                  path = diffEntry.getNewPath();
+                  inLastRev = existsInTree(reader, path, lastRev);
+                  break;
+                }
               }
             }
           }
-        }
 
-        previous = revCommit;
+          previous = revCommit;
+        }
       }
+
+      FOUND_PATHS.put(cacheKey, path);
     }
 
     return path;
   }
 
+  /**
+   * Checks if a file exists in a revision. Only the folders on the path of the file are read,
+   * not the entire tree.
+   * 
+   * @param reader The object reader.
+   * @param path   The path of the file.
+   * @param commit The revision.
+   * 
+   * @return <code>true</code> if the file exists in the revision.
+   * 
+   * @throws IOException
+   */
+  private static boolean existsInTree(ObjectReader reader, String path, RevCommit commit) throws IOException {
+    try (TreeWalk treeWalk = TreeWalk.forPath(reader, path, commit.getTree())) {
+      return treeWalk != null;
+    }
+  }
+
   /**
    * Utility method  to put the revisions in a proper order.
    * 
@@ -851,10 +892,8 @@ public class RevCommitUtil {
           .setOldTree(headTreeIter)
           .call();
 
-      // Search for renames.
-      RenameDetector rd = new RenameDetector(repository);
-      rd.addAll(diffs);
-      List<DiffEntry> collect = rd.compute();
+      // Search for renames. The working copy changes, so nothing is remembered.
+      List<DiffEntry> collect = RenameDetectionService.getInstance().detectRenames(repository, diffs);
 
       for (DiffEntry diffEntry : collect) {
         if (isRename(diffEntry) && diffEntry.getOldPath().equals(path)) {
@@ -931,6 +970,11 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getBaseCommit(Git git, String filePath) throws IOException, GitAPIException {
+    ConflictStages stages = ConflictStagesResolver.getInstance().resolve(git.getRepository(), filePath);
+    if (stages != null) {
+      return stages.getBase() != null ? stages.getBase() : getLastLocalCommitForPath(git, filePath);
+    }
+    
     ObjectId toReturn;
     List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
     if (!entries.isEmpty()) {
@@ -957,6 +1001,11 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getTheirCommit(Git git, String filePath) throws IOException, GitAPIException {
+    ConflictStages stages = ConflictStagesResolver.getInstance().resolve(git.getRepository(), filePath);
+    if (stages != null) {
+      return stages.getTheirs() != null ? stages.getTheirs() : getLastLocalCommitForPath(git, filePath);
+    }
+    
     ObjectId toReturn;
     List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
     int noOfDiffEntries = entries.size();
@@ -987,6 +1036,11 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getMyCommit(Git git, String path) throws IOException, GitAPIException {
+    ConflictStages stages = ConflictStagesResolver.getInstance().resolve(git.getRepository(), path);
+    if (stages != null) {
+      return stages.getMine() != null ? stages.getMine() : getLastLocalCommitForPath(git, path);
+    }
+    
     ObjectId toReturn;
     List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(path)).call();
     int noOfDiffEntries = entries.size();
@@ -0,0 +1,211 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.view.event.GitOperation;
+
+/**
+ * Caches the stashes of the current repository and the files changed by each of them.<br><br>
+ *
+ * A stash commit never changes, so its files are computed only once. The list of stashes is
+ * read again after a stash operation or when the stash reference or its reflog changed,
+ * for example because of a stash created by another tool.
+ */
+public class StashCatalog {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(StashCatalog.class);
+  /**
+   * The singleton instance.
+   */
+  private static StashCatalog instance;
+  /**
+   * The repository of the cached stashes.
+   */
+  private Repository repository;
+  /**
+   * The stashes, from the newest to the oldest. <code>null</code> when they must be read again.
+   */
+  private List<RevCommit> stashes;
+  /**
+   * The state of the stash reference and of its reflog when the stashes were read.
+   */
+  private String stashesState;
+  /**
+   * The files changed by each stash, by stash commit ID.
+   */
+  private final Map<ObjectId, List<FileStatus>> changedFiles = new ConcurrentHashMap<>();
+  /**
+   * <code>true</code> if the files of all the stashes should be kept computed.
+   */
+  private volatile boolean preloadEnabled;
+
+  /**
+   * Singleton private constructor.
+   */
+  private StashCatalog() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized StashCatalog getInstance() {
+    if (instance == null) {
+      instance = new StashCatalog();
+    }
+    return instance;
+  }
+
+  /**
+   * Gets the stashes of the current repository.
+   *
+   * @return The stashes, from the newest to the oldest. Never <code>null</code>.
+   */
+  public synchronized List<RevCommit> getStashes() {
+    Repository current = getCurrentRepository();
+    if (current != repository) {
+      repository = current;
+      stashes = null;
+      changedFiles.clear();
+    }
+
+    String state = current != null ? getStashesState(current) : null;
+    if (state == null || !state.equals(stashesState)) {
+      // Changed outside the plugin.
+      stashes = null;
+    }
+
+    if (stashes == null && current != null) {
+      try {
+        stashesState = state;
+        stashes = Collections.unmodifiableList(new ArrayList<>(Git.wrap(current).stashList().call()));
+        // Forget the dropped stashes.
+        Set<ObjectId> ids = new HashSet<>();
+        for (RevCommit stash : stashes) {
+          ids.add(stash.getId());
+        }
+        changedFiles.keySet().retainAll(ids);
+      } catch (GitAPIException e) {
+        LOGGER.debug(e, e);
+      }
+    }
+
+    return stashes != null ? stashes : Collections.emptyList();
+  }
+
+  /**
+   * Gets the files changed by a stash, including the untracked files.
+   *
+   * @param stashId The ID of the stash commit.
+   *
+   * @return The changed files. Never <code>null</code>.
+   *
+   * @throws IOException
+   * @throws GitAPIException
+   */
+  public List<FileStatus> getChangedFiles(String stashId) throws IOException, GitAPIException {
+    List<FileStatus> files;
+    if (ObjectId.isId(stashId)) {
+      ObjectId id = ObjectId.fromString(stashId);
+      files = changedFiles.get(id);
+      if (files == null) {
+        files = Collections.unmodifiableList(new ArrayList<>(RevCommitUtil.getChangedFiles(stashId)));
+        changedFiles.put(id, files);
+      }
+    } else {
+      // Not a commit ID. Cannot be cached.
+      files = RevCommitUtil.getChangedFiles(stashId);
+    }
+    return files;
+  }
+
+  /**
+   * Computes, in background, the files changed by all the stashes. From now on,
+   * the files of the new stashes are computed as soon as they are created.
+   */
+  public void preload() {
+    preloadEnabled = true;
+    GitOperationScheduler.getInstance().schedule(() -> {
+      for (RevCommit stash : getStashes()) {
+        try {
+          getChangedFiles(stash.getName());
+        } catch (IOException | GitAPIException e) {
+          LOGGER.debug(e, e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Called after a Git operation ended.
+   *
+   * @param operation The operation.
+   */
+  void operationEnded(GitOperation operation) {
+    if (operation == GitOperation.STASH_CREATE
+        || operation == GitOperation.STASH_DROP
+        || operation == GitOperation.STASH_APPLY
+        || operation == GitOperation.STASH_POP) {
+      synchronized (this) {
+        stashes = null;
+      }
+      if (preloadEnabled) {
+        preload();
+      }
+    }
+  }
+
+  /**
+   * Gets the state of the stash reference and of its reflog, which lists the stashes.
+   * Much cheaper than reading the stashes.
+   *
+   * @param repository The repository.
+   *
+   * @return The state. <code>null</code> if it cannot be read.
+   */
+  private static String getStashesState(Repository repository) {
+    String state = null;
+    try {
+      Ref stashRef = repository.exactRef(Constants.R_STASH);
+      // Dropping an older stash only changes the reflog.
+      File reflog = new File(repository.getDirectory(), Constants.LOGS + "/" + Constants.R_STASH);
+      state = (stashRef != null ? stashRef.getObjectId().name() : "")
+          + ":" + reflog.length()
+          + ":" + reflog.lastModified();
+    } catch (IOException e) {
+      LOGGER.debug(e, e);
+    }
+    return state;
+  }
+
+  /**
+   * @return The current repository or <code>null</code>.
+   */
+  private static Repository getCurrentRepository() {
+    Repository current = null;
+    try {
+      current = GitAccess.getInstance().getRepository();
+    } catch (NoRepositorySelected e) {
+      LOGGER.debug(e, e);
+    }
+    return current;
+  }
+}
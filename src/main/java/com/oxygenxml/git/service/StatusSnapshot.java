@@ -0,0 +1,71 @@
+package com.oxygenxml.git.service;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryState;
+
+/**
+ * The status of a working copy, as computed at a given moment.
+ * 
+ * @see StatusSnapshotManager
+ */
+public class StatusSnapshot {
+  /**
+   * Increases with each computed snapshot.
+   */
+  private final long version;
+  /**
+   * The repository whose status was computed.
+   */
+  private final Repository repository;
+  /**
+   * The staged and unstaged files.
+   */
+  private final GitStatus status;
+  /**
+   * The state of the repository (merging, rebasing, etc).
+   */
+  private final RepositoryState repositoryState;
+
+  /**
+   * Constructor.
+   * 
+   * @param version         Increases with each computed snapshot.
+   * @param repository      The repository whose status was computed.
+   * @param status          The staged and unstaged files.
+   * @param repositoryState The state of the repository.
+   */
+  StatusSnapshot(long version, Repository repository, GitStatus status, RepositoryState repositoryState) {
+    this.version = version;
+    this.repository = repository;
+    this.status = status;
+    this.repositoryState = repositoryState;
+  }
+
+  /**
+   * @return Increases with each computed snapshot.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return The repository whose status was computed.
+   */
+  public Repository getRepository() {
+    return repository;
+  }
+
+  /**
+   * @return The staged and unstaged files.
+   */
+  public GitStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * @return The state of the repository (merging, rebasing, etc).
+   */
+  public RepositoryState getRepositoryState() {
+    return repositoryState;
+  }
+}
@@ -0,0 +1,121 @@
+package com.oxygenxml.git.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryState;
+
+/**
+ * Shares the last computed working copy status, so that the views don't have to scan the
+ * repository again when they need it.<br><br>
+ * 
+ * Every Git operation invalidates the shared status. A status computation that started before
+ * the invalidation is not published, since it might not reflect the changes of the operation.
+ */
+public class StatusSnapshotManager {
+  /**
+   * The singleton instance.
+   */
+  private static StatusSnapshotManager instance;
+  /**
+   * Incremented on each invalidation.
+   */
+  private long generation;
+  /**
+   * The version of the last published snapshot.
+   */
+  private long lastVersion;
+  /**
+   * The current snapshot. <code>null</code> if invalidated.
+   */
+  private volatile StatusSnapshot current;
+  /**
+   * Notified when a new snapshot is published.
+   */
+  private final List<Consumer<StatusSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Singleton private constructor.
+   */
+  private StatusSnapshotManager() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized StatusSnapshotManager getInstance() {
+    if (instance == null) {
+      instance = new StatusSnapshotManager();
+    }
+    return instance;
+  }
+
+  /**
+   * Called before starting to compute a status.
+   * 
+   * @return The generation to pass to {@link #publish(long, Repository, GitStatus, RepositoryState)}.
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Discards the current snapshot. Called when the status of the working copy might have changed.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    current = null;
+  }
+
+  /**
+   * Publishes a newly computed status.
+   * 
+   * @param generation      The generation obtained before the computation started.
+   * @param repository      The repository whose status was computed.
+   * @param status          The staged and unstaged files.
+   * @param repositoryState The state of the repository.
+   */
+  public void publish(long generation, Repository repository, GitStatus status, RepositoryState repositoryState) {
+    StatusSnapshot snapshot;
+    synchronized (this) {
+      if (generation != this.generation) {
+        // The status might have changed during the computation.
+        return;
+      }
+      snapshot = new StatusSnapshot(++lastVersion, repository, status, repositoryState);
+      current = snapshot;
+    }
+    for (Consumer<StatusSnapshot> listener : listeners) {
+      listener.accept(snapshot);
+    }
+  }
+
+  /**
+   * @param repository The repository of interest.
+   * 
+   * @return The current snapshot of the given repository or <code>null</code> if it must be computed again.
+   */
+  public StatusSnapshot getCurrent(Repository repository) {
+    StatusSnapshot snapshot = current;
+    return snapshot != null && snapshot.getRepository() == repository ? snapshot : null;
+  }
+
+  /**
+   * Adds a listener notified, on the thread that computed the status, each time a new snapshot is published.
+   * 
+   * @param listener The listener.
+   */
+  public void addListener(Consumer<StatusSnapshot> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   * 
+   * @param listener The listener.
+   */
+  public void removeListener(Consumer<StatusSnapshot> listener) {
+    listeners.remove(listener);
+  }
+}
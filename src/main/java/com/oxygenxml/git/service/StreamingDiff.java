@@ -0,0 +1,698 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffAlgorithm.SupportedAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.Sequence;
+import org.eclipse.jgit.diff.SequenceComparator;
+import org.eclipse.jgit.util.Hex;
+
+/**
+ * Compares two versions of a file that are too big to be loaded in memory. Both versions are
+ * read as streams, only once.
+ * <br><br>
+ * Text files are compared line by line, in chunks: the common lines are skipped and the differences
+ * of each chunk are reported as soon as they are found. The lines of a difference that could continue
+ * in the next chunk are compared again, together with it. Only the first bytes of a long line are kept
+ * in memory, the rest is compared by its hash. Binary files and Git LFS pointers are only summarized:
+ * size and SHA-256.
+ */
+public class StreamingDiff {
+  /**
+   * The number of lines read from each version before comparing them.
+   */
+  private static final int DEFAULT_CHUNK_LINES = 10000;
+  /**
+   * The number of lines kept for each side of a difference. The other lines are only counted.
+   */
+  private static final int DEFAULT_MAX_HUNK_LINES = 200;
+  /**
+   * The number of bytes kept from each line. The rest of a longer line is only hashed.
+   */
+  private static final int DEFAULT_MAX_LINE_BYTES = 1024;
+  /**
+   * Marks a line that was cut.
+   */
+  private static final String CUT_LINE_MARKER = "...";
+  /**
+   * The beginning of a Git LFS pointer file.
+   */
+  private static final String LFS_POINTER_PREFIX = "version https://git-lfs.github.com/spec/v1";
+  /**
+   * The algorithm that compares the lines of a chunk.
+   */
+  private static final DiffAlgorithm DIFF_ALGORITHM = DiffAlgorithm.getAlgorithm(SupportedAlgorithm.HISTOGRAM);
+  /**
+   * Compares lines.
+   */
+  private static final SequenceComparator<Lines> LINES_COMPARATOR = new SequenceComparator<Lines>() {
+    @Override
+    public boolean equals(Lines a, int ai, Lines b, int bi) {
+      return a.lines.get(ai).equals(b.lines.get(bi));
+    }
+
+    @Override
+    public int hash(Lines seq, int ptr) {
+      return seq.lines.get(ptr).hashCode();
+    }
+  };
+  /**
+   * The number of lines read from each version before comparing them.
+   */
+  private final int chunkLines;
+  /**
+   * The number of lines kept for each side of a difference.
+   */
+  private final int maxHunkLines;
+  /**
+   * The number of bytes kept from each line.
+   */
+  private final int maxLineBytes;
+
+  /**
+   * Receives the results of a comparison.
+   */
+  public interface Listener {
+    /**
+     * A difference was found between two text files. The differences are reported in order.
+     *
+     * @param hunk The difference.
+     */
+    void hunkFound(Hunk hunk);
+
+    /**
+     * The versions are binary files or Git LFS pointers. Called once, instead of {@link #hunkFound(Hunk)}.
+     *
+     * @param oldSummary The old version.
+     * @param newSummary The new version.
+     */
+    void binaryCompared(BinarySummary oldSummary, BinarySummary newSummary);
+  }
+
+  /**
+   * Lines that differ between two versions.
+   */
+  public static class Hunk {
+    /**
+     * The first line in the old version, 1 based.
+     */
+    private final int oldStart;
+    /**
+     * The number of lines from the old version.
+     */
+    private final int oldCount;
+    /**
+     * The first line in the new version, 1 based.
+     */
+    private final int newStart;
+    /**
+     * The number of lines from the new version.
+     */
+    private final int newCount;
+    /**
+     * The first lines from the old version.
+     */
+    private final List<String> oldLines;
+    /**
+     * The first lines from the new version.
+     */
+    private final List<String> newLines;
+
+    /**
+     * Constructor.
+     *
+     * @param oldStart The first line in the old version, 1 based.
+     * @param oldCount The number of lines from the old version.
+     * @param newStart The first line in the new version, 1 based.
+     * @param newCount The number of lines from the new version.
+     * @param oldLines The first lines from the old version.
+     * @param newLines The first lines from the new version.
+     */
+    Hunk(int oldStart, int oldCount, int newStart, int newCount, List<String> oldLines, List<String> newLines) {
+      this.oldStart = oldStart;
+      this.oldCount = oldCount;
+      this.newStart = newStart;
+      this.newCount = newCount;
+      this.oldLines = oldLines;
+      this.newLines = newLines;
+    }
+
+    /**
+     * @return The first line in the old version, 1 based.
+     */
+    public int getOldStart() {
+      return oldStart;
+    }
+
+    /**
+     * @return The number of lines from the old version.
+     */
+    public int getOldCount() {
+      return oldCount;
+    }
+
+    /**
+     * @return The first line in the new version, 1 based.
+     */
+    public int getNewStart() {
+      return newStart;
+    }
+
+    /**
+     * @return The number of lines from the new version.
+     */
+    public int getNewCount() {
+      return newCount;
+    }
+
+    /**
+     * @return The first lines from the old version. There might be fewer than {@link #getOldCount()}.
+     */
+    public List<String> getOldLines() {
+      return oldLines;
+    }
+
+    /**
+     * @return The first lines from the new version. There might be fewer than {@link #getNewCount()}.
+     */
+    public List<String> getNewLines() {
+      return newLines;
+    }
+  }
+
+  /**
+   * Summarizes a binary file or a Git LFS pointer.
+   */
+  public static class BinarySummary {
+    /**
+     * The size, in bytes. For a Git LFS pointer, the size of the object it points to.
+     */
+    private final long size;
+    /**
+     * The SHA-256 of the content, as hex. For a Git LFS pointer, the one of the object it points to.
+     */
+    private final String sha256;
+    /**
+     * <code>true</code> for a Git LFS pointer.
+     */
+    private final boolean lfsPointer;
+
+    /**
+     * Constructor.
+     *
+     * @param size       The size, in bytes.
+     * @param sha256     The SHA-256 of the content, as hex.
+     * @param lfsPointer <code>true</code> for a Git LFS pointer.
+     */
+    BinarySummary(long size, String sha256, boolean lfsPointer) {
+      this.size = size;
+      this.sha256 = sha256;
+      this.lfsPointer = lfsPointer;
+    }
+
+    /**
+     * @return The size, in bytes. For a Git LFS pointer, the size of the object it points to.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * @return The SHA-256 of the content, as hex. For a Git LFS pointer, the one of the object it points to.
+     */
+    public String getSha256() {
+      return sha256;
+    }
+
+    /**
+     * @return <code>true</code> for a Git LFS pointer.
+     */
+    public boolean isLfsPointer() {
+      return lfsPointer;
+    }
+
+    /**
+     * @param other Another summary.
+     *
+     * @return <code>true</code> if both have the same content.
+     */
+    public boolean isSameContent(BinarySummary other) {
+      return size == other.size && sha256.equals(other.sha256);
+    }
+  }
+
+  /**
+   * A line, without the line terminator. Only the first bytes of a long line are kept, so a file
+   * written on a single line does not have to fit in memory. The rest is compared by its hash.
+   */
+  private static class Line {
+    /**
+     * The first bytes of the line.
+     */
+    private final byte[] kept;
+    /**
+     * The length of the line, in bytes.
+     */
+    private final long length;
+    /**
+     * The SHA-256 of the whole line. <code>null</code> if the line was kept whole.
+     */
+    private final byte[] digest;
+
+    /**
+     * Constructor.
+     *
+     * @param kept   The first bytes of the line.
+     * @param length The length of the line, in bytes.
+     * @param digest The SHA-256 of the whole line. <code>null</code> if the line was kept whole.
+     */
+    Line(byte[] kept, long length, byte[] digest) {
+      this.kept = kept;
+      this.length = length;
+      this.digest = digest;
+    }
+
+    /**
+     * @return <code>true</code> if only the first bytes of the line were kept.
+     */
+    boolean isCut() {
+      return digest != null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Line)) {
+        return false;
+      }
+      Line other = (Line) obj;
+      return length == other.length && Arrays.equals(kept, other.kept) && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Arrays.hashCode(kept) + Long.hashCode(length);
+    }
+  }
+
+  /**
+   * Reads a line, keeping only its first bytes and hashing the rest.
+   */
+  private static class LineReader {
+    /**
+     * The number of bytes kept from each line.
+     */
+    private final int maxLineBytes;
+    /**
+     * The first bytes of the current line.
+     */
+    private final ByteArrayOutputStream kept = new ByteArrayOutputStream();
+    /**
+     * The length of the current line.
+     */
+    private long length;
+    /**
+     * Hashes the current line, after its first bytes. <code>null</code> while the line is short.
+     */
+    private MessageDigest digest;
+
+    /**
+     * Constructor.
+     *
+     * @param maxLineBytes The number of bytes kept from each line.
+     */
+    LineReader(int maxLineBytes) {
+      this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Starts a new line.
+     */
+    void reset() {
+      kept.reset();
+      length = 0;
+      digest = null;
+    }
+
+    /**
+     * @return <code>true</code> if the current line has no bytes.
+     */
+    boolean isEmpty() {
+      return length == 0;
+    }
+
+    /**
+     * Adds a byte to the current line.
+     *
+     * @param b The byte.
+     *
+     * @throws IOException If SHA-256 is not available.
+     */
+    void write(int b) throws IOException {
+      if (length < maxLineBytes) {
+        kept.write(b);
+      } else {
+        if (digest == null) {
+          digest = newSha256();
+          digest.update(kept.toByteArray());
+        }
+        digest.update((byte) b);
+      }
+      length++;
+    }
+
+    /**
+     * @return The current line.
+     */
+    Line toLine() {
+      return new Line(kept.toByteArray(), length, digest != null ? digest.digest() : null);
+    }
+  }
+
+  /**
+   * The lines of a chunk.
+   */
+  private static class Lines extends Sequence {
+    /**
+     * The lines.
+     */
+    private final List<Line> lines;
+
+    /**
+     * Constructor.
+     *
+     * @param lines The lines.
+     */
+    Lines(List<Line> lines) {
+      this.lines = lines;
+    }
+
+    @Override
+    public int size() {
+      return lines.size();
+    }
+  }
+
+  /**
+   * Constructor.
+   */
+  public StreamingDiff() {
+    this(DEFAULT_CHUNK_LINES, DEFAULT_MAX_HUNK_LINES);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param chunkLines   The number of lines read from each version before comparing them.
+   * @param maxHunkLines The number of lines kept for each side of a difference.
+   */
+  StreamingDiff(int chunkLines, int maxHunkLines) {
+    this(chunkLines, maxHunkLines, DEFAULT_MAX_LINE_BYTES);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param chunkLines   The number of lines read from each version before comparing them.
+   * @param maxHunkLines The number of lines kept for each side of a difference.
+   * @param maxLineBytes The number of bytes kept from each line.
+   */
+  StreamingDiff(int chunkLines, int maxHunkLines, int maxLineBytes) {
+    this.chunkLines = chunkLines;
+    this.maxHunkLines = maxHunkLines;
+    this.maxLineBytes = maxLineBytes;
+  }
+
+  /**
+   * Compares two versions of a file.
+   *
+   * @param oldContent The old version. Not closed.
+   * @param newContent The new version. Not closed.
+   * @param listener   Receives the differences.
+   * @param isCanceled Tells if the comparison should stop.
+   *
+   * @throws IOException If the versions cannot be read.
+   */
+  public void compare(
+      InputStream oldContent,
+      InputStream newContent,
+      Listener listener,
+      BooleanSupplier isCanceled) throws IOException {
+    BufferedInputStream oldIn = new BufferedInputStream(oldContent, 64 * 1024);
+    BufferedInputStream newIn = new BufferedInputStream(newContent, 64 * 1024);
+    byte[] oldHead = peek(oldIn);
+    byte[] newHead = peek(newIn);
+    if (RawText.isBinary(oldHead) || RawText.isBinary(newHead) || isLfsPointer(oldHead) || isLfsPointer(newHead)) {
+      listener.binaryCompared(summarize(oldIn, isCanceled), summarize(newIn, isCanceled));
+    } else {
+      compareLines(oldIn, newIn, listener, isCanceled);
+    }
+  }
+
+  /**
+   * Compares two texts line by line, in chunks.
+   *
+   * @param oldIn      The old version.
+   * @param newIn      The new version.
+   * @param listener   Receives the differences.
+   * @param isCanceled Tells if the comparison should stop.
+   *
+   * @throws IOException If the versions cannot be read.
+   */
+  private void compareLines(
+      InputStream oldIn,
+      InputStream newIn,
+      Listener listener,
+      BooleanSupplier isCanceled) throws IOException {
+    List<Line> oldLines = new ArrayList<>();
+    List<Line> newLines = new ArrayList<>();
+    // The number of lines before the current chunk.
+    int oldBase = 0;
+    int newBase = 0;
+    boolean oldEnded = false;
+    boolean newEnded = false;
+    // Differences that end in the last part of a chunk might continue in the next one.
+    int margin = chunkLines / 4;
+
+    while (!isCanceled.getAsBoolean()) {
+      oldEnded = oldEnded || !fill(oldIn, oldLines);
+      newEnded = newEnded || !fill(newIn, newLines);
+      if (oldLines.isEmpty() && newLines.isEmpty()) {
+        break;
+      }
+
+      // Most lines are usually the same. Skip them without the diff algorithm.
+      int common = 0;
+      while (common < oldLines.size() && common < newLines.size()
+          && oldLines.get(common).equals(newLines.get(common))) {
+        common++;
+      }
+      if (common > 0) {
+        oldLines.subList(0, common).clear();
+        newLines.subList(0, common).clear();
+        oldBase += common;
+        newBase += common;
+        continue;
+      }
+
+      EditList edits = DIFF_ALGORITHM.diff(LINES_COMPARATOR, new Lines(oldLines), new Lines(newLines));
+      boolean lastChunk = oldEnded && newEnded;
+      int oldConsumed = 0;
+      int newConsumed = 0;
+      for (int i = 0; i < edits.size(); i++) {
+        Edit edit = edits.get(i);
+        boolean complete = lastChunk
+            || (oldEnded || edit.getEndA() <= oldLines.size() - margin)
+            && (newEnded || edit.getEndB() <= newLines.size() - margin);
+        // The first difference is reported even if it could continue, so each chunk makes progress.
+        if (!complete && i > 0) {
+          break;
+        }
+        listener.hunkFound(createHunk(edit, oldLines, newLines, oldBase, newBase));
+        oldConsumed = edit.getEndA();
+        newConsumed = edit.getEndB();
+      }
+      if (lastChunk) {
+        break;
+      }
+      oldLines.subList(0, oldConsumed).clear();
+      newLines.subList(0, newConsumed).clear();
+      oldBase += oldConsumed;
+      newBase += newConsumed;
+    }
+  }
+
+  /**
+   * Creates the difference for an edit of a chunk.
+   *
+   * @param edit     The edit.
+   * @param oldLines The old lines of the chunk.
+   * @param newLines The new lines of the chunk.
+   * @param oldBase  The number of old lines before the chunk.
+   * @param newBase  The number of new lines before the chunk.
+   *
+   * @return The difference.
+   */
+  private Hunk createHunk(Edit edit, List<Line> oldLines, List<Line> newLines, int oldBase, int newBase) {
+    return new Hunk(
+        oldBase + edit.getBeginA() + 1,
+        edit.getLengthA(),
+        newBase + edit.getBeginB() + 1,
+        edit.getLengthB(),
+        toStrings(oldLines, edit.getBeginA(), edit.getEndA()),
+        toStrings(newLines, edit.getBeginB(), edit.getEndB()));
+  }
+
+  /**
+   * Decodes the first lines of a range. The lines that were cut end with {@link #CUT_LINE_MARKER}.
+   *
+   * @param lines The lines.
+   * @param begin The first line of the range.
+   * @param end   The end of the range, exclusive.
+   *
+   * @return At most {@link #maxHunkLines} lines.
+   */
+  private List<String> toStrings(List<Line> lines, int begin, int end) {
+    List<String> strings = new ArrayList<>();
+    for (int i = begin; i < Math.min(end, begin + maxHunkLines); i++) {
+      Line line = lines.get(i);
+      String text = new String(line.kept, StandardCharsets.UTF_8);
+      strings.add(line.isCut() ? text + CUT_LINE_MARKER : text);
+    }
+    return Collections.unmodifiableList(strings);
+  }
+
+  /**
+   * Reads lines until the chunk is full. Only the first {@link #maxLineBytes} bytes of each line are kept.
+   *
+   * @param in    The content.
+   * @param lines The lines of the chunk.
+   *
+   * @return <code>false</code> if the end of the content was reached.
+   *
+   * @throws IOException If the content cannot be read.
+   */
+  private boolean fill(InputStream in, List<Line> lines) throws IOException {
+    LineReader line = new LineReader(maxLineBytes);
+    while (lines.size() < chunkLines) {
+      line.reset();
+      // A carriage return is part of the line only if it is not the last byte.
+      boolean carriageReturn = false;
+      int b;
+      while ((b = in.read()) != -1 && b != '\n') {
+        if (carriageReturn) {
+          line.write('\r');
+        }
+        carriageReturn = b == '\r';
+        if (!carriageReturn) {
+          line.write(b);
+        }
+      }
+      if (b == -1 && line.isEmpty() && !carriageReturn) {
+        return false;
+      }
+      lines.add(line.toLine());
+      if (b == -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the beginning of a content, without consuming it.
+   *
+   * @param in The content.
+   *
+   * @return The first bytes.
+   *
+   * @throws IOException If the content cannot be read.
+   */
+  private static byte[] peek(BufferedInputStream in) throws IOException {
+    byte[] head = new byte[8000];
+    in.mark(head.length);
+    int length = 0;
+    int read;
+    while (length < head.length && (read = in.read(head, length, head.length - length)) != -1) {
+      length += read;
+    }
+    in.reset();
+    return Arrays.copyOf(head, length);
+  }
+
+  /**
+   * @param head The beginning of a content.
+   *
+   * @return <code>true</code> if the content is a Git LFS pointer.
+   */
+  private static boolean isLfsPointer(byte[] head) {
+    return new String(head, StandardCharsets.UTF_8).startsWith(LFS_POINTER_PREFIX);
+  }
+
+  /**
+   * Summarizes a binary content or a Git LFS pointer.
+   *
+   * @param in         The content.
+   * @param isCanceled Tells if the reading should stop.
+   *
+   * @return The summary.
+   *
+   * @throws IOException If the content cannot be read.
+   */
+  private static BinarySummary summarize(BufferedInputStream in, BooleanSupplier isCanceled) throws IOException {
+    byte[] head = peek(in);
+    if (isLfsPointer(head)) {
+      // The pointer gives the size and the SHA-256 of the object.
+      long size = -1;
+      String sha256 = "";
+      for (String line : new String(head, StandardCharsets.UTF_8).split("\n")) {
+        if (line.startsWith("oid sha256:")) {
+          sha256 = line.substring("oid sha256:".length()).trim();
+        } else if (line.startsWith("size ")) {
+          size = Long.parseLong(line.substring("size ".length()).trim());
+        }
+      }
+      return new BinarySummary(size, sha256, true);
+    }
+
+    MessageDigest digest = newSha256();
+    long size = 0;
+    byte[] buffer = new byte[64 * 1024];
+    int read;
+    while (!isCanceled.getAsBoolean() && (read = in.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+      size += read;
+    }
+    return new BinarySummary(size, Hex.toHexString(digest.digest()), false);
+  }
+
+  /**
+   * @return A new SHA-256 digest.
+   *
+   * @throws IOException If SHA-256 is not available.
+   */
+  private static MessageDigest newSha256() throws IOException {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.oxygenxml.git.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+/**
+ * Thrown when some submodules could not be updated. The other submodules were updated.
+ */
+public class SubmoduleUpdateException extends GitAPIException {
+  /**
+   * The failures, by the path of the submodule relative to the main working tree.
+   */
+  private final transient Map<String, Exception> failures;
+
+  /**
+   * Constructor.
+   *
+   * @param failures The failures, by the path of the submodule relative to the main working tree.
+   */
+  public SubmoduleUpdateException(Map<String, Exception> failures) {
+    super(buildMessage(failures), failures.values().iterator().next());
+    this.failures = Collections.unmodifiableMap(failures);
+    failures.values().stream().skip(1).forEach(this::addSuppressed);
+  }
+
+  /**
+   * @param failures The failures, by the path of the submodule.
+   *
+   * @return A message with one line for each submodule that failed.
+   */
+  private static String buildMessage(Map<String, Exception> failures) {
+    StringBuilder message = new StringBuilder("Failed to update submodules:");
+    for (Map.Entry<String, Exception> entry : failures.entrySet()) {
+      message.append("\n").append(entry.getKey()).append(": ").append(entry.getValue().getMessage());
+    }
+    return message.toString();
+  }
+
+  /**
+   * @return The failures, by the path of the submodule relative to the main working tree.
+   */
+  public Map<String, Exception> getFailures() {
+    return failures;
+  }
+}
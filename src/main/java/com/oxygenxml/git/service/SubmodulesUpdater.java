@@ -0,0 +1,302 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.merge.MergeStrategy;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.transport.CredentialsProvider;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * The equivalent of "git submodule update --init --recursive", updating several submodules at once.<br><br>
+ *
+ * The submodules are processed level by level. The submodules of a level are initialized and read one
+ * after another, because they share the configuration of their parent. Then they are cloned, fetched and
+ * checked out in parallel, each in its own repository. The submodules whose recorded commit is already
+ * checked out are left as they are, but their own submodules are still updated. A submodule that fails
+ * does not stop the others. The failures are reported together, at the end.
+ */
+public class SubmodulesUpdater {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(SubmodulesUpdater.class);
+  /**
+   * How many submodules are updated at once, by default.
+   */
+  private static final int DEFAULT_PARALLELISM = 4;
+  /**
+   * Gives the credentials for the URL of a submodule. May give <code>null</code>.
+   */
+  private final Function<String, CredentialsProvider> credentialsProviders;
+  /**
+   * How many submodules are updated at once.
+   */
+  private final int parallelism;
+
+  /**
+   * A submodule to update.
+   */
+  private static class Submodule {
+    /**
+     * The repository that contains the submodule.
+     */
+    private final Repository parent;
+    /**
+     * The path of the submodule, relative to the parent.
+     */
+    private final String path;
+    /**
+     * The path of the submodule, relative to the main working tree.
+     */
+    private final String fullPath;
+    /**
+     * The working tree of the submodule.
+     */
+    private final File directory;
+    /**
+     * The URL of the submodule.
+     */
+    private final String url;
+    /**
+     * How the submodule is updated: "checkout", "merge" or "rebase". <code>null</code> means "checkout".
+     */
+    private final String updateMode;
+    /**
+     * The commit recorded in the parent.
+     */
+    private final ObjectId commit;
+    /**
+     * The repository of the submodule. <code>null</code> if not cloned yet.
+     */
+    private Repository repository;
+    /**
+     * <code>true</code> if the recorded commit was brought in the working tree of the submodule.
+     */
+    private boolean updated;
+
+    /**
+     * Constructor.
+     *
+     * @param parent   The repository that contains the submodule.
+     * @param walk     The walk, positioned on the submodule.
+     * @param prefix   The path of the parent, relative to the main working tree, with a trailing slash.
+     *
+     * @throws IOException
+     * @throws ConfigInvalidException
+     */
+    Submodule(Repository parent, SubmoduleWalk walk, String prefix) throws IOException, ConfigInvalidException {
+      this.parent = parent;
+      this.path = walk.getPath();
+      this.fullPath = prefix + path;
+      this.directory = walk.getDirectory();
+      this.url = walk.getConfigUrl();
+      this.updateMode = walk.getConfigUpdate();
+      this.commit = walk.getObjectId().copy();
+      this.repository = walk.getRepository();
+    }
+  }
+
+  /**
+   * Constructor. The number of submodules updated at once is read from the
+   * {@link GitAddonSystemProperties#SUBMODULE_UPDATE_PARALLELISM} system property.
+   *
+   * @param credentialsProviders Gives the credentials for the URL of a submodule. May give <code>null</code>.
+   */
+  public SubmodulesUpdater(Function<String, CredentialsProvider> credentialsProviders) {
+    this(credentialsProviders,
+        Integer.getInteger(GitAddonSystemProperties.SUBMODULE_UPDATE_PARALLELISM, DEFAULT_PARALLELISM));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param credentialsProviders Gives the credentials for the URL of a submodule. May give <code>null</code>.
+   * @param parallelism          How many submodules are updated at once.
+   */
+  public SubmodulesUpdater(Function<String, CredentialsProvider> credentialsProviders, int parallelism) {
+    this.credentialsProviders = credentialsProviders;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * Initializes and updates the submodules of a repository, recursively.
+   *
+   * @param repository The main repository.
+   *
+   * @return The paths of the updated submodules, relative to the main working tree.
+   *
+   * @throws SubmoduleUpdateException If some submodules could not be updated.
+   * @throws GitAPIException          If the submodules of the main repository could not be read.
+   * @throws IOException              If the submodules of the main repository could not be read.
+   */
+  public List<String> update(Repository repository) throws GitAPIException, IOException {
+    List<String> updated = new ArrayList<>();
+    Map<String, Exception> failures = new LinkedHashMap<>();
+    // All the submodules, to close their repositories at the end.
+    List<Submodule> all = new ArrayList<>();
+    AtomicInteger threadsCounter = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+      Thread thread = new Thread(r, "Git submodule update " + threadsCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Submodule> level = new ArrayList<>();
+      try {
+        collectSubmodules(repository, "", level);
+      } catch (ConfigInvalidException e) {
+        throw new JGitInternalException(e.getMessage(), e);
+      } finally {
+        all.addAll(level);
+      }
+
+      while (!level.isEmpty()) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (Submodule submodule : level) {
+          futures.add(executor.submit(() -> {
+            updateSubmodule(submodule);
+            return null;
+          }));
+        }
+
+        List<Submodule> nextLevel = new ArrayList<>();
+        for (int i = 0; i < level.size(); i++) {
+          Submodule submodule = level.get(i);
+          try {
+            futures.get(i).get();
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            LOGGER.debug(cause, cause);
+            failures.put(submodule.fullPath, cause instanceof Exception ? (Exception) cause : new Exception(cause));
+          }
+          if (submodule.updated) {
+            updated.add(submodule.fullPath);
+          }
+          if (!failures.containsKey(submodule.fullPath)) {
+            try {
+              collectSubmodules(submodule.repository, submodule.fullPath + "/", nextLevel);
+            } catch (GitAPIException | IOException | ConfigInvalidException | RuntimeException e) {
+              LOGGER.debug(e, e);
+              failures.put(submodule.fullPath, e);
+            }
+          }
+        }
+        all.addAll(nextLevel);
+        level = nextLevel;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JGitInternalException(e.getMessage(), e);
+    } finally {
+      executor.shutdownNow();
+      all.stream().filter(submodule -> submodule.repository != null).forEach(submodule -> submodule.repository.close());
+    }
+
+    if (!failures.isEmpty()) {
+      throw new SubmoduleUpdateException(failures);
+    }
+    return updated;
+  }
+
+  /**
+   * Initializes the submodules of a repository and reads them. Runs on the calling thread, because
+   * the submodules of a repository share its configuration.
+   *
+   * @param parent     The repository.
+   * @param prefix     The path of the repository, relative to the main working tree, with a trailing slash.
+   * @param submodules Receives the submodules.
+   *
+   * @throws GitAPIException
+   * @throws IOException
+   * @throws ConfigInvalidException
+   */
+  private static void collectSubmodules(Repository parent, String prefix, List<Submodule> submodules)
+      throws GitAPIException, IOException, ConfigInvalidException {
+    Git.wrap(parent).submoduleInit().call();
+    try (SubmoduleWalk walk = SubmoduleWalk.forIndex(parent)) {
+      while (walk.next()) {
+        // Skip the submodules not registered in .gitmodules or in the configuration, like JGit.
+        if (walk.getModulesPath() != null && walk.getConfigUrl() != null) {
+          submodules.add(new Submodule(parent, walk, prefix));
+        }
+      }
+    }
+  }
+
+  /**
+   * Clones the submodule if needed, fetches the recorded commit if missing and brings it in the working tree.
+   * Runs on a worker thread and touches only the repository of the submodule.
+   *
+   * @param submodule The submodule.
+   *
+   * @throws GitAPIException
+   * @throws IOException
+   */
+  private void updateSubmodule(Submodule submodule) throws GitAPIException, IOException {
+    CredentialsProvider credentialsProvider = credentialsProviders.apply(submodule.url);
+    boolean justCloned = false;
+    if (submodule.repository == null) {
+      submodule.repository = Git.cloneRepository()
+          .setURI(submodule.url)
+          .setDirectory(submodule.directory)
+          .setGitDir(new File(new File(submodule.parent.getDirectory(), Constants.MODULES), submodule.path))
+          .setCredentialsProvider(credentialsProvider)
+          // The recorded commit is checked out below.
+          .setNoCheckout(true)
+          .call()
+          .getRepository();
+      justCloned = true;
+    } else if (submodule.commit.equals(submodule.repository.resolve(Constants.HEAD))) {
+      // Already checked out.
+      return;
+    } else if (!submodule.repository.getObjectDatabase().has(submodule.commit)) {
+      Git.wrap(submodule.repository).fetch().setCredentialsProvider(credentialsProvider).call();
+    }
+
+    Repository repository = submodule.repository;
+    try (RevWalk walk = new RevWalk(repository)) {
+      RevCommit commit = walk.parseCommit(submodule.commit);
+      // Like Git, a submodule that was just cloned is always checked out.
+      if (!justCloned && ConfigConstants.CONFIG_KEY_MERGE.equals(submodule.updateMode)) {
+        Git.wrap(repository).merge().include(commit).setStrategy(MergeStrategy.RECURSIVE).call();
+      } else if (!justCloned && ConfigConstants.CONFIG_KEY_REBASE.equals(submodule.updateMode)) {
+        Git.wrap(repository).rebase().setUpstream(commit).setStrategy(MergeStrategy.RECURSIVE).call();
+      } else {
+        // Checkout the recorded commit as a detached HEAD.
+        DirCacheCheckout checkout = new DirCacheCheckout(repository, repository.lockDirCache(), commit.getTree());
+        checkout.setFailOnConflict(true);
+        checkout.checkout();
+        RefUpdate refUpdate = repository.updateRef(Constants.HEAD, true);
+        refUpdate.setNewObjectId(commit);
+        refUpdate.forceUpdate();
+      }
+    }
+    submodule.updated = true;
+  }
+}
@@ -0,0 +1,365 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.errors.UnmergedPathException;
+import org.eclipse.jgit.events.WorkingTreeModifiedEvent;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig.EolStreamType;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.TreeWalk.OperationType;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+/**
+ * Discards the changes of many files at once: takes them out of the index, restores their
+ * index version in the working tree and deletes the new files.
+ * <br><br>
+ * The paths are processed in chunks and the progress is reported after each chunk. A canceled
+ * operation stops between two chunks, so the index always matches the processed paths. Like in
+ * {@link ParallelCheckout}, the files of a chunk are written or deleted on a bounded pool of workers.
+ */
+public class WorkingTreeRestorer {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(WorkingTreeRestorer.class);
+  /**
+   * i18n
+   */
+  private static final Translator TRANSLATOR = Translator.getInstance();
+  /**
+   * The number of paths processed between two progress reports.
+   */
+  private static final int DEFAULT_CHUNK_SIZE = 1000;
+  /**
+   * The number of files written or deleted at the same time.
+   */
+  private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * The number of paths processed between two progress reports.
+   */
+  private final int chunkSize;
+
+  /**
+   * Processes a range of items.
+   */
+  @FunctionalInterface
+  private interface RangeTask {
+    /**
+     * Processes a range of items.
+     *
+     * @param from The first item.
+     * @param to   The end of the range, exclusive.
+     *
+     * @throws IOException If it fails.
+     */
+    void process(int from, int to) throws IOException;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   */
+  public WorkingTreeRestorer(Repository repository) {
+    this(repository, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   * @param chunkSize  The number of paths processed between two progress reports.
+   */
+  WorkingTreeRestorer(Repository repository, int chunkSize) {
+    this.repository = repository;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Resets the index entries of some paths to their version from HEAD. Each chunk of paths
+   * is an index update of its own.
+   *
+   * @param paths   The paths.
+   * @param monitor Reports the progress and tells if the operation was canceled.
+   *
+   * @return The paths that were reset. Fewer than requested if the operation was canceled.
+   *
+   * @throws GitAPIException If the index cannot be updated.
+   */
+  public List<String> unstage(Collection<String> paths, ProgressMonitor monitor) throws GitAPIException {
+    List<String> toReset = new ArrayList<>(paths);
+    List<String> reset = new ArrayList<>(toReset.size());
+    monitor.beginTask(TRANSLATOR.getTranslation(Tags.UNSTAGING_FILES), toReset.size());
+    try {
+      for (int chunkStart = 0; chunkStart < toReset.size() && !monitor.isCancelled(); chunkStart += chunkSize) {
+        List<String> chunk = toReset.subList(chunkStart, Math.min(toReset.size(), chunkStart + chunkSize));
+        ResetCommand resetCmd = Git.wrap(repository).reset();
+        for (String path : chunk) {
+          resetCmd.addPath(path);
+        }
+        resetCmd.call();
+        reset.addAll(chunk);
+        monitor.update(chunk.size());
+      }
+    } finally {
+      monitor.endTask();
+    }
+    return reset;
+  }
+
+  /**
+   * Writes the index version of some paths in the working tree, like <code>git checkout -- paths</code>.
+   * The index is only updated with the new timestamps and sizes of the written files.
+   *
+   * @param paths   The paths of files or folders.
+   * @param monitor Reports the progress and tells if the operation was canceled.
+   *
+   * @return The paths of the restored files. Fewer than requested if the operation was canceled.
+   *
+   * @throws IOException If the index or the objects cannot be read or a file cannot be written.
+   */
+  public List<String> restore(Collection<String> paths, ProgressMonitor monitor) throws IOException {
+    List<String> restored = Collections.emptyList();
+    DirCache dirCache = repository.lockDirCache();
+    try {
+      List<DirCacheEntry> entries = new ArrayList<>();
+      List<CheckoutMetadata> checkoutMetadata = new ArrayList<>();
+      collectEntries(dirCache, paths, entries, checkoutMetadata);
+
+      int processed = processInChunks(
+          entries.size(),
+          TRANSLATOR.getTranslation(Tags.RESTORING_FILES),
+          monitor,
+          (from, to) -> {
+            // An object reader must not be shared between threads.
+            try (ObjectReader reader = repository.newObjectReader()) {
+              for (int i = from; i < to; i++) {
+                DirCacheCheckout.checkoutEntry(repository, entries.get(i), reader, true, checkoutMetadata.get(i));
+              }
+            }
+          });
+
+      restored = new ArrayList<>(processed);
+      for (int i = 0; i < processed; i++) {
+        restored.add(entries.get(i).getPathString());
+      }
+      if (processed > 0) {
+        // Remember the timestamps of the written files, so they are not compared again.
+        dirCache.write();
+        dirCache.commit();
+      }
+    } finally {
+      dirCache.unlock();
+      if (!restored.isEmpty()) {
+        repository.fireEvent(new WorkingTreeModifiedEvent(restored, null));
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Collects the index entries of some paths and how they should be written in the working tree.
+   *
+   * @param dirCache         The index.
+   * @param paths            The paths of files or folders.
+   * @param entries          Receives the entries.
+   * @param checkoutMetadata Receives the line endings and the filter of each entry.
+   *
+   * @throws IOException If the index or the attributes cannot be read, or a path is in conflict.
+   */
+  private void collectEntries(
+      DirCache dirCache,
+      Collection<String> paths,
+      List<DirCacheEntry> entries,
+      List<CheckoutMetadata> checkoutMetadata) throws IOException {
+    if (!paths.isEmpty()) {
+      try (TreeWalk treeWalk = new TreeWalk(repository)) {
+        treeWalk.setOperationType(OperationType.CHECKOUT_OP);
+        treeWalk.setRecursive(true);
+        treeWalk.setFilter(PathFilterGroup.createFromStrings(paths));
+        treeWalk.addTree(new DirCacheIterator(dirCache));
+        while (treeWalk.next()) {
+          DirCacheEntry entry = treeWalk.getTree(0, DirCacheIterator.class).getDirCacheEntry();
+          if (entry.getStage() != DirCacheEntry.STAGE_0) {
+            throw new UnmergedPathException(entry);
+          }
+          EolStreamType eolStreamType = treeWalk.getEolStreamType(OperationType.CHECKOUT_OP);
+          String filterCommand = treeWalk.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE);
+          entries.add(entry);
+          checkoutMetadata.add(new CheckoutMetadata(eolStreamType, filterCommand));
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes files and folders from the working tree. The folders are walked first, so their
+   * files are also deleted in parallel.
+   *
+   * @param paths   The paths of the files and folders.
+   * @param monitor Reports the progress and tells if the operation was canceled.
+   *
+   * @return The paths that were deleted. The files that cannot be deleted are logged.
+   */
+  public List<String> delete(Collection<String> paths, ProgressMonitor monitor) {
+    Path workTree = repository.getWorkTree().toPath();
+    List<Path> files = new ArrayList<>();
+    List<Path> folders = new ArrayList<>();
+    for (String path : paths) {
+      Path file = workTree.resolve(path);
+      if (Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS)) {
+        try (Stream<Path> walk = Files.walk(file)) {
+          walk.forEach(child -> (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS) ? folders : files).add(child));
+        } catch (IOException e) {
+          LOGGER.error(e, e);
+        }
+      } else {
+        files.add(file);
+      }
+    }
+
+    boolean completed = false;
+    try {
+      completed = processInChunks(
+          files.size(),
+          TRANSLATOR.getTranslation(Tags.DELETING_FILES),
+          monitor,
+          (from, to) -> {
+            for (int i = from; i < to; i++) {
+              deleteIfExists(files.get(i));
+            }
+          }) == files.size();
+    } catch (IOException e) {
+      // The failures are logged for each file.
+      LOGGER.error(e, e);
+    }
+    if (completed) {
+      // The deepest folders first.
+      folders.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+      folders.forEach(WorkingTreeRestorer::deleteIfExists);
+    }
+
+    List<String> deleted = new ArrayList<>();
+    for (String path : paths) {
+      if (!Files.exists(workTree.resolve(path), LinkOption.NOFOLLOW_LINKS)) {
+        deleted.add(path);
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes a file or an empty folder, if it exists. The failures are logged.
+   *
+   * @param file The file or folder.
+   */
+  private static void deleteIfExists(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      LOGGER.error(e, e);
+    }
+  }
+
+  /**
+   * Processes items in chunks. The items of a chunk are split in ranges, processed in parallel.
+   *
+   * @param count     The number of items.
+   * @param taskTitle The title of the task, for the progress.
+   * @param monitor   Reports the progress and tells if the processing should stop.
+   * @param rangeTask Processes a range of items.
+   *
+   * @return The number of processed items. Fewer than the given number if canceled.
+   *
+   * @throws IOException If an item cannot be processed. The chunk of the item might be processed in part.
+   */
+  private int processInChunks(int count, String taskTitle, ProgressMonitor monitor, RangeTask rangeTask)
+      throws IOException {
+    AtomicInteger threadsCounter = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM, r -> {
+      Thread thread = new Thread(r, "Git working tree restore " + threadsCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    monitor.beginTask(taskTitle, count);
+    int processed = 0;
+    try {
+      while (processed < count && !monitor.isCancelled()) {
+        int chunkEnd = Math.min(count, processed + chunkSize);
+        int rangeSize = (chunkEnd - processed + PARALLELISM - 1) / PARALLELISM;
+        List<Future<Void>> ranges = new ArrayList<>();
+        for (int from = processed; from < chunkEnd; from += rangeSize) {
+          int rangeStart = from;
+          int rangeEnd = Math.min(chunkEnd, from + rangeSize);
+          ranges.add(executor.submit(() -> {
+            rangeTask.process(rangeStart, rangeEnd);
+            return null;
+          }));
+        }
+        for (Future<Void> range : ranges) {
+          waitFor(range);
+        }
+        monitor.update(chunkEnd - processed);
+        processed = chunkEnd;
+      }
+    } finally {
+      executor.shutdown();
+      monitor.endTask();
+    }
+    return processed;
+  }
+
+  /**
+   * Waits for a range of items to be processed.
+   *
+   * @param range The processing of the range.
+   *
+   * @throws IOException If the range could not be processed.
+   */
+  private static void waitFor(Future<Void> range) throws IOException {
+    try {
+      range.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+  }
+}
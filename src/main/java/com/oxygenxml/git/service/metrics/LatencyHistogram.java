@@ -0,0 +1,123 @@
+package com.oxygenxml.git.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations. The values are kept in buckets whose upper bounds
+ * are powers of two microseconds, so the percentiles have at most a 2x error, which
+ * is enough to tell a slow operation from a fast one.
+ */
+public class LatencyHistogram {
+  /**
+   * Number of buckets. The last bucket holds everything above ~6 days.
+   */
+  private static final int BUCKETS = 40;
+  /**
+   * The number of recorded values in each bucket.
+   */
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  /**
+   * Number of recorded values.
+   */
+  private final LongAdder count = new LongAdder();
+  /**
+   * Sum of the recorded values, in microseconds.
+   */
+  private final LongAdder sumMicros = new LongAdder();
+  /**
+   * The largest recorded value, in microseconds.
+   */
+  private final AtomicLong maxMicros = new AtomicLong();
+
+  /**
+   * Records a duration.
+   * 
+   * @param nanos The duration, in nanoseconds.
+   */
+  public void record(long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+    buckets.incrementAndGet(bucketOf(micros));
+    count.increment();
+    sumMicros.add(micros);
+    maxMicros.accumulateAndGet(micros, Math::max);
+  }
+
+  /**
+   * @param micros A duration in microseconds.
+   * 
+   * @return The index of the bucket that holds the duration.
+   */
+  private static int bucketOf(long micros) {
+    int bucket = micros == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  /**
+   * @return The number of recorded values.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @return The mean of the recorded values, in milliseconds.
+   */
+  public double getMeanMillis() {
+    long c = count.sum();
+    return c == 0 ? 0 : sumMicros.sum() / (c * 1000d);
+  }
+
+  /**
+   * @return The largest recorded value, in milliseconds.
+   */
+  public double getMaxMillis() {
+    return maxMicros.get() / 1000d;
+  }
+
+  /**
+   * Computes a percentile. The result is the upper bound of the bucket in which the
+   * percentile falls, but never more than the largest recorded value.
+   * 
+   * @param percentile A value between 0 and 100.
+   * 
+   * @return The percentile, in milliseconds.
+   */
+  public double getPercentileMillis(double percentile) {
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+      total += snapshot[i];
+    }
+
+    double result = 0;
+    if (total > 0) {
+      long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += snapshot[i];
+        if (seen >= rank) {
+          long upperBoundMicros = i == 0 ? 0 : 1L << i;
+          result = Math.min(upperBoundMicros, maxMicros.get()) / 1000d;
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Discards all the recorded values.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    sumMicros.reset();
+    maxMicros.set(0);
+  }
+}
@@ -0,0 +1,167 @@
+package com.oxygenxml.git.service.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Records the latency of the Git operations for the current session. The metrics
+ * can be inspected from the diagnostics dialog or through JMX, under the
+ * {@value #OBJECT_NAME} name.
+ */
+public class OperationMetrics implements OperationMetricsMBean {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(OperationMetrics.class);
+  /**
+   * The name under which the metrics are registered in JMX.
+   */
+  public static final String OBJECT_NAME = "com.oxygenxml.git:type=OperationMetrics";
+  /**
+   * The singleton instance.
+   */
+  private static OperationMetrics instance;
+  /**
+   * The stats of each operation. Populated once, read concurrently.
+   */
+  private final Map<TracedOperation, OperationStats> stats = new EnumMap<>(TracedOperation.class);
+
+  /**
+   * Singleton private constructor.
+   */
+  private OperationMetrics() {
+    for (TracedOperation operation : TracedOperation.values()) {
+      stats.put(operation, new OperationStats(operation));
+    }
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized OperationMetrics getInstance() {
+    if (instance == null) {
+      instance = new OperationMetrics();
+      instance.registerMBean();
+    }
+    return instance;
+  }
+
+  /**
+   * Exposes the metrics through JMX.
+   */
+  private void registerMBean() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(this, name);
+      }
+    } catch (JMException | SecurityException e) {
+      LOGGER.debug(e, e);
+    }
+  }
+
+  /**
+   * Starts measuring an execution of an operation.
+   * 
+   * @param operation The operation.
+   * 
+   * @return The span to close when the execution ends.
+   */
+  public OperationSpan startSpan(TracedOperation operation) {
+    return new OperationSpan(stats.get(operation));
+  }
+
+  /**
+   * Records how long an operation waited before starting to execute.
+   * 
+   * @param operation The operation.
+   * @param nanos     The waiting time, in nanoseconds.
+   */
+  public void recordQueueWait(TracedOperation operation, long nanos) {
+    stats.get(operation).getQueueWait().record(nanos);
+  }
+
+  /**
+   * @return The stats of the operations that were executed at least once.
+   */
+  public List<OperationStats> getRecordedStats() {
+    List<OperationStats> recorded = new ArrayList<>();
+    for (OperationStats operationStats : stats.values()) {
+      if (operationStats.getExecution().getCount() > 0) {
+        recorded.add(operationStats);
+      }
+    }
+    return recorded;
+  }
+
+  /**
+   * @param operation The operation.
+   * 
+   * @return The stats of the given operation.
+   */
+  public OperationStats getStats(TracedOperation operation) {
+    return stats.get(operation);
+  }
+
+  @Override
+  public void reset() {
+    for (OperationStats operationStats : stats.values()) {
+      operationStats.reset();
+    }
+  }
+
+  @Override
+  public String getMetricsAsJSON() {
+    StringBuilder json = new StringBuilder("{\n  \"operations\": [");
+    List<OperationStats> recorded = getRecordedStats();
+    for (int i = 0; i < recorded.size(); i++) {
+      OperationStats operationStats = recorded.get(i);
+      json.append(i == 0 ? "\n" : ",\n");
+      json.append("    {\"operation\": \"").append(operationStats.getOperation().name()).append('"');
+      json.append(", \"failures\": ").append(operationStats.getFailures());
+      json.append(", \"transferredObjects\": ").append(operationStats.getTransferredObjects());
+      json.append(",\n     \"execution\": ");
+      appendHistogram(json, operationStats.getExecution());
+      json.append(",\n     \"queueWait\": ");
+      appendHistogram(json, operationStats.getQueueWait());
+      json.append('}');
+    }
+    json.append("\n  ]\n}");
+    return json.toString();
+  }
+
+  /**
+   * Appends the summary of a histogram as a JSON object.
+   * 
+   * @param json      The JSON being built.
+   * @param histogram The histogram.
+   */
+  private static void appendHistogram(StringBuilder json, LatencyHistogram histogram) {
+    json.append("{\"count\": ").append(histogram.getCount())
+      .append(", \"meanMs\": ").append(format(histogram.getMeanMillis()))
+      .append(", \"p50Ms\": ").append(format(histogram.getPercentileMillis(50)))
+      .append(", \"p99Ms\": ").append(format(histogram.getPercentileMillis(99)))
+      .append(", \"maxMs\": ").append(format(histogram.getMaxMillis()))
+      .append('}');
+  }
+
+  /**
+   * @param millis A duration in milliseconds.
+   * 
+   * @return The duration formatted with a fixed number of decimals.
+   */
+  public static String format(double millis) {
+    return String.format(Locale.ENGLISH, "%.3f", millis);
+  }
+}
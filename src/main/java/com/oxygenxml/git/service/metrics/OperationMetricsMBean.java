@@ -0,0 +1,16 @@
+package com.oxygenxml.git.service.metrics;
+
+/**
+ * JMX view over the recorded operation metrics.
+ */
+public interface OperationMetricsMBean {
+  /**
+   * @return The recorded metrics, as JSON.
+   */
+  String getMetricsAsJSON();
+
+  /**
+   * Discards all the recorded metrics.
+   */
+  void reset();
+}
@@ -0,0 +1,73 @@
+package com.oxygenxml.git.service.metrics;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+/**
+ * Measures one execution of an operation. Meant to be used in a try-with-resources block:
+ * the execution time is recorded when the span is closed.
+ */
+public class OperationSpan implements AutoCloseable {
+  /**
+   * The stats of the measured operation.
+   */
+  private final OperationStats stats;
+  /**
+   * The moment when the span started, in nanoseconds.
+   */
+  private final long start = System.nanoTime();
+  /**
+   * <code>true</code> if the execution ended with an error.
+   */
+  private boolean failed;
+  /**
+   * <code>true</code> after the span was closed.
+   */
+  private boolean closed;
+
+  /**
+   * Constructor.
+   * 
+   * @param stats The stats of the measured operation.
+   */
+  OperationSpan(OperationStats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Marks the execution as failed.
+   */
+  public void markFailed() {
+    failed = true;
+  }
+
+  /**
+   * Records transferred objects.
+   * 
+   * @param objects The number of objects.
+   */
+  public void addTransferredObjects(long objects) {
+    stats.addTransferredObjects(objects);
+  }
+
+  /**
+   * @return A progress monitor that counts the objects sent or received by a transport
+   * operation and records them on this span.
+   */
+  public ProgressMonitor createTransferMonitor() {
+    return new TransferCountingMonitor(this);
+  }
+
+  /**
+   * Records the execution time.
+   */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      stats.getExecution().record(System.nanoTime() - start);
+      if (failed) {
+        stats.addFailure();
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.oxygenxml.git.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics recorded for one operation.
+ */
+public class OperationStats {
+  /**
+   * The operation.
+   */
+  private final TracedOperation operation;
+  /**
+   * How long the operation executed.
+   */
+  private final LatencyHistogram execution = new LatencyHistogram();
+  /**
+   * How long the operation waited in the queue before starting.
+   */
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  /**
+   * Number of executions that ended with an error.
+   */
+  private final LongAdder failures = new LongAdder();
+  /**
+   * Number of objects sent or received.
+   */
+  private final LongAdder transferredObjects = new LongAdder();
+
+  /**
+   * Constructor.
+   * 
+   * @param operation The operation.
+   */
+  OperationStats(TracedOperation operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * @return The operation.
+   */
+  public TracedOperation getOperation() {
+    return operation;
+  }
+
+  /**
+   * @return How long the operation executed.
+   */
+  public LatencyHistogram getExecution() {
+    return execution;
+  }
+
+  /**
+   * @return How long the operation waited in the queue before starting.
+   */
+  public LatencyHistogram getQueueWait() {
+    return queueWait;
+  }
+
+  /**
+   * @return Number of executions that ended with an error.
+   */
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * @return Number of objects sent or received.
+   */
+  public long getTransferredObjects() {
+    return transferredObjects.sum();
+  }
+
+  /**
+   * Records a failed execution.
+   */
+  void addFailure() {
+    failures.increment();
+  }
+
+  /**
+   * Records transferred objects.
+   * 
+   * @param objects The number of objects.
+   */
+  void addTransferredObjects(long objects) {
+    transferredObjects.add(objects);
+  }
+
+  /**
+   * Discards all the recorded values.
+   */
+  void reset() {
+    execution.reset();
+    queueWait.reset();
+    failures.reset();
+    transferredObjects.reset();
+  }
+}
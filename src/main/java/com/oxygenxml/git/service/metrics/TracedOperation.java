@@ -0,0 +1,55 @@
+package com.oxygenxml.git.service.metrics;
+
+/**
+ * The operations for which latency metrics are recorded.
+ */
+public enum TracedOperation {
+  /**
+   * Computing the working copy status.
+   */
+  STATUS,
+  /**
+   * Fetching all the branches from the remote repository.
+   */
+  FETCH,
+  /**
+   * Fetching only the upstream branch from the remote repository.
+   */
+  FETCH_UPSTREAM_BRANCH,
+  /**
+   * Fetching all the branches, without the tags, from the remote repository.
+   */
+  FETCH_WITHOUT_TAGS,
+  /**
+   * Fetching all the branches from a trusted remote repository, without checking the objects.
+   */
+  FETCH_TRUSTED_REMOTE,
+  /**
+   * Pulling from the remote repository.
+   */
+  PULL,
+  /**
+   * Pushing to the remote repository.
+   */
+  PUSH,
+  /**
+   * Loading the history of the repository or of a file.
+   */
+  HISTORY_LOAD,
+  /**
+   * Computing the blame for a file.
+   */
+  BLAME,
+  /**
+   * Resolving the revision of a file presented in the diff.
+   */
+  DIFF_RESOLUTION,
+  /**
+   * A full refresh of the views.
+   */
+  PANEL_REFRESH,
+  /**
+   * A task executed by the Git operation scheduler.
+   */
+  SCHEDULED_TASK;
+}
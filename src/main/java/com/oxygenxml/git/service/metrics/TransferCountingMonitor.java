@@ -0,0 +1,56 @@
+package com.oxygenxml.git.service.metrics;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+/**
+ * Counts the objects received or written by a transport operation. JGit doesn't report
+ * the transferred bytes, so the number of objects is the closest available measure.
+ */
+class TransferCountingMonitor implements ProgressMonitor {
+  /**
+   * The span on which the transferred objects are recorded.
+   */
+  private final OperationSpan span;
+  /**
+   * <code>true</code> while the current task transfers objects.
+   */
+  private boolean countingTask;
+
+  /**
+   * Constructor.
+   * 
+   * @param span The span on which the transferred objects are recorded.
+   */
+  TransferCountingMonitor(OperationSpan span) {
+    this.span = span;
+  }
+
+  @Override
+  public void start(int totalTasks) {
+    // Nothing to do.
+  }
+
+  @Override
+  public void beginTask(String title, int totalWork) {
+    JGitText text = JGitText.get();
+    countingTask = text.receivingObjects.equals(title) || text.writingObjects.equals(title);
+  }
+
+  @Override
+  public void update(int completed) {
+    if (countingTask) {
+      span.addTransferredObjects(completed);
+    }
+  }
+
+  @Override
+  public void endTask() {
+    countingTask = false;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return false;
+  }
+}
@@ -1582,4 +1582,159 @@ public class Tags {
    * Create a new branch option.
    */
   public static final String CREATE_A_NEW_BRANCH = "Create_A_New_Branch";
+  
+  /**
+   * en: Operation metrics
+   */
+  public static final String OPERATION_METRICS = "Operation_metrics";
+  
+  /**
+   * en: Operation
+   */
+  public static final String OPERATION = "Operation";
+  
+  /**
+   * en: Executions
+   */
+  public static final String EXECUTIONS = "Executions";
+  
+  /**
+   * en: Failures
+   */
+  public static final String FAILURES = "Failures";
+  
+  /**
+   * en: p50 (ms)
+   */
+  public static final String LATENCY_P50_MS = "Latency_p50_ms";
+  
+  /**
+   * en: p99 (ms)
+   */
+  public static final String LATENCY_P99_MS = "Latency_p99_ms";
+  
+  /**
+   * en: Max (ms)
+   */
+  public static final String LATENCY_MAX_MS = "Latency_max_ms";
+  
+  /**
+   * en: Queue wait p50 (ms)
+   */
+  public static final String QUEUE_WAIT_P50_MS = "Queue_wait_p50_ms";
+  
+  /**
+   * en: Queue wait p99 (ms)
+   */
+  public static final String QUEUE_WAIT_P99_MS = "Queue_wait_p99_ms";
+  
+  /**
+   * en: Transferred objects
+   */
+  public static final String TRANSFERRED_OBJECTS = "Transferred_objects";
+  
+  /**
+   * en: Copy as JSON
+   */
+  public static final String COPY_AS_JSON = "Copy_as_JSON";
+  
+  /**
+   * en: Loading...
+   */
+  public static final String LOADING = "Loading";
+  
+  /**
+   * en: Search in content
+   */
+  public static final String SEARCH_IN_CONTENT = "Search_in_content";
+  
+  /**
+   * en: Show only the commits that added or removed the filter text in the content of the changed files.
+   */
+  public static final String SEARCH_IN_CONTENT_TOOLTIP = "Search_in_content_tooltip";
+  
+  /**
+   * en: Large file comparison
+   */
+  public static final String LARGE_FILE_COMPARISON = "Large_file_comparison";
+  
+  /**
+   * en: The files are too big for the comparison tool. Only the differing lines are shown.
+   */
+  public static final String LARGE_FILE_COMPARISON_INFO = "Large_file_comparison_info";
+  
+  /**
+   * en: Previous
+   */
+  public static final String PREVIOUS_PAGE = "Previous_page";
+  
+  /**
+   * en: Next
+   */
+  public static final String NEXT_PAGE = "Next_page";
+  
+  /**
+   * en: Page {0} of {1}
+   */
+  public static final String PAGE_OF = "Page_of";
+  
+  /**
+   * en: Comparing...
+   */
+  public static final String COMPARING = "Comparing";
+  
+  /**
+   * en: {0} differences
+   */
+  public static final String DIFFERENCES_COUNT = "Differences_count";
+  
+  /**
+   * en: ... {0} more lines
+   */
+  public static final String MORE_LINES = "More_lines";
+  
+  /**
+   * en: The binary files have the same content.
+   */
+  public static final String BINARY_FILES_IDENTICAL = "Binary_files_identical";
+  
+  /**
+   * en: The binary files have different content.
+   */
+  public static final String BINARY_FILES_DIFFER = "Binary_files_differ";
+  
+  /**
+   * en: {0}: {1} bytes, SHA-256 {2}
+   */
+  public static final String BINARY_FILE_SUMMARY = "Binary_file_summary";
+  
+  /**
+   * en: {0}: Git LFS object, {1} bytes, SHA-256 {2}
+   */
+  public static final String GIT_LFS_OBJECT_SUMMARY = "Git_LFS_object_summary";
+  
+  /**
+   * en: Unstaging files
+   */
+  public static final String UNSTAGING_FILES = "Unstaging_files";
+  
+  /**
+   * en: Restoring files
+   */
+  public static final String RESTORING_FILES = "Restoring_files";
+  
+  /**
+   * en: Deleting files
+   */
+  public static final String DELETING_FILES = "Deleting_files";
+  
+  /**
+   * en: {0}: {1} of {2}
+   */
+  public static final String TASK_PROGRESS = "Task_progress";
+  
+  /**
+   * en: Canceling...
+   */
+  public static final String CANCELING = "Canceling";
 }
@@ -18,4 +18,22 @@ public class GitAddonSystemProperties {
    */
   public static final String USE_JSCH_FOR_SSH_OPERATIONS = "useJschForSSHOperations";
   
+  /**
+   * How long, in seconds, an SSH session is kept open after an operation ends, to be reused
+   * by the next operation on the same host. 0 closes the sessions right away. Default is 120.
+   */
+  public static final String SSH_SESSION_IDLE_TIME = "sshSessionIdleTimeSeconds";
+  
+  /**
+   * How many submodules are cloned, fetched and checked out at once when the submodules
+   * are updated after a pull. Default is 4.
+   */
+  public static final String SUBMODULE_UPDATE_PARALLELISM = "submoduleUpdateParallelism";
+  
+  /**
+   * The maximum number of added or deleted files whose content is compared to detect the renames
+   * in the changes of a commit. By default, the "diff.renameLimit" configuration of the repository is used.
+   */
+  public static final String RENAME_DETECTION_LIMIT = "renameDetectionLimit";
+  
 }
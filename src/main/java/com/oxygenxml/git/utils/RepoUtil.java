@@ -28,13 +28,17 @@ import org.eclipse.jgit.lib.RepositoryState;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.submodule.SubmoduleStatus;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.transport.URIish;
 import org.xml.sax.SAXException;
 
+import com.oxygenxml.git.auth.AuthUtil;
 import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.sax.XPRHandler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.SubmoduleUpdateException;
+import com.oxygenxml.git.service.SubmodulesUpdater;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 
@@ -325,27 +329,24 @@ public static boolean isRepoRebasing(RepositoryState repoState) {
   }
 
   /**
-   * Recursively updates submodules.
+   * Recursively updates submodules. Independent submodules are updated in parallel.
    * 
    * @param git Current git repository.
    * 
-   * @throws GitAPIException Git command falied.
+   * @throws GitAPIException Git command falied. A {@link SubmoduleUpdateException} 
+   * if some submodules could not be updated.
    * @throws IOException Problems while iterating the modules.
    */
   public static void updateSubmodules(Git git) throws GitAPIException, IOException {
-    // Update current repo.
-    git.submoduleInit().call();
-    git.submoduleUpdate().call();
-    
-    // Go recursively.
-    SubmoduleWalk walk = SubmoduleWalk.forIndex(git.getRepository());
-    while (walk.next()) {
-      try (Repository subRepo = walk.getRepository()) {
-        if (subRepo != null) {
-          updateSubmodules(Git.wrap(subRepo));
-        }
+    new SubmodulesUpdater(url -> {
+      String host = null;
+      try {
+        host = new URIish(url).getHost();
+      } catch (URISyntaxException e) {
+        LOGGER.debug(e, e);
       }
-    }
+      return host != null ? AuthUtil.getCredentialsProvider(host) : null;
+    }).update(git.getRepository());
   }
   
   /**
@@ -7,6 +7,7 @@ import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Collections;
 import java.util.Optional;
@@ -33,6 +34,7 @@ import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.view.dialog.FileStatusDialog;
+import com.oxygenxml.git.view.dialog.LargeFileDiffDialog;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 import ro.sync.exml.workspace.api.standalone.StandalonePluginWorkspace;
@@ -56,6 +58,12 @@ public class DiffPresenter {
 	 */
 	private static final Logger LOGGER = Logger.getLogger(DiffPresenter.class);
 	
+	/**
+	 * Bigger files are not given to the comparison tool, which loads them in memory.
+	 * They are compared as streams, by {@link LargeFileDiffDialog}.
+	 */
+	private static final long LARGE_FILE_THRESHOLD = 50L * 1024 * 1024;
+	
 	/**
 	 * Avoid instantiation.
 	 */
@@ -345,6 +353,11 @@ public class DiffPresenter {
 	    LOGGER.error(e, e);
 	  }
 
+	  if (!threeWays && isLargeFile(localURL, remoteUL)) {
+	    new LargeFileDiffDialog(localURL, remoteUL, filePath).setVisible(true);
+	    return Optional.empty();
+	  }
+
 	  JFrame diffFrame = null;
 	  if (threeWays) {
       diffFrame = (JFrame) ((StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace())
@@ -369,6 +382,36 @@ public class DiffPresenter {
 	  return Optional.ofNullable(diffFrame);
 	}
 
+	/**
+	 * Checks if one of the compared versions is too big for the comparison tool.
+	 * The sizes are read without reading the content and without opening the files.
+	 * 
+	 * @param urls The versions. Might contain <code>null</code>.
+	 * 
+	 * @return <code>true</code> if a version is bigger than {@link #LARGE_FILE_THRESHOLD}.
+	 */
+	private static boolean isLargeFile(URL... urls) {
+	  for (URL url : urls) {
+	    if (url != null) {
+	      try {
+	        long length = -1;
+	        if ("file".equals(url.getProtocol())) {
+	          // The connection of a file URL would open the file, only to read its length.
+	          length = new File(url.toURI()).length();
+	        } else if (GitRevisionURLHandler.GIT_PROTOCOL.equals(url.getProtocol())) {
+	          length = url.openConnection().getContentLengthLong();
+	        }
+	        if (length > LARGE_FILE_THRESHOLD) {
+	          return true;
+	        }
+	      } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+	        LOGGER.debug(e, e);
+	      }
+	    }
+	  }
+	  return false;
+	}
+
 	/**
 	 * Shows a two-way diff between the local copy and the copy at the given revision.
 	 * 
@@ -25,6 +25,9 @@ import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationSpan;
+import com.oxygenxml.git.service.metrics.TracedOperation;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
@@ -142,7 +145,15 @@ public class BlamePerformer {
     //    blamer.setStartCommit(commitID); NOSONAR
     
     blamer.setFilePath(filePath);
-    BlameResult blame = blamer.call();
+    BlameResult blame;
+    try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.BLAME)) {
+      try {
+        blame = blamer.call();
+      } catch (GitAPIException | RuntimeException e) {
+        span.markFailed();
+        throw e;
+      }
+    }
     textpage = currentPage;
     JTextArea textArea = (JTextArea) textpage.getTextComponent();
     Highlighter highlighter = textArea.getHighlighter();
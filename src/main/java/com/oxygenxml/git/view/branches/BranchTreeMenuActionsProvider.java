@@ -24,6 +24,7 @@ import com.oxygenxml.git.view.GitTreeNode;
 import com.oxygenxml.git.view.dialog.BranchSwitchConfirmationDialog;
 import com.oxygenxml.git.view.dialog.FileStatusDialog;
 import com.oxygenxml.git.view.dialog.OKOtherAndCancelDialog;
+import com.oxygenxml.git.view.dialog.ProgressDialogMonitor;
 import com.oxygenxml.git.view.stash.StashUtil;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
@@ -136,25 +137,31 @@ public class BranchTreeMenuActionsProvider {
     return new AbstractAction(TRANSLATOR.getTranslation(Tags.CHECKOUT)) {
       @Override
       public void actionPerformed(ActionEvent e) {
+        ProgressDialogMonitor monitor = ProgressDialogMonitor.createForUncancelableOperation(
+            TRANSLATOR.getTranslation(Tags.CHECKOUT));
         ctrl.asyncTask(() -> {
-          RepositoryState repoState = RepoUtil.getRepoState().orElse(null);
-          String branchToSet = BranchesUtil.createBranchPath(
-              nodePath,
-              BranchManagementConstants.LOCAL_BRANCH_NODE_TREE_LEVEL);
-          if (RepoUtil.isNonConflictualRepoWithUncommittedChanges(repoState)) {
-            int answer = showUncommittedChangesWhenChangingBranchMsg(branchToSet);
-            if (answer == OKOtherAndCancelDialog.RESULT_OTHER) {
-              ctrl.getGitAccess().setBranch(branchToSet);
-              BranchesUtil.fixupFetchInConfig(ctrl.getGitAccess().getRepository().getConfig());
-            } else if (answer == OKOtherAndCancelDialog.RESULT_OK) {
-              boolean wasStashCreated = StashUtil.stashChanges();
-              if(wasStashCreated) {
-                ctrl.getGitAccess().setBranch(branchToSet);
+          try {
+            RepositoryState repoState = RepoUtil.getRepoState().orElse(null);
+            String branchToSet = BranchesUtil.createBranchPath(
+                nodePath,
+                BranchManagementConstants.LOCAL_BRANCH_NODE_TREE_LEVEL);
+            if (RepoUtil.isNonConflictualRepoWithUncommittedChanges(repoState)) {
+              int answer = showUncommittedChangesWhenChangingBranchMsg(branchToSet);
+              if (answer == OKOtherAndCancelDialog.RESULT_OTHER) {
+                ctrl.getGitAccess().setBranch(branchToSet, monitor);
+                BranchesUtil.fixupFetchInConfig(ctrl.getGitAccess().getRepository().getConfig());
+              } else if (answer == OKOtherAndCancelDialog.RESULT_OK) {
+                boolean wasStashCreated = StashUtil.stashChanges();
+                if(wasStashCreated) {
+                  ctrl.getGitAccess().setBranch(branchToSet, monitor);
+                }
               }
+            } else {
+              ctrl.getGitAccess().setBranch(branchToSet, monitor);
+              BranchesUtil.fixupFetchInConfig(ctrl.getGitAccess().getRepository().getConfig());
             }
-          } else {
-            ctrl.getGitAccess().setBranch(branchToSet);
-            BranchesUtil.fixupFetchInConfig(ctrl.getGitAccess().getRepository().getConfig());
+          } finally {
+            monitor.close();
           }
           return null;
 
@@ -188,8 +195,14 @@ public class BranchTreeMenuActionsProvider {
         CreateBranchDialog dialog = new CreateBranchDialog(TRANSLATOR.getTranslation(Tags.CHECKOUT_BRANCH), branchPath,
             true);
         if (dialog.getResult() == OKCancelDialog.RESULT_OK) {
+          ProgressDialogMonitor monitor = ProgressDialogMonitor.createForUncancelableOperation(
+              TRANSLATOR.getTranslation(Tags.CHECKOUT));
           ctrl.asyncTask(() -> {
-            ctrl.getGitAccess().checkoutRemoteBranchWithNewName(dialog.getBranchName(), branchPath);
+            try {
+              ctrl.getGitAccess().checkoutRemoteBranchWithNewName(dialog.getBranchName(), branchPath, monitor);
+            } finally {
+              monitor.close();
+            }
             BranchesUtil.fixupFetchInConfig(ctrl.getGitAccess().getRepository().getConfig());
 
             return null;
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -60,6 +61,7 @@ import com.oxygenxml.git.options.CredentialsBase;
 import com.oxygenxml.git.options.CredentialsBase.CredentialsType;
 import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.RemoteUrlProbeService;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.view.UndoRedoSupportInstaller;
@@ -90,6 +92,11 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
       return null;
     }
   };
+	
+	/**
+	 * How many branches are added to the branches combo in one AWT event.
+	 */
+	private static final int BRANCHES_CHUNK_SIZE = 200;
 
 	/**
 	 * Clone worker.
@@ -260,80 +267,124 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 	    if (checkConnectionTask != null) {
 	      checkConnectionTask.cancel();
 	    }
+	    // The URL changed. The branches of the previous one are no longer needed.
+	    cancelBranchesProbe();
 	    checkConnectionTask = new TimerTask() {
 	      @Override
 	      public void run() {
 	        if (CloneRepositoryDialog.this.isShowing()
 	            && KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow() == CloneRepositoryDialog.this) {
-
-	          try {
-	            final List<Ref> remoteBranches = new ArrayList<>();
+	          cancelBranchesProbe();
+	          SwingUtilities.invokeLater(() -> {
+	            branchesComboBox.removeAllItems();
+	            setProgressVisible(true);
+	          });
+
+	          String sourceUrlAsText = sourceUrlTextField.getText();
+	          boolean wasUrlProvided = sourceUrlAsText != null && !sourceUrlAsText.isEmpty();
+	          if (wasUrlProvided) {
+	            probeBranches(sourceUrlAsText);
+	          } else {
 	            SwingUtilities.invokeLater(() -> {
-	              branchesComboBox.removeAllItems();
-	              setProgressVisible(true);
+	              branchesComboBox.setEnabled(false);
+	              setProgressVisible(false);
 	            });
+	          }
+	        }
+	      }
 
-	            String sourceUrlAsText = sourceUrlTextField.getText();
-	            boolean wasUrlProvided = sourceUrlAsText != null && !sourceUrlAsText.isEmpty();
-	            if (wasUrlProvided) {
-	              addBranches(remoteBranches, sourceUrlAsText);
-	            }
+	      /**
+	       * Lists the remote branches for the given URL and presents them in the branches combo.
+	       * 
+	       * @param sourceUrlAsText The remote URL as text.
+	       */
+	      private void probeBranches(String sourceUrlAsText) {
+	        try {
+	          URIish sourceURL = new URIish(sourceUrlAsText);
+	          int generation = branchesProbeGeneration.get();
+	          branchesProbe = RemoteUrlProbeService.getInstance().probe(
+	              sourceURL,
+	              // Maybe there was a problem with getting the remote branches
+	              CloneRepositoryDialog.this::showInfoMessage,
+	              (branches, error) -> branchesProbed(branches, error, generation));
+	        } catch (URISyntaxException e) {
+	          showInfoMessage(translator.getTranslation(Tags.CLONE_REPOSITORY_DIALOG_URL_IS_NOT_A_REPOSITORY));
+	          if (logger.isDebugEnabled()) {
+	            logger.debug(e, e);
+	          }
+	          SwingUtilities.invokeLater(() -> {
+	            branchesComboBox.setEnabled(false);
+	            setProgressVisible(false);
+	          });
+	        }
+	      }
 
-	            SwingUtilities.invokeLater(() -> {
-	              boolean shouldEnableBranchesCombo = !remoteBranches.isEmpty();
-	              if (shouldEnableBranchesCombo) {
-	                branchesComboBox.addItem(DEFAULT_BRANCH_MARKER);
-	                for (Ref ref : remoteBranches) {
-	                  branchesComboBox.addItem(ref);
-	                }
-	              }
-	              branchesComboBox.setEnabled(shouldEnableBranchesCombo);
-	              if (wasUrlProvided) {
-	                // If we have branches, then we didn't have any problems.
-	                // Hide the information label. Otherwise, show it.
-	                informationLabel.setVisible(!shouldEnableBranchesCombo);
-	              }
-	            });
-	          } catch (JGitInternalException e) {
-	            Throwable cause = e.getCause();
-	            if (cause instanceof NotSupportedException) {
-	              showInfoMessage(translator.getTranslation(Tags.CLONE_REPOSITORY_DIALOG_URL_IS_NOT_A_REPOSITORY));
-	            } else {
-	              pluginWorkspace.showErrorMessage(e.getMessage());
-	              if (logger.isDebugEnabled())  {
-	                logger.debug(e, e);
-	              }
+	      /**
+	       * Called when the remote branches were listed.
+	       * 
+	       * @param branches   The remote branches or <code>null</code> if the listing failed.
+	       * @param error      The failure or <code>null</code>.
+	       * @param generation The generation of the request that listed the branches.
+	       */
+	      private void branchesProbed(Collection<Ref> branches, RuntimeException error, int generation) {
+	        if (error instanceof JGitInternalException) {
+	          Throwable cause = error.getCause();
+	          if (cause instanceof NotSupportedException) {
+	            showInfoMessage(translator.getTranslation(Tags.CLONE_REPOSITORY_DIALOG_URL_IS_NOT_A_REPOSITORY));
+	          } else {
+	            pluginWorkspace.showErrorMessage(error.getMessage());
+	            if (logger.isDebugEnabled())  {
+	              logger.debug(error, error);
 	            }
-	          } finally {
-	            SwingUtilities.invokeLater(() -> setProgressVisible(false));
 	          }
+	        } else if (error != null) {
+	          logger.error(error, error);
+	        }
+
+	        final List<Ref> remoteBranches = new ArrayList<>();
+	        if (branches != null) {
+	          remoteBranches.addAll(branches);
+	          Collections.sort(remoteBranches, refComparator);
 	        }
+	        SwingUtilities.invokeLater(() -> {
+	          if (generation != branchesProbeGeneration.get()) {
+	            // Another URL was typed in the meantime.
+	            return;
+	          }
+	          boolean shouldEnableBranchesCombo = !remoteBranches.isEmpty();
+	          if (shouldEnableBranchesCombo) {
+	            branchesComboBox.addItem(DEFAULT_BRANCH_MARKER);
+	            addBranchesIncrementally(remoteBranches, 0, generation);
+	          }
+	          branchesComboBox.setEnabled(shouldEnableBranchesCombo);
+	          // If we have branches, then we didn't have any problems.
+	          // Hide the information label. Otherwise, show it.
+	          informationLabel.setVisible(!shouldEnableBranchesCombo);
+	          setProgressVisible(false);
+	        });
 	      }
 
 	      /**
-	       * Add the remote branches for the given URL to the given list.
+	       * Adds the branches to the combo in chunks, each in its own AWT event,
+	       * so that a repository with many branches does not block the UI.
 	       * 
-	       * @param remoteBranches  The list to be populated.
-	       * @param sourceUrlAsText The remote URL as text.
+	       * @param remoteBranches The branches.
+	       * @param from           The index of the first branch to add.
+	       * @param generation     The generation of the request that listed the branches.
 	       */
-        private void addBranches(final List<Ref> remoteBranches, String sourceUrlAsText) {
-          try {
-            URIish sourceURL = new URIish(sourceUrlAsText);
-            Collection<Ref> branches = GitAccess.getInstance().listRemoteBranchesForURL(
-                sourceURL,
-                // Maybe there was a problem with getting the remote branches
-                CloneRepositoryDialog.this::showInfoMessage);
-            if (!branches.isEmpty()) {
-              remoteBranches.addAll(branches);
-              Collections.sort(remoteBranches, refComparator);
-            }
-          } catch (URISyntaxException e) {
-            showInfoMessage(translator.getTranslation(Tags.CLONE_REPOSITORY_DIALOG_URL_IS_NOT_A_REPOSITORY));
-            if (logger.isDebugEnabled()) {
-              logger.debug(e, e);
-            }
-          }
-        }
+	      private void addBranchesIncrementally(List<Ref> remoteBranches, int from, int generation) {
+	        if (generation != branchesProbeGeneration.get()) {
+	          // Another URL was typed in the meantime.
+	          return;
+	        }
+	        int to = Math.min(remoteBranches.size(), from + BRANCHES_CHUNK_SIZE);
+	        for (int i = from; i < to; i++) {
+	          branchesComboBox.addItem(remoteBranches.get(i));
+	        }
+	        if (to < remoteBranches.size()) {
+	          SwingUtilities.invokeLater(() -> addBranchesIncrementally(remoteBranches, to, generation));
+	        }
+	      }
 
 	      /**
 	       * Show/hide the progress circle for branch retrieval.
@@ -362,6 +413,18 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 	    checkRepoURLConTimer.schedule(checkConnectionTask, 500);
 	  }
 	};
+	
+	/**
+	 * Cancels the listing of the branches of the previous URL.
+	 */
+	private void cancelBranchesProbe() {
+	  branchesProbeGeneration.incrementAndGet();
+	  RemoteUrlProbeService.Probe probe = branchesProbe;
+	  if (probe != null) {
+	    probe.cancel();
+	    branchesProbe = null;
+	  }
+	}
 
 	/**
 	 * The translator for the messages that are displayed in this dialog
@@ -387,6 +450,16 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 	 * Timer for checking the connection to the repository (source) URL.
 	 */
 	private transient Timer checkRepoURLConTimer = new Timer("Check Repo URL Connection Daemon", false);
+	
+	/**
+	 * The listing of the branches of the current URL.
+	 */
+	private transient volatile RemoteUrlProbeService.Probe branchesProbe;
+	
+	/**
+	 * Incremented each time the URL changes. The branches listed for an older URL are ignored.
+	 */
+	private final AtomicInteger branchesProbeGeneration = new AtomicInteger();
 
 	/**
 	 * The combo box containing the remote branches for a given repository URL.
@@ -0,0 +1,306 @@
+package com.oxygenxml.git.view.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.apache.log4j.Logger;
+
+import com.oxygenxml.git.constants.UIConstants;
+import com.oxygenxml.git.service.StreamingDiff;
+import com.oxygenxml.git.service.StreamingDiff.BinarySummary;
+import com.oxygenxml.git.service.StreamingDiff.Hunk;
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.standalone.ui.OKCancelDialog;
+
+/**
+ * Presents the differences between two versions of a file that is too big for the comparison tool.
+ * The versions are compared as streams, in the background, with {@link StreamingDiff}, and the
+ * differences are presented in pages, as soon as they are found.
+ */
+public class LargeFileDiffDialog extends OKCancelDialog {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(LargeFileDiffDialog.class);
+  /**
+   * i18n
+   */
+  private static final Translator TRANSLATOR = Translator.getInstance();
+  /**
+   * The preferred size of the differences area.
+   */
+  private static final Dimension DIFF_PREFERRED_SIZE = new Dimension(800, 500);
+  /**
+   * The number of differences on a page.
+   */
+  private static final int PAGE_SIZE = 100;
+  /**
+   * How often the page is refreshed while comparing, in milliseconds.
+   */
+  private static final int REFRESH_DELAY = 500;
+  /**
+   * The differences found so far.
+   */
+  private final List<Hunk> hunks = new ArrayList<>();
+  /**
+   * Presents the current page.
+   */
+  private final JTextArea diffArea = new JTextArea();
+  /**
+   * Presents the current page number and the number of differences.
+   */
+  private final JLabel statusLabel = new JLabel();
+  /**
+   * Shows the previous page.
+   */
+  private final JButton previousButton = new JButton(TRANSLATOR.getTranslation(Tags.PREVIOUS_PAGE));
+  /**
+   * Shows the next page.
+   */
+  private final JButton nextButton = new JButton(TRANSLATOR.getTranslation(Tags.NEXT_PAGE));
+  /**
+   * Refreshes the page while comparing.
+   */
+  private final Timer refreshTimer = new Timer(REFRESH_DELAY, e -> refresh());
+  /**
+   * The current page, 0 based.
+   */
+  private int page;
+  /**
+   * The presented page, 0 based.
+   */
+  private int presentedPage = -1;
+  /**
+   * The number of differences on the presented page.
+   */
+  private int presentedHunks = -1;
+  /**
+   * <code>true</code> while the versions are compared.
+   */
+  private volatile boolean comparing = true;
+  /**
+   * <code>true</code> after the dialog was closed.
+   */
+  private volatile boolean canceled;
+
+  /**
+   * Constructor.
+   *
+   * @param leftURL  The left version. Usually the newer one. <code>null</code> if missing.
+   * @param rightURL The right version. Usually the older one. <code>null</code> if missing.
+   * @param filePath The path of the file.
+   */
+  public LargeFileDiffDialog(URL leftURL, URL rightURL, String filePath) {
+    super(
+        PluginWorkspaceProvider.getPluginWorkspace() != null ?
+            (JFrame) PluginWorkspaceProvider.getPluginWorkspace().getParentFrame() : null,
+        TRANSLATOR.getTranslation(Tags.LARGE_FILE_COMPARISON) + ": " + filePath,
+        false);
+
+    getContentPane().add(createMainPanel());
+    getOkButton().setText(TRANSLATOR.getTranslation(Tags.CLOSE));
+    getCancelButton().setVisible(false);
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosed(WindowEvent e) {
+        canceled = true;
+        refreshTimer.stop();
+      }
+    });
+    setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    pack();
+    setLocationRelativeTo(getParent());
+
+    refresh();
+    refreshTimer.start();
+    Thread comparison = new Thread(() -> compare(leftURL, rightURL), "Git large file comparison");
+    comparison.setDaemon(true);
+    comparison.start();
+  }
+
+  /**
+   * @return The panel with the differences and the paging buttons.
+   */
+  private JPanel createMainPanel() {
+    JPanel mainPanel = new JPanel(new BorderLayout(0, UIConstants.COMPONENT_BOTTOM_PADDING));
+    mainPanel.add(new JLabel(TRANSLATOR.getTranslation(Tags.LARGE_FILE_COMPARISON_INFO)), BorderLayout.NORTH);
+
+    diffArea.setEditable(false);
+    diffArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, diffArea.getFont().getSize()));
+    JScrollPane scrollPane = new JScrollPane(diffArea);
+    scrollPane.setPreferredSize(DIFF_PREFERRED_SIZE);
+    mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+    JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, UIConstants.INDENT_5PX, 0));
+    previousButton.addActionListener(e -> {
+      page--;
+      refresh();
+    });
+    pagingPanel.add(previousButton);
+    nextButton.addActionListener(e -> {
+      page++;
+      refresh();
+    });
+    pagingPanel.add(nextButton);
+    pagingPanel.add(statusLabel);
+    mainPanel.add(pagingPanel, BorderLayout.SOUTH);
+
+    return mainPanel;
+  }
+
+  /**
+   * Compares the versions. Called on a background thread.
+   *
+   * @param leftURL  The left version.
+   * @param rightURL The right version.
+   */
+  private void compare(URL leftURL, URL rightURL) {
+    StreamingDiff.Listener listener = new StreamingDiff.Listener() {
+      @Override
+      public void hunkFound(Hunk hunk) {
+        synchronized (hunks) {
+          hunks.add(hunk);
+        }
+      }
+
+      @Override
+      public void binaryCompared(BinarySummary oldSummary, BinarySummary newSummary) {
+        String text = TRANSLATOR.getTranslation(
+            oldSummary.isSameContent(newSummary) ? Tags.BINARY_FILES_IDENTICAL : Tags.BINARY_FILES_DIFFER)
+            + "\n\n" + summarize(leftURL, newSummary) + "\n" + summarize(rightURL, oldSummary);
+        SwingUtilities.invokeLater(() -> diffArea.setText(text));
+      }
+    };
+    // The right side is usually the older version.
+    try (InputStream rightIn = openStream(rightURL);
+        InputStream leftIn = openStream(leftURL)) {
+      new StreamingDiff().compare(rightIn, leftIn, listener, () -> canceled);
+    } catch (IOException e) {
+      LOGGER.error(e, e);
+      SwingUtilities.invokeLater(() -> diffArea.setText(e.getMessage()));
+    } finally {
+      comparing = false;
+      SwingUtilities.invokeLater(() -> {
+        refreshTimer.stop();
+        refresh();
+      });
+    }
+  }
+
+  /**
+   * @param url A version of the file. <code>null</code> if missing.
+   *
+   * @return The content of the version. Empty if missing.
+   *
+   * @throws IOException If the version cannot be read.
+   */
+  private static InputStream openStream(URL url) throws IOException {
+    return url != null ? url.openStream() : new ByteArrayInputStream(new byte[0]);
+  }
+
+  /**
+   * @param url     A version of the file.
+   * @param summary The summary of its content.
+   *
+   * @return The summary, to present.
+   */
+  private static String summarize(URL url, BinarySummary summary) {
+    return MessageFormat.format(
+        TRANSLATOR.getTranslation(summary.isLfsPointer() ? Tags.GIT_LFS_OBJECT_SUMMARY : Tags.BINARY_FILE_SUMMARY),
+        String.valueOf(url),
+        String.valueOf(summary.getSize()),
+        summary.getSha256());
+  }
+
+  /**
+   * Presents the current page and the status. Called on the AWT thread.
+   */
+  private void refresh() {
+    List<Hunk> pageHunks;
+    int hunksCount;
+    synchronized (hunks) {
+      hunksCount = hunks.size();
+      pageHunks = new ArrayList<>(hunks.subList(
+          Math.min(page * PAGE_SIZE, hunksCount),
+          Math.min((page + 1) * PAGE_SIZE, hunksCount)));
+    }
+    int pagesCount = Math.max(1, (hunksCount + PAGE_SIZE - 1) / PAGE_SIZE);
+
+    // The binary summary or the error replace the page.
+    if (hunksCount > 0 && (page != presentedPage || pageHunks.size() != presentedHunks)) {
+      diffArea.setText(format(pageHunks));
+      diffArea.setCaretPosition(0);
+      presentedPage = page;
+      presentedHunks = pageHunks.size();
+    }
+
+    String status = MessageFormat.format(
+        TRANSLATOR.getTranslation(Tags.PAGE_OF), String.valueOf(page + 1), String.valueOf(pagesCount))
+        + "  " + MessageFormat.format(TRANSLATOR.getTranslation(Tags.DIFFERENCES_COUNT), String.valueOf(hunksCount));
+    if (comparing) {
+      status += "  " + TRANSLATOR.getTranslation(Tags.COMPARING);
+    }
+    statusLabel.setText(status);
+    previousButton.setEnabled(page > 0);
+    nextButton.setEnabled(page < pagesCount - 1);
+  }
+
+  /**
+   * Formats differences like a unified diff, without context lines.
+   *
+   * @param pageHunks The differences.
+   *
+   * @return The text to present.
+   */
+  private static String format(List<Hunk> pageHunks) {
+    StringBuilder text = new StringBuilder();
+    for (Hunk hunk : pageHunks) {
+      text.append("@@ -").append(hunk.getOldStart()).append(',').append(hunk.getOldCount())
+          .append(" +").append(hunk.getNewStart()).append(',').append(hunk.getNewCount()).append(" @@\n");
+      appendLines(text, '-', hunk.getOldLines(), hunk.getOldCount());
+      appendLines(text, '+', hunk.getNewLines(), hunk.getNewCount());
+    }
+    return text.toString();
+  }
+
+  /**
+   * Appends the lines of a side of a difference.
+   *
+   * @param text   The text to present.
+   * @param prefix The prefix of each line.
+   * @param lines  The kept lines.
+   * @param count  The number of lines of the side.
+   */
+  private static void appendLines(StringBuilder text, char prefix, List<String> lines, int count) {
+    for (String line : lines) {
+      text.append(prefix).append(line).append('\n');
+    }
+    if (count > lines.size()) {
+      text.append(prefix).append(MessageFormat.format(
+          TRANSLATOR.getTranslation(Tags.MORE_LINES), String.valueOf(count - lines.size()))).append('\n');
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.oxygenxml.git.view.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import com.oxygenxml.git.constants.UIConstants;
+import com.oxygenxml.git.service.metrics.LatencyHistogram;
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationStats;
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.standalone.ui.OKCancelDialog;
+
+/**
+ * Presents the latency of the Git operations executed in the current session.
+ */
+public class OperationMetricsDialog extends OKCancelDialog {
+  /**
+   * i18n
+   */
+  private static final Translator TRANSLATOR = Translator.getInstance();
+  /**
+   * The preferred size of the table.
+   */
+  private static final Dimension TABLE_PREFERRED_SIZE = new Dimension(750, 250);
+  /**
+   * The model of the metrics table.
+   */
+  private final DefaultTableModel model = new DefaultTableModel(
+      new String[] {
+          TRANSLATOR.getTranslation(Tags.OPERATION),
+          TRANSLATOR.getTranslation(Tags.EXECUTIONS),
+          TRANSLATOR.getTranslation(Tags.FAILURES),
+          TRANSLATOR.getTranslation(Tags.LATENCY_P50_MS),
+          TRANSLATOR.getTranslation(Tags.LATENCY_P99_MS),
+          TRANSLATOR.getTranslation(Tags.LATENCY_MAX_MS),
+          TRANSLATOR.getTranslation(Tags.QUEUE_WAIT_P50_MS),
+          TRANSLATOR.getTranslation(Tags.QUEUE_WAIT_P99_MS),
+          TRANSLATOR.getTranslation(Tags.TRANSFERRED_OBJECTS)
+      },
+      0) {
+    @Override
+    public boolean isCellEditable(int row, int column) {
+      return false;
+    }
+  };
+
+  /**
+   * Constructor.
+   */
+  public OperationMetricsDialog() {
+    super(
+        PluginWorkspaceProvider.getPluginWorkspace() != null ?
+            (JFrame) PluginWorkspaceProvider.getPluginWorkspace().getParentFrame() : null,
+        TRANSLATOR.getTranslation(Tags.OPERATION_METRICS),
+        false);
+
+    getContentPane().add(createMainPanel());
+    loadMetrics();
+
+    getOkButton().setText(TRANSLATOR.getTranslation(Tags.CLOSE));
+    getCancelButton().setVisible(false);
+    pack();
+    setLocationRelativeTo(getParent());
+  }
+
+  /**
+   * @return The panel with the metrics table and the actions.
+   */
+  private JPanel createMainPanel() {
+    JPanel mainPanel = new JPanel(new BorderLayout(0, UIConstants.COMPONENT_BOTTOM_PADDING));
+
+    JTable table = new JTable(model);
+    table.setFillsViewportHeight(true);
+    JScrollPane scrollPane = new JScrollPane(table);
+    scrollPane.setPreferredSize(TABLE_PREFERRED_SIZE);
+    mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+    JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, UIConstants.INDENT_5PX, 0));
+    JButton refreshButton = new JButton(TRANSLATOR.getTranslation(Tags.REFRESH));
+    refreshButton.addActionListener(e -> loadMetrics());
+    buttonsPanel.add(refreshButton);
+
+    JButton resetButton = new JButton(TRANSLATOR.getTranslation(Tags.RESET));
+    resetButton.addActionListener(e -> {
+      OperationMetrics.getInstance().reset();
+      loadMetrics();
+    });
+    buttonsPanel.add(resetButton);
+
+    JButton copyButton = new JButton(TRANSLATOR.getTranslation(Tags.COPY_AS_JSON));
+    copyButton.addActionListener(e -> Toolkit.getDefaultToolkit().getSystemClipboard().setContents(
+        new StringSelection(OperationMetrics.getInstance().getMetricsAsJSON()),
+        null));
+    buttonsPanel.add(copyButton);
+    mainPanel.add(buttonsPanel, BorderLayout.SOUTH);
+
+    return mainPanel;
+  }
+
+  /**
+   * Loads the current metrics in the table.
+   */
+  private void loadMetrics() {
+    model.setRowCount(0);
+    for (OperationStats stats : OperationMetrics.getInstance().getRecordedStats()) {
+      LatencyHistogram execution = stats.getExecution();
+      LatencyHistogram queueWait = stats.getQueueWait();
+      model.addRow(new Object[] {
+          stats.getOperation().name(),
+          execution.getCount(),
+          stats.getFailures(),
+          OperationMetrics.format(execution.getPercentileMillis(50)),
+          OperationMetrics.format(execution.getPercentileMillis(99)),
+          OperationMetrics.format(execution.getMaxMillis()),
+          OperationMetrics.format(queueWait.getPercentileMillis(50)),
+          OperationMetrics.format(queueWait.getPercentileMillis(99)),
+          stats.getTransferredObjects()
+      });
+    }
+  }
+}
@@ -20,7 +20,7 @@ public class ProgressDialog extends OKCancelDialog {
 
 	private JProgressBar progressBar;
 	private JLabel noteLabel;
-	private boolean isCanceled;
+	private volatile boolean isCanceled;
 	private Translator translator;
 
 	public ProgressDialog(JFrame parentFrame) {
@@ -72,6 +72,18 @@ public class ProgressDialog extends OKCancelDialog {
 		noteLabel.setText(text);
 	}
 
+	/**
+	 * Presents how much of the work is done, instead of an indeterminate progress.
+	 * 
+	 * @param completed The completed work.
+	 * @param total     The total work.
+	 */
+	public void setProgress(int completed, int total) {
+		progressBar.setIndeterminate(false);
+		progressBar.setMaximum(total);
+		progressBar.setValue(completed);
+	}
+
 	@Override
 	protected void doCancel() {
 		isCanceled = true;
@@ -0,0 +1,143 @@
+package com.oxygenxml.git.view.dialog;
+
+import java.text.MessageFormat;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+
+/**
+ * Presents the progress of a Git operation in a {@link ProgressDialog}. The operation
+ * runs on a background thread and the dialog is updated on the AWT thread.
+ */
+public class ProgressDialogMonitor implements ProgressMonitor {
+  /**
+   * i18n
+   */
+  private static final Translator TRANSLATOR = Translator.getInstance();
+  /**
+   * The dialog.
+   */
+  private final ProgressDialog progressDialog;
+  /**
+   * <code>true</code> to show the dialog when the first task begins.
+   */
+  private final boolean showOnFirstTask;
+  /**
+   * <code>true</code> after the dialog was shown.
+   */
+  private boolean shown;
+  /**
+   * The title of the current task.
+   */
+  private String taskTitle;
+  /**
+   * The total work of the current task.
+   */
+  private int totalWork;
+  /**
+   * The completed work of the current task.
+   */
+  private int completedWork;
+
+  /**
+   * Constructor.
+   *
+   * @param progressDialog The dialog.
+   */
+  public ProgressDialogMonitor(ProgressDialog progressDialog) {
+    this(progressDialog, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param progressDialog  The dialog.
+   * @param showOnFirstTask <code>true</code> to show the dialog only when the first task begins.
+   */
+  private ProgressDialogMonitor(ProgressDialog progressDialog, boolean showOnFirstTask) {
+    this.progressDialog = progressDialog;
+    this.showOnFirstTask = showOnFirstTask;
+  }
+
+  /**
+   * Creates a monitor for an operation that usually ends quickly and cannot be canceled, like a
+   * branch switch. The dialog is shown only if the operation begins a task, for example when it
+   * writes many files in the working tree. Must be called on the AWT thread.
+   *
+   * @param title The title of the dialog.
+   *
+   * @return The monitor. {@link #close()} must be called when the operation ends.
+   */
+  public static ProgressDialogMonitor createForUncancelableOperation(String title) {
+    ProgressDialog progressDialog = new ProgressDialog(
+        PluginWorkspaceProvider.getPluginWorkspace() != null ?
+            (JFrame) PluginWorkspaceProvider.getPluginWorkspace().getParentFrame() : null);
+    progressDialog.setTitle(title);
+    progressDialog.getCancelButton().setVisible(false);
+    return new ProgressDialogMonitor(progressDialog, true);
+  }
+
+  /**
+   * Closes the dialog. Can be called from any thread.
+   */
+  public void close() {
+    SwingUtilities.invokeLater(progressDialog::dispose);
+  }
+
+  @Override
+  public void start(int totalTasks) {
+    // Each task is presented on its own.
+  }
+
+  @Override
+  public void beginTask(String title, int totalWork) {
+    this.taskTitle = title;
+    this.totalWork = totalWork;
+    this.completedWork = 0;
+    if (showOnFirstTask && !shown) {
+      shown = true;
+      SwingUtilities.invokeLater(() -> progressDialog.setVisible(true));
+    }
+    showProgress();
+  }
+
+  @Override
+  public void update(int completed) {
+    completedWork += completed;
+    showProgress();
+  }
+
+  @Override
+  public void endTask() {
+    // The next task resets the progress.
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return progressDialog.isCanceled();
+  }
+
+  /**
+   * Presents the progress of the current task.
+   */
+  private void showProgress() {
+    String note = MessageFormat.format(
+        TRANSLATOR.getTranslation(progressDialog.isCanceled() ? Tags.CANCELING : Tags.TASK_PROGRESS),
+        taskTitle,
+        String.valueOf(completedWork),
+        String.valueOf(totalWork));
+    int completed = completedWork;
+    int total = totalWork;
+    SwingUtilities.invokeLater(() -> {
+      progressDialog.setNote(note);
+      progressDialog.setProgress(completed, total);
+    });
+  }
+}
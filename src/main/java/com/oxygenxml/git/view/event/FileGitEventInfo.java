@@ -19,6 +19,11 @@ public class FileGitEventInfo extends GitEventInfo {
    * The files affected by the Git event.
    */
   private Collection<String> affectedFiles = Collections.<String> emptyList();
+  /**
+   * The states of the affected files, after the operation: the staged ones for {@link GitOperation#STAGE}
+   * and the unstaged ones for {@link GitOperation#UNSTAGE}. <code>null</code> if they were not computed.
+   */
+  private final List<FileStatus> newStates;
 
   /**
    * Constructor.
@@ -27,8 +32,22 @@ public class FileGitEventInfo extends GitEventInfo {
    * @param affectedFiles Files.
    */
   public FileGitEventInfo(GitOperation gitOp, Collection<String> affectedFiles) {
+    this(gitOp, affectedFiles, null);
+  }
+
+  /**
+   * Constructor.
+   * 
+   * @param gitOp         Git operation.
+   * @param affectedFiles Files.
+   * @param newStates     The states of the affected files, after the operation: the staged ones for
+   *                      {@link GitOperation#STAGE} and the unstaged ones for {@link GitOperation#UNSTAGE}.
+   *                      <code>null</code> if they were not computed.
+   */
+  public FileGitEventInfo(GitOperation gitOp, Collection<String> affectedFiles, List<FileStatus> newStates) {
     super(gitOp);
     this.affectedFiles = new ArrayList<>(affectedFiles);
+    this.newStates = newStates;
   }
 
   /**
@@ -50,6 +69,15 @@ public class FileGitEventInfo extends GitEventInfo {
     return fss;
   }
   
+  /**
+   * @return The states of the affected files, after the operation, so that the views don't have
+   * to compute the status again: the staged ones for {@link GitOperation#STAGE} and the unstaged
+   * ones for {@link GitOperation#UNSTAGE}. <code>null</code> if they were not computed.
+   */
+  public List<FileStatus> getNewStates() {
+    return newStates;
+  }
+  
   @Override
   public String toString() {
     return "FileGitEventInfo [Operation: " + gitOp + ", affected files: " + affectedFiles + "].";
@@ -0,0 +1,305 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.AndRevFilter;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import com.oxygenxml.git.service.ChangedPathRevFilter;
+import com.oxygenxml.git.service.ChangedPathsIndex;
+
+/**
+ * Finds a file in many revisions at once, for opening or comparing them.<br><br>
+ *
+ * The path of the file in each revision is found in a single walk over the history, that follows
+ * the renames of the file. The blob of the file is then looked up in each revision in parallel,
+ * and every revision is reported as soon as its blob is found and the revisions before it were reported,
+ * so that the editors are opened in the order of the revisions.
+ */
+public class BatchRevisionResolver {
+  /**
+   * The number of revisions looked up at the same time.
+   */
+  private static final int PARALLELISM = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+  /**
+   * The singleton instance.
+   */
+  private static BatchRevisionResolver instance;
+  /**
+   * Counts the threads, to name them.
+   */
+  private final AtomicInteger threadsCounter = new AtomicInteger();
+  /**
+   * Walks the history and looks up the blobs.
+   */
+  private final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM, r -> {
+    Thread thread = new Thread(r, "Git revision resolver " + threadsCounter.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * A file in a revision.
+   */
+  public static class ResolvedRevision {
+    /**
+     * The revision.
+     */
+    private final String commitId;
+    /**
+     * The path of the file in the revision.
+     */
+    private final String path;
+    /**
+     * The blob of the file. <code>null</code> if the file is not in the revision.
+     */
+    private final ObjectId blobId;
+    /**
+     * <code>true</code> if the file is not in the revision but it is in one of its parents.
+     */
+    private final boolean removed;
+
+    /**
+     * Constructor.
+     *
+     * @param commitId The revision.
+     * @param path     The path of the file in the revision.
+     * @param blobId   The blob of the file. <code>null</code> if the file is not in the revision.
+     * @param removed  <code>true</code> if the revision removed the file.
+     */
+    ResolvedRevision(String commitId, String path, ObjectId blobId, boolean removed) {
+      this.commitId = commitId;
+      this.path = path;
+      this.blobId = blobId;
+      this.removed = removed;
+    }
+
+    /**
+     * @return The revision, as it was requested.
+     */
+    public String getCommitId() {
+      return commitId;
+    }
+
+    /**
+     * @return The path of the file in the revision.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * @return The blob of the file. <code>null</code> if the file is not in the revision.
+     */
+    public ObjectId getBlobId() {
+      return blobId;
+    }
+
+    /**
+     * @return <code>true</code> if the file is not in the revision but it is in one of its parents.
+     */
+    public boolean isRemoved() {
+      return removed;
+    }
+  }
+
+  /**
+   * Hidden constructor.
+   */
+  BatchRevisionResolver() {
+    // Nothing
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized BatchRevisionResolver getInstance() {
+    if (instance == null) {
+      instance = new BatchRevisionResolver();
+    }
+    return instance;
+  }
+
+  /**
+   * Finds a file in many revisions, in the background.
+   *
+   * @param repository The repository.
+   * @param filePath   The path of the file in the current revision.
+   * @param commitIds  The revisions. Uncommitted changes are not accepted.
+   * @param onResolved Receives each revision as soon as it and the revisions before it are resolved, 
+   *                   on a background thread.
+   *
+   * @return The resolved revisions, in the requested order, when they are all resolved.
+   */
+  public CompletableFuture<List<ResolvedRevision>> resolve(
+      Repository repository,
+      String filePath,
+      List<String> commitIds,
+      Consumer<ResolvedRevision> onResolved) {
+    return CompletableFuture.supplyAsync(() -> findPaths(repository, filePath, commitIds), executor)
+        .thenCompose(paths -> {
+          List<CompletableFuture<ResolvedRevision>> lookups = new ArrayList<>();
+          paths.forEach((commitId, path) -> lookups.add(
+              CompletableFuture.supplyAsync(() -> lookUp(repository, commitId, path), executor)));
+          CompletableFuture<Void> reported = CompletableFuture.completedFuture(null);
+          for (CompletableFuture<ResolvedRevision> lookup : lookups) {
+            reported = reported.thenCombine(lookup, (v, resolvedRevision) -> {
+              onResolved.accept(resolvedRevision);
+              return null;
+            });
+          }
+          return reported.thenApply(v -> lookups.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        });
+  }
+
+  /**
+   * Finds the path of a file in many revisions, in a single walk that follows the renames of the file.
+   *
+   * @param repository The repository.
+   * @param filePath   The path of the file in the current revision.
+   * @param commitIds  The revisions.
+   *
+   * @return The path of the file by revision, in the requested order.
+   */
+  private static Map<String, String> findPaths(Repository repository, String filePath, List<String> commitIds) {
+    Map<String, String> paths = new LinkedHashMap<>();
+    try (ObjectReader reader = repository.newObjectReader()) {
+      Map<String, ObjectId> commits = new LinkedHashMap<>();
+      for (String commitId : commitIds) {
+        ObjectId id = repository.resolve(commitId);
+        if (id == null) {
+          throw new IOException("Unable to find revision " + commitId);
+        }
+        commits.put(commitId, id);
+      }
+
+      Set<ObjectId> pending = new HashSet<>(commits.values());
+      Map<ObjectId, String> foundPaths = new HashMap<>();
+      ObjectId head = repository.resolve(Constants.HEAD);
+      if (head != null) {
+        walkPaths(repository, reader, filePath, Collections.singleton(head), pending, foundPaths);
+      }
+      if (!pending.isEmpty()) {
+        // Revisions that are not in the history of the current branch, like the ones from the upstream branch.
+        walkPaths(repository, reader, filePath, new ArrayList<>(pending), pending, foundPaths);
+      }
+
+      // The revisions that did not change the file keep the given path.
+      commits.forEach((commitId, id) -> paths.put(commitId, foundPaths.getOrDefault(id, filePath)));
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+    return paths;
+  }
+
+  /**
+   * Walks the history of a file, following its renames, until all the given revisions are seen.
+   *
+   * @param repository The repository.
+   * @param reader     The reader of the repository.
+   * @param filePath   The path of the file in the start revisions.
+   * @param starts     The revisions from which to walk.
+   * @param pending    The revisions whose path is searched. The seen ones are removed.
+   * @param foundPaths Receives the path of the file in the seen revisions.
+   *
+   * @throws IOException If the history cannot be read.
+   */
+  private static void walkPaths(
+      Repository repository,
+      ObjectReader reader,
+      String filePath,
+      Collection<ObjectId> starts,
+      Set<ObjectId> pending,
+      Map<ObjectId, String> foundPaths) throws IOException {
+    try (RevWalk walk = new RevWalk(reader)) {
+      RenameTracker renameTracker = new RenameTracker();
+      renameTracker.reset(filePath);
+      // No parents rewriting needed, so the commits that did not change the file are skipped using the index.
+      ChangedPathRevFilter filter = ChangedPathRevFilter.createFollowing(
+          ChangedPathsIndex.getInstance(repository), filePath, repository.getConfig().get(DiffConfig.KEY));
+      filter.setRenameCallback(renameTracker.getCallback());
+      walk.setRevFilter(AndRevFilter.create(filter, renameTracker.getFilter()));
+      for (ObjectId start : starts) {
+        walk.markStart(walk.parseCommit(start));
+      }
+
+      // Stop as soon as all the requested revisions were seen.
+      RevCommit next;
+      while (!pending.isEmpty() && (next = walk.next()) != null) {
+        String path = renameTracker.getPath(next);
+        if (pending.remove(next) && path != null) {
+          foundPaths.put(next.copy(), path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Looks up the blob of a file in a revision.
+   *
+   * @param repository The repository.
+   * @param commitId   The revision.
+   * @param path       The path of the file in the revision.
+   *
+   * @return The file in the revision.
+   */
+  private static ResolvedRevision lookUp(Repository repository, String commitId, String path) {
+    try (ObjectReader reader = repository.newObjectReader();
+        RevWalk walk = new RevWalk(reader)) {
+      RevCommit commit = walk.parseCommit(repository.resolve(commitId));
+      ObjectId blobId = findBlob(reader, path, commit);
+      boolean removed = false;
+      if (blobId == null) {
+        for (RevCommit parent : commit.getParents()) {
+          if (findBlob(reader, path, walk.parseCommit(parent)) != null) {
+            removed = true;
+            break;
+          }
+        }
+      }
+      return new ResolvedRevision(commitId, path, blobId, removed);
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * Looks up the blob of a file in a revision.
+   *
+   * @param reader The reader of the repository.
+   * @param path   The path of the file.
+   * @param commit The revision.
+   *
+   * @return The blob or <code>null</code> if the file is not in the revision.
+   *
+   * @throws IOException If the trees cannot be read.
+   */
+  private static ObjectId findBlob(ObjectReader reader, String path, RevCommit commit) throws IOException {
+    try (TreeWalk treeWalk = TreeWalk.forPath(reader, path, commit.getTree())) {
+      return treeWalk != null && !treeWalk.isSubtree() ? treeWalk.getObjectId(0) : null;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.oxygenxml.git.view.history;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What is presented for a commit in the "Commit message" column of the history table.
+ * Computed once per history load, so that painting a row does not compute anything.
+ */
+public class CommitDisplayModel {
+  /**
+   * The relation between a commit and the upstream branch.
+   */
+  public enum SyncState {
+    /**
+     * The commit is both in the local and in the upstream branch.
+     */
+    NONE,
+    /**
+     * The commit is not yet pushed.
+     */
+    AHEAD,
+    /**
+     * The commit is not yet pulled.
+     */
+    BEHIND
+  }
+
+  /**
+   * The commit message, on a single line.
+   */
+  private final String message;
+  /**
+   * <code>true</code> for the "Uncommitted changes" row.
+   */
+  private final boolean uncommittedChanges;
+  /**
+   * The relation with the upstream branch.
+   */
+  private final SyncState syncState;
+  /**
+   * The tags of the commit.
+   */
+  private final List<String> tags;
+  /**
+   * The local branches that point to the commit.
+   */
+  private final List<String> localBranches;
+  /**
+   * The remote branches that point to the commit.
+   */
+  private final List<String> remoteBranches;
+
+  /**
+   * Constructor.
+   *
+   * @param message            The commit message, on a single line.
+   * @param uncommittedChanges <code>true</code> for the "Uncommitted changes" row.
+   * @param syncState          The relation with the upstream branch.
+   * @param tags               The tags of the commit. May be <code>null</code>.
+   * @param localBranches      The local branches that point to the commit. May be <code>null</code>.
+   * @param remoteBranches     The remote branches that point to the commit. May be <code>null</code>.
+   */
+  public CommitDisplayModel(
+      String message,
+      boolean uncommittedChanges,
+      SyncState syncState,
+      List<String> tags,
+      List<String> localBranches,
+      List<String> remoteBranches) {
+    this.message = message;
+    this.uncommittedChanges = uncommittedChanges;
+    this.syncState = syncState;
+    this.tags = tags != null ? tags : Collections.emptyList();
+    this.localBranches = localBranches != null ? localBranches : Collections.emptyList();
+    this.remoteBranches = remoteBranches != null ? remoteBranches : Collections.emptyList();
+  }
+
+  /**
+   * Flattens a commit message on a single line.
+   *
+   * @param message The commit message.
+   *
+   * @return The message with the new lines replaced by spaces, trimmed.
+   */
+  static String flatten(String message) {
+    if (message.indexOf('\n') == -1) {
+      return message.trim();
+    }
+    StringBuilder sb = new StringBuilder(message.length());
+    boolean inNewLines = false;
+    for (int i = 0; i < message.length(); i++) {
+      char c = message.charAt(i);
+      if (c == '\n') {
+        if (!inNewLines) {
+          sb.append(' ');
+          inNewLines = true;
+        }
+      } else {
+        sb.append(c);
+        inNewLines = false;
+      }
+    }
+    return sb.toString().trim();
+  }
+
+  /**
+   * @return The commit message, on a single line.
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * @return <code>true</code> for the "Uncommitted changes" row.
+   */
+  public boolean isUncommittedChanges() {
+    return uncommittedChanges;
+  }
+
+  /**
+   * @return The relation with the upstream branch.
+   */
+  public SyncState getSyncState() {
+    return syncState;
+  }
+
+  /**
+   * @return The tags of the commit. Never <code>null</code>.
+   */
+  public List<String> getTags() {
+    return tags;
+  }
+
+  /**
+   * @return The local branches that point to the commit. Never <code>null</code>.
+   */
+  public List<String> getLocalBranches() {
+    return localBranches;
+  }
+
+  /**
+   * @return The remote branches that point to the commit. Never <code>null</code>.
+   */
+  public List<String> getRemoteBranches() {
+    return remoteBranches;
+  }
+
+  /**
+   * @return The number of tag and branch labels.
+   */
+  public int getDecorationsCount() {
+    return tags.size() + localBranches.size() + remoteBranches.size();
+  }
+}
@@ -7,8 +7,13 @@ import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -19,17 +24,22 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.TableCellRenderer;
 
 import org.apache.log4j.Logger;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
+import com.oxygenxml.git.view.history.CommitDisplayModel.SyncState;
 import com.oxygenxml.git.view.util.UIUtil;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 
 /**
- * Renderer for HistoryTable including tag and branch labels.
+ * Renderer for HistoryTable including tag and branch labels.<br><br>
+ * 
+ * What is presented for each commit is computed once, in a {@link CommitDisplayModel}.
+ * The labels used for painting are created once and reused for all the rows.
  * 
  * @Alexandra_Dinisor
  *
@@ -45,11 +55,26 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
    */
   private static final int ARROWS_FONT_SIZE = 12;
 
+  /**
+   * The font for the arrow characters that show the incoming and outgoing changes.
+   */
+  private static final Font ARROWS_FONT = new Font("Dialog", Font.PLAIN, ARROWS_FONT_SIZE);
+
   /**
    * Default horizontal insets between components.
    */
   private static final int HORIZONTAL_INSET = 3;
 
+  /**
+   * Up arrow, for the commits to push.
+   */
+  private static final String UP_ARROW = "\u2191";
+
+  /**
+   * Down arrow, for the commits to pull.
+   */
+  private static final String DOWN_ARROW = "\u2193";
+
   /**
    * Logger for logging.
    */
@@ -62,9 +87,13 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
   private final Repository repository;
 
   /**
-   * Commits ahead (to push) and behind (to pull).
+   * The commits to push.
+   */
+  private final Set<ObjectId> commitsAhead = new HashSet<>();
+  /**
+   * The commits to pull.
    */
-  private final CommitsAheadAndBehind commitsAheadAndBehind;
+  private final Set<ObjectId> commitsBehind = new HashSet<>();
   /**
    * The current branch name in the git repository.
    */
@@ -81,6 +110,111 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
    * Commit ID to a list of branch labels.
    */
   private final Map<String, List<String>> remoteBranchMap;
+  /**
+   * The display model of each commit.
+   */
+  private final Map<CommitCharacteristics, CommitDisplayModel> displayModels = new IdentityHashMap<>();
+  /**
+   * The message of the "Uncommitted changes" row.
+   */
+  private final String uncommittedChangesMessage = Translator.getInstance().getTranslation(Tags.UNCOMMITTED_CHANGES);
+  /**
+   * Presents the arrow for the commits to push or pull.
+   */
+  private final JLabel arrowLabel = new CellLabel();
+  /**
+   * Presents the commit message.
+   */
+  private final JLabel messageLabel = new CellLabel();
+  /**
+   * The font of the commit message.
+   */
+  private final Font messageFont = messageLabel.getFont();
+  /**
+   * The font of the "Uncommitted changes" message.
+   */
+  private final Font uncommittedChangesFont = messageFont.deriveFont(Font.BOLD);
+  /**
+   * The labels for tags and branches. Only the ones needed by the rendered commit are visible.
+   */
+  private final List<DecorationLabel> decorationLabels = new ArrayList<>();
+  /**
+   * The constraints for the tag and branch labels.
+   */
+  private final GridBagConstraints decorationConstraints = new GridBagConstraints();
+  /**
+   * The constraints for the commit message.
+   */
+  private final GridBagConstraints messageConstraints = new GridBagConstraints();
+
+  /**
+   * A label used for painting only. Like {@link javax.swing.table.DefaultTableCellRenderer},
+   * it does not schedule repaints or layouts.
+   */
+  private static class CellLabel extends JLabel {
+    @Override
+    public void revalidate() {
+      // Only the preferred size must be recomputed.
+      invalidate();
+    }
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+      // Painted by the table.
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+      // Painted by the table.
+    }
+  }
+
+  /**
+   * A tag or branch label.
+   */
+  private static class DecorationLabel extends CellLabel {
+    /**
+     * The rounded border.
+     */
+    private final RoundedLineBorder border = new RoundedLineBorder(null, 1, LABEL_BORDER_CORNER_SIZE, true);
+    /**
+     * The font for most of the labels.
+     */
+    private final Font plainFont = getFont();
+    /**
+     * The font for the current branch.
+     */
+    private final Font boldFont = plainFont.deriveFont(Font.BOLD);
+
+    /**
+     * Constructor.
+     */
+    DecorationLabel() {
+      setBorder(border);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+      border.fillBorder(this, g, 0, 0, getWidth(), getHeight());
+      super.paintComponent(g);
+    }
+
+    /**
+     * Presents a tag or branch.
+     *
+     * @param name       The tag or branch name.
+     * @param bold       <code>true</code> to use a bold font.
+     * @param background The background color.
+     * @param foreground The foreground color.
+     */
+    void configure(String name, boolean bold, Color background, Color foreground) {
+      setText(name);
+      setFontIfChanged(this, bold ? boldFont : plainFont);
+      setBackground(background);
+      setForeground(foreground);
+      setVisible(true);
+    }
+  }
 
   /**
    * Construct the Table Renderer with accurate alignment.
@@ -100,20 +234,121 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
       Map<String, List<String>> localBranchMap,
       Map<String, List<String>> remoteBranchMap) {
     this.repository = repository;
-    this.commitsAheadAndBehind = commitsAheadAndBehind;
+    if (commitsAheadAndBehind != null) {
+      for (RevCommit commit : commitsAheadAndBehind.getCommitsAhead()) {
+        commitsAhead.add(commit.getId());
+      }
+      for (RevCommit commit : commitsAheadAndBehind.getCommitsBehind()) {
+        commitsBehind.add(commit.getId());
+      }
+    }
     this.currentBranchName = branchName;
     this.tagMap = tagMap;
     this.localBranchMap = localBranchMap;
     this.remoteBranchMap = remoteBranchMap;
 
     setLayout(new GridBagLayout());
+
+    GridBagConstraints arrowConstraints = new GridBagConstraints();
+    arrowConstraints.fill = GridBagConstraints.NONE;
+    arrowConstraints.anchor = GridBagConstraints.WEST;
+    arrowConstraints.gridy = 0;
+    arrowConstraints.gridx = GridBagConstraints.RELATIVE;
+    arrowConstraints.insets = new Insets(0, HORIZONTAL_INSET, 0, HORIZONTAL_INSET);
+    arrowLabel.setFont(ARROWS_FONT);
+    add(arrowLabel, arrowConstraints);
+
+    decorationConstraints.fill = GridBagConstraints.NONE;
+    decorationConstraints.anchor = GridBagConstraints.WEST;
+    decorationConstraints.gridy = 0;
+    decorationConstraints.gridx = GridBagConstraints.RELATIVE;
+    // No insets. We will impose space from the borders.
+    decorationConstraints.insets = new Insets(0, 0, 0, 0);
+
+    messageConstraints.fill = GridBagConstraints.HORIZONTAL;
+    messageConstraints.anchor = GridBagConstraints.WEST;
+    messageConstraints.gridy = 0;
+    messageConstraints.gridx = GridBagConstraints.RELATIVE;
+    messageConstraints.weightx = 1;
+    messageConstraints.insets = new Insets(0, HORIZONTAL_INSET, 0, HORIZONTAL_INSET);
+    add(messageLabel, messageConstraints);
+  }
+
+  /**
+   * Computes what is presented for the given commits. Should be called once per history load,
+   * before the commits are painted.
+   * 
+   * @param commits The commits from the history table.
+   */
+  public void computeDisplayModels(List<CommitCharacteristics> commits) {
+    for (CommitCharacteristics commit : commits) {
+      displayModels.computeIfAbsent(commit, this::createDisplayModel);
+    }
+  }
+
+  /**
+   * Gets the display model of a commit.
+   * 
+   * @param commit The commit.
+   * 
+   * @return The display model. Never <code>null</code>.
+   */
+  CommitDisplayModel getDisplayModel(CommitCharacteristics commit) {
+    return displayModels.computeIfAbsent(commit, this::createDisplayModel);
+  }
+
+  /**
+   * Computes what is presented for a commit.
+   * 
+   * @param commit The commit.
+   * 
+   * @return The display model.
+   */
+  private CommitDisplayModel createDisplayModel(CommitCharacteristics commit) {
+    String message = CommitDisplayModel.flatten(commit.getCommitMessage());
+    boolean uncommittedChanges = message.equals(uncommittedChangesMessage);
+
+    SyncState syncState = SyncState.NONE;
+    ObjectId commitId = toObjectId(commit);
+    if (commitId != null) {
+      if (commitsAhead.contains(commitId)) {
+        syncState = SyncState.AHEAD;
+      } else if (commitsBehind.contains(commitId)) {
+        syncState = SyncState.BEHIND;
+      }
+    }
+
+    List<String> tags = null;
+    List<String> localBranches = null;
+    List<String> remoteBranches = null;
+    if (!uncommittedChanges && repository != null) {
+      String abbreviatedId = commit.getCommitAbbreviatedId();
+      tags = tagMap.get(abbreviatedId);
+      localBranches = localBranchMap.get(abbreviatedId);
+      remoteBranches = remoteBranchMap.get(abbreviatedId);
+    }
+
+    return new CommitDisplayModel(message, uncommittedChanges, syncState, tags, localBranches, remoteBranches);
+  }
+
+  /**
+   * @param commit A commit.
+   * 
+   * @return The ID of the commit or <code>null</code> if it is not a real commit.
+   */
+  private static ObjectId toObjectId(CommitCharacteristics commit) {
+    ObjectId id = null;
+    if (commit.getPlotCommit() != null) {
+      id = commit.getPlotCommit().getId();
+    } else if (commit.getCommitId() != null && ObjectId.isId(commit.getCommitId())) {
+      id = ObjectId.fromString(commit.getCommitId());
+    }
+    return id;
   }
 
   @Override
   public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
       int row, int column) {
-    removeAll();
-
     // keep the selection for whole columns of the row when selecting.
     if (isSelected) {
       super.setForeground(table.getSelectionForeground());
@@ -132,162 +367,122 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
 
     setFont(table.getFont());
     setBorder(getNoFocusBorder());
-    
-    // adding constraints for commit message label when wrapping
-    GridBagConstraints constr = new GridBagConstraints();
-    constr.fill = GridBagConstraints.NONE;
-    constr.anchor = GridBagConstraints.WEST;
-    constr.gridy = 0;
-    constr.gridx = -1;
-    constr.insets = new Insets(0, HORIZONTAL_INSET, 0, HORIZONTAL_INSET);
-
-    String toRender = "";
+
+    int usedDecorations = 0;
     if (value instanceof CommitCharacteristics) {
-      toRender = getRenderingStringForCommit(value, constr, table);
+      CommitDisplayModel model = getDisplayModel((CommitCharacteristics) value);
+      renderArrow(model.getSyncState());
+      usedDecorations = renderDecorations(model, table);
+      messageLabel.setText(model.getMessage());
+      setFontIfChanged(messageLabel, model.isUncommittedChanges() ? uncommittedChangesFont : messageFont);
     } else {
-      toRender = value != null ? value.toString() : "";
+      arrowLabel.setVisible(false);
+      messageLabel.setText(value != null ? value.toString() : "");
+      setFontIfChanged(messageLabel, messageFont);
     }
-
-    constr.gridx ++;
-    constr.fill = GridBagConstraints.HORIZONTAL;
-    constr.weightx = 1;
-    JLabel comp = new JLabel(toRender);
-    comp.setForeground(getForeground());
-    add(comp, constr);
+    for (int i = usedDecorations; i < decorationLabels.size(); i++) {
+      decorationLabels.get(i).setVisible(false);
+    }
+    messageLabel.setForeground(getForeground());
     
     return this;
   }
 
   /**
-   * Get the text to render for a commit.
+   * Shows the arrow for the commits to push or pull.
    * 
-   * @param value  The commit characteristics.
-   * @param constr Grid bag constraints.
-   * @param table  The table.
-   * 
-   * @return the text to render.
+   * @param syncState The relation between the commit and the upstream branch.
    */
-  private String getRenderingStringForCommit(Object value, GridBagConstraints constr, JTable table) {
-    CommitCharacteristics commitCharacteristics = (CommitCharacteristics) value;
-    String toRender = commitCharacteristics.getCommitMessage().replaceAll("\\n+", " ").trim();
-    
-    // Show outgoing and incoming commits using arrows
-    String arrow = "";
-    if (isAheadCommit(commitCharacteristics.getCommitId())) {
-      // Up arrow
-      arrow = "\u2191";
-    } else if (isBehindCommit(commitCharacteristics.getCommitId())) {
-      // Down arrow
-      arrow = "\u2193";
-    }
-    if (!arrow.isEmpty()) {
-      JLabel arrowLabel = new JLabel(arrow);
-      arrowLabel.setFont(new Font("Dialog", Font.PLAIN, ARROWS_FONT_SIZE));
+  private void renderArrow(SyncState syncState) {
+    if (syncState == SyncState.NONE) {
+      arrowLabel.setVisible(false);
+    } else {
+      arrowLabel.setText(syncState == SyncState.AHEAD ? UP_ARROW : DOWN_ARROW);
       arrowLabel.setForeground(getForeground());
-      constr.gridx ++;
-      add(arrowLabel, constr);
+      arrowLabel.setVisible(true);
     }
-    
-    // bold the text for uncommitted changes
-    String uncommittedChangesMessage = Translator.getInstance().getTranslation(Tags.UNCOMMITTED_CHANGES);
-    if (toRender.equals(uncommittedChangesMessage)) {
-      toRender = "<html><body><b>" + uncommittedChangesMessage + "</b></body></html>";
-    } else if (repository != null) {
-      String abbreviatedId = commitCharacteristics.getCommitAbbreviatedId();
+  }
+
+  /**
+   * Shows the tag and branch labels of a commit.
+   * 
+   * @param model The display model of the commit.
+   * @param table The table.
+   * 
+   * @return The number of used labels.
+   */
+  private int renderDecorations(CommitDisplayModel model, JTable table) {
+    int used = 0;
+    int count = model.getDecorationsCount();
+    if (count > 0) {
+      ensureDecorationLabels(count);
       boolean isDarkTheme = PluginWorkspaceProvider.getPluginWorkspace().getColorTheme().isDarkTheme();
 
-      List<String> tagList = tagMap.get(abbreviatedId);
       Color tagBackgroundColor = isDarkTheme ? UIUtil.TAG_GRAPHITE_BACKGROUND 
           : UIUtil.TAG_LIGHT_BACKGROUND;
-      addTagOrBranchLabel(tagList, constr, tagBackgroundColor, table.getForeground());
+      used = configureDecorationLabels(model.getTags(), used, tagBackgroundColor, table.getForeground());
 
-      List<String> localBranchList = localBranchMap.get(abbreviatedId);
-      addTagOrBranchLabel(localBranchList, constr, table.getBackground(), table.getForeground());
+      used = configureDecorationLabels(model.getLocalBranches(), used, table.getBackground(), table.getForeground());
 
-      List<String> remoteBranchList = remoteBranchMap.get(abbreviatedId);
       Color remoteBackgroundColor = isDarkTheme ? UIUtil.REMOTE_BRANCH_GRAPHITE_BACKGROUND 
           : UIUtil.REMOTE_BRANCH_LIGHT_BACKGROUND;
-     
-      addTagOrBranchLabel(remoteBranchList, constr, remoteBackgroundColor, table.getForeground());
+      used = configureDecorationLabels(model.getRemoteBranches(), used, remoteBackgroundColor, table.getForeground());
     }
-    
-    return toRender;
+    return used;
   }
 
   /**
-   * Add Label to "Commit Message" column: tag or local/remote branch
+   * Makes sure there are enough tag and branch labels. They are placed before the commit message.
    * 
-   * @param nameForLabelList List of tags or branches corresponding the commit.
-   * @param constr           The constraints for tag / branch label when wrapping
-   * @param backgroundColor  The background color.
-   * @param foregroundColor  The foreground color.
-   */
-  private void addTagOrBranchLabel(
-      List<String> nameForLabelList,
-      GridBagConstraints constr,
-      Color backgroundColor,
-      Color foregroundColor) {
-    if (nameForLabelList != null && !nameForLabelList.isEmpty()) {
-      Insets oldInsets = constr.insets;
-      // No insets. We will impose space from the borders.
-      constr.insets = new Insets(0, 0, 0, 0);
-      int lineSize = 1;
-      
-      for (String name : nameForLabelList) {
-        RoundedLineBorder border = new RoundedLineBorder(null, lineSize, LABEL_BORDER_CORNER_SIZE, true);
-        JLabel label = new JLabel(name) {
-          @Override
-          protected void paintComponent(Graphics g) {
-            border.fillBorder(this, g, 0, 0, getWidth(), getHeight());
-            super.paintComponent(g);
-          }         
-        };
-        if (name.equals(currentBranchName)) {
-          label.setFont(label.getFont().deriveFont(Font.BOLD));
-        }
-        label.setBackground(backgroundColor);
-        label.setForeground(foregroundColor);
-        label.setBorder(border);
-        constr.gridx ++;
-        add(label, constr);
+   * @param count The number of needed labels.
+   */
+  private void ensureDecorationLabels(int count) {
+    if (decorationLabels.size() < count) {
+      remove(messageLabel);
+      while (decorationLabels.size() < count) {
+        DecorationLabel label = new DecorationLabel();
+        decorationLabels.add(label);
+        add(label, decorationConstraints);
       }
-      
-      // We added a label. Update the top insets of the initial insets.
-      constr.insets = oldInsets;
+      add(messageLabel, messageConstraints);
     }
   }
-  
+
   /**
-   * Check if this is a commit to push.
+   * Presents tags or branches, using the next free labels.
    * 
-   * @param commitID Commit ID.
-   *  
-   * @return true if this is a commit to push.
+   * @param names           The tags or branches corresponding the commit.
+   * @param firstLabel      The index of the first free label.
+   * @param backgroundColor The background color.
+   * @param foregroundColor The foreground color.
+   * 
+   * @return The index of the next free label.
    */
-  private boolean isAheadCommit(String commitID) {
-    boolean isIt = false;
-    if (commitsAheadAndBehind != null) {
-      List<RevCommit> commitsAhead = commitsAheadAndBehind.getCommitsAhead();
-      isIt = commitsAhead.stream().anyMatch(commit -> commit.getId().getName().equals(commitID));
+  private int configureDecorationLabels(
+      List<String> names,
+      int firstLabel,
+      Color backgroundColor,
+      Color foregroundColor) {
+    int index = firstLabel;
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i);
+      decorationLabels.get(index).configure(name, name.equals(currentBranchName), backgroundColor, foregroundColor);
+      index++;
     }
-    return isIt;
+    return index;
   }
-  
+
   /**
-   * Check if this is a commit to pull.
+   * Sets the font of a label, unless it already has it.
    * 
-   * @param commitID Commit ID.
-   *  
-   * @return true if this is a commit to pull.
+   * @param label The label.
+   * @param font  The font.
    */
-  private boolean isBehindCommit(String commitID) {
-    boolean isIt = false;
-    if (commitsAheadAndBehind != null) {
-      List<RevCommit> commitsBehind = commitsAheadAndBehind.getCommitsBehind();
-      isIt = commitsBehind.stream().anyMatch(commit -> commit.getId().getName().equals(commitID));
+  private static void setFontIfChanged(JLabel label, Font font) {
+    if (label.getFont() != font) {
+      label.setFont(font);
     }
-    return isIt;
- }
+  }
 
   /**
    * @see javax.swing.table.DefaultTableCellRenderer.getNoFocusBorder()
@@ -1,9 +1,13 @@
 package com.oxygenxml.git.view.history;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -70,6 +74,11 @@ public class HistoryCommitTableModel extends AbstractTableModel {
    * The internal representation of the model filtered.
    */
   private transient List<CommitCharacteristics> allCommitsCharacteristicsFiltered;
+  
+  /**
+   * The position of each commit in the history. Computed for the first content search.
+   */
+  private transient Map<CommitCharacteristics, Integer> positions;
 
 	/**
 	 * Construct the Table Model with a Vector containing all commitCharacteristics.
@@ -198,6 +207,47 @@ public class HistoryCommitTableModel extends AbstractTableModel {
     return allCommitsCharacteristicsFiltered;
   }
 	
+	/**
+	 * @return all the commits, not filtered.
+	 */
+	public List<CommitCharacteristics> getUnfilteredCommits() {
+	  return allCommitsCharacteristics;
+	}
+	
+	/**
+	 * Starts presenting only the commits found by a content search. They are added with
+	 * {@link #addContentMatch(CommitCharacteristics)}, as they are found.
+	 */
+	public void startContentFilter() {
+	  // Forget the text filter, so it is applied again after the content search.
+	  textToFilter = null;
+	  allCommitsCharacteristicsFiltered.clear();
+	  fireTableDataChanged();
+	}
+	
+	/**
+	 * Presents a commit found by a content search, in its place from the history.
+	 * 
+	 * @param commit The found commit.
+	 */
+	public void addContentMatch(CommitCharacteristics commit) {
+	  if (positions == null) {
+	    positions = new HashMap<>();
+	    for (int i = 0; i < allCommitsCharacteristics.size(); i++) {
+	      positions.put(allCommitsCharacteristics.get(i), i);
+	    }
+	  }
+	  if (positions.containsKey(commit)) {
+	    int row = Collections.binarySearch(
+	        allCommitsCharacteristicsFiltered, commit, Comparator.comparing(positions::get));
+	    if (row < 0) {
+	      row = -row - 1;
+	      allCommitsCharacteristicsFiltered.add(row, commit);
+	      fireTableRowsInserted(row, row);
+	    }
+	  }
+	}
+	
 	/**
 	 * Filters the table
 	 * 
@@ -0,0 +1,306 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Searches the commits that added or removed a text in the content of the files, like
+ * <code>git log -S</code>. Each commit is compared with its parent and only the blobs
+ * of the changed files are scanned: the commit matches if the number of occurrences of the
+ * text differs between the old and the new version of a file. Like <code>git log -S</code>,
+ * the merge commits are skipped: the commits merged by them are found instead.
+ * <br><br>
+ * The commits are scanned in parallel. Each thread reads the objects with its own
+ * {@link ObjectReader} and the number of occurrences in each scanned blob is remembered,
+ * because a blob is usually scanned again for the next commit that changes the file.
+ */
+public class HistoryContentSearcher {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(HistoryContentSearcher.class);
+  /**
+   * The number of commits scanned at the same time.
+   */
+  private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+  /**
+   * Bigger blobs are not scanned.
+   */
+  private static final long MAX_BLOB_SIZE = 16L * 1024 * 1024;
+  /**
+   * How many scanned blobs are remembered.
+   */
+  private static final int CACHE_SIZE = 20000;
+  /**
+   * The singleton instance.
+   */
+  private static HistoryContentSearcher instance;
+  /**
+   * Counts the threads, to name them.
+   */
+  private final AtomicInteger threadsCounter = new AtomicInteger();
+  /**
+   * Scans the commits.
+   */
+  private final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM, r -> {
+    Thread thread = new Thread(r, "Git content search " + threadsCounter.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+  /**
+   * The number of occurrences of a text in a blob, by blob ID and text.
+   */
+  private final Map<String, Integer> occurrencesCache = Collections.synchronizedMap(
+      new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+          return size() > CACHE_SIZE;
+        }
+      });
+
+  /**
+   * A running search.
+   */
+  public static class Search {
+    /**
+     * <code>true</code> after the search was canceled.
+     */
+    private volatile boolean canceled;
+    /**
+     * Completes when all the commits were scanned or the search was canceled.
+     */
+    private CompletableFuture<Void> completion;
+
+    /**
+     * Stops the search. The commits being scanned are not reported anymore.
+     */
+    public void cancel() {
+      canceled = true;
+    }
+
+    /**
+     * @return <code>true</code> if the search was canceled.
+     */
+    public boolean isCanceled() {
+      return canceled;
+    }
+
+    /**
+     * @return Completes when all the commits were scanned or the search was canceled.
+     */
+    public CompletableFuture<Void> getCompletion() {
+      return completion;
+    }
+  }
+
+  /**
+   * Hidden constructor.
+   */
+  HistoryContentSearcher() {
+    // Nothing
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized HistoryContentSearcher getInstance() {
+    if (instance == null) {
+      instance = new HistoryContentSearcher();
+    }
+    return instance;
+  }
+
+  /**
+   * Searches, in the background, the commits that added or removed a text.
+   *
+   * @param repository The repository.
+   * @param commits    The commits to scan, from the newest to the oldest. The uncommitted changes are skipped.
+   * @param text       The searched text. Case sensitive.
+   * @param onMatch    Receives each matching commit as soon as it is found, on a background thread.
+   *                   The commits are found roughly from the newest to the oldest.
+   *
+   * @return The search, to cancel it.
+   */
+  public Search search(
+      Repository repository,
+      List<CommitCharacteristics> commits,
+      String text,
+      Consumer<CommitCharacteristics> onMatch) {
+    Search search = new Search();
+    byte[] pattern = text.getBytes(StandardCharsets.UTF_8);
+    // Without the uncommitted changes.
+    List<CommitCharacteristics> toScan = commits.stream()
+        .filter(commit -> ObjectId.isId(commit.getCommitId()))
+        .collect(Collectors.toList());
+
+    // The threads take the next commit to scan, so the newest commits are reported first.
+    AtomicInteger next = new AtomicInteger();
+    CompletableFuture<?>[] scanners = new CompletableFuture<?>[Math.min(PARALLELISM, Math.max(1, toScan.size()))];
+    for (int i = 0; i < scanners.length; i++) {
+      scanners[i] = CompletableFuture.runAsync(() -> {
+        try (ObjectReader reader = repository.newObjectReader();
+            RevWalk revWalk = new RevWalk(reader);
+            TreeWalk treeWalk = new TreeWalk(reader)) {
+          revWalk.setRetainBody(false);
+          treeWalk.setRecursive(true);
+          treeWalk.setFilter(TreeFilter.ANY_DIFF);
+          int index;
+          while (!search.canceled && (index = next.getAndIncrement()) < toScan.size()) {
+            CommitCharacteristics commit = toScan.get(index);
+            try {
+              if (changesOccurrences(revWalk, treeWalk, commit.getCommitId(), text, pattern) && !search.canceled) {
+                onMatch.accept(commit);
+              }
+            } catch (IOException e) {
+              LOGGER.error(e, e);
+            }
+          }
+        }
+      }, executor);
+    }
+    search.completion = CompletableFuture.allOf(scanners);
+
+    return search;
+  }
+
+  /**
+   * Checks if a commit changed the number of occurrences of a text in one of the files it changed.
+   *
+   * @param revWalk  Parses the commits.
+   * @param treeWalk Compares the trees. Recursive and with the {@link TreeFilter#ANY_DIFF} filter.
+   * @param commitId The commit.
+   * @param text     The searched text.
+   * @param pattern  The searched text, as UTF-8.
+   *
+   * @return <code>true</code> if the commit added or removed the text. <code>false</code> for the merge commits.
+   *
+   * @throws IOException If the objects cannot be read.
+   */
+  private boolean changesOccurrences(
+      RevWalk revWalk,
+      TreeWalk treeWalk,
+      String commitId,
+      String text,
+      byte[] pattern) throws IOException {
+    RevCommit commit = revWalk.parseCommit(ObjectId.fromString(commitId));
+    if (commit.getParentCount() > 1) {
+      // Compared with the first parent, it would repeat the changes of the merged branch.
+      return false;
+    }
+    treeWalk.reset();
+    if (commit.getParentCount() > 0) {
+      RevCommit parent = commit.getParent(0);
+      revWalk.parseHeaders(parent);
+      treeWalk.addTree(parent.getTree());
+    } else {
+      treeWalk.addTree(new EmptyTreeIterator());
+    }
+    treeWalk.addTree(commit.getTree());
+
+    ObjectReader reader = treeWalk.getObjectReader();
+    while (treeWalk.next()) {
+      if (countOccurrences(reader, treeWalk, 0, text, pattern) != countOccurrences(reader, treeWalk, 1, text, pattern)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Counts the occurrences of a text in a version of the current file of a tree walk.
+   *
+   * @param reader   The object reader.
+   * @param treeWalk The tree walk.
+   * @param nth      The version of the file.
+   * @param text     The searched text.
+   * @param pattern  The searched text, as UTF-8.
+   *
+   * @return The number of occurrences. 0 if the file is missing from the version or it is too big.
+   *
+   * @throws IOException If the blob cannot be read.
+   */
+  private int countOccurrences(ObjectReader reader, TreeWalk treeWalk, int nth, String text, byte[] pattern) throws IOException {
+    if (treeWalk.getFileMode(nth).getObjectType() == Constants.OBJ_BLOB) {
+      ObjectId blobId = treeWalk.getObjectId(nth);
+      String key = blobId.name() + ':' + text;
+      Integer cached = occurrencesCache.get(key);
+      if (cached == null) {
+        try {
+          cached = reader.getObjectSize(blobId, Constants.OBJ_BLOB) > MAX_BLOB_SIZE ? 0
+              : countOccurrences(reader.open(blobId, Constants.OBJ_BLOB).getCachedBytes(), pattern);
+        } catch (MissingObjectException e) {
+          // Probably a shallow clone.
+          LOGGER.debug(e, e);
+          cached = 0;
+        }
+        occurrencesCache.put(key, cached);
+      }
+      return cached;
+    }
+    return 0;
+  }
+
+  /**
+   * @return How many numbers of occurrences are remembered.
+   */
+  int getCachedOccurrencesCount() {
+    return occurrencesCache.size();
+  }
+
+  /**
+   * Counts the occurrences of a text that do not overlap, using the Boyer-Moore-Horspool algorithm.
+   *
+   * @param content The content.
+   * @param pattern The searched text.
+   *
+   * @return The number of occurrences.
+   */
+  static int countOccurrences(byte[] content, byte[] pattern) {
+    int count = 0;
+    int last = pattern.length - 1;
+    if (last >= 0 && content.length > last) {
+      int[] shifts = new int[256];
+      Arrays.fill(shifts, pattern.length);
+      for (int i = 0; i < last; i++) {
+        shifts[pattern[i] & 0xff] = last - i;
+      }
+      int position = 0;
+      while (position <= content.length - pattern.length) {
+        int i = last;
+        while (i >= 0 && content[position + i] == pattern[i]) {
+          i--;
+        }
+        if (i < 0) {
+          count++;
+          position += pattern.length;
+        } else {
+          position += shifts[content[position + last] & 0xff];
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,392 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Finds, and remembers, the data needed by the contextual actions of the history view:
+ * the status of a file in a revision, the parents of the revision, the parent that still
+ * contains a removed file and the path of the file in the working copy.<br><br>
+ *
+ * The data can be computed in the background, when the selection changes, so that the
+ * contextual menu does not walk the history on the AWT thread. The revisions never change,
+ * so only the data about the uncommitted changes is never remembered.
+ */
+public class HistoryFileResolver {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(HistoryFileResolver.class);
+  /**
+   * How many values of each kind are remembered.
+   */
+  private static final int CACHE_SIZE = 200;
+  /**
+   * Computes the data in the background.
+   */
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "Git history file resolver");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /**
+   * The status of the files, by repository, revision and path.
+   */
+  private final Map<String, Optional<FileStatus>> fileStatuses = createCache();
+  /**
+   * The parents of the revisions, by repository and revision.
+   */
+  private final Map<String, RevCommit[]> parents = createCache();
+  /**
+   * The parent that contains a removed file, by repository, revision and path.
+   */
+  private final Map<String, Optional<RevCommit>> previousVersions = createCache();
+  /**
+   * The paths of the files in the working copy, by repository, revision and path.
+   */
+  private final Map<String, String> workingCopyPaths = createCache();
+  /**
+   * The computations queued or running in the background, by repository, revision and path.
+   */
+  private final Map<String, CompletableFuture<Optional<FileStatus>>> inFlight = new HashMap<>();
+
+  /**
+   * @param <V> The type of the values.
+   *
+   * @return A map that forgets the least recently used values.
+   */
+  private static <V> Map<String, V> createCache() {
+    return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+        return size() > CACHE_SIZE;
+      }
+    });
+  }
+
+  /**
+   * Searches for the file path in the given revision. If the file is not among the changes of the revision,
+   * it was perhaps renamed since then, so its old path is searched too.
+   *
+   * @param filePath              File path to search.
+   * @param commitCharacteristics A commit info.
+   *
+   * @return An optional file info if the file path is found inside the commit.
+   *
+   * @throws IOException Problems trying to iterate over the repository.
+   * @throws GitAPIException Problems trying to iterate over the repository.
+   */
+  public Optional<FileStatus> getFileStatus(String filePath, CommitCharacteristics commitCharacteristics)
+      throws IOException, GitAPIException {
+    String commitId = commitCharacteristics.getCommitId();
+    String key = getKey(commitId, filePath);
+    Optional<FileStatus> fileStatus = key != null ? fileStatuses.get(key) : null;
+    if (fileStatus == null) {
+      fileStatus = findFileStatus(filePath, commitId);
+      if (key != null) {
+        fileStatuses.put(key, fileStatus);
+      }
+    }
+    return fileStatus;
+  }
+
+  /**
+   * Searches for the file path in the given revision.
+   *
+   * @param filePath File path to search.
+   * @param commitId The revision.
+   *
+   * @return An optional file info if the file path is found inside the commit.
+   *
+   * @throws IOException Problems trying to iterate over the repository.
+   * @throws GitAPIException Problems trying to iterate over the repository.
+   */
+  private static Optional<FileStatus> findFileStatus(String filePath, String commitId)
+      throws IOException, GitAPIException {
+    List<FileStatus> changes = RevCommitUtil.getChangedFiles(commitId);
+    Optional<FileStatus> fileStatusOptional = changes.stream().filter(f -> filePath.equals(f.getFileLocation())).findFirst();
+    if (!fileStatusOptional.isPresent()) {
+      // Perhaps the file was renamed at some point.
+      String oldFilePath = RevCommitUtil.getOldPathStartingFromHead(
+          GitAccess.getInstance().getGit(),
+          commitId,
+          filePath);
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("new " + filePath + " old " + oldFilePath);
+      }
+
+      fileStatusOptional = changes.stream().filter(f -> oldFilePath.equals(f.getFileLocation())).findFirst();
+    }
+    return fileStatusOptional;
+  }
+
+  /**
+   * @param filePath              File path.
+   * @param commitCharacteristics A commit info.
+   *
+   * @return <code>true</code> if the status of the file in the given revision is already known.
+   */
+  public boolean isResolved(String filePath, CommitCharacteristics commitCharacteristics) {
+    String key = getKey(commitCharacteristics.getCommitId(), filePath);
+    return key != null && fileStatuses.containsKey(key);
+  }
+
+  /**
+   * Gives the parents of a revision.
+   *
+   * @param commitId The revision.
+   *
+   * @return The parents. Empty for the uncommitted changes.
+   *
+   * @throws IOException Unable to read the revision.
+   * @throws NoRepositorySelected No repository is loaded.
+   */
+  public RevCommit[] getParents(String commitId) throws IOException, NoRepositorySelected {
+    String key = getKey(commitId, "");
+    RevCommit[] revisionParents = key != null ? parents.get(key) : null;
+    if (revisionParents == null) {
+      revisionParents = RevCommitUtil.getParents(GitAccess.getInstance().getRepository(), commitId);
+      if (key != null) {
+        parents.put(key, revisionParents);
+      }
+    }
+    return revisionParents;
+  }
+
+  /**
+   * Gives the parent of a revision that still contains a file removed in that revision.
+   * If the revision is a merge, the first parent with the file is given.
+   *
+   * @param commitId The revision that removed the file.
+   * @param filePath The path of the file.
+   *
+   * @return The parent with the file, if one was found.
+   *
+   * @throws IOException Unable to read the revisions.
+   * @throws NoRepositorySelected No repository is loaded.
+   */
+  public Optional<RevCommit> getPreviousVersionCommit(String commitId, String filePath)
+      throws IOException, NoRepositorySelected {
+    String key = getKey(commitId, filePath);
+    Optional<RevCommit> previousVersion = key != null ? previousVersions.get(key) : null;
+    if (previousVersion == null) {
+      previousVersion = Optional.empty();
+      Repository repository = GitAccess.getInstance().getRepository();
+      for (RevCommit parent : getParents(commitId)) {
+        if (RevCommitUtil.getObjectID(repository, parent.getId().getName(), filePath) != null) {
+          previousVersion = Optional.of(parent);
+          break;
+        }
+      }
+      if (key != null) {
+        previousVersions.put(key, previousVersion);
+      }
+    }
+    return previousVersion;
+  }
+
+  /**
+   * Gives the path of a file in the working copy, following the renames made since the given revision.
+   *
+   * @param filePath The path of the file in the revision.
+   * @param commitId The revision.
+   *
+   * @return The path in the working copy, relative to its root.
+   *
+   * @throws FileNotFoundException The file is no longer in the working copy.
+   * @throws IOException Unable to read the revisions.
+   * @throws GitAPIException Unable to detect the renames.
+   * @throws NoRepositorySelected No repository is loaded.
+   */
+  public String getWorkingCopyPath(String filePath, String commitId)
+      throws IOException, GitAPIException, NoRepositorySelected {
+    String key = getKey(commitId, filePath);
+    String workingCopyPath = key != null ? workingCopyPaths.get(key) : null;
+    // The working copy changes, so the remembered path is checked before being used.
+    if (workingCopyPath == null
+        || !new File(GitAccess.getInstance().getWorkingCopy(), workingCopyPath).exists()) { // NOSONAR findsecbugs:PATH_TRAVERSAL_IN - false pozitive
+      workingCopyPath = RevCommitUtil.getNewPathInWorkingCopy(GitAccess.getInstance().getGit(), filePath, commitId);
+      if (key != null) {
+        workingCopyPaths.put(key, workingCopyPath);
+      }
+    }
+    return workingCopyPath;
+  }
+
+  /**
+   * Computes, in the background, the data needed by the contextual actions of a file in a revision.
+   *
+   * @param filePath              File path.
+   * @param commitCharacteristics A commit info.
+   *
+   * @return The status of the file in the revision, when it is known.
+   */
+  public synchronized CompletableFuture<Optional<FileStatus>> resolveInBackground(
+      String filePath,
+      CommitCharacteristics commitCharacteristics) {
+    String key = getKey(commitCharacteristics.getCommitId(), filePath);
+    CompletableFuture<Optional<FileStatus>> future = key != null ? inFlight.get(key) : null;
+    if (future == null) {
+      future = CompletableFuture.supplyAsync(() -> resolve(filePath, commitCharacteristics), executor);
+      if (key != null) {
+        inFlight.put(key, future);
+        CompletableFuture<Optional<FileStatus>> queued = future;
+        future.whenComplete((fileStatus, ex) -> removeInFlight(key, queued));
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Computes, in the background, the data needed by the contextual actions of a file in the selected revisions.
+   * The computations for the revisions that are no longer selected are dropped, if they did not start yet.
+   *
+   * @param filePath  File path. <code>null</code> when the history of the entire repository is presented.
+   * @param selection The selected revisions.
+   */
+  public synchronized void prefetch(String filePath, Collection<CommitCharacteristics> selection) {
+    Set<String> selectedKeys = new HashSet<>();
+    for (CommitCharacteristics commitCharacteristics : selection) {
+      if (filePath != null) {
+        resolveInBackground(filePath, commitCharacteristics);
+        selectedKeys.add(getKey(commitCharacteristics.getCommitId(), filePath));
+      } else {
+        String commitId = commitCharacteristics.getCommitId();
+        executor.execute(() -> {
+          try {
+            getParents(commitId);
+          } catch (IOException | NoRepositorySelected e) {
+            LOGGER.debug(e, e);
+          }
+        });
+      }
+    }
+
+    List<CompletableFuture<Optional<FileStatus>>> dropped = new ArrayList<>();
+    for (Iterator<Map.Entry<String, CompletableFuture<Optional<FileStatus>>>> iterator = inFlight.entrySet().iterator();
+        iterator.hasNext();) {
+      Map.Entry<String, CompletableFuture<Optional<FileStatus>>> entry = iterator.next();
+      if (!selectedKeys.contains(entry.getKey())) {
+        dropped.add(entry.getValue());
+        iterator.remove();
+      }
+    }
+    // A computation that did not start yet will not run at all.
+    dropped.forEach(future -> future.cancel(false));
+  }
+
+  /**
+   * Computes the data needed by the contextual actions of a file in a revision.
+   *
+   * @param filePath              File path.
+   * @param commitCharacteristics A commit info.
+   *
+   * @return The status of the file in the revision.
+   */
+  private Optional<FileStatus> resolve(String filePath, CommitCharacteristics commitCharacteristics) {
+    try {
+      Optional<FileStatus> fileStatus = getFileStatus(filePath, commitCharacteristics);
+      String commitId = commitCharacteristics.getCommitId();
+      if (fileStatus.isPresent() && !GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commitId)) {
+        String location = fileStatus.get().getFileLocation();
+        getParents(commitId);
+        if (fileStatus.get().getChangeType() == GitChangeType.REMOVED) {
+          getPreviousVersionCommit(commitId, location);
+        } else {
+          resolveWorkingCopyPath(location, commitId);
+        }
+      }
+      return fileStatus;
+    } catch (IOException | GitAPIException | NoRepositorySelected e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * Finds the path of a file in the working copy, if it is still there.
+   *
+   * @param filePath The path of the file in the revision.
+   * @param commitId The revision.
+   *
+   * @throws IOException Unable to read the revisions.
+   * @throws GitAPIException Unable to detect the renames.
+   * @throws NoRepositorySelected No repository is loaded.
+   */
+  private void resolveWorkingCopyPath(String filePath, String commitId)
+      throws IOException, GitAPIException, NoRepositorySelected {
+    try {
+      getWorkingCopyPath(filePath, commitId);
+    } catch (FileNotFoundException e) {
+      // The file was removed from the working copy. The action will report it.
+      LOGGER.debug(e, e);
+    }
+  }
+
+  /**
+   * Forgets a finished computation.
+   *
+   * @param key    The key of the computation.
+   * @param future The computation.
+   */
+  private synchronized void removeInFlight(String key, CompletableFuture<Optional<FileStatus>> future) {
+    inFlight.remove(key, future);
+  }
+
+  /**
+   * Builds the key of a value.
+   *
+   * @param commitId The revision.
+   * @param filePath The path of the file.
+   *
+   * @return The key or <code>null</code> if the value must not be remembered.
+   */
+  private static String getKey(String commitId, String filePath) {
+    String key = null;
+    if (!GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commitId)) {
+      try {
+        key = GitAccess.getInstance().getRepository().getDirectory().getAbsolutePath() + ":" + commitId + ":" + filePath;
+      } catch (NoRepositorySelected e) {
+        LOGGER.debug(e, e);
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Forgets all the remembered data.
+   */
+  public void clearCache() {
+    fileStatuses.clear();
+    parents.clear();
+    previousVersions.clear();
+    workingCopyPaths.clear();
+  }
+}
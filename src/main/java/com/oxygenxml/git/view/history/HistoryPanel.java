@@ -16,6 +16,7 @@ import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -24,10 +25,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JEditorPane;
 import javax.swing.JLabel;
@@ -55,6 +58,7 @@ import org.eclipse.jgit.util.StringUtils;
 
 import com.jidesoft.swing.JideSplitPane;
 import com.oxygenxml.git.constants.Icons;
+import com.oxygenxml.git.service.ChangedPathsIndex;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
@@ -139,6 +143,14 @@ public class HistoryPanel extends JPanel {
    * Filter field for quick search
    */
   private FilterTextField filter;
+  /**
+   * When selected, the filter text is searched in the content changed by each commit.
+   */
+  private JCheckBox contentSearchCheckBox;
+  /**
+   * The running content search. <code>null</code> if none.
+   */
+  private HistoryContentSearcher.Search contentSearch;
   /**
    * Top panel (with the "Showing history" label and the "Refresh" action
    */
@@ -166,6 +178,11 @@ public class HistoryPanel extends JPanel {
     historyTable.setIntercellSpacing(new Dimension(0, 0)); 
     historyTable.setShowGrid(false);
     historyTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    historyTable.getSelectionModel().addListSelectionListener(e -> {
+      if (!e.getValueIsAdjusting()) {
+        prefetchContextualActionsData();
+      }
+    });
     historyTable.addMouseListener(new MouseAdapter() {
       @Override
       public void mousePressed(java.awt.event.MouseEvent e) {
@@ -474,7 +491,7 @@ public class HistoryPanel extends JPanel {
 
       try {
         JPopupMenu jPopupMenu = new JPopupMenu();
-        contextualMenuPresenter.populateContextualActionsHistoryContext(jPopupMenu, activeFilePath, cc);
+        contextualMenuPresenter.populateContextualActionsHistoryContext(jPopupMenu, activeFilePath, true, cc);
 
         jPopupMenu.show(historyTable, point.x, point.y);
       } catch (IOException | GitAPIException e) {
@@ -484,6 +501,24 @@ public class HistoryPanel extends JPanel {
     }
   }
 
+  /**
+   * Finds, in the background, the data needed by the contextual actions of the selected revisions.
+   */
+  private void prefetchContextualActionsData() {
+    TableModel model = historyTable.getModel();
+    if (model instanceof HistoryCommitTableModel) {
+      List<CommitCharacteristics> allCommits = ((HistoryCommitTableModel) model).getAllCommits();
+      List<CommitCharacteristics> selection = new ArrayList<>();
+      for (int selectedRow : historyTable.getSelectedRows()) {
+        int convertedSelectedRow = historyTable.convertRowIndexToModel(selectedRow);
+        if (convertedSelectedRow < allCommits.size()) {
+          selection.add(allCommits.get(convertedSelectedRow));
+        }
+      }
+      contextualMenuPresenter.prefetch(activeFilePath, selection);
+    }
+  }
+
   /**
    * Checks if a row is selected and selects it if it isn't.
    * 
@@ -553,12 +588,7 @@ public class HistoryPanel extends JPanel {
         Translator.getInstance().getTranslation(Tags.TYPE_TEXT_TO_FILTER)) {
       @Override
       public void filterChanged(String text) {
-        TableModel tableModel = historyTable.getModel();
-        if(tableModel instanceof HistoryCommitTableModel) {
-          HistoryCommitTableModel historyTableModel = (HistoryCommitTableModel) tableModel;
-          graphCellRender.setShouldBePainted(text == null || text.isEmpty());
-          historyTableModel.filterChanged(text);
-        }
+        applyFilter(text);
       }
     };
 
@@ -584,9 +614,67 @@ public class HistoryPanel extends JPanel {
     constr.weightx = 0.5;
     topPanel.add(filter, constr);
 
+    contentSearchCheckBox = new JCheckBox(Translator.getInstance().getTranslation(Tags.SEARCH_IN_CONTENT));
+    contentSearchCheckBox.setToolTipText(Translator.getInstance().getTranslation(Tags.SEARCH_IN_CONTENT_TOOLTIP));
+    contentSearchCheckBox.addItemListener(e -> applyFilter(filter.getText()));
+    constr.gridx++;
+    constr.fill = GridBagConstraints.NONE;
+    constr.weightx = 0;
+    topPanel.add(contentSearchCheckBox, constr);
+
     add(topPanel, BorderLayout.NORTH);
   }
 
+  /**
+   * Filters the presented commits by their details or, when searching in content,
+   * by the content they changed.
+   * 
+   * @param text The filter text.
+   */
+  private void applyFilter(String text) {
+    TableModel tableModel = historyTable.getModel();
+    if(tableModel instanceof HistoryCommitTableModel) {
+      HistoryCommitTableModel historyTableModel = (HistoryCommitTableModel) tableModel;
+      graphCellRender.setShouldBePainted(text == null || text.isEmpty());
+      if (contentSearch != null) {
+        contentSearch.cancel();
+        contentSearch = null;
+      }
+      if (contentSearchCheckBox.isSelected() && text != null && !text.isEmpty()) {
+        historyTableModel.startContentFilter();
+        searchContent(historyTableModel, text);
+      } else {
+        historyTableModel.filterChanged(text);
+      }
+    }
+  }
+
+  /**
+   * Searches, in the background, the commits that added or removed a text. They are presented as they are found.
+   * 
+   * @param historyTableModel The model of the history table.
+   * @param text              The searched text.
+   */
+  private void searchContent(HistoryCommitTableModel historyTableModel, String text) {
+    try {
+      // The results received after the search is canceled are ignored.
+      AtomicReference<HistoryContentSearcher.Search> searchRef = new AtomicReference<>();
+      contentSearch = HistoryContentSearcher.getInstance().search(
+          gitAccess.getRepository(),
+          historyTableModel.getUnfilteredCommits(),
+          text,
+          commit -> SwingUtilities.invokeLater(() -> {
+            HistoryContentSearcher.Search search = searchRef.get();
+            if (search != null && !search.isCanceled()) {
+              historyTableModel.addContentMatch(commit);
+            }
+          }));
+      searchRef.set(contentSearch);
+    } catch (NoRepositorySelected e) {
+      LOGGER.debug(e, e);
+    }
+  }
+
   /**
    * Shows the commit history for the entire repository.
    */
@@ -627,6 +715,7 @@ public class HistoryPanel extends JPanel {
         // Check if we don't already present the history for this path!!!!
         || !Equaler.verifyEquals(filePath, activeFilePath)) {
       this.activeFilePath = filePath;
+      contextualMenuPresenter.clearCache();
 
       try {
         // Make sure we know about the remote as well, to present data about the
@@ -664,6 +753,8 @@ public class HistoryPanel extends JPanel {
         final List<CommitCharacteristics> commitCharacteristicsVector = gitAccess.getCommitsCharacteristics(filePath, renameTracker);
 
         Repository repo = gitAccess.getRepository();
+        // Index the new commits, for the next walks over the history of a file.
+        ChangedPathsIndex.updateInBackground(repo);
         
         CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repo,
             repo.getFullBranch());
@@ -673,14 +764,16 @@ public class HistoryPanel extends JPanel {
             gitAccess.getBranchInfo().getBranchName(), getTagMap(repo),
             gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_LOCAL),
             gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_REMOTE));
+        renderer.computeDisplayModels(commitCharacteristicsVector);
         int rh = getRowHeight(renderer, getFirstCommit(commitCharacteristicsVector));
 
         SwingUtilities.invokeLater(() -> {
           HistoryCommitTableModel historyModel = new HistoryCommitTableModel(commitCharacteristicsVector);
-          historyModel.filterChanged(filter.getText());
           historyTable.setModel(historyModel);
+          applyFilter(filter.getText());
           updateHistoryTableWidths();
 
+          graphCellRender.invalidateGeometryCache();
           historyTable.setDefaultRenderer(PlotCommit.class, graphCellRender);
           historyTable.setDefaultRenderer(CommitCharacteristics.class, renderer);
           historyTable.setDefaultRenderer(Date.class, new DateTableCellRenderer(UIUtil.DATE_FORMAT_PATTERN));
@@ -831,7 +924,7 @@ public class HistoryPanel extends JPanel {
    */
   private void tryFetch() {
     try {
-      gitAccess.fetch();
+      gitAccess.fetchInBackground();
     } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException e) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(e, e);
@@ -1,5 +1,6 @@
 package com.oxygenxml.git.view.history;
 
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -7,19 +8,26 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
 
 import org.apache.log4j.Logger;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import com.oxygenxml.git.protocol.GitRevisionURLHandler;
@@ -28,7 +36,6 @@ import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
-import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.RevCommitUtilBase;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.FileStatusOverDiffEntry;
@@ -37,6 +44,7 @@ import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.view.DiffPresenter;
+import com.oxygenxml.git.view.history.BatchRevisionResolver.ResolvedRevision;
 import com.oxygenxml.git.view.history.actions.CheckoutCommitAction;
 import com.oxygenxml.git.view.history.actions.CreateBranchFromCommitAction;
 import com.oxygenxml.git.view.history.actions.CreateTagAction;
@@ -72,6 +80,10 @@ public class HistoryViewContextualMenuPresenter {
    * Executes GIT commands (stage, unstage, discard, etc).
    */
   protected GitControllerBase gitCtrl;
+  /**
+   * Finds and remembers the data needed by the actions.
+   */
+  private final HistoryFileResolver fileResolver = new HistoryFileResolver();
   
   /**
    * Constructor.
@@ -96,10 +108,31 @@ public class HistoryViewContextualMenuPresenter {
       JPopupMenu jPopupMenu,
       String filePath,
       CommitCharacteristics... commitCharacteristics) throws IOException, GitAPIException {
+    populateContextualActionsHistoryContext(jPopupMenu, filePath, false, commitCharacteristics);
+  }
+  
+  /**
+   * Contributes the contextual actions for the given file, at the given revision/commit.
+   * 
+   * @param jPopupMenu            Contextual menu in which to put the actions.
+   * @param filePath              File path.
+   * @param resolveInBackground   <code>true</code> to search for the file in the revision in the background,
+   *                              if it was not already found. A disabled placeholder is presented until the
+   *                              actions of the file are added to the menu.
+   * @param commitCharacteristics Revision/commit data.
+   * 
+   * @throws IOException If it fails.
+   * @throws GitAPIException If it fails.
+   */
+  public void populateContextualActionsHistoryContext(
+      JPopupMenu jPopupMenu,
+      String filePath,
+      boolean resolveInBackground,
+      CommitCharacteristics... commitCharacteristics) throws IOException, GitAPIException {
     
     if (commitCharacteristics != null && commitCharacteristics.length > 0) {
       if (commitCharacteristics.length == 1) {
-        populateActions4SingleSelection(jPopupMenu, filePath, commitCharacteristics[0]);
+        populateActions4SingleSelection(jPopupMenu, filePath, commitCharacteristics[0], resolveInBackground);
       } else if (filePath != null) {
         populateActions4MultipleSelection(jPopupMenu, filePath, commitCharacteristics);
       }
@@ -122,18 +155,31 @@ public class HistoryViewContextualMenuPresenter {
     Action open = new AbstractAction(actionName) {
       @Override
       public void actionPerformed(ActionEvent e) {
+        Map<String, CommitCharacteristics> revisions = new LinkedHashMap<>();
         for (CommitCharacteristics commitCharacteristic : commitCharacteristics) {
-          try {
-            Optional<FileStatus> fileStatus = getFileStatus(filePath, commitCharacteristic);
-            checkIfValidForOpen(filePath, commitCharacteristic, fileStatus);
-
-            Optional<URL> fileURL = getFileURL(commitCharacteristic.getCommitId(), fileStatus.get());
-            fileURL.ifPresent(url -> PluginWorkspaceProvider.getPluginWorkspace().open(url));
-          } catch (IOException | GitAPIException | NoRepositorySelected e1) {
-            LOGGER.debug(e1, e1);
-            PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_OPEN_REVISION + e1.getMessage());
+          if (GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commitCharacteristic.getCommitId())) {
+            openUncommittedChanges(filePath, commitCharacteristic);
+          } else {
+            revisions.put(commitCharacteristic.getCommitId(), commitCharacteristic);
           }
         }
+        
+        if (!revisions.isEmpty()) {
+          // All the revisions are resolved together and each one is opened as soon as it is found.
+          resolveRevisions(filePath, revisions.keySet(), resolvedRevision -> SwingUtilities.invokeLater(() -> {
+            try {
+              checkIfValidForOpen(filePath, revisions.get(resolvedRevision.getCommitId()), resolvedRevision);
+              PluginWorkspaceProvider.getPluginWorkspace().open(
+                  GitRevisionURLHandler.encodeURL(resolvedRevision.getCommitId(), resolvedRevision.getPath()));
+            } catch (IOException e1) {
+              LOGGER.debug(e1, e1);
+              PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_OPEN_REVISION + e1.getMessage());
+            }
+          })).exceptionally(ex -> {
+            showResolveError(UNABLE_TO_OPEN_REVISION, ex);
+            return null;
+          });
+        }
       }
     };    
 
@@ -146,6 +192,65 @@ public class HistoryViewContextualMenuPresenter {
     jPopupMenu.add(open);
   }
 
+  /**
+   * Opens the working copy file, as the version of the uncommitted changes.
+   * 
+   * @param filePath File path.
+   * @param commit   The uncommitted changes.
+   */
+  private void openUncommittedChanges(String filePath, CommitCharacteristics commit) {
+    try {
+      Optional<FileStatus> fileStatus = getFileStatus(filePath, commit);
+      checkIfValidForOpen(filePath, commit, fileStatus);
+
+      Optional<URL> fileURL = getFileURL(commit.getCommitId(), fileStatus.get());
+      fileURL.ifPresent(url -> PluginWorkspaceProvider.getPluginWorkspace().open(url));
+    } catch (IOException | GitAPIException | NoRepositorySelected e1) {
+      LOGGER.debug(e1, e1);
+      PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_OPEN_REVISION + e1.getMessage());
+    }
+  }
+  
+  /**
+   * Finds, in the background, the file in many revisions.
+   * 
+   * @param filePath   File path.
+   * @param commitIds  The revisions. No uncommitted changes.
+   * @param onResolved Receives each revision as soon as it is resolved, on a background thread.
+   * 
+   * @return The resolved revisions, in the given order, when they are all resolved.
+   */
+  private static CompletableFuture<List<ResolvedRevision>> resolveRevisions(
+      String filePath,
+      Collection<String> commitIds,
+      Consumer<ResolvedRevision> onResolved) {
+    CompletableFuture<List<ResolvedRevision>> resolved;
+    try {
+      resolved = BatchRevisionResolver.getInstance().resolve(
+          GitAccess.getInstance().getRepository(),
+          filePath,
+          new ArrayList<>(commitIds),
+          onResolved);
+    } catch (NoRepositorySelected e) {
+      resolved = new CompletableFuture<>();
+      resolved.completeExceptionally(e);
+    }
+    return resolved;
+  }
+  
+  /**
+   * Presents an error encountered while finding the file in the revisions.
+   * 
+   * @param messagePrefix The prefix of the message.
+   * @param ex            The error.
+   */
+  private static void showResolveError(String messagePrefix, Throwable ex) {
+    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    LOGGER.error(cause, cause);
+    SwingUtilities.invokeLater(
+        () -> PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(messagePrefix + cause.getMessage()));
+  }
+
   /**
    * Adds the action that compares two revisions of the same file.
    * 
@@ -165,20 +270,31 @@ public class HistoryViewContextualMenuPresenter {
         new AbstractAction(TRANSLATOR.getTranslation(Tags.COMPARE_WITH_EACH_OTHER)) {
       @Override
       public void actionPerformed(ActionEvent e) {
-        try {
-          Optional<FileStatus> fileStatus1 = getFileStatus(filePath, commit1);
-          Optional<FileStatus> fileStatus2 = getFileStatus(filePath, commit2);
-
-          checkIfValidForOpen(filePath, commit1, fileStatus1);
-          checkIfValidForOpen(filePath, commit2, fileStatus2);
-
-          DiffPresenter.showTwoWayDiff(
-              commit1.getCommitId(),
-              filePath, 
-              commit2.getCommitId(),
-              filePath);
-        } catch (IOException | GitAPIException e1) {
-          PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_COMPARE + e1.getMessage());
+        if (GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commit1.getCommitId())
+            || GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commit2.getCommitId())) {
+          compareWithUncommittedChanges(filePath, commit1, commit2);
+        } else {
+          // Both revisions are resolved together.
+          resolveRevisions(filePath, Arrays.asList(commit1.getCommitId(), commit2.getCommitId()), resolvedRevision -> {})
+          .thenAccept(resolvedRevisions -> SwingUtilities.invokeLater(() -> {
+            ResolvedRevision revision1 = resolvedRevisions.get(0);
+            ResolvedRevision revision2 = resolvedRevisions.get(1);
+            try {
+              checkIfValidForOpen(filePath, commit1, revision1);
+              checkIfValidForOpen(filePath, commit2, revision2);
+
+              DiffPresenter.showTwoWayDiff(
+                  commit1.getCommitId(),
+                  revision1.getPath(), 
+                  commit2.getCommitId(),
+                  revision2.getPath());
+            } catch (IOException e1) {
+              PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_COMPARE + e1.getMessage());
+            }
+          })).exceptionally(ex -> {
+            showResolveError(UNABLE_TO_COMPARE, ex);
+            return null;
+          });
         }
       }
     };
@@ -186,6 +302,57 @@ public class HistoryViewContextualMenuPresenter {
     jPopupMenu.add(compareWithEachOther);
   }
   
+  /**
+   * Compares two revisions of the same file, when one of them is the uncommitted changes.
+   * 
+   * @param filePath File path.
+   * @param commit1 First revision.
+   * @param commit2 Second revision.
+   */
+  private void compareWithUncommittedChanges(
+      String filePath,
+      CommitCharacteristics commit1,
+      CommitCharacteristics commit2) {
+    try {
+      Optional<FileStatus> fileStatus1 = getFileStatus(filePath, commit1);
+      Optional<FileStatus> fileStatus2 = getFileStatus(filePath, commit2);
+
+      checkIfValidForOpen(filePath, commit1, fileStatus1);
+      checkIfValidForOpen(filePath, commit2, fileStatus2);
+
+      DiffPresenter.showTwoWayDiff(
+          commit1.getCommitId(),
+          filePath, 
+          commit2.getCommitId(),
+          filePath);
+    } catch (IOException | GitAPIException e1) {
+      PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(UNABLE_TO_COMPARE + e1.getMessage());
+    }
+  }
+  
+  /**
+   * Checks if the file was found in the given revision.
+   * 
+   * @param filePath         File path.
+   * @param commit           Revision information.
+   * @param resolvedRevision The file in the given revision.
+   * 
+   * @throws IOException If the file is not in the revision.
+   */
+  private void checkIfValidForOpen(
+      String filePath, 
+      CommitCharacteristics commit, 
+      ResolvedRevision resolvedRevision) throws IOException {
+    if (resolvedRevision.getBlobId() == null) {
+      String error = MessageFormat.format(
+          TRANSLATOR.getTranslation(
+              resolvedRevision.isRemoved() ? Tags.FILE_WAS_REMOVED_IN_REVISION : Tags.FILE_NOT_PRESENT_IN_REVISION),
+          filePath,
+          commit.getCommitAbbreviatedId());
+      throw new IOException(error);
+    }
+  }
+  
   /**
    * Checks if there are any errors with the given path.
    * 
@@ -220,6 +387,7 @@ public class HistoryViewContextualMenuPresenter {
    * @param jPopupMenu            Contextual menu in which to put the actions.
    * @param filePath              File path.
    * @param commitCharacteristics Revision/commit data.
+   * @param resolveInBackground   <code>true</code> to search for the file in the revision in the background.
    * 
    * @throws IOException If it fails.
    * @throws GitAPIException If it fails.
@@ -227,10 +395,15 @@ public class HistoryViewContextualMenuPresenter {
   private void populateActions4SingleSelection(
       JPopupMenu jPopupMenu,
       String filePath,
-      CommitCharacteristics commitCharacteristics) throws IOException, GitAPIException {
+      CommitCharacteristics commitCharacteristics,
+      boolean resolveInBackground) throws IOException, GitAPIException {
     if (filePath != null) {
-      Optional<FileStatus> fileStatusOptional = getFileStatus(filePath, commitCharacteristics);
-      fileStatusOptional.ifPresent(fileStatus -> populateContextActionsForFile(jPopupMenu, fileStatus, commitCharacteristics, true));
+      if (resolveInBackground && !fileResolver.isResolved(filePath, commitCharacteristics)) {
+        addFileActionsWhenResolved(jPopupMenu, filePath, commitCharacteristics);
+      } else {
+        Optional<FileStatus> fileStatusOptional = getFileStatus(filePath, commitCharacteristics);
+        fileStatusOptional.ifPresent(fileStatus -> populateContextActionsForFile(jPopupMenu, fileStatus, commitCharacteristics, true));
+      }
     }
 
     if (filePath != null) {
@@ -247,6 +420,43 @@ public class HistoryViewContextualMenuPresenter {
     }
   }
 
+  /**
+   * Adds a disabled placeholder for the actions of the file and searches for the file in the background.
+   * The placeholder is replaced with the actions of the file when it is found.
+   * 
+   * @param jPopupMenu            Contextual menu in which to put the actions.
+   * @param filePath              File path.
+   * @param commitCharacteristics Revision/commit data.
+   */
+  private void addFileActionsWhenResolved(
+      JPopupMenu jPopupMenu,
+      String filePath,
+      CommitCharacteristics commitCharacteristics) {
+    JMenuItem placeholder = new JMenuItem(TRANSLATOR.getTranslation(Tags.LOADING));
+    placeholder.setEnabled(false);
+    jPopupMenu.add(placeholder);
+    
+    fileResolver.resolveInBackground(filePath, commitCharacteristics).whenComplete(
+        (fileStatusOptional, ex) -> SwingUtilities.invokeLater(() -> {
+          int index = jPopupMenu.getComponentIndex(placeholder);
+          if (index != -1) {
+            jPopupMenu.remove(index);
+            if (ex != null) {
+              LOGGER.error(ex, ex);
+            } else if (fileStatusOptional.isPresent()) {
+              List<Action> actions = getFileContextualActions(fileStatusOptional.get(), commitCharacteristics, true);
+              for (Action action : actions) {
+                jPopupMenu.insert(createMenuComponent(action), index++);
+              }
+            }
+            if (jPopupMenu.isVisible()) {
+              // Resize the visible menu.
+              jPopupMenu.pack();
+            }
+          }
+        }));
+  }
+
   /**
    * Searches for the file path in the given commit.
    * 
@@ -260,22 +470,25 @@ public class HistoryViewContextualMenuPresenter {
    */
   public Optional<FileStatus> getFileStatus(String filePath, CommitCharacteristics commitCharacteristics)
       throws IOException, GitAPIException {
-    List<FileStatus> changes = RevCommitUtil.getChangedFiles(commitCharacteristics.getCommitId());
-    Optional<FileStatus> fileStatusOptional = changes.stream().filter(f -> filePath.equals(f.getFileLocation())).findFirst();
-    if (!fileStatusOptional.isPresent()) {
-      // Perhaps the file was renamed at some point.
-      String oldFilePath = RevCommitUtil.getOldPathStartingFromHead(
-          GitAccess.getInstance().getGit(), 
-          commitCharacteristics.getCommitId(), 
-          filePath);
-      
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("new " + filePath + " old " + oldFilePath);
-      }
-      
-      fileStatusOptional = changes.stream().filter(f -> oldFilePath.equals(f.getFileLocation())).findFirst();
-    }
-    return fileStatusOptional;
+    return fileResolver.getFileStatus(filePath, commitCharacteristics);
+  }
+  
+  /**
+   * Finds, in the background, the data needed by the actions of a file in the selected revisions, 
+   * so that the contextual menu can be presented without delays.
+   * 
+   * @param filePath  File path. <code>null</code> when the history of the entire repository is presented.
+   * @param selection The selected revisions.
+   */
+  public void prefetch(String filePath, Collection<CommitCharacteristics> selection) {
+    fileResolver.prefetch(filePath, selection);
+  }
+  
+  /**
+   * Forgets the data found for the actions. 
+   */
+  public void clearCache() {
+    fileResolver.clearCache();
   }
 
 
@@ -293,15 +506,26 @@ public class HistoryViewContextualMenuPresenter {
       CommitCharacteristics commitCharacteristics,
       boolean addFileName) {
     List<Action> contextualActions = getFileContextualActions(fileStatus, commitCharacteristics, addFileName);
-    contextualActions.forEach(action -> {
-      if(action == null) {
-        jPopupMenu.addSeparator();
-      } else {
-        JMenuItem menuItem = new JMenuItem(action);
-        menuItem.setToolTipText((String) action.getValue(Action.SHORT_DESCRIPTION));
-        jPopupMenu.add(menuItem);
-      }
-    });  
+    contextualActions.forEach(action -> jPopupMenu.add(createMenuComponent(action)));  
+  }
+  
+  /**
+   * Creates the menu component that presents an action.
+   * 
+   * @param action The action. <code>null</code> for a separator.
+   * 
+   * @return The menu item or a separator.
+   */
+  private static Component createMenuComponent(Action action) {
+    Component component;
+    if(action == null) {
+      component = new JPopupMenu.Separator();
+    } else {
+      JMenuItem menuItem = new JMenuItem(action);
+      menuItem.setToolTipText((String) action.getValue(Action.SHORT_DESCRIPTION));
+      component = menuItem;
+    }
+    return component;
   }
 
   /**
@@ -411,9 +635,7 @@ public class HistoryViewContextualMenuPresenter {
     List<String> parents = commitCharacteristics.getParentCommitId();
     if (parents != null && !parents.isEmpty()) {
       try {
-        RevCommit[] parentsRevCommits = RevCommitUtil.getParents(
-            GitAccess.getInstance().getRepository(),
-            commitCharacteristics.getCommitId());
+        RevCommit[] parentsRevCommits = fileResolver.getParents(commitCharacteristics.getCommitId());
         boolean addParentID = parents.size() > 1;
         for (RevCommit parentID : parentsRevCommits) {
           actions.add(createCompareWithPrevVersionAction(
@@ -587,10 +809,7 @@ public class HistoryViewContextualMenuPresenter {
       @Override
       public void actionPerformed(ActionEvent e) {
         try {
-          String localFilePath = RevCommitUtil.getNewPathInWorkingCopy(
-              GitAccess.getInstance().getGit(), 
-              fileStatus.getFileLocation(), 
-              commitID);
+          String localFilePath = fileResolver.getWorkingCopyPath(fileStatus.getFileLocation(), commitID);
           URL fileURL = FileUtil.getFileURL(localFilePath);
                  
           boolean isProjectExt = false;
@@ -720,19 +939,8 @@ public class HistoryViewContextualMenuPresenter {
     URL fileURL = null;
     String fileStatusLocation = fileStatus.getFileLocation();
     if (fileStatus.getChangeType() == GitChangeType.REMOVED) {
-      Repository repository = GitAccess.getInstance().getRepository();
-      RevCommit[] parentsRevCommits = RevCommitUtil.getParents(repository, revisionID);
-      
       // If it's a merge, we look for the one parent with the actual file in it.
-      Optional<RevCommit> previousVersionCommit = Arrays.stream(parentsRevCommits).filter(revCommit -> {
-        try {
-          return RevCommitUtil.getObjectID(repository, revCommit.getId().getName(), fileStatusLocation) != null;
-        } catch (IOException e1) {
-          // Unable to find a parent with the given path.
-          PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage("Unable to open file because of " + e1.getMessage());
-        }
-        return false;
-      }).findFirst();
+      Optional<RevCommit> previousVersionCommit = fileResolver.getPreviousVersionCommit(revisionID, fileStatusLocation);
       
       if (previousVersionCommit.isPresent()) {
         fileURL = GitRevisionURLHandler.encodeURL(
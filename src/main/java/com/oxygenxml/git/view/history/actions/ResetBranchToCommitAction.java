@@ -10,6 +10,7 @@ import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.RemoteRepositoryChangeWatcher;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
+import com.oxygenxml.git.view.dialog.ProgressDialogMonitor;
 import com.oxygenxml.git.view.history.CommitCharacteristics;
 import com.oxygenxml.git.view.history.ResetToCommitDialog;
 
@@ -48,8 +49,14 @@ public class ResetBranchToCommitAction extends AbstractAction {
         commitCharacteristics);
     dialog.setVisible(true);
     if (dialog.getResult() == OKCancelDialog.RESULT_OK) {
+      ProgressDialogMonitor monitor = ProgressDialogMonitor.createForUncancelableOperation(
+          translator.getTranslation(Tags.RESET_BRANCH_TO_COMMIT));
       GitOperationScheduler.getInstance().schedule(() -> {
-        GitAccess.getInstance().resetToCommit(dialog.getResetType(), commitCharacteristics.getCommitId());
+        try {
+          GitAccess.getInstance().resetToCommit(dialog.getResetType(), commitCharacteristics.getCommitId(), monitor);
+        } finally {
+          monitor.close();
+        }
         RemoteRepositoryChangeWatcher.markAsNotified();
       });
     }
@@ -3,6 +3,7 @@ package com.oxygenxml.git.view.history.graph;
 import java.awt.Component;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 
 import javax.swing.JPanel;
 import javax.swing.JTable;
@@ -21,9 +22,9 @@ import org.eclipse.jgit.revplot.PlotCommit;
 public class CommitsGraphCellRender extends JPanel implements TableCellRenderer {
 
 	/**
-	 * The graph render. 
+	 * The geometry of the painted rows. 
 	 */
-	private final transient GraphRender cellRender;
+	private final transient LaneGeometryCache geometryCache = new LaneGeometryCache();
 	
 	/**
 	 * The table.
@@ -46,7 +47,7 @@ public class CommitsGraphCellRender extends JPanel implements TableCellRenderer
 	 * Constructor.
 	 */
 	public CommitsGraphCellRender() {
-		cellRender = new GraphRender();
+		// nothing
 	}
 	
 	
@@ -57,7 +58,6 @@ public class CommitsGraphCellRender extends JPanel implements TableCellRenderer
 		this.value = value;
 		
 		setBackground(table.getBackground());
-        cellRender.setBackground(getBackground());
 		
 		return this;
 	}
@@ -70,14 +70,24 @@ public class CommitsGraphCellRender extends JPanel implements TableCellRenderer
 		if(shouldBePainted && value != null) {
 			Graphics2D g2d = (Graphics2D)g;
 			g2d.setBackground(getBackground());
-			cellRender.paint((PlotCommit<VisualCommitsList.VisualLane>)value, 
-					table.getRowHeight(), 
-					g2d
-		    );
+			g2d.setRenderingHint(
+					RenderingHints.KEY_ANTIALIASING,
+					RenderingHints.VALUE_ANTIALIAS_ON);
+			geometryCache.getGeometry((PlotCommit<VisualCommitsList.VisualLane>)value, table.getRowHeight())
+					.paint(g2d, getBackground());
 		}
 	}
 	
 	
+	/**
+	 * Discards the graph geometry computed for the current commits. 
+	 * Must be called when the commits presented in the table change.
+	 */
+	public void invalidateGeometryCache() {
+		geometryCache.invalidate();
+	}
+	
+	
     /**
      * @param shouldBePainted <code>true</code> if the cell should be painted.
      */
@@ -1,9 +1,6 @@
 package com.oxygenxml.git.view.history.graph;
  
-import java.awt.BasicStroke;
 import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.revplot.AbstractPlotRenderer;
@@ -15,7 +12,8 @@ import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
  * 
  * Render for commits graph in GitHistory.
  * <br>
- * Is responsible for painting the graph for a commit.
+ * Is responsible for computing the part of the graph specific to a commit. The result is
+ * a {@link RowGeometry} that can be painted many times.
  *  
  * @author alex_smarandache
  * 
@@ -23,56 +21,45 @@ import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
 public class GraphRender extends AbstractPlotRenderer<VisualCommitsList.VisualLane, Color> { 
  
 /**
- * Graphics for paint.
+ * The geometry being computed.
  */
- private Graphics2D g;  
+ private RowGeometry geometry;  
  
  /**
   * The commit.
   */
  private PlotCommit<VisualCommitsList.VisualLane> commit;
  
- /**
-  * The cell background.
-  */
- private Color background;
- 
- 
- 
 /**
-  * Paints the part of the graph specific to a commit.
+  * Computes the part of the graph specific to a commit.
+  * 
+  * @param commit  The commit. Must not be null.
+  * @param height  Total height (in pixels) of the cell.   
   * 
-  * @param commit  The commit to paint. Must not be null.
-  * @param height  Total height (in pixels) of this cell.   
-  * @param g       The graphics.
+  * @return The geometry of the row.
   */
- public void paint(PlotCommit<VisualCommitsList.VisualLane> commit, int height, Graphics2D g) {
-	 this.g = g;
-	 this.g.setRenderingHint(
-		        RenderingHints.KEY_ANTIALIASING,
-		        RenderingHints.VALUE_ANTIALIAS_ON);
+ public RowGeometry computeGeometry(PlotCommit<VisualCommitsList.VisualLane> commit, int height) {
+	 this.geometry = new RowGeometry();
 	 this.commit = commit;
-	 paintCommit(commit, height);
+	 try {
+		 paintCommit(commit, height);
+		 return geometry;
+	 } finally {
+		 this.geometry = null;
+		 this.commit = null;
+	 }
  }
  
  
  protected void drawLine(final Color color, final int x1, final int y1, 
 		 final int x2, final int y2, final int width) { 
-	 g.setColor(color);
-	 g.setStroke(new BasicStroke(width));
-	 g.drawLine(x1, y1, x2, y2);
+	 geometry.addSegment(color, x1, y1, x2, y2, width);
  } 
 
  
  protected void drawCommitDot(final int x, final int y, final int w, 
    final int h) { 
-	 Color color = laneColor(commit.getLane());
-	 g.setColor(color);
-	 g.setStroke(new BasicStroke(2));
-	 g.fillOval(x + 1, y, w, h); 
-	 g.setColor(background);
-	 g.setStroke(new BasicStroke(1));
-	 g.drawOval(x + 1, y, w, h); 
+	 geometry.setDot(laneColor(commit.getLane()), x, y, w, h);
  } 
  
  
@@ -98,14 +85,6 @@ public class GraphRender extends AbstractPlotRenderer<VisualCommitsList.VisualLa
  protected Color laneColor(final VisualLane myLane) {
   return myLane != null ? myLane.color : GraphColorUtil.COMMIT_LINE_DEFAULT_COLOR; 
  }
-
- /**
-  * 
-  * @param background The new background for render cell.
-  */
- public void setBackground(Color background) {
-   this.background = background;
- }
  
        
 }
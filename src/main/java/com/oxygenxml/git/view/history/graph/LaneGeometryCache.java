@@ -0,0 +1,64 @@
+package com.oxygenxml.git.view.history.graph;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.revplot.PlotCommit;
+
+/**
+ * Keeps the graph geometry of the rows already painted. The lanes and their colors
+ * do not change once the commits list is built, so the geometry of a row is computed
+ * only once for a commits list and a row height.
+ */
+public class LaneGeometryCache {
+
+	/**
+	 * Computes the geometry of the rows.
+	 */
+	private final GraphRender graphRender = new GraphRender();
+
+	/**
+	 * The geometry of each commit. The commits of different lists are different
+	 * objects, so they are compared by identity.
+	 */
+	private final Map<PlotCommit<VisualCommitsList.VisualLane>, RowGeometry> geometries = new IdentityHashMap<>();
+
+	/**
+	 * The row height for which the geometry was computed.
+	 */
+	private int height = -1;
+
+
+	/**
+	 * Gets the geometry of a row, computing it if needed.
+	 *
+	 * @param commit The commit from the row.
+	 * @param height The row height.
+	 *
+	 * @return The geometry of the row.
+	 */
+	public RowGeometry getGeometry(PlotCommit<VisualCommitsList.VisualLane> commit, int height) {
+		if (height != this.height) {
+			geometries.clear();
+			this.height = height;
+		}
+		return geometries.computeIfAbsent(commit, c -> graphRender.computeGeometry(c, height));
+	}
+
+
+	/**
+	 * Discards the computed geometry. Must be called when the commits list changes.
+	 */
+	public void invalidate() {
+		geometries.clear();
+	}
+
+
+	/**
+	 * @return The number of rows with computed geometry.
+	 */
+	public int size() {
+		return geometries.size();
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.oxygenxml.git.view.history.graph;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * The part of the commits graph painted in the row of a commit: the lane segments
+ * and the commit dot. Computed once and painted on every repaint.
+ */
+public class RowGeometry {
+
+	/**
+	 * The number of coordinates stored for a segment: x1, y1, x2, y2 and the width.
+	 */
+	private static final int SEGMENT_SIZE = 5;
+
+	/**
+	 * The strokes, by width. Strokes are immutable, so they are shared by all the rows.
+	 */
+	private static final BasicStroke[] STROKES = new BasicStroke[8];
+
+	/**
+	 * The segments coordinates. See {@link #SEGMENT_SIZE}.
+	 */
+	private int[] segments = new int[SEGMENT_SIZE * 4];
+
+	/**
+	 * The color of each segment.
+	 */
+	private Color[] segmentColors = new Color[4];
+
+	/**
+	 * The number of segments.
+	 */
+	private int segmentsCount;
+
+	/**
+	 * The commit dot bounds: x, y, width and height. <code>null</code> when there is no dot.
+	 */
+	private int[] dot;
+
+	/**
+	 * The commit dot color.
+	 */
+	private Color dotColor;
+
+
+	/**
+	 * Adds a lane segment.
+	 *
+	 * @param color The segment color.
+	 * @param x1    The x coordinate of the start point.
+	 * @param y1    The y coordinate of the start point.
+	 * @param x2    The x coordinate of the end point.
+	 * @param y2    The y coordinate of the end point.
+	 * @param width The line width.
+	 */
+	void addSegment(Color color, int x1, int y1, int x2, int y2, int width) {
+		if (segmentsCount == segmentColors.length) {
+			segmentColors = Arrays.copyOf(segmentColors, segmentsCount * 2);
+			segments = Arrays.copyOf(segments, segmentColors.length * SEGMENT_SIZE);
+		}
+		int offset = segmentsCount * SEGMENT_SIZE;
+		segments[offset] = x1;
+		segments[offset + 1] = y1;
+		segments[offset + 2] = x2;
+		segments[offset + 3] = y2;
+		segments[offset + 4] = width;
+		segmentColors[segmentsCount] = color;
+		segmentsCount++;
+	}
+
+
+	/**
+	 * Sets the commit dot.
+	 *
+	 * @param color The dot color.
+	 * @param x     The x coordinate.
+	 * @param y     The y coordinate.
+	 * @param w     The width.
+	 * @param h     The height.
+	 */
+	void setDot(Color color, int x, int y, int w, int h) {
+		dot = new int[] {x, y, w, h};
+		dotColor = color;
+	}
+
+
+	/**
+	 * @return The number of lane segments.
+	 */
+	public int getSegmentsCount() {
+		return segmentsCount;
+	}
+
+
+	/**
+	 * @return <code>true</code> if the row has a commit dot.
+	 */
+	public boolean hasDot() {
+		return dot != null;
+	}
+
+
+	/**
+	 * Paints the row.
+	 *
+	 * @param g          The graphics.
+	 * @param background The cell background, used for the dot outline.
+	 */
+	public void paint(Graphics2D g, Color background) {
+		for (int i = 0; i < segmentsCount; i++) {
+			int offset = i * SEGMENT_SIZE;
+			g.setColor(segmentColors[i]);
+			g.setStroke(getStroke(segments[offset + 4]));
+			g.drawLine(segments[offset], segments[offset + 1], segments[offset + 2], segments[offset + 3]);
+		}
+
+		if (dot != null) {
+			g.setColor(dotColor);
+			g.setStroke(getStroke(2));
+			g.fillOval(dot[0] + 1, dot[1], dot[2], dot[3]);
+			g.setColor(background);
+			g.setStroke(getStroke(1));
+			g.drawOval(dot[0] + 1, dot[1], dot[2], dot[3]);
+		}
+	}
+
+
+	/**
+	 * Gets a stroke.
+	 *
+	 * @param width The line width.
+	 *
+	 * @return The stroke.
+	 */
+	private static BasicStroke getStroke(int width) {
+		BasicStroke stroke;
+		if (width >= 0 && width < STROKES.length) {
+			stroke = STROKES[width];
+			if (stroke == null) {
+				stroke = new BasicStroke(width);
+				STROKES[width] = stroke;
+			}
+		} else {
+			stroke = new BasicStroke(width);
+		}
+		return stroke;
+	}
+
+}
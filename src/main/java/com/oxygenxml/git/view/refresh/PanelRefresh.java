@@ -26,6 +26,9 @@ import com.oxygenxml.git.service.RemoteRepositoryChangeWatcher;
 import com.oxygenxml.git.service.RepositoryUnavailableException;
 import com.oxygenxml.git.service.SSHPassphraseRequiredException;
 import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationSpan;
+import com.oxygenxml.git.service.metrics.TracedOperation;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.RepoUtil;
@@ -98,7 +101,16 @@ public class PanelRefresh implements GitRefreshSupport {
 	 */
 	private Runnable refreshRunnable = () -> {
 	  logger.debug("Start refresh on thread.");
-
+	  try (OperationSpan span = OperationMetrics.getInstance().startSpan(TracedOperation.PANEL_REFRESH)) {
+	    refresh();
+	  }
+	  logger.debug("End refresh on thread.");
+	};
+  
+	/**
+	 * Loads the repository from the current project and synchronizes the views with it.
+	 */
+	private void refresh() {
 	  boolean isAfterRestart = lastOpenedProject == null; 
 	  // No point in refreshing if we've just changed the repository.
 	  boolean repoChanged = loadRepositoryFromOxygenProject();
@@ -139,9 +151,7 @@ public class PanelRefresh implements GitRefreshSupport {
 	      logger.debug(e, e);
 	    }
 	  }
-
-	  logger.debug("End refresh on thread.");
-	};
+	}
   
 	/**
 	 * Constructor.
@@ -368,7 +378,7 @@ public class PanelRefresh implements GitRefreshSupport {
     // Connect to the remote.
     RepositoryStatusInfo statusInfo = new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
     try {
-      GitAccess.getInstance().fetch();
+      GitAccess.getInstance().fetchInBackground();
     } catch (RepositoryUnavailableException e) {
       statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
     } catch (SSHPassphraseRequiredException e) {
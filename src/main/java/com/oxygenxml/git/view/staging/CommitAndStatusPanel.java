@@ -14,9 +14,11 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -33,7 +35,6 @@ import javax.swing.JToolTip;
 import javax.swing.KeyStroke;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.Timer;
 
 import org.apache.log4j.Logger;
@@ -46,12 +47,15 @@ import com.jidesoft.swing.JideToggleButton;
 import com.oxygenxml.git.constants.Icons;
 import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.CommitMessageIndex;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.RepoNotInitializedException;
+import com.oxygenxml.git.service.StatusSnapshot;
+import com.oxygenxml.git.service.StatusSnapshotManager;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.PlatformDetectionUtil;
@@ -85,6 +89,36 @@ public class CommitAndStatusPanel extends JPanel {
    */
   private static final int PREV_MESS_MAX_WIDTH = 100;
   
+  /**
+   * Forwards the published status snapshots to the panel, without keeping the panel alive.
+   * Removes itself once the panel was garbage collected.
+   */
+  private static final class WeakStatusSnapshotListener implements Consumer<StatusSnapshot> {
+    /**
+     * The panel.
+     */
+    private final WeakReference<CommitAndStatusPanel> panelRef;
+
+    /**
+     * Constructor.
+     * 
+     * @param panel The panel.
+     */
+    WeakStatusSnapshotListener(CommitAndStatusPanel panel) {
+      this.panelRef = new WeakReference<>(panel);
+    }
+
+    @Override
+    public void accept(StatusSnapshot snapshot) {
+      CommitAndStatusPanel panel = panelRef.get();
+      if (panel != null) {
+        panel.statusSnapshotPublished(snapshot);
+      } else {
+        StatusSnapshotManager.getInstance().removeListener(this);
+      }
+    }
+  }
+
   /**
    * Commit action.
    */
@@ -268,30 +302,32 @@ public class CommitAndStatusPanel extends JPanel {
 	 * Translation support.
 	 */
 	private Translator translator = Translator.getInstance();
-	/**
-	 * Task for updating the state of the commit button and the message area.
-	 */
-	private SwingWorker<Void, Void> commitButtonAndMessageUpdateTask;
 	/**
 	 * Commit action.
 	 */
 	private CommitAction commitAction = new CommitAction();
 	
 	/**
-	 * Timer for the task that updates the state of the commit button and message area.
+	 * Timer for the task that computes the status when there is no up to date status to 
+	 * update the commit button and message area from. The computed status is received 
+	 * through the {@link StatusSnapshotManager}.
 	 */
 	private Timer commitButtonAndMessageUpdateTaskTimer = new Timer(
       300,
-      e -> {
-        if (commitButtonAndMessageUpdateTask != null) {
-          GitOperationScheduler.getInstance().schedule(commitButtonAndMessageUpdateTask);
-        } 
-      });
+      e -> GitOperationScheduler.getInstance().schedule(() -> gitAccess.getStatus()));
+	/**
+	 * <code>true</code> if the message area should be updated from the next received status snapshot.
+	 */
+	private volatile boolean updateMessageAreaOnNextSnapshot;
 	
 	/**
 	 * Git controller.
 	 */
   private GitController gitController;
+  /**
+   * The commit messages of the current repository. <code>null</code> while not yet loaded.
+   */
+  private volatile CommitMessageIndex commitMessageIndex;
 
 	/**
 	 * Constructor.
@@ -305,6 +341,13 @@ public class CommitAndStatusPanel extends JPanel {
 	  commitButtonAndMessageUpdateTaskTimer.setRepeats(false);
 	  
     createGUI();
+    
+    // The manager outlives the panel, so it must not keep the panel alive.
+    StatusSnapshotManager.getInstance().addListener(new WeakStatusSnapshotListener(this));
+    
+    if (gitAccess.isRepoInitialized()) {
+      updateCommitMessageIndex(true);
+    }
 	  
     gitController.addGitListener(new GitEventAdapter() {
       @Override
@@ -315,6 +358,7 @@ public class CommitAndStatusPanel extends JPanel {
           try {
             repository = gitAccess.getRepository();
             if (repository != null) {
+              updateCommitMessageIndex(true);
               // When a new working copy is selected clear the commit text area
               reset();
               // checks what buttons to keep active and what buttons to deactivate
@@ -328,12 +372,40 @@ public class CommitAndStatusPanel extends JPanel {
         } else {
           if (gitOperation == GitOperation.MERGE_RESTART) {
             commitMessageArea.setText(null);
+          } else if (gitOperation == GitOperation.COMMIT || gitOperation == GitOperation.PULL) {
+            updateCommitMessageIndex(false);
           }
           toggleCommitButtonAndUpdateMessageArea(gitOperation == GitOperation.STAGE);
         }
       }
     });
   }
+  
+  /**
+   * Indexes the commit messages of the current repository that were not indexed yet.
+   * 
+   * @param reload <code>true</code> to load the persisted index first. Needed when the repository changes.
+   */
+  private void updateCommitMessageIndex(boolean reload) {
+    if (reload) {
+      // Not the index of the new repository.
+      commitMessageIndex = null;
+    }
+    CommitMessageIndex index = commitMessageIndex;
+    if (index == null) {
+      // Indexing the whole history takes a while. Not on the thread of the Git operations.
+      CommitMessageIndex.loadInBackground(loaded -> commitMessageIndex = loaded);
+    } else {
+      // Only the new commits.
+      GitOperationScheduler.getInstance().schedule(() -> {
+        try {
+          index.update(gitAccess.getRepository());
+        } catch (NoRepositorySelected | IOException e) {
+          logger.debug(e, e);
+        }
+      });
+    }
+  }
 
   /**
 	 * Create GUI.
@@ -554,6 +626,7 @@ public class CommitAndStatusPanel extends JPanel {
 		UIUtil.setDefaultScrollPaneBorder(scrollPane);
 
 		UndoRedoSupportInstaller.installManager(commitMessageArea);
+		CommitMessageCompletionSupport.install(commitMessageArea, () -> commitMessageIndex);
 		
 		this.add(scrollPane, gbc);
 	}
@@ -670,44 +743,67 @@ public class CommitAndStatusPanel extends JPanel {
 	    commitButton.setEnabled(true);
 	  } else {
 	    try {
-	      Repository repo = gitAccess.getRepository();
-	      final RepositoryState repositoryState = repo.getRepositoryState();
-	      final String mergeMessage = MessageFormat.format(
-	          translator.getTranslation(Tags.COMMIT_TO_MERGE),
-	          gitAccess.getBranchInfo().getBranchName(),
-	          repo.getConfig().getString("remote", "origin", "url"));
-	      // Possible time consuming operations.
-	      commitButtonAndMessageUpdateTask = new SwingWorker<Void, Void>() {
-	        boolean enable = false;
-	        String message = null;
-	        @Override
-	        protected Void doInBackground() throws Exception {
-	          GitStatus status = gitAccess.getStatus();
-	          if (repositoryState == RepositoryState.MERGING_RESOLVED
-	              && status.getStagedFiles().isEmpty()
-	              && status.getUnstagedFiles().isEmpty()) {
-	            enable = true;
-	            message = mergeMessage;
-	          } else if (!status.getStagedFiles().isEmpty() || amendLastCommitToggle.isSelected()) {
-	            enable = true;
-	          }
-	          return null;
-	        }
-
-	        @Override
-	        protected void done() {
-	          if (message != null) {
-	            commitMessageArea.setText(message);
-	          }
-	          commitButton.setEnabled(enable);
-	        }
-	      };
-	      commitButtonAndMessageUpdateTaskTimer.restart();
+	      StatusSnapshot snapshot = StatusSnapshotManager.getInstance().getCurrent(gitAccess.getRepository());
+	      if (snapshot == null) {
+	        // The status changed since last computed. The new one will be received as a snapshot.
+	        updateMessageAreaOnNextSnapshot = true;
+	        commitButtonAndMessageUpdateTaskTimer.restart();
+	      } else if (SwingUtilities.isEventDispatchThread()) {
+	        updateCommitButtonAndMessageArea(snapshot, true);
+	      } else {
+	        SwingUtilities.invokeLater(() -> updateCommitButtonAndMessageArea(snapshot, true));
+	      }
 	    } catch (NoRepositorySelected e) {
 	      // Remains disabled
 	    }
 	  }
 	}
+	
+	/**
+	 * Updates the state of the commit button and the message area from a published status snapshot.
+	 * 
+	 * @param snapshot The status snapshot.
+	 */
+	private void statusSnapshotPublished(StatusSnapshot snapshot) {
+	  SwingUtilities.invokeLater(() -> {
+	    boolean updateMessageArea = updateMessageAreaOnNextSnapshot;
+	    updateMessageAreaOnNextSnapshot = false;
+	    updateCommitButtonAndMessageArea(snapshot, updateMessageArea);
+	  });
+	}
+	
+	/**
+	 * Updates the state of the commit button and the message area from a status snapshot. 
+	 * Does not access the working copy. Must be called on AWT.
+	 * 
+	 * @param snapshot          The status snapshot.
+	 * @param updateMessageArea <code>true</code> to also present the merge message, when appropriate.
+	 */
+	private void updateCommitButtonAndMessageArea(StatusSnapshot snapshot, boolean updateMessageArea) {
+	  try {
+	    Repository repo = gitAccess.getRepository();
+	    if (snapshot.getRepository() == repo) {
+	      GitStatus status = snapshot.getStatus();
+	      boolean enable = false;
+	      if (snapshot.getRepositoryState() == RepositoryState.MERGING_RESOLVED
+	          && status.getStagedFiles().isEmpty()
+	          && status.getUnstagedFiles().isEmpty()) {
+	        enable = true;
+	        if (updateMessageArea) {
+	          commitMessageArea.setText(MessageFormat.format(
+	              translator.getTranslation(Tags.COMMIT_TO_MERGE),
+	              gitAccess.getBranchInfo().getBranchName(),
+	              repo.getConfig().getString("remote", "origin", "url")));
+	        }
+	      } else if (!status.getStagedFiles().isEmpty() || amendLastCommitToggle.isSelected()) {
+	        enable = true;
+	      }
+	      commitButton.setEnabled(enable);
+	    }
+	  } catch (NoRepositorySelected e) {
+	    logger.debug(e, e);
+	  }
+	}
 
 	/**
 	 * Update status.
@@ -0,0 +1,176 @@
+package com.oxygenxml.git.view.staging;
+
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.swing.AbstractAction;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+
+import org.apache.log4j.Logger;
+
+import com.oxygenxml.git.service.CommitMessageIndex;
+
+/**
+ * Proposes completions, from the commit messages of the repository, while the user
+ * types in the commit message area.
+ */
+public class CommitMessageCompletionSupport {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = Logger.getLogger(CommitMessageCompletionSupport.class);
+  /**
+   * Completions are proposed only after this many characters were typed.
+   */
+  private static final int MIN_TEXT_LENGTH = 3;
+  /**
+   * Maximum number of proposed completions.
+   */
+  private static final int MAX_COMPLETIONS = 10;
+  /**
+   * Messages longer than this are truncated in the popup.
+   */
+  private static final int MAX_COMPLETION_WIDTH = 100;
+  /**
+   * The commit message area.
+   */
+  private final JTextArea messageArea;
+  /**
+   * Gives the index of the current repository. Can return <code>null</code> while not yet loaded.
+   */
+  private final Supplier<CommitMessageIndex> indexSupplier;
+  /**
+   * Presents the completions.
+   */
+  private final JPopupMenu popup = new JPopupMenu();
+  /**
+   * <code>true</code> while a completion is being inserted.
+   */
+  private boolean insertingCompletion;
+
+  /**
+   * Constructor.
+   *
+   * @param messageArea   The commit message area.
+   * @param indexSupplier Gives the index of the current repository.
+   */
+  private CommitMessageCompletionSupport(JTextArea messageArea, Supplier<CommitMessageIndex> indexSupplier) {
+    this.messageArea = messageArea;
+    this.indexSupplier = indexSupplier;
+    // The user must be able to keep typing while the completions are presented.
+    popup.setFocusable(false);
+  }
+
+  /**
+   * Installs the completion support on a commit message area.
+   *
+   * @param messageArea   The commit message area.
+   * @param indexSupplier Gives the index of the current repository.
+   */
+  public static void install(JTextArea messageArea, Supplier<CommitMessageIndex> indexSupplier) {
+    CommitMessageCompletionSupport support = new CommitMessageCompletionSupport(messageArea, indexSupplier);
+    messageArea.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        support.textChanged();
+      }
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        support.textChanged();
+      }
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        // Attribute changes are of no interest.
+      }
+    });
+  }
+
+  /**
+   * The text was changed. Update the completions, if the user is typing.
+   */
+  private void textChanged() {
+    if (!insertingCompletion && messageArea.isFocusOwner()) {
+      // The document cannot be read while it notifies listeners.
+      SwingUtilities.invokeLater(this::updateCompletions);
+    }
+  }
+
+  /**
+   * Presents the completions matching the current text.
+   */
+  private void updateCompletions() {
+    String text = messageArea.getText();
+    CommitMessageIndex index = indexSupplier.get();
+    List<String> completions = null;
+    if (index != null && text.trim().length() >= MIN_TEXT_LENGTH && text.indexOf('\n') == -1) {
+      completions = index.search(text, MAX_COMPLETIONS + 1);
+      completions.remove(text.trim());
+    }
+
+    if (completions == null || completions.isEmpty()) {
+      popup.setVisible(false);
+    } else {
+      popup.removeAll();
+      for (int i = 0; i < completions.size() && i < MAX_COMPLETIONS; i++) {
+        popup.add(createCompletionItem(completions.get(i)));
+      }
+      showPopup();
+    }
+  }
+
+  /**
+   * Creates the menu item for a completion.
+   *
+   * @param message The proposed message.
+   *
+   * @return The menu item.
+   */
+  private JMenuItem createCompletionItem(String message) {
+    String firstLine = message.split("\n", 2)[0];
+    String label = firstLine.length() <= MAX_COMPLETION_WIDTH ? firstLine
+        : firstLine.substring(0, MAX_COMPLETION_WIDTH) + "...";
+    JMenuItem item = new JMenuItem(new AbstractAction(label) {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        insertingCompletion = true;
+        try {
+          messageArea.setText(message);
+        } finally {
+          insertingCompletion = false;
+        }
+      }
+    });
+    item.setToolTipText(message.equals(label) ? null : message);
+    return item;
+  }
+
+  /**
+   * Shows the completions popup under the caret.
+   */
+  private void showPopup() {
+    int x = 0;
+    int y = messageArea.getHeight();
+    try {
+      Rectangle caretBounds = messageArea.modelToView(messageArea.getCaretPosition());
+      if (caretBounds != null) {
+        x = caretBounds.x;
+        y = caretBounds.y + caretBounds.height;
+      }
+    } catch (BadLocationException e) {
+      LOGGER.debug(e, e);
+    }
+    if (popup.isVisible()) {
+      popup.pack();
+    } else {
+      popup.show(messageArea, x, y);
+    }
+  }
+}
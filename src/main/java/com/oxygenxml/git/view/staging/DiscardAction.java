@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Set;
 
 import javax.swing.AbstractAction;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
@@ -21,6 +23,8 @@ import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.FileUtil;
+import com.oxygenxml.git.view.dialog.ProgressDialog;
+import com.oxygenxml.git.view.dialog.ProgressDialogMonitor;
 import com.oxygenxml.git.view.staging.ChangesPanel.SelectedResourcesProvider;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
@@ -43,6 +47,11 @@ public class DiscardAction extends AbstractAction {
    */
   private static Translator translator = Translator.getInstance();
 
+  /**
+   * From this number of resources, the discard runs in the background, presenting its progress.
+   */
+  private static final int BACKGROUND_DISCARD_THRESHOLD = 500;
+
   /**
    * Selected resources provider.
    */
@@ -86,16 +95,22 @@ public class DiscardAction extends AbstractAction {
       String selectedRepository = OptionsManager.getInstance().getSelectedRepository();
       
       List<FileStatus> allSelectedResources = selResProvider.getAllSelectedResources();
+      boolean inBackground = allSelectedResources.size() >= BACKGROUND_DISCARD_THRESHOLD;
       for (FileStatus file : allSelectedResources) {
         if (file.getChangeType() == GitChangeType.ADD
             || file.getChangeType() == GitChangeType.UNTRACKED) {
-          try {
-            File fileToDiscard = new File(selectedRepository, file.getFileLocation());
-            FileUtils.forceDelete(fileToDiscard);
-            // Collect the parent folders. We'll later have to find the common ancestor and refresh it.
+          File fileToDiscard = new File(selectedRepository, file.getFileLocation());
+          if (inBackground) {
+            // Deleted in parallel, together with the other changes.
             deletedFilesParentDirs.add(fileToDiscard.getParentFile());
-          } catch (IOException e1) {
-            logger.error(e1, e1);
+          } else {
+            try {
+              FileUtils.forceDelete(fileToDiscard);
+              // Collect the parent folders. We'll later have to find the common ancestor and refresh it.
+              deletedFilesParentDirs.add(fileToDiscard.getParentFile());
+            } catch (IOException e1) {
+              logger.error(e1, e1);
+            }
           }
         } else if (file.getChangeType() == GitChangeType.SUBMODULE) {
           discardSubmodule(file, foldersToRefresh, selectedRepository);
@@ -107,14 +122,43 @@ public class DiscardAction extends AbstractAction {
         foldersToRefresh.add(FileUtil.getCommonDir(deletedFilesParentDirs));
       }
       
-      // Execute Git command
-      gitController.asyncDiscard(allSelectedResources);
-      
-      // Refresh the Project view
-      wsAccess.getProjectManager().refreshFolders(foldersToRefresh.toArray(new File[0]));
+      if (inBackground) {
+        discardInBackground(allSelectedResources, foldersToRefresh, wsAccess);
+      } else {
+        // Execute Git command
+        gitController.asyncDiscard(allSelectedResources);
+
+        // Refresh the Project view
+        wsAccess.getProjectManager().refreshFolders(foldersToRefresh.toArray(new File[0]));
+      }
     }
   }
 
+  /**
+   * Discards many resources in the background, in chunks, presenting the progress.
+   * The user can cancel the discard between two chunks.
+   * 
+   * @param resources        The resources to discard.
+   * @param foldersToRefresh The folders to refresh in the Project view, at the end.
+   * @param wsAccess         Workspace access.
+   */
+  private void discardInBackground(
+      List<FileStatus> resources,
+      Set<File> foldersToRefresh,
+      StandalonePluginWorkspace wsAccess) {
+    ProgressDialog progressDialog = new ProgressDialog((JFrame) wsAccess.getParentFrame());
+    progressDialog.setTitle(translator.getTranslation(Tags.DISCARD));
+    // Shown before the end of the discard can close it.
+    SwingUtilities.invokeLater(() -> progressDialog.setVisible(true));
+    gitController.asyncDiscard(
+        resources,
+        new ProgressDialogMonitor(progressDialog),
+        () -> SwingUtilities.invokeLater(() -> {
+          progressDialog.dispose();
+          wsAccess.getProjectManager().refreshFolders(foldersToRefresh.toArray(new File[0]));
+        }));
+  }
+
   /**
    * Discard submodule.
    * 
@@ -9,6 +9,7 @@ import com.oxygenxml.git.constants.Icons;
 import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
+import com.oxygenxml.git.view.dialog.OperationMetricsDialog;
 import com.oxygenxml.git.view.refresh.GitRefreshSupport;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
@@ -42,6 +43,7 @@ final class SettingsMenuBuilder {
     settingsMenuButton.addActionToMenu(createResetCredentialsAction(refreshSupport), false);
     settingsMenuButton.addSeparator();
     settingsMenuButton.addActionToMenu(createGoToPreferencesAction(), false);
+    settingsMenuButton.addActionToMenu(createShowOperationMetricsAction(), false);
     
     return settingsMenuButton;
   }
@@ -90,4 +92,16 @@ final class SettingsMenuBuilder {
     };
   }
   
+  /**
+   * @return the "Operation metrics" action.
+   */
+  private static AbstractAction createShowOperationMetricsAction() {
+    return new AbstractAction(TRANSLATOR.getTranslation(Tags.OPERATION_METRICS) + "...") {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        new OperationMetricsDialog().setVisible(true);
+      }
+    };
+  }
+  
 }
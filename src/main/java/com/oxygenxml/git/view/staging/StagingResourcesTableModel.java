@@ -215,7 +215,9 @@ public class StagingResourcesTableModel extends AbstractTableModel {
     switch (changeEvent.getGitOperation()) {
       case STAGE:
         if (inIndex) {
-          insertRows(GitAccess.getInstance().getStagedFile(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
+          List<FileStatus> newStates = ((FileGitEventInfo) changeEvent).getNewStates();
+          insertRows(newStates != null ? newStates
+              : GitAccess.getInstance().getStagedFile(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
         } else {
           deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
         }
@@ -227,7 +229,9 @@ public class StagingResourcesTableModel extends AbstractTableModel {
           // Things were taken out of the INDEX. 
           // The same resource might be present in the UnStaged and INDEX. Remove old states.
           deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
-          insertRows(GitAccess.getInstance().getUnstagedFiles(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
+          List<FileStatus> newStates = ((FileGitEventInfo) changeEvent).getNewStates();
+          insertRows(newStates != null ? newStates
+              : GitAccess.getInstance().getUnstagedFiles(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
         }
         break;
       case COMMIT:
@@ -74,7 +74,9 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  switch (eventInfo.getGitOperation()) {
 	    case STAGE:
 	      if (inIndex) {
-	        insertNodes(gitAccess.getStagedFile(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
+	        List<FileStatus> newStates = ((FileGitEventInfo) eventInfo).getNewStates();
+	        insertNodes(newStates != null ? newStates
+	            : gitAccess.getStagedFile(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
 	      } else {
 	        deleteNodes(((FileGitEventInfo) eventInfo).getAffectedFileStatuses());
 	      }
@@ -86,7 +88,9 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	        // Things were taken out of the index / "staged" area. 
 	        // The same resource might be present in the Unstaged and Staged. Remove old states.
 	        deleteNodes(((FileGitEventInfo) eventInfo).getAffectedFileStatuses());
-	        insertNodes(gitAccess.getUnstagedFiles(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
+	        List<FileStatus> newStates = ((FileGitEventInfo) eventInfo).getNewStates();
+	        insertNodes(newStates != null ? newStates
+	            : gitAccess.getUnstagedFiles(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
 	      }
 	      break;
 	    case COMMIT:
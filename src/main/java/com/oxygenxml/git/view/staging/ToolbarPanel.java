@@ -9,11 +9,12 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 import javax.swing.AbstractAction;
@@ -47,6 +48,7 @@ import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.RepoNotInitializedException;
 import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.StashCatalog;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -57,6 +59,7 @@ import com.oxygenxml.git.view.branches.BranchesUtil;
 import com.oxygenxml.git.view.dialog.BranchSwitchConfirmationDialog;
 import com.oxygenxml.git.view.dialog.CloneRepositoryDialog;
 import com.oxygenxml.git.view.dialog.OKOtherAndCancelDialog;
+import com.oxygenxml.git.view.dialog.ProgressDialogMonitor;
 import com.oxygenxml.git.view.dialog.SubmoduleSelectDialog;
 import com.oxygenxml.git.view.event.GitController;
 import com.oxygenxml.git.view.event.GitEventInfo;
@@ -1317,9 +1320,11 @@ public class ToolbarPanel extends JPanel {
 
     }
 
+    ProgressDialogMonitor monitor = ProgressDialogMonitor.createForUncancelableOperation(
+        TRANSLATOR.getTranslation(Tags.CHECKOUT));
     GitOperationScheduler.getInstance().schedule(() -> {
       try {
-        GIT_ACCESS.setBranch(newBranchName);
+        GIT_ACCESS.setBranch(newBranchName, monitor);
         BranchesUtil.fixupFetchInConfig(GIT_ACCESS.getRepository().getConfig());
       } catch (CheckoutConflictException ex) {
         restoreCurrentBranchSelectionInMenu();
@@ -1327,6 +1332,8 @@ public class ToolbarPanel extends JPanel {
       } catch (GitAPIException | JGitInternalException | IOException | NoRepositorySelected ex) {
         restoreCurrentBranchSelectionInMenu();
         PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(ex.getMessage(), ex);
+      } finally {
+        monitor.close();
       }
     });
   }
@@ -1445,6 +1452,17 @@ public class ToolbarPanel extends JPanel {
     stashButton.setMinimumSize(d);
     stashButton.setMaximumSize(d);
     gitToolbar.add(stashButton);
+
+    // Compute the stashed files in background, as soon as the user can see the stashes.
+    stashButton.addHierarchyListener(new HierarchyListener() {
+      @Override
+      public void hierarchyChanged(HierarchyEvent e) {
+        if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && stashButton.isShowing()) {
+          stashButton.removeHierarchyListener(this);
+          StashCatalog.getInstance().preload();
+        }
+      }
+    });
   }
 
 
@@ -1546,8 +1564,7 @@ public class ToolbarPanel extends JPanel {
    * Refresh the status for stash button.
    */
   public void refreshStashButton() {
-    Collection<RevCommit> stashes = GIT_ACCESS.listStashes();
-    noOfStashes = stashes == null ? 0 : stashes.size();
+    noOfStashes = StashCatalog.getInstance().getStashes().size();
 
     List<FileStatus> unstagedFiles = GIT_ACCESS.getUnstagedFiles();
     boolean existsLocalFiles = unstagedFiles != null && !unstagedFiles.isEmpty();
@@ -45,6 +45,7 @@ import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.StashCatalog;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.translator.Tags;
@@ -560,7 +561,7 @@ public class ListStashesDialog extends OKCancelDialog {
    *
    */
   private JTable createStashesTable() {
-    List<RevCommit> stashes = new ArrayList<>(GitAccess.getInstance().listStashes());
+    List<RevCommit> stashes = new ArrayList<>(StashCatalog.getInstance().getStashes());
 
     stashesTableModel = new StashesTableModel(stashes);
 
@@ -591,7 +592,7 @@ public class ListStashesDialog extends OKCancelDialog {
       if(selectedRow >= 0) {
     	  try {
     		  affectedStashFilesTableModel.setFilesStatus(
-    				  RevCommitUtil.getChangedFiles(stashesTableModel.getStashes().get(selectedRow).getName()));
+    				  StashCatalog.getInstance().getChangedFiles(stashesTableModel.getStashes().get(selectedRow).getName()));
     	  } catch (IOException | GitAPIException exc) {
     		  LOGGER.error(exc, exc);
     	  }
@@ -750,7 +751,7 @@ public class ListStashesDialog extends OKCancelDialog {
         public void actionPerformed(ActionEvent e) {
           int selectedRow = stashesTable.getSelectedRow();
           int noOfRows = stashesTable.getRowCount();
-          List<RevCommit> stashes = new ArrayList<>(GitAccess.getInstance().listStashes());
+          List<RevCommit> stashes = new ArrayList<>(StashCatalog.getInstance().getStashes());
           if (!stashes.isEmpty() && selectedRow >= 0 && selectedRow < noOfRows) {
             try {
               if(deleteAfterApplyingCheckBox.isSelected()) {
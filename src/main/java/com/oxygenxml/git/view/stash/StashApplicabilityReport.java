@@ -0,0 +1,154 @@
+package com.oxygenxml.git.view.stash;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.oxygenxml.git.service.GitStatus;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tells whether a stash can be applied over the current working copy and, if not, why.
+ */
+public class StashApplicabilityReport {
+
+  /**
+   * The files with conflicts in the working copy.
+   */
+  private final List<String> conflictingFiles;
+
+  /**
+   * The stashed files that also have uncommitted changes in the working copy.
+   */
+  private final List<String> uncommittedFiles;
+
+  /**
+   * The staged files.
+   */
+  private final List<String> stagedFiles;
+
+
+  /**
+   * Constructor.
+   *
+   * @param conflictingFiles The files with conflicts in the working copy.
+   * @param uncommittedFiles The stashed files that also have uncommitted changes in the working copy.
+   * @param stagedFiles      The staged files.
+   */
+  private StashApplicabilityReport(List<String> conflictingFiles, List<String> uncommittedFiles, List<String> stagedFiles) {
+    this.conflictingFiles = conflictingFiles;
+    this.uncommittedFiles = uncommittedFiles;
+    this.stagedFiles = stagedFiles;
+  }
+
+
+  /**
+   * Checks if a stash can be applied.
+   *
+   * @param stashedFiles The files changed by the stash.
+   * @param status       The status of the working copy.
+   *
+   * @return The report.
+   */
+  public static StashApplicabilityReport analyze(List<FileStatus> stashedFiles, GitStatus status) {
+    if (stashedFiles.isEmpty()) {
+      // Nothing to apply. Nothing can block it.
+      return new StashApplicabilityReport(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    Set<String> stashedPaths = new HashSet<>();
+    for (FileStatus file : stashedFiles) {
+      stashedPaths.add(file.getFileLocation());
+    }
+
+    List<String> conflictingFiles = new ArrayList<>();
+    List<String> uncommittedFiles = new ArrayList<>();
+    for (FileStatus file : status.getUnstagedFiles()) {
+      if (file.getChangeType() == GitChangeType.CONFLICT) {
+        conflictingFiles.add(file.getFileLocation());
+      } else if (stashedPaths.contains(file.getFileLocation())) {
+        uncommittedFiles.add(file.getFileLocation());
+      }
+    }
+
+    List<String> stagedFiles = new ArrayList<>();
+    for (FileStatus file : status.getStagedFiles()) {
+      stagedFiles.add(file.getFileLocation());
+    }
+
+    return new StashApplicabilityReport(conflictingFiles, uncommittedFiles, stagedFiles);
+  }
+
+
+  /**
+   * @return The reason why the stash cannot be applied or <code>null</code> if it can be applied.
+   * When there are more reasons, the one the user should address first is returned.
+   */
+  public StashApplyStatus getBlockingStatus() {
+    StashApplyStatus status = null;
+    if (!conflictingFiles.isEmpty()) {
+      status = StashApplyStatus.CANNOT_START_APPLY_BECAUSE_CONFLICTS;
+    } else if (!uncommittedFiles.isEmpty()) {
+      status = StashApplyStatus.CANNOT_START_APPLY_BECAUSE_UNCOMMITTED_FILES;
+    } else if (!stagedFiles.isEmpty()) {
+      status = StashApplyStatus.CANNOT_START_BECAUSE_STAGED_FILES;
+    }
+    return status;
+  }
+
+
+  /**
+   * @return <code>true</code> if the stash can be applied.
+   */
+  public boolean isApplicable() {
+    return getBlockingStatus() == null;
+  }
+
+
+  /**
+   * @throws StashApplyFailureWithStatusException if the stash cannot be applied.
+   */
+  public void throwIfNotApplicable() throws StashApplyFailureWithStatusException {
+    StashApplyStatus status = getBlockingStatus();
+    if (status != null) {
+      throw new StashApplyFailureWithStatusException(status, "Impossible to apply. " + this);
+    }
+  }
+
+
+  /**
+   * @return The files with conflicts in the working copy.
+   */
+  public List<String> getConflictingFiles() {
+    return conflictingFiles;
+  }
+
+
+  /**
+   * @return The stashed files that also have uncommitted changes in the working copy.
+   */
+  public List<String> getUncommittedFiles() {
+    return uncommittedFiles;
+  }
+
+
+  /**
+   * @return The staged files.
+   */
+  public List<String> getStagedFiles() {
+    return stagedFiles;
+  }
+
+
+  @Override
+  public String toString() {
+    // Only the counts. The lists can be huge.
+    return "Conflicting files: " + conflictingFiles.size()
+        + ", stashed files with uncommitted changes: " + uncommittedFiles.size()
+        + ", staged files: " + stagedFiles.size();
+  }
+
+}
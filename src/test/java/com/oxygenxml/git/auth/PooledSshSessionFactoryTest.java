@@ -0,0 +1,153 @@
+package com.oxygenxml.git.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RemoteSession;
+import org.eclipse.jgit.transport.SshSessionFactory;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.util.FS;
+import org.junit.Test;
+
+/**
+ * Tests for the reuse of the SSH sessions.
+ */
+public class PooledSshSessionFactoryTest {
+
+  /**
+   * Session that records the commands.
+   */
+  private static class RecordingSession implements RemoteSession {
+    /**
+     * The executed commands.
+     */
+    private final List<String> commands = new ArrayList<>();
+    /**
+     * <code>true</code> if the session was closed.
+     */
+    private boolean disconnected;
+    /**
+     * <code>true</code> if the server closed the session.
+     */
+    private boolean dead;
+
+    @Override
+    public Process exec(String commandName, int timeout) throws IOException {
+      if (dead || disconnected) {
+        throw new IOException("Session closed");
+      }
+      commands.add(commandName);
+      return null;
+    }
+
+    @Override
+    public void disconnect() {
+      disconnected = true;
+    }
+  }
+
+  /**
+   * Factory that creates recording sessions.
+   */
+  private static class RecordingFactory extends SshSessionFactory {
+    /**
+     * The created sessions.
+     */
+    private final List<RecordingSession> sessions = new ArrayList<>();
+
+    @Override
+    public RemoteSession getSession(URIish uri, CredentialsProvider credentialsProvider, FS fs, int tms) {
+      RecordingSession session = new RecordingSession();
+      sessions.add(session);
+      return session;
+    }
+
+    @Override
+    public String getType() {
+      return "test";
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> a session is reused by the next operation on the same host
+   * and closed after the idle time.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testReuseAndEviction() throws Exception {
+    RecordingFactory delegate = new RecordingFactory();
+    PooledSshSessionFactory factory = new PooledSshSessionFactory(delegate, 60000);
+    URIish uri = new URIish("ssh://git@example.com/repo.git");
+
+    RemoteSession first = factory.getSession(uri, null, FS.DETECTED, 0);
+    first.exec("git-upload-pack", 0);
+    factory.releaseSession(first);
+    assertEquals(1, factory.getIdleSessionsCount());
+
+    RemoteSession second = factory.getSession(uri, null, FS.DETECTED, 0);
+    second.exec("git-receive-pack", 0);
+    assertSame(first, second);
+    assertEquals(1, delegate.sessions.size());
+    assertEquals(2, delegate.sessions.get(0).commands.size());
+
+    // Another host.
+    RemoteSession other = factory.getSession(new URIish("ssh://git@other.com/repo.git"), null, FS.DETECTED, 0);
+    assertNotSame(first, other);
+    assertEquals(2, delegate.sessions.size());
+
+    factory.releaseSession(second);
+    factory.releaseSession(other);
+    assertEquals(2, factory.getIdleSessionsCount());
+
+    // Not idle for long enough.
+    factory.evictIdleSessions(System.currentTimeMillis());
+    assertEquals(2, factory.getIdleSessionsCount());
+    assertFalse(delegate.sessions.get(0).disconnected);
+
+    factory.evictIdleSessions(System.currentTimeMillis() + 60000);
+    assertEquals(0, factory.getIdleSessionsCount());
+    assertTrue(delegate.sessions.get(0).disconnected);
+    assertTrue(delegate.sessions.get(1).disconnected);
+  }
+
+  /**
+   * <p><b>Description:</b> a kept session closed by the server is replaced with a new one.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testDeadSessionIsReplaced() throws Exception {
+    RecordingFactory delegate = new RecordingFactory();
+    PooledSshSessionFactory factory = new PooledSshSessionFactory(delegate, 60000);
+    URIish uri = new URIish("ssh://git@example.com/repo.git");
+
+    RemoteSession session = factory.getSession(uri, null, FS.DETECTED, 0);
+    session.exec("git-upload-pack", 0);
+    factory.releaseSession(session);
+    delegate.sessions.get(0).dead = true;
+
+    session = factory.getSession(uri, null, FS.DETECTED, 0);
+    session.exec("git-upload-pack", 0);
+    assertEquals(2, delegate.sessions.size());
+    assertTrue(delegate.sessions.get(0).disconnected);
+    assertEquals(1, delegate.sessions.get(1).commands.size());
+
+    // Without idle time, the sessions are closed right away.
+    factory = new PooledSshSessionFactory(delegate, 0);
+    session = factory.getSession(uri, null, FS.DETECTED, 0);
+    factory.releaseSession(session);
+    assertEquals(0, factory.getIdleSessionsCount());
+    assertTrue(delegate.sessions.get(2).disconnected);
+  }
+}
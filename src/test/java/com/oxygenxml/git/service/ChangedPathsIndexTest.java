@@ -0,0 +1,223 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.merge.MergeStrategy;
+import org.eclipse.jgit.revwalk.RenameCallback;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+/**
+ * Tests for the index of the paths changed by each commit.
+ */
+public class ChangedPathsIndexTest {
+
+  /**
+   * <p><b>Description:</b> the index tells which commits did not change a file or a folder,
+   * it is persisted and the filter built on it finds the same commits as a tree diff,
+   * following the renames.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testChangedPaths() throws Exception {
+    File workTree = Files.createTempDirectory("changedPathsIndex").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      Repository repository = git.getRepository();
+      String text = "The first line of the file.\nThe second line.\nThe third line.\n";
+      write(workTree, "a.txt", text);
+      write(workTree, "dir/b.txt", "b");
+      git.add().addFilepattern(".").call();
+      RevCommit first = git.commit().setMessage("First").call();
+
+      write(workTree, "a.txt", text + "Changed.\n");
+      git.add().addFilepattern(".").call();
+      RevCommit second = git.commit().setMessage("Second").call();
+
+      write(workTree, "dir/b.txt", "b changed");
+      git.add().addFilepattern(".").call();
+      RevCommit third = git.commit().setMessage("Third").call();
+
+      FileUtils.rename(new File(workTree, "a.txt"), new File(workTree, "c.txt"));
+      git.add().addFilepattern(".").call();
+      git.add().setUpdate(true).addFilepattern(".").call();
+      RevCommit fourth = git.commit().setMessage("Rename").call();
+
+      ChangedPathsIndex index = new ChangedPathsIndex(repository.getDirectory());
+      assertFalse(index.isUnchanged(second, "dir/b.txt"));
+      assertTrue(index.update(repository));
+      assertEquals(4, index.size());
+
+      assertTrue(index.isUnchanged(second, "dir/b.txt"));
+      assertTrue(index.isUnchanged(second, "dir"));
+      assertFalse(index.isUnchanged(second, "a.txt"));
+      assertTrue(index.isUnchanged(third, "a.txt"));
+      assertFalse(index.isUnchanged(third, "dir"));
+      assertFalse(index.isUnchanged(first, "dir/b.txt"));
+      assertTrue(index.isUnchanged(first, "c.txt"));
+
+      // Loaded from the disk.
+      ChangedPathsIndex loaded = ChangedPathsIndex.load(repository);
+      assertEquals(4, loaded.size());
+      assertTrue(loaded.isUnchanged(second, "dir/b.txt"));
+      assertFalse(loaded.isUnchanged(third, "dir/b.txt"));
+      assertFalse(loaded.update(repository));
+
+      assertEquals(Arrays.asList(third, first), walk(repository, ChangedPathRevFilter.create(loaded, "dir/b.txt")));
+      // Without the index.
+      assertEquals(Arrays.asList(third, first), walk(repository, ChangedPathRevFilter.create(null, "dir/b.txt")));
+
+      ChangedPathRevFilter following = ChangedPathRevFilter.createFollowing(loaded, "c.txt", repository.getConfig().get(DiffConfig.KEY));
+      List<String> renames = new ArrayList<>();
+      following.setRenameCallback(new RenameCallback() {
+        @Override
+        public void renamed(DiffEntry entry) {
+          renames.add(entry.getOldPath() + " -> " + entry.getNewPath());
+        }
+      });
+      assertEquals(Arrays.asList(fourth, second, first), walk(repository, following));
+      assertEquals(Arrays.asList("a.txt -> c.txt"), renames);
+      assertEquals("a.txt", following.getPath());
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> like a path tree filter, the filter built on the index does not
+   * walk the side of a merge that did not bring the path, so the same commits and renames are found.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testMergesAreSimplified() throws Exception {
+    File workTree = Files.createTempDirectory("changedPathsIndex").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      Repository repository = git.getRepository();
+      String text = "The first line of the file.\nThe second line.\nThe third line.\n";
+      write(workTree, "a.txt", text);
+      git.add().addFilepattern(".").call();
+      RevCommit first = git.commit().setMessage("First").call();
+
+      // A side branch renames the file and changes it.
+      git.checkout().setCreateBranch(true).setName("side").call();
+      FileUtils.rename(new File(workTree, "a.txt"), new File(workTree, "c.txt"));
+      git.add().addFilepattern(".").call();
+      git.add().setUpdate(true).addFilepattern(".").call();
+      git.commit().setMessage("Rename on side").call();
+      write(workTree, "a.txt", "Another file.\n");
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("New file on side").call();
+
+      git.checkout().setName("master").call();
+      FileUtils.rename(new File(workTree, "a.txt"), new File(workTree, "c.txt"));
+      git.add().addFilepattern(".").call();
+      git.add().setUpdate(true).addFilepattern(".").call();
+      RevCommit rename = git.commit().setMessage("Rename").call();
+      // The merge keeps the files from master.
+      git.merge().include(repository.resolve("side")).setStrategy(MergeStrategy.OURS).call();
+      RevCommit merge = repository.parseCommit(repository.resolve("HEAD"));
+      assertEquals(2, merge.getParentCount());
+
+      ChangedPathsIndex index = new ChangedPathsIndex(repository.getDirectory());
+      assertTrue(index.update(repository));
+
+      for (String path : Arrays.asList("a.txt", "c.txt")) {
+        List<RevCommit> expected = walk(repository, path);
+        assertEquals(expected, walk(repository, ChangedPathRevFilter.create(index, path)));
+        assertEquals(expected, walk(repository, ChangedPathRevFilter.create(null, path)));
+      }
+      assertEquals(Arrays.asList(rename), walk(repository, "c.txt"));
+      assertEquals(Arrays.asList(rename, first), walk(repository, "a.txt"));
+
+      // Only the rename on master is found.
+      ChangedPathRevFilter following = ChangedPathRevFilter.createFollowing(index, "c.txt", repository.getConfig().get(DiffConfig.KEY));
+      List<String> renames = new ArrayList<>();
+      following.setRenameCallback(new RenameCallback() {
+        @Override
+        public void renamed(DiffEntry entry) {
+          renames.add(entry.getOldPath() + " -> " + entry.getNewPath());
+        }
+      });
+      assertEquals(Arrays.asList(rename, first), walk(repository, following));
+      assertEquals(Arrays.asList("a.txt -> c.txt"), renames);
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * Walks the history of the current branch with a path tree filter.
+   *
+   * @param repository The repository.
+   * @param path       The path.
+   *
+   * @return The commits that changed the path.
+   *
+   * @throws Exception If it fails.
+   */
+  private static List<RevCommit> walk(Repository repository, String path) throws Exception {
+    List<RevCommit> commits = new ArrayList<>();
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      revWalk.markStart(revWalk.parseCommit(repository.resolve("HEAD")));
+      revWalk.setTreeFilter(AndTreeFilter.create(PathFilterGroup.createFromStrings(path), TreeFilter.ANY_DIFF));
+      revWalk.forEach(commits::add);
+    }
+    return commits;
+  }
+
+  /**
+   * Walks the history of the current branch.
+   *
+   * @param repository The repository.
+   * @param filter     Filters the commits.
+   *
+   * @return The commits kept by the filter.
+   *
+   * @throws Exception If it fails.
+   */
+  private static List<RevCommit> walk(Repository repository, ChangedPathRevFilter filter) throws Exception {
+    List<RevCommit> commits = new ArrayList<>();
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      revWalk.markStart(revWalk.parseCommit(repository.resolve("HEAD")));
+      revWalk.setRevFilter(filter);
+      revWalk.forEach(commits::add);
+    }
+    return commits;
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   * @param content  The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void write(File workTree, String path, String content) throws Exception {
+    File file = new File(workTree, path);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,62 @@
+package com.oxygenxml.git.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Test;
+
+/**
+ * Tests for the commit messages index.
+ */
+public class CommitMessageIndexTest extends GitTestBase {
+  
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/CommitMessageIndexTest/local";
+
+  /**
+   * <p><b>Description:</b> the messages are found by word prefixes, the ones starting with 
+   * the searched text first. New commits are indexed incrementally and the index is persisted.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testSearchAndIncrementalUpdate() throws Exception {
+    Repository repository = createRepository(LOCAL_TEST_REPOSITORY);
+    Git git = Git.wrap(repository);
+    git.commit().setAllowEmpty(true).setMessage("Fix the toolbar layout").call();
+    git.commit().setAllowEmpty(true).setMessage("Update the translation").call();
+    git.commit().setAllowEmpty(true).setMessage("Toolbar: add the stash button").call();
+    
+    CommitMessageIndex index = CommitMessageIndex.load(repository);
+    assertTrue(index.update(repository));
+    assertEquals(3, index.size());
+    // Nothing new.
+    assertFalse(index.update(repository));
+    
+    // The message that starts with the text comes first. 
+    assertEquals(
+        Arrays.asList("Toolbar: add the stash button", "Fix the toolbar layout"),
+        index.search("toolb", 10));
+    assertEquals(
+        Collections.singletonList("Fix the toolbar layout"),
+        index.search("tool lay", 10));
+    assertEquals(Collections.emptyList(), index.search("merge", 10));
+    
+    git.commit().setAllowEmpty(true).setMessage("Merge the toolbar changes").call();
+    assertTrue(index.update(repository));
+    assertEquals(4, index.size());
+    assertEquals(
+        Collections.singletonList("Merge the toolbar changes"),
+        index.search("merge", 10));
+    
+    // The persisted index is up to date.
+    CommitMessageIndex reloaded = CommitMessageIndex.load(repository);
+    assertEquals(4, reloaded.size());
+    assertFalse(reloaded.update(repository));
+    assertEquals(
+        Collections.singletonList("Toolbar: add the stash button"),
+        reloaded.search("toolbar", 1));
+  }
+}
@@ -0,0 +1,116 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeResult.MergeStatus;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.ConflictStagesResolver.ConflictStages;
+
+/**
+ * Tests for reading the versions of the conflicting files from the index.
+ */
+public class ConflictStagesResolverTest {
+
+  /**
+   * <p><b>Description:</b> the base, mine and theirs versions are read from the stages of the index,
+   * for one file or for many, and the index is read again after it changes.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testResolve() throws Exception {
+    File workTree = Files.createTempDirectory("conflictStages").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      Repository repository = git.getRepository();
+      write(workTree, "modified.txt", "base");
+      write(workTree, "deleted.txt", "base");
+      write(workTree, "clean.txt", "base");
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("Base").call();
+      String mainBranch = repository.getBranch();
+
+      git.checkout().setCreateBranch(true).setName("theirs").call();
+      write(workTree, "modified.txt", "theirs");
+      write(workTree, "added.txt", "theirs");
+      git.rm().addFilepattern("deleted.txt").call();
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("Theirs").call();
+
+      git.checkout().setName(mainBranch).call();
+      write(workTree, "modified.txt", "mine");
+      write(workTree, "added.txt", "mine");
+      write(workTree, "deleted.txt", "mine");
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("Mine").call();
+      assertEquals(MergeStatus.CONFLICTING, git.merge().include(repository.resolve("theirs")).call().getMergeStatus());
+
+      ConflictStagesResolver resolver = new ConflictStagesResolver();
+      ConflictStages modified = resolver.resolve(repository, "modified.txt");
+      assertEquals("base", read(repository, modified.getBase()));
+      assertEquals("mine", read(repository, modified.getMine()));
+      assertEquals("theirs", read(repository, modified.getTheirs()));
+
+      ConflictStages added = resolver.resolve(repository, "added.txt");
+      assertNull(added.getBase());
+      assertEquals("mine", read(repository, added.getMine()));
+      assertEquals("theirs", read(repository, added.getTheirs()));
+
+      ConflictStages deleted = resolver.resolve(repository, "deleted.txt");
+      assertEquals("mine", read(repository, deleted.getMine()));
+      assertNull(deleted.getTheirs());
+
+      assertNull(resolver.resolve(repository, "clean.txt"));
+      assertNull(resolver.resolve(repository, "missing.txt"));
+
+      Map<String, ConflictStages> stages = resolver.resolve(
+          repository, Arrays.asList("modified.txt", "clean.txt", "deleted.txt"));
+      assertEquals(Arrays.asList("modified.txt", "deleted.txt"), Arrays.asList(stages.keySet().toArray()));
+
+      // The index changes.
+      git.add().addFilepattern("modified.txt").call();
+      assertNull(resolver.resolve(repository, "modified.txt"));
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   * @param content  The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void write(File workTree, String path, String content) throws Exception {
+    Files.write(new File(workTree, path).toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads a blob.
+   *
+   * @param repository The repository.
+   * @param blobId     The ID of the blob.
+   *
+   * @return The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static String read(Repository repository, ObjectId blobId) throws Exception {
+    return new String(repository.open(blobId).getBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -1,22 +1,28 @@
 package com.oxygenxml.git.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
 
 public class GItAccessStagedFilesTest {
 
@@ -82,6 +88,74 @@ public class GItAccessStagedFilesTest {
 	}
 
 	
+	/**
+	 * <p><b>Description:</b> staging and unstaging publish the new states of the touched files
+	 * in the event, so the views don't compute the status again.</p>
+	 * <p><b>Bug ID:</b> N/A</p>
+	 * 
+	 * @throws Exception If it fails.
+	 */
+	@Test
+	public void testStatusDeltaInEvents() throws Exception {
+	  PrintWriter out = new PrintWriter(LOCAL_TEST_REPOSITPRY + "/test.txt");
+	  out.println("modificare");
+	  out.close();
+	  new File(LOCAL_TEST_REPOSITPRY + "/add.txt").createNewFile();
+	  
+	  List<FileGitEventInfo> events = new ArrayList<>();
+	  GitEventAdapter listener = new GitEventAdapter() {
+	    @Override
+	    public void operationSuccessfullyEnded(GitEventInfo info) {
+	      events.add((FileGitEventInfo) info);
+	    }
+	  };
+	  GitListeners.getInstance().addGitListener(listener);
+	  try {
+	    gitAccess.addAll(Arrays.asList(new FileStatus(GitChangeType.MODIFIED, "test.txt")));
+	    // The staged states, after staging.
+	    assertEquals(Arrays.asList(new FileStatus(GitChangeType.CHANGED, "test.txt")), events.get(0).getNewStates());
+	    
+	    gitAccess.resetAll(Arrays.asList(new FileStatus(GitChangeType.CHANGED, "test.txt")));
+	    // The unstaged states, after unstaging.
+	    assertEquals(Arrays.asList(new FileStatus(GitChangeType.MODIFIED, "test.txt")), events.get(1).getNewStates());
+	  } finally {
+	    GitListeners.getInstance().removeGitListener(listener);
+	  }
+	}
+	
+	/**
+	 * <p><b>Description:</b> the new files deleted from the working tree are reported as discarded,
+	 * so the views remove them.</p>
+	 * <p><b>Bug ID:</b> N/A</p>
+	 * 
+	 * @throws Exception If it fails.
+	 */
+	@Test
+	public void testDeleteFromWorkingTreeEvent() throws Exception {
+	  File newFile = new File(LOCAL_TEST_REPOSITPRY + "/new.txt");
+	  newFile.createNewFile();
+	  
+	  List<FileGitEventInfo> events = new ArrayList<>();
+	  GitEventAdapter listener = new GitEventAdapter() {
+	    @Override
+	    public void operationSuccessfullyEnded(GitEventInfo info) {
+	      events.add((FileGitEventInfo) info);
+	    }
+	  };
+	  GitListeners.getInstance().addGitListener(listener);
+	  try {
+	    assertEquals(
+	        Arrays.asList("new.txt"),
+	        gitAccess.deleteFromWorkingTree(Arrays.asList("new.txt"), NullProgressMonitor.INSTANCE));
+	    assertFalse(newFile.exists());
+	    assertEquals(1, events.size());
+	    assertEquals(GitOperation.DISCARD, events.get(0).getGitOperation());
+	    assertEquals(Arrays.asList("new.txt"), events.get(0).getAffectedFilePaths());
+	  } finally {
+	    GitListeners.getInstance().removeGitListener(listener);
+	  }
+	}
+	
 	@After
 	public void freeResources() {
 		gitAccess.closeRepo();
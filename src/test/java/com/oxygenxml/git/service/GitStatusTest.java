@@ -1,5 +1,6 @@
 package com.oxygenxml.git.service;
 
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
@@ -10,6 +11,11 @@ import org.eclipse.jgit.transport.URIish;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.metrics.OperationMetrics;
+import com.oxygenxml.git.service.metrics.OperationStats;
+import com.oxygenxml.git.service.metrics.TracedOperation;
+
 /**
  * Asserts the status of the local repository. 
  */
@@ -112,4 +118,68 @@ public class GitStatusTest extends GitTestBase {
     
     assertEquals(expected, actual);
   }
+  
+  /**
+   * <p><b>Description:</b> the upstream branch is fetched only when the remote repository
+   * advertises a different commit for it.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   * 
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFetchUpstreamOnlyWhenChanged() throws Exception {
+    commitOneFile(LOCAL_TEST_REPOSITORY, "local.txt", "local");
+    // The tracking branch is not yet known.
+    assertTrue(gitAccess.fetchUpstreamIfChanged());
+    assertEquals(1, gitAccess.getPullsBehind());
+    // Nothing new.
+    assertFalse(gitAccess.fetchUpstreamIfChanged());
+    
+    commitOneFile(REMOTE_TEST_REPOSITORY, "remote2.txt", "remote2");
+    gitAccess.setRepositorySynchronously(LOCAL_TEST_REPOSITORY);
+    assertTrue(gitAccess.fetchUpstreamIfChanged());
+    assertEquals(2, gitAccess.getPullsBehind());
+    assertFalse(gitAccess.fetchUpstreamIfChanged());
+  }
+  
+  /**
+   * <p><b>Description:</b> the background fetch uses the profile chosen for the repository
+   * and records its metrics separately.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   * 
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFetchProfiles() throws Exception {
+    gitAccess.setRepositorySynchronously(REMOTE_TEST_REPOSITORY);
+    Git.wrap(gitAccess.getRepository()).branchCreate().setName("feature").call();
+    
+    commitOneFile(LOCAL_TEST_REPOSITORY, "local.txt", "local");
+    Repository localRepo = gitAccess.getRepository();
+    assertEquals(FetchProfile.TRUSTED_REMOTE, OptionsManager.getInstance().getBackgroundFetchProfile(localRepo.getIdentifier()));
+    
+    OperationStats upstreamStats = OperationMetrics.getInstance().getStats(TracedOperation.FETCH_UPSTREAM_BRANCH);
+    long upstreamFetches = upstreamStats.getExecution().getCount();
+    OptionsManager.getInstance().setBackgroundFetchProfile(localRepo.getIdentifier(), FetchProfile.UPSTREAM_BRANCH);
+    try {
+      gitAccess.fetchInBackground();
+    } finally {
+      OptionsManager.getInstance().setBackgroundFetchProfile(localRepo.getIdentifier(), FetchProfile.TRUSTED_REMOTE);
+    }
+    assertEquals(upstreamFetches + 1, upstreamStats.getExecution().getCount());
+    assertNotNull(localRepo.exactRef(Constants.R_REMOTES + "origin/" + GitAccess.DEFAULT_BRANCH_NAME));
+    assertNull(localRepo.exactRef(Constants.R_REMOTES + "origin/feature"));
+    
+    // An explicit fetch brings all the branches.
+    gitAccess.fetch();
+    assertNotNull(localRepo.exactRef(Constants.R_REMOTES + "origin/feature"));
+    
+    // Without an upstream branch, all the branches are fetched and recorded as a normal fetch.
+    Git.wrap(localRepo).checkout().setCreateBranch(true).setName("noUpstream").call();
+    OperationStats fetchStats = OperationMetrics.getInstance().getStats(TracedOperation.FETCH);
+    long fetches = fetchStats.getExecution().getCount();
+    gitAccess.fetch(FetchProfile.UPSTREAM_BRANCH);
+    assertEquals(fetches + 1, fetchStats.getExecution().getCount());
+    assertEquals(upstreamFetches + 1, upstreamStats.getExecution().getCount());
+  }
 }
@@ -0,0 +1,233 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the parallel checkout of the working tree.
+ */
+public class ParallelCheckoutTest {
+  /**
+   * The working tree.
+   */
+  private File workTree;
+  /**
+   * The repository.
+   */
+  private Git git;
+  /**
+   * The tree of the first commit.
+   */
+  private ObjectId firstTree;
+  /**
+   * The tree of the second commit.
+   */
+  private ObjectId secondTree;
+
+  /**
+   * Creates a repository with two branches.
+   *
+   * @throws Exception If it fails.
+   */
+  @Before
+  public void setUp() throws Exception {
+    workTree = Files.createTempDirectory("parallelCheckout").toFile();
+    git = Git.init().setDirectory(workTree).call();
+
+    write("a.txt", "first");
+    write("dir/b.txt", "same");
+    write("deleted.txt", "deleted");
+    write("old/folder/c.txt", "c");
+    commitAll("First");
+    firstTree = git.getRepository().resolve("HEAD^{tree}");
+    git.branchCreate().setName("first").call();
+
+    write("a.txt", "second");
+    FileUtils.delete(new File(workTree, "deleted.txt"));
+    FileUtils.delete(new File(workTree, "old"), FileUtils.RECURSIVE);
+    for (int i = 0; i < 20; i++) {
+      write("new/deep/n" + i + ".txt", "new " + i);
+    }
+    write("old", "now a file");
+    commitAll("Second");
+    secondTree = git.getRepository().resolve("HEAD^{tree}");
+    git.branchCreate().setName("second").call();
+
+    git.checkout().setName("first").call();
+    // Files older than the index, so they are not racily clean.
+    makeOld(workTree);
+    DirCache dirCache = git.getRepository().lockDirCache();
+    for (int i = 0; i < dirCache.getEntryCount(); i++) {
+      DirCacheEntry entry = dirCache.getEntry(i);
+      entry.setLastModified(new File(workTree, entry.getPathString()).lastModified());
+    }
+    dirCache.write();
+    dirCache.commit();
+  }
+
+  /**
+   * Deletes the repository.
+   *
+   * @throws Exception If it fails.
+   */
+  @After
+  public void tearDown() throws Exception {
+    git.close();
+    FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+  }
+
+  /**
+   * <p><b>Description:</b> the parallel checkout writes the files and the index of the other branch,
+   * and JGit only moves HEAD afterwards.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCheckout() throws Exception {
+    assertTrue(new ParallelCheckout(git.getRepository(), NullProgressMonitor.INSTANCE, 0)
+        .checkout(firstTree, secondTree));
+
+    assertEquals("second", read("a.txt"));
+    assertEquals("same", read("dir/b.txt"));
+    assertEquals("new 19", read("new/deep/n19.txt"));
+    assertEquals("now a file", read("old"));
+    assertFalse(new File(workTree, "deleted.txt").exists());
+
+    git.checkout().setName("second").call();
+    assertEquals("refs/heads/second", git.getRepository().getFullBranch());
+    assertTrue(git.status().call().isClean());
+  }
+
+  /**
+   * <p><b>Description:</b> nothing is changed when local changes or untracked files are in the way.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testLocalChangesInTheWay() throws Exception {
+    ParallelCheckout checkout = new ParallelCheckout(git.getRepository(), NullProgressMonitor.INSTANCE, 0);
+
+    write("a.txt", "local change");
+    assertFalse(checkout.checkout(firstTree, secondTree));
+    assertEquals("local change", read("a.txt"));
+    assertTrue(new File(workTree, "deleted.txt").exists());
+    git.checkout().addPath("a.txt").call();
+
+    write("new/deep/n3.txt", "untracked");
+    assertFalse(checkout.checkout(firstTree, secondTree));
+    assertEquals("untracked", read("new/deep/n3.txt"));
+    assertFalse(new File(workTree, "new/deep/n2.txt").exists());
+
+    // Too few files change.
+    FileUtils.delete(new File(workTree, "new"), FileUtils.RECURSIVE);
+    assertFalse(new ParallelCheckout(git.getRepository(), NullProgressMonitor.INSTANCE, 100)
+        .checkout(firstTree, secondTree));
+    assertEquals("first", read("a.txt"));
+  }
+
+  /**
+   * <p><b>Description:</b> when a file cannot be written, the checkout fails and the files of the
+   * old tree are brought back.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFailedCheckoutRestoresTheOldTree() throws Exception {
+    // A smudge filter that always fails.
+    File attributes = new File(git.getRepository().getDirectory(), "info/attributes");
+    attributes.getParentFile().mkdirs();
+    Files.write(attributes.toPath(), "new/deep/n7.txt filter=broken\n".getBytes(StandardCharsets.UTF_8));
+    git.getRepository().getConfig().setString("filter", "broken", "smudge", "false");
+
+    try {
+      new ParallelCheckout(git.getRepository(), NullProgressMonitor.INSTANCE, 0).checkout(firstTree, secondTree);
+      fail("Should have thrown");
+    } catch (IOException e) {
+      // Expected.
+    }
+
+    assertEquals("first", read("a.txt"));
+    assertEquals("c", read("old/folder/c.txt"));
+    assertTrue(new File(workTree, "deleted.txt").exists());
+    assertFalse(new File(workTree, "new/deep/n1.txt").exists());
+    assertTrue(git.status().call().isClean());
+  }
+
+  /**
+   * Writes a file in the working tree.
+   *
+   * @param path    The path of the file.
+   * @param content The content.
+   *
+   * @throws IOException If it fails.
+   */
+  private void write(String path, String content) throws IOException {
+    File file = new File(workTree, path);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads a file from the working tree.
+   *
+   * @param path The path of the file.
+   *
+   * @return The content.
+   *
+   * @throws IOException If it fails.
+   */
+  private String read(String path) throws IOException {
+    return new String(Files.readAllBytes(new File(workTree, path).toPath()), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Commits all the files.
+   *
+   * @param message The commit message.
+   *
+   * @throws Exception If it fails.
+   */
+  private void commitAll(String message) throws Exception {
+    git.add().addFilepattern(".").call();
+    git.add().setUpdate(true).addFilepattern(".").call();
+    git.commit().setMessage(message).call();
+  }
+
+  /**
+   * Moves the modification time of the files one minute in the past.
+   *
+   * @param file A file or a folder.
+   */
+  private static void makeOld(File file) {
+    if (file.isDirectory()) {
+      if (!".git".equals(file.getName())) {
+        File[] children = file.listFiles();
+        for (File child : children) {
+          makeOld(child);
+        }
+      }
+    } else {
+      file.setLastModified(System.currentTimeMillis() - 60000);
+    }
+  }
+}
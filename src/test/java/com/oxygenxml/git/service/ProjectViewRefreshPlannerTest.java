@@ -0,0 +1,88 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the computation of the folders refreshed in the Project view.
+ */
+public class ProjectViewRefreshPlannerTest {
+  /**
+   * The working tree.
+   */
+  private static final File WORK_TREE = new File("wc");
+
+  /**
+   * <p><b>Description:</b> the parent folders of the changed files are refreshed,
+   * except the ones inside other refreshed folders.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testNestedFoldersAreSkipped() {
+    ProjectViewRefreshPlanner planner = new ProjectViewRefreshPlanner(WORK_TREE);
+    assertTrue(planner.isEmpty());
+    assertTrue(planner.plan().isEmpty());
+
+    planner.addChangedPath("a/b/c/file1.txt");
+    planner.addChangedPath("a/b/file2.txt");
+    planner.addChangedPath("d/file3.txt");
+    planner.addChangedPath("ab/file4.txt");
+
+    List<File[]> batches = planner.plan();
+    assertEquals(1, batches.size());
+    assertEquals(
+        "[a/b, ab, d]",
+        toSortedPaths(batches).toString());
+
+    planner.addChangedPath("root.txt");
+    assertEquals("[]", toSortedPaths(planner.plan()).toString());
+    assertEquals(WORK_TREE, planner.plan().get(0)[0]);
+  }
+
+  /**
+   * <p><b>Description:</b> many changed folders are replaced by their parents and
+   * passed to the Project view in bounded batches.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testCoarseningAndBatching() {
+    ProjectViewRefreshPlanner planner = new ProjectViewRefreshPlanner(WORK_TREE);
+    for (int i = 0; i < ProjectViewRefreshPlanner.MAX_FOLDERS; i++) {
+      planner.addChangedPath("top/sub_" + i + "/file.txt");
+    }
+    List<File[]> batches = planner.plan();
+    assertEquals(ProjectViewRefreshPlanner.MAX_FOLDERS / ProjectViewRefreshPlanner.MAX_FOLDERS_PER_REFRESH, batches.size());
+    for (File[] batch : batches) {
+      assertEquals(ProjectViewRefreshPlanner.MAX_FOLDERS_PER_REFRESH, batch.length);
+    }
+
+    // One more folder and the limit is exceeded.
+    planner.addChangedPath("top/sub_x/file.txt");
+    assertEquals("[top]", toSortedPaths(planner.plan()).toString());
+  }
+
+  /**
+   * @param batches The planned batches.
+   *
+   * @return The planned folders, relative to the working tree, sorted.
+   */
+  private static List<String> toSortedPaths(List<File[]> batches) {
+    String prefix = WORK_TREE.getPath() + File.separator;
+    List<String> paths = new ArrayList<>();
+    for (File[] batch : batches) {
+      for (File file : batch) {
+        if (!file.equals(WORK_TREE)) {
+          paths.add(file.getPath().substring(prefix.length()).replace(File.separatorChar, '/'));
+        }
+      }
+    }
+    paths.sort(null);
+    return paths;
+  }
+}
@@ -0,0 +1,84 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.ObjectIdRef;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Ref.Storage;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.Test;
+
+/**
+ * Tests for the listing of the branches of a remote URL while it is typed.
+ */
+public class RemoteUrlProbeServiceTest {
+
+  /**
+   * <p><b>Description:</b> a URL is listed once for concurrent requests, the result is reused
+   * and the requests cancelled before the listing starts are never served.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testProbe() throws Exception {
+    CountDownLatch firstListingStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> listed = Collections.synchronizedList(new ArrayList<>());
+    RemoteUrlProbeService service = new RemoteUrlProbeService((url, presenter) -> {
+      listed.add(url.toString());
+      firstListingStarted.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Collections.singletonList(new ObjectIdRef.Unpeeled(Storage.NETWORK, "refs/heads/main", null));
+    }, 60000);
+
+    URIish url = new URIish("https://example.com/repo.git");
+    List<Collection<Ref>> received = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch served = new CountDownLatch(2);
+    service.probe(url, message -> {}, (refs, error) -> {
+      received.add(refs);
+      served.countDown();
+    });
+    firstListingStarted.await(5, TimeUnit.SECONDS);
+    // Waits for the listing in progress.
+    service.probe(url, message -> {}, (refs, error) -> {
+      received.add(refs);
+      served.countDown();
+    });
+    // Queued behind the first listing, then superseded.
+    RemoteUrlProbeService.Probe superseded = service.probe(
+        new URIish("https://example.com/typo.git"), message -> {}, (refs, error) -> received.add(null));
+    superseded.cancel();
+    assertTrue(superseded.isCancelled());
+
+    release.countDown();
+    assertTrue(served.await(5, TimeUnit.SECONDS));
+    assertEquals(2, received.size());
+    assertEquals(Collections.singletonList("https://example.com/repo.git"), listed);
+
+    // From the cache.
+    List<Collection<Ref>> cached = new ArrayList<>();
+    service.probe(url, message -> {}, (refs, error) -> cached.add(refs));
+    assertEquals(1, cached.size());
+    assertEquals("refs/heads/main", cached.get(0).iterator().next().getName());
+    assertEquals(1, listed.size());
+
+    service.clearCache();
+    CountDownLatch listedAgain = new CountDownLatch(1);
+    service.probe(url, message -> {}, (refs, error) -> listedAgain.countDown());
+    assertTrue(listedAgain.await(5, TimeUnit.SECONDS));
+    assertEquals(2, listed.size());
+  }
+}
@@ -0,0 +1,152 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+/**
+ * Tests for the detection of the renames in the changes of a commit.
+ */
+public class RenameDetectionServiceTest {
+
+  /**
+   * <p><b>Description:</b> the files with identical content are always paired, the content of
+   * the other files is compared only within the rename limit and the renames are remembered.
+   * The renames found by comparing the content are also remembered after a restart.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testDetectRenames() throws Exception {
+    File workTree = Files.createTempDirectory("renameDetection").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      String text = "A text long enough to be compared with the text of another file.\n";
+      String other = "Something completely different, about the weather and the sea.\n";
+      write(workTree, "same.txt", text);
+      write(workTree, "similar1.txt", text + text + "1");
+      write(workTree, "similar2.txt", other + other + "2");
+      git.add().addFilepattern(".").call();
+      RevCommit first = git.commit().setMessage("First").call();
+
+      FileUtils.rename(new File(workTree, "same.txt"), new File(workTree, "same_renamed.txt"));
+      FileUtils.delete(new File(workTree, "similar1.txt"));
+      FileUtils.delete(new File(workTree, "similar2.txt"));
+      write(workTree, "similar1_renamed.txt", text + text + "1 changed");
+      write(workTree, "similar2_renamed.txt", other + other + "2 changed");
+      git.add().addFilepattern(".").call();
+      git.add().setUpdate(true).addFilepattern(".").call();
+      RevCommit second = git.commit().setMessage("Second").call();
+
+      // Only the identical files are paired.
+      RenameDetectionService limited = new RenameDetectionService(1);
+      List<DiffEntry> renames = limited.detectRenames(
+          git.getRepository(), first.getTree(), second.getTree(), diff(git, first, second));
+      assertEquals("[same.txt -> same_renamed.txt]", dumpRenames(renames));
+
+      RenameDetectionService unlimited = new RenameDetectionService(null);
+      List<DiffEntry> diffs = diff(git, first, second);
+      renames = unlimited.detectRenames(git.getRepository(), first.getTree(), second.getTree(), diffs);
+      assertEquals(
+          "[same.txt -> same_renamed.txt, similar1.txt -> similar1_renamed.txt, similar2.txt -> similar2_renamed.txt]",
+          dumpRenames(renames));
+
+      // Remembered. The differences are not even looked at.
+      diffs.clear();
+      renames = unlimited.detectRenames(git.getRepository(), first.getTree(), second.getTree(), diffs);
+      assertEquals(3, renames.size());
+      unlimited.clearCache();
+      renames = unlimited.detectRenames(git.getRepository(), first.getTree(), second.getTree(), diff(git, first, second));
+      assertEquals(3, dumpRenames(renames).split(",").length);
+
+      // The renames found by comparing the content are read from the Git directory
+      // and applied to the differences.
+      RenameDetectionStore store = new RenameDetectionStore(git.getRepository().getDirectory());
+      int configuredLimit = git.getRepository().getConfig().get(DiffConfig.KEY).getRenameLimit();
+      renames = store.get(first.getTree(), second.getTree(), configuredLimit, diff(git, first, second));
+      assertEquals(
+          "[same.txt -> same_renamed.txt, similar1.txt -> similar1_renamed.txt, similar2.txt -> similar2_renamed.txt]",
+          dumpRenames(renames));
+      assertEquals(3, renames.size());
+      DiffEntry rename = renames.stream()
+          .filter(diff -> "similar1.txt".equals(diff.getOldPath()))
+          .findFirst()
+          .get();
+      try (TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), "similar1_renamed.txt", second.getTree())) {
+        assertEquals(treeWalk.getObjectId(0), rename.getNewId().toObjectId());
+      }
+      assertEquals(FileMode.REGULAR_FILE, rename.getNewMode());
+      assertTrue(rename.getScore() < 100);
+      // Nothing stored when only the identical files were paired.
+      assertNull(store.get(first.getTree(), second.getTree(), 1, diff(git, first, second)));
+      assertNull(store.get(second.getTree(), first.getTree(), configuredLimit, diff(git, second, first)));
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * Computes the differences between two commits, without renames.
+   *
+   * @param git       The repository.
+   * @param oldCommit The old commit.
+   * @param newCommit The new commit.
+   *
+   * @return The differences.
+   *
+   * @throws Exception If it fails.
+   */
+  private static List<DiffEntry> diff(Git git, RevCommit oldCommit, RevCommit newCommit) throws Exception {
+    try (ObjectReader reader = git.getRepository().newObjectReader()) {
+      CanonicalTreeParser oldTree = new CanonicalTreeParser();
+      oldTree.reset(reader, oldCommit.getTree());
+      CanonicalTreeParser newTree = new CanonicalTreeParser();
+      newTree.reset(reader, newCommit.getTree());
+      return git.diff().setOldTree(oldTree).setNewTree(newTree).call();
+    }
+  }
+
+  /**
+   * @param diffs Differences.
+   *
+   * @return The renames, sorted.
+   */
+  private static String dumpRenames(List<DiffEntry> diffs) {
+    return diffs.stream()
+        .filter(RevCommitUtil::isRename)
+        .map(diff -> diff.getOldPath() + " -> " + diff.getNewPath())
+        .collect(Collectors.toCollection(TreeSet::new))
+        .toString();
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   * @param content  The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void write(File workTree, String path, String content) throws Exception {
+    Files.write(new File(workTree, path).toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
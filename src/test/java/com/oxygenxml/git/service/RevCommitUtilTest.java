@@ -63,6 +63,39 @@ public class RevCommitUtilTest extends GitTestBase {
     }
   }
   
+  /**
+   * <p><b>Description:</b> follows a file renamed inside a deep folder across a range of revisions
+   * in which other files change too.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFindPathAcrossRevisions() throws Exception {
+    Repository repository = createRepository("target/test-resources/RevCommitUtilTest_testFindPath");
+    new File(repository.getWorkTree(), "a/b/c").mkdirs();
+    RevCommit first = TestUtil.commitOneFile(repository, "a/b/c/doc.xml", "<root>A document with enough content to detect a rename.</root>");
+    TestUtil.commitOneFile(repository, "other.txt", "1");
+    TestUtil.commitOneFile(repository, "a/b/c/sibling.txt", "2");
+    
+    try (Git git = new Git(repository)) {
+      File oldFile = new File(repository.getWorkTree(), "a/b/c/doc.xml");
+      assertTrue(oldFile.renameTo(new File(repository.getWorkTree(), "a/b/renamed.xml")));
+      git.add().addFilepattern("a/b/renamed.xml").call();
+      git.rm().addFilepattern("a/b/c/doc.xml").call();
+      git.commit().setMessage("Rename").call();
+      TestUtil.commitOneFile(repository, "other.txt", "3");
+      RevCommit last = TestUtil.commitOneFile(repository, "a/b/c/sibling.txt", "4");
+      
+      assertEquals("a/b/renamed.xml", RevCommitUtil.getNewPath(git, first, last, "a/b/c/doc.xml"));
+      assertEquals("a/b/c/doc.xml", RevCommitUtil.getOldPath(git, first, last, "a/b/renamed.xml"));
+      // Remembered.
+      assertEquals("a/b/renamed.xml", RevCommitUtil.getNewPath(git, first, last, "a/b/c/doc.xml"));
+      // Not renamed.
+      assertEquals("other.txt", RevCommitUtil.getNewPath(git, first, last, "other.txt"));
+    }
+  }
+  
   /**
    * Tests the utility method that merges a revision into a list of existing sorted revisions and sorts them all.
    */
@@ -0,0 +1,117 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.standalone.StandalonePluginWorkspace;
+
+/**
+ * Tests for the cache of stashes and stashed files.
+ */
+public class StashCatalogTest {
+
+  /**
+   * The local repository.
+   */
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/StashCatalogTest";
+
+  /**
+   * The GitAccess instance.
+   */
+  private GitAccess gitAccess;
+
+  /**
+   * Creates the repository, with a first commit.
+   *
+   * @throws Exception If it fails.
+   */
+  @Before
+  public void init() throws Exception {
+    StandalonePluginWorkspace pluginWSMock = Mockito.mock(StandalonePluginWorkspace.class);
+    PluginWorkspaceProvider.setPluginWorkspace(pluginWSMock);
+
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    File file = new File(LOCAL_TEST_REPOSITORY, "test.txt");
+    file.createNewFile();
+    gitAccess.add(new FileStatus(GitChangeType.ADD, file.getName()));
+    gitAccess.commit("file test added");
+  }
+
+  /**
+   * Closes the repository.
+   */
+  @After
+  public void tearDown() {
+    gitAccess.closeRepo();
+  }
+
+  /**
+   * <p><b>Description:</b> the stashes list is updated after the stash operations
+   * and the files of a stash are computed only once.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testStashCatalog() throws Exception {
+    StashCatalog catalog = StashCatalog.getInstance();
+    assertTrue(catalog.getStashes().isEmpty());
+
+    try (PrintWriter out = new PrintWriter(new File(LOCAL_TEST_REPOSITORY, "test.txt"))) {
+      out.println("modify");
+    }
+    gitAccess.createStash(false, "first");
+    try (PrintWriter out = new PrintWriter(new File(LOCAL_TEST_REPOSITORY, "test.txt"))) {
+      out.println("modify again");
+    }
+    gitAccess.createStash(false, "second");
+
+    List<RevCommit> stashes = catalog.getStashes();
+    assertEquals(2, stashes.size());
+    assertEquals("second", stashes.get(0).getFullMessage());
+    // Not read again.
+    assertSame(stashes, catalog.getStashes());
+
+    List<FileStatus> files = catalog.getChangedFiles(stashes.get(1).getName());
+    assertEquals(1, files.size());
+    assertEquals("test.txt", files.get(0).getFileLocation());
+    assertSame(files, catalog.getChangedFiles(stashes.get(1).getName()));
+
+    gitAccess.dropStash(0);
+    stashes = catalog.getStashes();
+    assertEquals(1, stashes.size());
+    assertEquals("first", stashes.get(0).getFullMessage());
+    assertSame(files, catalog.getChangedFiles(stashes.get(0).getName()));
+
+    // Stashes created and dropped by another tool.
+    try (PrintWriter out = new PrintWriter(new File(LOCAL_TEST_REPOSITORY, "test.txt"))) {
+      out.println("modify from outside");
+    }
+    Git git = Git.wrap(gitAccess.getRepository());
+    git.stashCreate().setWorkingDirectoryMessage("outside").call();
+    stashes = catalog.getStashes();
+    assertEquals(2, stashes.size());
+    assertEquals("outside", stashes.get(0).getFullMessage());
+    git.stashDrop().setStashRef(1).call();
+    stashes = catalog.getStashes();
+    assertEquals(1, stashes.size());
+    assertEquals("outside", stashes.get(0).getFullMessage());
+  }
+}
@@ -0,0 +1,59 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryState;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for the shared status snapshots.
+ */
+public class StatusSnapshotManagerTest {
+
+  /**
+   * <p><b>Description:</b> a status computed before an invalidation is not published.
+   * Listeners receive the published snapshots.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testVersionedSnapshots() {
+    StatusSnapshotManager manager = StatusSnapshotManager.getInstance();
+    Repository repository = Mockito.mock(Repository.class);
+    GitStatus status = new GitStatus(Collections.emptyList(), Collections.emptyList());
+    List<StatusSnapshot> received = new ArrayList<>();
+    Consumer<StatusSnapshot> listener = received::add;
+    manager.addListener(listener);
+    try {
+      manager.invalidate();
+      assertNull(manager.getCurrent(repository));
+
+      long generation = manager.getGeneration();
+      manager.publish(generation, repository, status, RepositoryState.SAFE);
+      StatusSnapshot snapshot = manager.getCurrent(repository);
+      assertNotNull(snapshot);
+      assertSame(status, snapshot.getStatus());
+      assertEquals(1, received.size());
+      // Another repository.
+      assertNull(manager.getCurrent(Mockito.mock(Repository.class)));
+
+      // An operation ended while the status was computed.
+      generation = manager.getGeneration();
+      manager.invalidate();
+      manager.publish(generation, repository, status, RepositoryState.SAFE);
+      assertNull(manager.getCurrent(repository));
+      assertEquals(1, received.size());
+    } finally {
+      manager.removeListener(listener);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.StreamingDiff.BinarySummary;
+import com.oxygenxml.git.service.StreamingDiff.Hunk;
+
+/**
+ * Tests for comparing big files as streams.
+ */
+public class StreamingDiffTest {
+
+  /**
+   * Collects the results of a comparison.
+   */
+  private static class Collector implements StreamingDiff.Listener {
+    /**
+     * The differences, as "-oldStart,oldCount +newStart,newCount".
+     */
+    private final List<String> hunks = new ArrayList<>();
+    /**
+     * The found differences.
+     */
+    private final List<Hunk> found = new ArrayList<>();
+    /**
+     * The binary summaries, if the versions were binary.
+     */
+    private BinarySummary[] summaries;
+
+    @Override
+    public void hunkFound(Hunk hunk) {
+      found.add(hunk);
+      hunks.add("-" + hunk.getOldStart() + "," + hunk.getOldCount() + " +" + hunk.getNewStart() + "," + hunk.getNewCount());
+    }
+
+    @Override
+    public void binaryCompared(BinarySummary oldSummary, BinarySummary newSummary) {
+      summaries = new BinarySummary[] {oldSummary, newSummary};
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> text files are compared in chunks and the differences have
+   * the same line numbers as if the files were compared at once, also when a difference
+   * crosses the end of a chunk.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCompareLines() throws Exception {
+    StringBuilder oldText = new StringBuilder();
+    StringBuilder newText = new StringBuilder();
+    for (int i = 1; i <= 100; i++) {
+      oldText.append("line ").append(i).append('\n');
+      if (i == 5) {
+        newText.append("inserted\n");
+      }
+      if (i >= 18 && i <= 23) {
+        // Crosses the end of the second chunk.
+        newText.append("changed ").append(i).append("\r\n");
+      } else if (i != 60) {
+        newText.append("line ").append(i).append('\n');
+      }
+    }
+    newText.append("appended");
+
+    Collector collector = compare(new StreamingDiff(10, 3), oldText.toString(), newText.toString());
+    assertNull(collector.summaries);
+    assertEquals(Arrays.asList("-5,0 +5,1", "-18,6 +19,6", "-60,1 +61,0", "-101,0 +101,1"), collector.hunks);
+    // Only the first lines of a difference are kept.
+    assertEquals(Arrays.asList("line 18", "line 19", "line 20"), collector.found.get(1).getOldLines());
+    assertEquals(Arrays.asList("changed 18", "changed 19", "changed 20"), collector.found.get(1).getNewLines());
+    assertEquals(Arrays.asList("appended"), collector.found.get(3).getNewLines());
+
+    // The same content.
+    assertTrue(compare(new StreamingDiff(10, 3), oldText.toString(), oldText.toString()).hunks.isEmpty());
+    // Canceled.
+    Collector canceled = new Collector();
+    new StreamingDiff(10, 3).compare(
+        new ByteArrayInputStream(bytes(oldText.toString())),
+        new ByteArrayInputStream(bytes(newText.toString())),
+        canceled,
+        () -> true);
+    assertTrue(canceled.hunks.isEmpty());
+  }
+
+  /**
+   * <p><b>Description:</b> only the first bytes of a long line are kept. The rest is compared
+   * by its hash, so a difference at the end of the line is still found.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCompareLongLines() throws Exception {
+    StringBuilder longLine = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      longLine.append("<e>").append(i).append("</e>");
+    }
+    String oldText = "first\n" + longLine + "<old/>\n" + longLine + "\r\nlast\n";
+    String newText = "first\n" + longLine + "<new/>\n" + longLine + "\nlast\n";
+
+    Collector collector = compare(new StreamingDiff(10, 3, 16), oldText, newText);
+    // The line endings do not matter, also for a cut line.
+    assertEquals(Arrays.asList("-2,1 +2,1"), collector.hunks);
+    assertEquals(Arrays.asList("<e>0</e><e>1</e>..."), collector.found.get(0).getOldLines());
+    assertEquals(Arrays.asList("<e>0</e><e>1</e>..."), collector.found.get(0).getNewLines());
+
+    // Short lines are kept whole.
+    collector = compare(new StreamingDiff(10, 3, 16), "a\nshort\n", "a\nshorter\n");
+    assertEquals(Arrays.asList("short"), collector.found.get(0).getOldLines());
+    assertEquals(Arrays.asList("shorter"), collector.found.get(0).getNewLines());
+  }
+
+  /**
+   * <p><b>Description:</b> binary files and Git LFS pointers are only summarized.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCompareBinary() throws Exception {
+    Collector collector = compare(new StreamingDiff(), "a\0b", "a\0c");
+    assertEquals(3, collector.summaries[0].getSize());
+    assertFalse(collector.summaries[0].isLfsPointer());
+    assertFalse(collector.summaries[0].isSameContent(collector.summaries[1]));
+    assertTrue(collector.hunks.isEmpty());
+
+    String pointer = "version https://git-lfs.github.com/spec/v1\n"
+        + "oid sha256:4d7a214614ab2935c943f9e0ff69d22eadbb8f32b1258daaa5e2ca24d17e2393\n"
+        + "size 12345\n";
+    collector = compare(new StreamingDiff(), pointer, pointer);
+    assertTrue(collector.summaries[0].isLfsPointer());
+    assertEquals(12345, collector.summaries[0].getSize());
+    assertEquals("4d7a214614ab2935c943f9e0ff69d22eadbb8f32b1258daaa5e2ca24d17e2393", collector.summaries[1].getSha256());
+    assertTrue(collector.summaries[0].isSameContent(collector.summaries[1]));
+  }
+
+  /**
+   * Compares two texts.
+   *
+   * @param diff    The comparison.
+   * @param oldText The old version.
+   * @param newText The new version.
+   *
+   * @return The results.
+   *
+   * @throws Exception If it fails.
+   */
+  private static Collector compare(StreamingDiff diff, String oldText, String newText) throws Exception {
+    Collector collector = new Collector();
+    diff.compare(
+        new ByteArrayInputStream(bytes(oldText)),
+        new ByteArrayInputStream(bytes(newText)),
+        collector,
+        () -> false);
+    return collector;
+  }
+
+  /**
+   * @param text A text.
+   *
+   * @return The text, as UTF-8.
+   */
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,166 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the parallel update of the submodules.
+ */
+public class SubmodulesUpdaterTest {
+  /**
+   * Contains all the repositories.
+   */
+  private File root;
+
+  /**
+   * Creates the folder of the repositories.
+   *
+   * @throws Exception If it fails.
+   */
+  @Before
+  public void setUp() throws Exception {
+    root = Files.createTempDirectory("submodulesUpdater").toFile();
+  }
+
+  /**
+   * Deletes the repositories.
+   *
+   * @throws Exception If it fails.
+   */
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.delete(root, FileUtils.RECURSIVE | FileUtils.RETRY);
+  }
+
+  /**
+   * <p><b>Description:</b> the submodules are cloned level by level, the ones already
+   * checked out are skipped and a failing submodule does not stop the others.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testUpdate() throws Exception {
+    try (Git inner = createRepository("inner", "inner.txt");
+        Git first = createRepository("first", "first.txt");
+        Git second = createRepository("second", "second.txt");
+        Git broken = createRepository("broken", "broken.txt");
+        Git main = createRepository("main", "main.txt")) {
+      addSubmodule(first, "inner", inner);
+      addSubmodule(main, "first", first);
+      addSubmodule(main, "second", second);
+
+      SubmodulesUpdater updater = new SubmodulesUpdater(url -> null, 2);
+      try (Git clone = Git.cloneRepository()
+          .setURI(main.getRepository().getDirectory().toURI().toString())
+          .setDirectory(new File(root, "clone"))
+          .call()) {
+        File workTree = clone.getRepository().getWorkTree();
+        assertEquals(
+            Arrays.asList("first", "second", "first/inner"),
+            updater.update(clone.getRepository()));
+        assertEquals("first.txt", read(workTree, "first/first.txt"));
+        assertEquals("inner.txt", read(workTree, "first/inner/inner.txt"));
+        assertEquals("second.txt", read(workTree, "second/second.txt"));
+
+        // Nothing to do.
+        assertEquals(Collections.emptyList(), updater.update(clone.getRepository()));
+
+        // A new commit in a submodule, not fetched yet.
+        commitFile(second, "second.txt", "changed");
+        addSubmodule(main, "broken", broken);
+        try (Git secondInMain = Git.wrap(SubmoduleWalk.getSubmoduleRepository(main.getRepository(), "second"))) {
+          secondInMain.pull().call();
+        }
+        main.add().addFilepattern("second").call();
+        main.commit().setMessage("Update second").call();
+        clone.pull().call();
+        FileUtils.delete(broken.getRepository().getDirectory(), FileUtils.RECURSIVE);
+
+        try {
+          updater.update(clone.getRepository());
+          fail("The broken submodule must be reported");
+        } catch (SubmoduleUpdateException e) {
+          assertEquals(Collections.singleton("broken"), e.getFailures().keySet());
+        }
+        assertEquals("changed", read(workTree, "second/second.txt"));
+      }
+    }
+  }
+
+  /**
+   * Creates a repository with one commit.
+   *
+   * @param name The name of the repository.
+   * @param file A file to commit. Its content is its name.
+   *
+   * @return The repository.
+   *
+   * @throws Exception If it fails.
+   */
+  private Git createRepository(String name, String file) throws Exception {
+    Git git = Git.init().setDirectory(new File(root, name)).call();
+    commitFile(git, file, file);
+    return git;
+  }
+
+  /**
+   * Commits a file.
+   *
+   * @param git     The repository.
+   * @param file    The file.
+   * @param content The content of the file.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void commitFile(Git git, String file, String content) throws Exception {
+    Files.write(new File(git.getRepository().getWorkTree(), file).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    git.add().addFilepattern(file).call();
+    git.commit().setMessage("Commit " + file).call();
+  }
+
+  /**
+   * Adds a submodule and commits it.
+   *
+   * @param parent    The repository that receives the submodule.
+   * @param path      The path of the submodule.
+   * @param submodule The repository of the submodule.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void addSubmodule(Git parent, String path, Git submodule) throws Exception {
+    parent.submoduleAdd()
+        .setPath(path)
+        .setURI(submodule.getRepository().getDirectory().toURI().toString())
+        .call()
+        .close();
+    parent.commit().setMessage("Add " + path).call();
+  }
+
+  /**
+   * Reads a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   *
+   * @return The content of the file.
+   *
+   * @throws Exception If it fails.
+   */
+  private static String read(File workTree, String path) throws Exception {
+    return new String(Files.readAllBytes(new File(workTree, path).toPath()), StandardCharsets.UTF_8);
+  }
+}
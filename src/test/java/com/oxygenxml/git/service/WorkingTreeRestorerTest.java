@@ -0,0 +1,172 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.lib.EmptyProgressMonitor;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for discarding the changes of many files in chunks.
+ */
+public class WorkingTreeRestorerTest {
+  /**
+   * The number of committed files.
+   */
+  private static final int FILES_COUNT = 10;
+  /**
+   * The working tree.
+   */
+  private File workTree;
+  /**
+   * The repository.
+   */
+  private Git git;
+  /**
+   * The paths of the committed files.
+   */
+  private List<String> paths = new ArrayList<>();
+
+  /**
+   * Creates a repository with committed files, all of them modified and staged.
+   *
+   * @throws Exception If it fails.
+   */
+  @Before
+  public void setUp() throws Exception {
+    workTree = Files.createTempDirectory("workingTreeRestorer").toFile();
+    git = Git.init().setDirectory(workTree).call();
+    for (int i = 0; i < FILES_COUNT; i++) {
+      String path = "dir" + (i % 3) + "/f" + i + ".txt";
+      paths.add(path);
+      write(path, "committed " + i);
+    }
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage("First").call();
+
+    for (String path : paths) {
+      write(path, "changed");
+    }
+    git.add().addFilepattern(".").call();
+  }
+
+  /**
+   * Deletes the repository.
+   *
+   * @throws Exception If it fails.
+   */
+  @After
+  public void tearDown() throws Exception {
+    git.close();
+    FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+  }
+
+  /**
+   * <p><b>Description:</b> the files are unstaged and restored in chunks and the new files
+   * and folders are deleted.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testDiscard() throws Exception {
+    write("untracked/a.txt", "a");
+    write("untracked/deep/b.txt", "b");
+    write("new.txt", "new");
+
+    WorkingTreeRestorer restorer = new WorkingTreeRestorer(git.getRepository(), 3);
+    assertEquals(paths, restorer.unstage(paths, NullProgressMonitor.INSTANCE));
+    Status status = git.status().call();
+    assertTrue(status.getChanged().isEmpty());
+    assertEquals(FILES_COUNT, status.getModified().size());
+
+    // A folder and a file.
+    List<String> restored = restorer.restore(Arrays.asList("dir0", "dir1/f1.txt"), NullProgressMonitor.INSTANCE);
+    assertEquals(Arrays.asList("dir0/f0.txt", "dir0/f3.txt", "dir0/f6.txt", "dir0/f9.txt", "dir1/f1.txt"), restored);
+    assertEquals("committed 3", read("dir0/f3.txt"));
+    assertEquals(FILES_COUNT - 5, git.status().call().getModified().size());
+
+    assertEquals(
+        Arrays.asList("untracked", "new.txt", "missing.txt"),
+        restorer.delete(Arrays.asList("untracked", "new.txt", "missing.txt"), NullProgressMonitor.INSTANCE));
+    assertFalse(new File(workTree, "untracked").exists());
+    assertFalse(new File(workTree, "new.txt").exists());
+    assertTrue(git.status().call().getUntracked().isEmpty());
+  }
+
+  /**
+   * <p><b>Description:</b> a canceled restore stops after a chunk and leaves the index usable.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCancel() throws Exception {
+    WorkingTreeRestorer restorer = new WorkingTreeRestorer(git.getRepository(), 4);
+    restorer.unstage(paths, NullProgressMonitor.INSTANCE);
+
+    // Canceled after the first chunk.
+    List<String> restored = restorer.restore(paths, new EmptyProgressMonitor() {
+      private int completed;
+
+      @Override
+      public void update(int work) {
+        completed += work;
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return completed > 0;
+      }
+    });
+    assertEquals(4, restored.size());
+    for (String path : restored) {
+      assertTrue(read(path).startsWith("committed"));
+    }
+    Status status = git.status().call();
+    assertEquals(FILES_COUNT - 4, status.getModified().size());
+    assertTrue(Collections.disjoint(restored, status.getModified()));
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param path    The path of the file.
+   * @param content The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private void write(String path, String content) throws Exception {
+    File file = new File(workTree, path);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads a file.
+   *
+   * @param path The path of the file.
+   *
+   * @return The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private String read(String path) throws Exception {
+    return new String(Files.readAllBytes(new File(workTree, path).toPath()), StandardCharsets.UTF_8);
+  }
+}
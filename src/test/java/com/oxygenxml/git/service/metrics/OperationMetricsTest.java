@@ -0,0 +1,76 @@
+package com.oxygenxml.git.service.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the operation latency metrics.
+ */
+public class OperationMetricsTest {
+
+  @Before
+  @After
+  public void resetMetrics() {
+    OperationMetrics.getInstance().reset();
+  }
+
+  /**
+   * <p><b>Description:</b> the percentiles are computed from the power of two buckets.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    assertEquals(100, histogram.getCount());
+    // 1000 micros fall in the [512, 1024) bucket.
+    assertEquals(1.024, histogram.getPercentileMillis(50), 0.0001);
+    assertEquals(1.024, histogram.getPercentileMillis(99), 0.0001);
+    // The largest value is reported exactly.
+    assertEquals(1000, histogram.getPercentileMillis(100), 0.0001);
+    assertEquals(1000, histogram.getMaxMillis(), 0.0001);
+    assertEquals(10.99, histogram.getMeanMillis(), 0.0001);
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentileMillis(50), 0);
+  }
+
+  /**
+   * <p><b>Description:</b> spans record the execution and the failures. The recorded
+   * operations are exported as JSON.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testSpans() {
+    OperationMetrics metrics = OperationMetrics.getInstance();
+    try (OperationSpan span = metrics.startSpan(TracedOperation.FETCH)) {
+      span.addTransferredObjects(7);
+    }
+    try (OperationSpan span = metrics.startSpan(TracedOperation.FETCH)) {
+      span.markFailed();
+    }
+    metrics.recordQueueWait(TracedOperation.FETCH, TimeUnit.MILLISECONDS.toNanos(3));
+
+    OperationStats stats = metrics.getStats(TracedOperation.FETCH);
+    assertEquals(2, stats.getExecution().getCount());
+    assertEquals(1, stats.getFailures());
+    assertEquals(7, stats.getTransferredObjects());
+    assertEquals(1, stats.getQueueWait().getCount());
+    assertEquals(1, metrics.getRecordedStats().size());
+
+    String json = metrics.getMetricsAsJSON();
+    assertTrue(json, json.contains("\"operation\": \"FETCH\", \"failures\": 1, \"transferredObjects\": 7"));
+    assertTrue(json, json.contains("\"queueWait\": {\"count\": 1"));
+  }
+}
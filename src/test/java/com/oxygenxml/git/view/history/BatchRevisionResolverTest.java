@@ -0,0 +1,101 @@
+package com.oxygenxml.git.view.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+import com.oxygenxml.git.view.history.BatchRevisionResolver.ResolvedRevision;
+
+/**
+ * Tests for finding a file in many revisions at once.
+ */
+public class BatchRevisionResolverTest {
+
+  /**
+   * <p><b>Description:</b> the path of the file is followed across a rename, the blob is found in
+   * each revision and the revisions are reported in the requested order.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testResolve() throws Exception {
+    File workTree = Files.createTempDirectory("batchRevisionResolver").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      String text = "The first line of the file.\nThe second line.\nThe third line.\n";
+      write(workTree, "old.txt", text);
+      git.add().addFilepattern(".").call();
+      RevCommit first = git.commit().setMessage("First").call();
+
+      write(workTree, "old.txt", text + "Changed.\n");
+      git.add().addFilepattern(".").call();
+      RevCommit second = git.commit().setMessage("Second").call();
+
+      FileUtils.rename(new File(workTree, "old.txt"), new File(workTree, "new.txt"));
+      git.add().addFilepattern(".").call();
+      git.add().setUpdate(true).addFilepattern(".").call();
+      RevCommit third = git.commit().setMessage("Rename").call();
+
+      write(workTree, "new.txt", text + "Changed again.\n");
+      git.add().addFilepattern(".").call();
+      RevCommit fourth = git.commit().setMessage("Fourth").call();
+
+      List<String> commitIds = Arrays.asList(fourth.name(), first.name(), third.name(), second.name());
+      List<String> reported = Collections.synchronizedList(new ArrayList<>());
+      List<ResolvedRevision> resolved = new BatchRevisionResolver().resolve(
+          git.getRepository(), "new.txt", commitIds, revision -> reported.add(revision.getCommitId())).get();
+
+      assertEquals(commitIds, reported);
+      assertEquals(
+          Arrays.asList("new.txt", "old.txt", "new.txt", "old.txt"),
+          resolved.stream().map(ResolvedRevision::getPath).collect(Collectors.toList()));
+      for (ResolvedRevision revision : resolved) {
+        assertEquals(
+            git.getRepository().resolve(revision.getCommitId() + ":" + revision.getPath()),
+            revision.getBlobId());
+      }
+
+      // A file that is not in the revision.
+      ResolvedRevision missing = new BatchRevisionResolver().resolve(
+          git.getRepository(), "other.txt", Arrays.asList(fourth.name()), revision -> {}).get().get(0);
+      assertNull(missing.getBlobId());
+      assertFalse(missing.isRemoved());
+
+      // The revision that removed the file.
+      ResolvedRevision removed = new BatchRevisionResolver().resolve(
+          git.getRepository(), "old.txt", Arrays.asList(third.name()), revision -> {}).get().get(0);
+      assertNull(removed.getBlobId());
+      assertTrue(removed.isRemoved());
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   * @param content  The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void write(File workTree, String path, String content) throws Exception {
+    Files.write(new File(workTree, path).toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,106 @@
+package com.oxygenxml.git.view.history;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JTable;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitTestBase;
+import com.oxygenxml.git.view.history.CommitDisplayModel.SyncState;
+
+/**
+ * Tests for the rendering of the "Commit message" column from the history table.
+ */
+public class CommitMessageTableRendererTest extends GitTestBase {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/CommitMessageTableRendererTest/local";
+
+  /**
+   * <p><b>Description:</b> the display models are computed once, with the flattened message,
+   * the relation with the upstream branch and the tags and branches. The rendering
+   * reuses the same components for all the rows.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testDisplayModels() throws Exception {
+    Repository repository = createRepository(LOCAL_TEST_REPOSITORY);
+    Git git = Git.wrap(repository);
+    RevCommit behind = git.commit().setAllowEmpty(true).setMessage("Incoming\n\nchange").call();
+    RevCommit ahead = git.commit().setAllowEmpty(true).setMessage("Outgoing change").call();
+    RevCommit other = git.commit().setAllowEmpty(true).setMessage("  Other\n\n\nchange\n").call();
+
+    Map<String, List<String>> tagMap = new HashMap<>();
+    tagMap.put(ahead.abbreviate(7).name(), Arrays.asList("v1", "v2"));
+    Map<String, List<String>> localBranchMap = new HashMap<>();
+    localBranchMap.put(ahead.abbreviate(7).name(), Collections.singletonList("main"));
+    CommitMessageTableRenderer renderer = new CommitMessageTableRenderer(
+        repository,
+        new CommitsAheadAndBehind(Collections.singletonList(ahead), Collections.singletonList(behind)),
+        "main",
+        tagMap,
+        localBranchMap,
+        Collections.emptyMap());
+
+    List<CommitCharacteristics> commits = Arrays.asList(
+        GitAccess.UNCOMMITED_CHANGES,
+        toCommitCharacteristics(ahead),
+        toCommitCharacteristics(behind),
+        toCommitCharacteristics(other));
+    renderer.computeDisplayModels(commits);
+
+    CommitDisplayModel uncommitted = renderer.getDisplayModel(commits.get(0));
+    assertTrue(uncommitted.isUncommittedChanges());
+    assertEquals(0, uncommitted.getDecorationsCount());
+
+    CommitDisplayModel aheadModel = renderer.getDisplayModel(commits.get(1));
+    assertEquals(SyncState.AHEAD, aheadModel.getSyncState());
+    assertEquals("Outgoing change", aheadModel.getMessage());
+    assertEquals(3, aheadModel.getDecorationsCount());
+
+    CommitDisplayModel behindModel = renderer.getDisplayModel(commits.get(2));
+    assertEquals(SyncState.BEHIND, behindModel.getSyncState());
+    assertEquals("Incoming change", behindModel.getMessage());
+
+    CommitDisplayModel otherModel = renderer.getDisplayModel(commits.get(3));
+    assertEquals(SyncState.NONE, otherModel.getSyncState());
+    assertEquals("Other change", otherModel.getMessage());
+    assertEquals(0, otherModel.getDecorationsCount());
+    // Computed once.
+    assertSame(otherModel, renderer.getDisplayModel(commits.get(3)));
+
+    JTable table = new JTable();
+    renderer.getTableCellRendererComponent(table, commits.get(1), false, false, 1, 0);
+    // The arrow, three decorations and the message.
+    assertEquals(5, renderer.getComponentCount());
+    renderer.getTableCellRendererComponent(table, commits.get(3), false, false, 3, 0);
+    renderer.getTableCellRendererComponent(table, commits.get(1), false, false, 1, 0);
+    assertEquals(5, renderer.getComponentCount());
+  }
+
+  /**
+   * @param commit A commit.
+   *
+   * @return The commit characteristics.
+   */
+  private static CommitCharacteristics toCommitCharacteristics(RevCommit commit) {
+    return new CommitCharacteristics(
+        commit.getFullMessage(),
+        commit.getAuthorIdent().getWhen(),
+        commit.getAuthorIdent().getName(),
+        commit.abbreviate(7).name(),
+        commit.getName(),
+        commit.getCommitterIdent().getName(),
+        null);
+  }
+}
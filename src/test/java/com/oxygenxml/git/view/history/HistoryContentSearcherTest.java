@@ -0,0 +1,183 @@
+package com.oxygenxml.git.view.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+/**
+ * Tests for searching the commits that added or removed a text.
+ */
+public class HistoryContentSearcherTest {
+
+  /**
+   * <p><b>Description:</b> only the commits that changed the number of occurrences of the text
+   * in a changed file are found. The uncommitted changes are skipped.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testSearch() throws Exception {
+    File workTree = Files.createTempDirectory("historyContentSearcher").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      write(workTree, "topic.dita", "<topic id=\"intro\"><title>Intro</title></topic>");
+      git.add().addFilepattern(".").call();
+      RevCommit added = git.commit().setMessage("Add the topic").call();
+
+      write(workTree, "topic.dita", "<topic id=\"intro\"><title>Introduction</title></topic>");
+      git.add().addFilepattern(".").call();
+      RevCommit changedTitle = git.commit().setMessage("Change the title").call();
+
+      write(workTree, "other.dita", "<topic id=\"other\"/>");
+      git.add().addFilepattern(".").call();
+      RevCommit other = git.commit().setMessage("Another topic").call();
+
+      write(workTree, "topic.dita", "<topic id=\"overview\"><title>Introduction</title></topic>");
+      git.add().addFilepattern(".").call();
+      RevCommit changedId = git.commit().setMessage("Change the ID").call();
+
+      List<CommitCharacteristics> history = new ArrayList<>();
+      history.add(new CommitCharacteristics("Uncommitted changes", null, "*", "*", "*", null, null));
+      for (RevCommit commit : Arrays.asList(changedId, other, changedTitle, added)) {
+        history.add(new CommitCharacteristics(
+            commit.getFullMessage(), null, null, commit.abbreviate(7).name(), commit.name(), null, null));
+      }
+
+      HistoryContentSearcher searcher = new HistoryContentSearcher();
+      assertEquals(Arrays.asList(changedId.name(), added.name()), search(searcher, git, history, "id=\"intro\""));
+      int cached = searcher.getCachedOccurrencesCount();
+      assertTrue(cached > 0);
+      // The scanned blobs are remembered, so nothing is counted again.
+      assertEquals(Arrays.asList(changedId.name(), added.name()), search(searcher, git, history, "id=\"intro\""));
+      assertEquals(cached, searcher.getCachedOccurrencesCount());
+      assertEquals(Arrays.asList(changedTitle.name()), search(searcher, git, history, "Introduction"));
+      assertEquals(Collections.emptyList(), search(searcher, git, history, "missing"));
+
+      // Canceled.
+      HistoryContentSearcher.Search search = searcher.search(git.getRepository(), history, "topic", commit -> {});
+      search.cancel();
+      search.getCompletion().get(10, TimeUnit.SECONDS);
+      assertTrue(search.isCanceled());
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the merge commits are skipped. The commits of the merged branch
+   * that added the text are found instead.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testMergesAreSkipped() throws Exception {
+    File workTree = Files.createTempDirectory("historyContentSearcher").toFile();
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      write(workTree, "topic.dita", "<topic id=\"intro\"/>");
+      git.add().addFilepattern(".").call();
+      RevCommit first = git.commit().setMessage("Add the topic").call();
+
+      git.checkout().setCreateBranch(true).setName("side").call();
+      write(workTree, "side.dita", "<topic id=\"side\"/>");
+      git.add().addFilepattern(".").call();
+      RevCommit side = git.commit().setMessage("Add the side topic").call();
+
+      git.checkout().setName("master").call();
+      write(workTree, "main.dita", "<topic id=\"main\"/>");
+      git.add().addFilepattern(".").call();
+      RevCommit main = git.commit().setMessage("Add the main topic").call();
+      git.merge().include(side).setMessage("Merge side").call();
+      RevCommit merge = git.getRepository().parseCommit(git.getRepository().resolve("HEAD"));
+      assertEquals(2, merge.getParentCount());
+
+      List<CommitCharacteristics> history = new ArrayList<>();
+      for (RevCommit commit : Arrays.asList(merge, main, side, first)) {
+        history.add(new CommitCharacteristics(
+            commit.getFullMessage(), null, null, commit.abbreviate(7).name(), commit.name(), null, null));
+      }
+
+      HistoryContentSearcher searcher = new HistoryContentSearcher();
+      // Compared with its first parent, the merge would also add the side topic.
+      assertEquals(Arrays.asList(side.name()), search(searcher, git, history, "id=\"side\""));
+      assertEquals(Arrays.asList(main.name()), search(searcher, git, history, "id=\"main\""));
+    } finally {
+      FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the occurrences of a text are counted without overlapping.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testCountOccurrences() {
+    assertEquals(3, HistoryContentSearcher.countOccurrences(bytes("abcabcab abc"), bytes("abc")));
+    assertEquals(2, HistoryContentSearcher.countOccurrences(bytes("aaaaa"), bytes("aa")));
+    assertEquals(0, HistoryContentSearcher.countOccurrences(bytes("ab"), bytes("abc")));
+    assertEquals(1, HistoryContentSearcher.countOccurrences(bytes("x"), bytes("x")));
+  }
+
+  /**
+   * Searches the commits that added or removed a text.
+   *
+   * @param searcher The searcher.
+   * @param git      The repository.
+   * @param history  The commits.
+   * @param text     The text.
+   *
+   * @return The IDs of the found commits, in the order of the history.
+   *
+   * @throws Exception If it fails.
+   */
+  private static List<String> search(
+      HistoryContentSearcher searcher,
+      Git git,
+      List<CommitCharacteristics> history,
+      String text) throws Exception {
+    List<CommitCharacteristics> found = Collections.synchronizedList(new ArrayList<>());
+    searcher.search(git.getRepository(), history, text, found::add).getCompletion().get(10, TimeUnit.SECONDS);
+    List<String> ids = new ArrayList<>();
+    for (CommitCharacteristics commit : history) {
+      if (found.contains(commit)) {
+        ids.add(commit.getCommitId());
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * @param text A text.
+   *
+   * @return The text, as UTF-8.
+   */
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param workTree The working tree.
+   * @param path     The path of the file.
+   * @param content  The content.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void write(File workTree, String path, String content) throws Exception {
+    Files.write(new File(workTree, path).toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
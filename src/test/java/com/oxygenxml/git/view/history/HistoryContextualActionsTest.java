@@ -6,12 +6,15 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.PrintWriter;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.stream.Collectors;
 
 import javax.swing.Action;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
 
 import org.eclipse.jgit.api.Git;
 import org.junit.Test;
@@ -221,4 +224,63 @@ public class HistoryContextualActionsTest extends GitTestBase {
     assertEquals("modify", content);
   }
   
+  /**
+   * <p>
+   * <b>Description:</b> the contextual menu of a revision is presented with a disabled placeholder
+   * while the file is searched in the background. The placeholder is then replaced with the actions 
+   * of the file. The second time, the file is already known and its actions are added right away.
+   * </p>
+   * 
+   * <p>
+   * <b>Bug ID:</b> N/A
+   * </p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFileActionsResolvedInBackground() throws Exception {
+    URL script = getClass().getClassLoader().getResource("scripts/history_script_actions.txt");
+    File wcTree = new File("target/gen/HistoryContextualActionsTest_testFileActionsResolvedInBackground");
+    RepoGenerationScript.generateRepository(script, wcTree);
+    
+    GitAccess.getInstance().setRepositorySynchronously(wcTree.getAbsolutePath());
+    CommitCharacteristics commitCharacteristic = GitAccess.getInstance().getCommitsCharacteristics(null).get(0);
+    
+    HistoryViewContextualMenuPresenter presenter = new HistoryViewContextualMenuPresenter(null);
+    JPopupMenu jPopupMenu = new JPopupMenu();
+    presenter.populateContextualActionsHistoryContext(jPopupMenu, "file1.txt", true, commitCharacteristic);
+    JMenuItem placeholder = (JMenuItem) jPopupMenu.getComponent(0);
+    assertEquals("Loading", placeholder.getText());
+    assertFalse(placeholder.isEnabled());
+    
+    for (int i = 0; i < 50 && jPopupMenu.getComponentIndex(placeholder) != -1; i++) {
+      sleep(100);
+      flushAWT();
+    }
+    String expected = "[Compare_file_with_previous_version, "
+        + "Compare_file_with_working_tree_version, "
+        + "Open_this_version_of_filename, "
+        + "Open_the_working_copy_version_of, "
+        + "Reset_file_x_to_this_commit]";
+    assertEquals(expected, dumpFileActions(jPopupMenu));
+    
+    jPopupMenu = new JPopupMenu();
+    presenter.populateContextualActionsHistoryContext(jPopupMenu, "file1.txt", true, commitCharacteristic);
+    assertEquals(expected, dumpFileActions(jPopupMenu));
+  }
+  
+  /**
+   * @param jPopupMenu A contextual menu.
+   * 
+   * @return The names of the actions of the file, the first five items in the menu.
+   */
+  private static String dumpFileActions(JPopupMenu jPopupMenu) {
+    return Arrays.stream(jPopupMenu.getComponents())
+        .filter(JMenuItem.class::isInstance)
+        .map(item -> ((JMenuItem) item).getText())
+        .limit(5)
+        .collect(Collectors.toList())
+        .toString();
+  }
+  
 }
@@ -0,0 +1,77 @@
+package com.oxygenxml.git.view.history.graph;
+
+import java.awt.image.BufferedImage;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotCommit;
+import org.eclipse.jgit.revplot.PlotWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitTestBase;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
+
+/**
+ * Tests for the cache with the geometry of the commits graph.
+ */
+public class LaneGeometryCacheTest extends GitTestBase {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/LaneGeometryCacheTest/local";
+
+  /**
+   * <p><b>Description:</b> the geometry of a row is computed once and recomputed only
+   * after an invalidation or when the row height changes.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testGeometryIsCached() throws Exception {
+    Repository repository = createRepository(LOCAL_TEST_REPOSITORY);
+    Git git = Git.wrap(repository);
+    RevCommit base = git.commit().setAllowEmpty(true).setMessage("Base").call();
+    git.checkout().setCreateBranch(true).setName("feature").call();
+    RevCommit feature = git.commit().setAllowEmpty(true).setMessage("Feature").call();
+    git.checkout().setName(Constants.MASTER).call();
+    git.commit().setAllowEmpty(true).setMessage("Main").call();
+    git.merge().include(feature).setMessage("Merge").call();
+
+    VisualCommitsList commits = new VisualCommitsList(GraphColorUtil.createColorDispatcher(false));
+    try (PlotWalk plotWalk = new PlotWalk(repository)) {
+      plotWalk.markStart(plotWalk.parseCommit(repository.resolve(Constants.HEAD)));
+      commits.source(plotWalk);
+      commits.fillTo(Integer.MAX_VALUE);
+    }
+    assertEquals(4, commits.size());
+
+    LaneGeometryCache cache = new LaneGeometryCache();
+    PlotCommit<VisualLane> merge = commits.get(0);
+    RowGeometry geometry = cache.getGeometry(merge, 20);
+    assertTrue(geometry.hasDot());
+    // The lines to the two parents.
+    assertTrue(geometry.getSegmentsCount() >= 2);
+    assertSame(geometry, cache.getGeometry(merge, 20));
+
+    for (PlotCommit<VisualLane> commit : commits) {
+      cache.getGeometry(commit, 20);
+    }
+    assertEquals(4, cache.size());
+    assertEquals(base, commits.get(3));
+
+    // Painting does not change the geometry.
+    BufferedImage image = new BufferedImage(100, 20, BufferedImage.TYPE_INT_ARGB);
+    geometry.paint(image.createGraphics(), java.awt.Color.WHITE);
+    assertSame(geometry, cache.getGeometry(merge, 20));
+
+    // Another row height.
+    RowGeometry higher = cache.getGeometry(merge, 30);
+    assertNotSame(geometry, higher);
+    assertEquals(1, cache.size());
+
+    cache.invalidate();
+    assertEquals(0, cache.size());
+    assertNotSame(higher, cache.getGeometry(merge, 30));
+  }
+}
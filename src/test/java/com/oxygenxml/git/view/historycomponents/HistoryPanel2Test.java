@@ -240,6 +240,11 @@ public class HistoryPanel2Test extends HistoryPanelTestBase {
     Action action = getCompareWithEachOther(fileStatus , cc1, cc3);
 
     action.actionPerformed(null);
+    // The revisions are resolved in the background.
+    for (int i = 0; i < 50 && urls2compare.size() < 2; i++) {
+      sleep(100);
+      flushAWT();
+    }
 
     assertEquals("Unexpected number of URLs intercepted in the comparison support:" + urls2compare.toString(), 2, urls2compare.size());
 
@@ -255,6 +260,10 @@ public class HistoryPanel2Test extends HistoryPanelTestBase {
     CommitCharacteristics cc2 = model.getAllCommits().get(1);
     Action open = getOpenFileAction(fileStatus , cc1, cc2, cc3);
     open.actionPerformed(null);
+    for (int i = 0; i < 50 && toOpen.size() < 3; i++) {
+      sleep(100);
+      flushAWT();
+    }
 
     assertEquals(
         "[" + "git://" + cc1.getCommitId() + "/file1.txt" + ", " +
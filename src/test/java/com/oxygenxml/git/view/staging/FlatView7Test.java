@@ -301,10 +301,11 @@ public class FlatView7Test extends FlatViewTestBase {
     ToolbarPanel toolbarPanel = stagingPanel.getToolbarPanel();
     SplitMenuButton settingsMenuButton = toolbarPanel.getSettingsMenuButton();
     Component[] menuComponents = settingsMenuButton.getMenuComponents();
-    assertEquals(3, menuComponents.length);
+    assertEquals(4, menuComponents.length);
     assertTrue(menuComponents[0].toString().contains("Reset_all_credentials"));
     assertTrue(menuComponents[1] instanceof Separator);
     assertTrue(menuComponents[2].toString().contains("Preferences"));
+    assertTrue(menuComponents[3].toString().contains("Operation_metrics"));
   }
   
 }
@@ -0,0 +1,76 @@
+package com.oxygenxml.git.view.stash;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitStatus;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for the check performed before applying a stash.
+ */
+public class StashApplicabilityReportTest {
+
+  /**
+   * <p><b>Description:</b> every blocking reason is reported. The conflicts are reported
+   * first, then the stashed files with uncommitted changes, then the staged files.</p>
+   * <p><b>Bug ID:</b> N/A</p>
+   */
+  @Test
+  public void testBlockingReasons() {
+    List<FileStatus> stashed = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.ADD, "dir/b.txt"));
+
+    StashApplicabilityReport report = StashApplicabilityReport.analyze(stashed,
+        new GitStatus(Collections.singletonList(new FileStatus(GitChangeType.MODIFIED, "other.txt")),
+            Collections.emptyList()));
+    assertTrue(report.isApplicable());
+    assertNull(report.getBlockingStatus());
+
+    report = StashApplicabilityReport.analyze(stashed,
+        new GitStatus(
+            Arrays.asList(
+                new FileStatus(GitChangeType.MODIFIED, "dir/b.txt"),
+                new FileStatus(GitChangeType.CONFLICT, "c.txt")),
+            Collections.singletonList(new FileStatus(GitChangeType.ADD, "d.txt"))));
+    assertEquals(StashApplyStatus.CANNOT_START_APPLY_BECAUSE_CONFLICTS, report.getBlockingStatus());
+    assertEquals(Collections.singletonList("c.txt"), report.getConflictingFiles());
+    assertEquals(Collections.singletonList("dir/b.txt"), report.getUncommittedFiles());
+    assertEquals(Collections.singletonList("d.txt"), report.getStagedFiles());
+
+    report = StashApplicabilityReport.analyze(stashed,
+        new GitStatus(
+            Collections.singletonList(new FileStatus(GitChangeType.MODIFIED, "a.txt")),
+            Collections.singletonList(new FileStatus(GitChangeType.ADD, "d.txt"))));
+    assertEquals(StashApplyStatus.CANNOT_START_APPLY_BECAUSE_UNCOMMITTED_FILES, report.getBlockingStatus());
+
+    report = StashApplicabilityReport.analyze(stashed,
+        new GitStatus(
+            Collections.emptyList(),
+            Collections.singletonList(new FileStatus(GitChangeType.ADD, "d.txt"))));
+    assertEquals(StashApplyStatus.CANNOT_START_BECAUSE_STAGED_FILES, report.getBlockingStatus());
+    try {
+      report.throwIfNotApplicable();
+      fail("Should have thrown");
+    } catch (StashApplyFailureWithStatusException e) {
+      assertEquals(StashApplyStatus.CANNOT_START_BECAUSE_STAGED_FILES, e.getStatus());
+    }
+
+    // An empty stash can always be applied.
+    report = StashApplicabilityReport.analyze(Collections.emptyList(),
+        new GitStatus(
+            Collections.singletonList(new FileStatus(GitChangeType.CONFLICT, "c.txt")),
+            Collections.emptyList()));
+    assertTrue(report.isApplicable());
+  }
+}